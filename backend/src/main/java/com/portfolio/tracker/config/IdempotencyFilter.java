@@ -0,0 +1,299 @@
+package com.portfolio.tracker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.tracker.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key support for the mutating /portfolios endpoints. The first
+ * request with a key executes and its response is recorded; retries with the
+ * same key and request replay that response without executing again, and
+ * duplicates arriving while it runs wait for its outcome. Keys are scoped to
+ * the authenticated user and stored as a SHA-256 of user and key, so their
+ * length does not depend on the username.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final long waitTimeoutMs;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService,
+            ObjectMapper objectMapper,
+            @Value("${portfolio.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!StringUtils.hasText(key) || authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST,
+                    "Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        // Multipart uploads are fingerprinted from their parts, which the container already buffers
+        HttpServletRequest executed = isMultipart(request) ? request : new CachedBodyRequest(request);
+        String scopeKey = scopeKey(authentication.getName(), key);
+        String fingerprint = fingerprint(executed);
+
+        while (true) {
+            IdempotencyService.Claim claim;
+            try {
+                claim = idempotencyService.claim(scopeKey, fingerprint);
+            } catch (IllegalArgumentException e) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+                return;
+            }
+
+            if (claim.stored() != null) {
+                replay(response, claim.stored());
+                return;
+            }
+            if (claim.owner()) {
+                execute(executed, response, filterChain, scopeKey, fingerprint);
+                return;
+            }
+
+            IdempotencyService.StoredResponse outcome;
+            try {
+                outcome = claim.pending().get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                writeError(response, HttpServletResponse.SC_CONFLICT,
+                        "A request with this Idempotency-Key is still being processed");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                throw new ServletException(e.getCause());
+            }
+            if (outcome != null) {
+                replay(response, outcome);
+                return;
+            }
+            // The first execution failed without a response; take over the key
+        }
+    }
+
+    /**
+     * Only mutating requests under /portfolios carry idempotency semantics
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        boolean mutating = "POST".equals(method) || "PUT".equals(method)
+                || "DELETE".equals(method) || "PATCH".equals(method);
+        return !mutating || !request.getServletPath().startsWith("/portfolios");
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+            String scopeKey, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, captured);
+            int status = captured.getStatus();
+            idempotencyService.complete(scopeKey, fingerprint, status, captured.getContentType(),
+                    captured.getContentAsByteArray(), isReplayable(status));
+            completed = true;
+        } finally {
+            if (!completed) {
+                idempotencyService.abandon(scopeKey);
+            }
+            captured.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Server errors and conflicts are transient, so a retry should execute
+     * again rather than see the same failure for the rest of the TTL
+     */
+    private boolean isReplayable(int status) {
+        return status < 500 && status != HttpServletResponse.SC_CONFLICT
+                && status != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyService.StoredResponse stored) throws IOException {
+        log.debug("Replaying idempotent response with status {}", stored.statusCode());
+        response.setStatus(stored.statusCode());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        byte[] body = stored.body();
+        if (body != null && body.length > 0) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", "Idempotency Key Error");
+        body.put("message", message);
+        body.put("timestamp", System.currentTimeMillis());
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    private static String scopeKey(String username, String key) {
+        MessageDigest digest = sha256();
+        digest.update(username.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * SHA-256 over method, path, query and body (or every multipart part's
+     * name, file name, size and content), so a key reused for a different
+     * request is detected instead of replaying the wrong response
+     */
+    private String fingerprint(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest = sha256();
+        digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ' ');
+        digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+        if (request.getQueryString() != null) {
+            digest.update((byte) '?');
+            digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        if (request instanceof CachedBodyRequest cached) {
+            digest.update((byte) '\n');
+            digest.update(cached.body);
+        } else {
+            byte[] buffer = new byte[8192];
+            for (Part part : request.getParts()) {
+                digest.update((byte) '\n');
+                digest.update((part.getName() + "\0" + part.getSubmittedFileName() + "\0" + part.getSize())
+                        .getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+                try (InputStream in = part.getInputStream()) {
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request whose body is read up front so it can be fingerprinted and still
+     * be read by the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.portfolio.tracker.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary and replica connection pools, active only when a replica URL is
+ * configured; otherwise the single auto-configured DataSource is used. The
+ * primary keeps the spring.datasource settings and runs the Flyway
+ * migrations, the replica pool is configured under portfolio.datasource.replica.
+ */
+@Configuration
+@ConditionalOnExpression("!'${portfolio.datasource.replica.url:}'.isEmpty()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("portfolio.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${portfolio.datasource.replica.url}") String url,
+            @Value("${portfolio.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${portfolio.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${portfolio.datasource.replica.max-lag-ms:2000}") long maxLagMs,
+            @Value("${portfolio.datasource.replica.sticky-window-ms:5000}") long stickyWindowMs) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, maxLagMs, stickyWindowMs);
+    }
+
+    /**
+     * DataSource used by JPA; connections are only fetched on the first
+     * statement, after the transaction's read-only flag has been set
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
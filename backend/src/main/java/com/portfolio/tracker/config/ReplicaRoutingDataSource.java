@@ -0,0 +1,143 @@
+package com.portfolio.tracker.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to
+ * the primary. Reads fall back to the primary while the replica is
+ * unreachable or lagging more than the allowed replay delay, and for a short
+ * window after the current user commits a write, so users always see their
+ * own changes. Must sit behind a LazyConnectionDataSourceProxy so the route is
+ * chosen once the transaction's read-only flag is known.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    // Replay delay in seconds; zero on a primary or a standby that has replayed everything it received
+    private static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource replica;
+    private final long maxLagMs;
+    private final long stickyWindowMs;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile boolean replicaAvailable = false;
+    private volatile long replicaLagMs = -1;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, long maxLagMs, long stickyWindowMs) {
+        this.replica = replica;
+        this.maxLagMs = maxLagMs;
+        this.stickyWindowMs = stickyWindowMs;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrite();
+            return Route.PRIMARY;
+        }
+        if (!replicaAvailable) {
+            return Route.PRIMARY;
+        }
+        String user = currentUser();
+        if (user != null) {
+            Long lastWrite = lastWrites.get(user);
+            if (lastWrite != null && System.currentTimeMillis() - lastWrite < stickyWindowMs) {
+                return Route.PRIMARY;
+            }
+        }
+        return Route.REPLICA;
+    }
+
+    /**
+     * Measure replica lag and decide whether reads may use it; also forgets
+     * users whose read-your-writes window has passed
+     */
+    @Scheduled(fixedDelayString = "${portfolio.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplica() {
+        boolean available;
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            replicaLagMs = Math.round(rs.getDouble(1) * 1000);
+            available = replicaLagMs <= maxLagMs;
+        } catch (Exception e) {
+            log.debug("Replica lag check failed: {}", e.getMessage());
+            replicaLagMs = -1;
+            available = false;
+        }
+
+        if (available != replicaAvailable) {
+            if (available) {
+                log.info("Read replica available (lag {} ms); routing read-only transactions to it", replicaLagMs);
+            } else {
+                log.warn("Read replica unavailable or lagging (lag {} ms); routing reads to the primary", replicaLagMs);
+            }
+            replicaAvailable = available;
+        }
+
+        long cutoff = System.currentTimeMillis() - stickyWindowMs;
+        lastWrites.values().removeIf(lastWrite -> lastWrite < cutoff);
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    /**
+     * Last measured replay lag in milliseconds, or -1 when the replica could not be reached
+     */
+    public long getReplicaLagMs() {
+        return replicaLagMs;
+    }
+
+    /**
+     * Pin the user's reads to the primary once their write transaction commits
+     */
+    private void trackWrite() {
+        String user = currentUser();
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWrites.put(user, System.currentTimeMillis());
+            }
+        });
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
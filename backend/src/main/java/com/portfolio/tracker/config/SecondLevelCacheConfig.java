@@ -0,0 +1,62 @@
+package com.portfolio.tracker.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.portfolio.tracker.entity.Stock;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Caffeine-backed regions for the Hibernate second-level and query caches.
+ * Regions are created here with bounded sizes and TTLs so Hibernate never
+ * falls back to unbounded defaults.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Hibernate's region for table modification times; it must outlive every cached query result
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    @Bean
+    public CacheManager hibernateCacheManager(
+            @Value("${portfolio.cache.stocks.max-size:10000}") long maxSize,
+            @Value("${portfolio.cache.stocks.ttl-minutes:720}") long ttlMinutes) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        createRegion(cacheManager, Stock.CACHE_REGION, maxSize, ttl);
+        createRegion(cacheManager, Stock.NATURAL_ID_CACHE_REGION, maxSize, ttl);
+        createRegion(cacheManager, Stock.QUERY_CACHE_REGION, maxSize, ttl);
+        createRegion(cacheManager, QUERY_RESULTS_REGION, maxSize, ttl);
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, maxSize, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private void createRegion(CacheManager cacheManager, String region, long maxSize, Duration ttl) {
+        // The provider's manager is JVM-wide; another application context may have created the region already
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
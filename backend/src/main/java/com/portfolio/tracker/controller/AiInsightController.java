@@ -1,8 +1,12 @@
 package com.portfolio.tracker.controller;
 
 import com.portfolio.tracker.dto.DiversificationInsightResponse;
+import com.portfolio.tracker.dto.EfficientFrontierResponse;
 import com.portfolio.tracker.service.AiInsightService;
+import com.portfolio.tracker.service.PortfolioOptimizerService;
+import com.portfolio.tracker.service.UserDetailsServiceImpl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -10,9 +14,11 @@ import org.springframework.web.bind.annotation.*;
 public class AiInsightController {
 
     private final AiInsightService aiInsightService;
+    private final PortfolioOptimizerService optimizerService;
 
-    public AiInsightController(AiInsightService aiInsightService) {
+    public AiInsightController(AiInsightService aiInsightService, PortfolioOptimizerService optimizerService) {
         this.aiInsightService = aiInsightService;
+        this.optimizerService = optimizerService;
     }
 
     @GetMapping("/portfolio/{portfolioId}/diversification")
@@ -21,4 +27,18 @@ public class AiInsightController {
         DiversificationInsightResponse insights = aiInsightService.generateDiversificationInsights(portfolioId);
         return ResponseEntity.ok(insights);
     }
+
+    @GetMapping("/portfolio/{portfolioId}/efficient-frontier")
+    public ResponseEntity<EfficientFrontierResponse> getEfficientFrontier(@PathVariable Long portfolioId,
+            Authentication authentication) {
+        EfficientFrontierResponse frontier = optimizerService.getEfficientFrontier(portfolioId,
+                currentUserId(authentication));
+        return ResponseEntity.ok(frontier);
+    }
+
+    private static Long currentUserId(Authentication authentication) {
+        UserDetailsServiceImpl.UserPrincipal userPrincipal
+                = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        return userPrincipal.getId();
+    }
 }
@@ -5,7 +5,12 @@ import com.portfolio.tracker.dto.JwtResponse;
 import com.portfolio.tracker.dto.LoginRequest;
 import com.portfolio.tracker.dto.RegisterRequest;
 import com.portfolio.tracker.entity.User;
+import com.portfolio.tracker.event.AuditAction;
+import com.portfolio.tracker.event.AuditEvent;
 import com.portfolio.tracker.repository.UserRepository;
+import com.portfolio.tracker.service.AuditTrailService;
+import com.portfolio.tracker.service.FxRateService;
+import com.portfolio.tracker.service.PortfolioManagementService;
 import com.portfolio.tracker.service.TokenBlacklistService;
 import com.portfolio.tracker.service.UserDetailsServiceImpl;
 import jakarta.servlet.http.HttpServletRequest;
@@ -38,17 +43,26 @@ public class AuthController {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
     private final TokenBlacklistService tokenBlacklistService;
+    private final AuditTrailService auditTrailService;
+    private final FxRateService fxRateService;
+    private final PortfolioManagementService portfolioService;
 
     public AuthController(AuthenticationManager authenticationManager,
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
             JwtUtils jwtUtils,
-            TokenBlacklistService tokenBlacklistService) {
+            TokenBlacklistService tokenBlacklistService,
+            AuditTrailService auditTrailService,
+            FxRateService fxRateService,
+            PortfolioManagementService portfolioService) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtils = jwtUtils;
         this.tokenBlacklistService = tokenBlacklistService;
+        this.auditTrailService = auditTrailService;
+        this.fxRateService = fxRateService;
+        this.portfolioService = portfolioService;
     }
 
     @PostMapping("/login")
@@ -73,6 +87,8 @@ public class AuthController {
                     .collect(Collectors.toList());
 
             logger.info("User {} logged in successfully", loginRequest.getUsername());
+            auditTrailService.record(AuditEvent.auth(AuditAction.LOGIN, userPrincipal.getId(),
+                    userPrincipal.getUsername(), null));
 
             return ResponseEntity.ok(new JwtResponse(
                     jwt,
@@ -84,6 +100,8 @@ public class AuthController {
 
         } catch (AuthenticationException e) {
             logger.warn("Authentication failed for user {}: {}", loginRequest.getUsername(), e.getMessage());
+            auditTrailService.record(AuditEvent.auth(AuditAction.LOGIN_FAILED, null,
+                    loginRequest.getUsername(), e.getClass().getSimpleName()));
 
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Authentication failed");
@@ -123,6 +141,9 @@ public class AuthController {
         user.setPassword(passwordEncoder.encode(signUpRequest.getPassword()));
         user.setFirstName(signUpRequest.getFirstName());
         user.setLastName(signUpRequest.getLastName());
+        if (signUpRequest.getBaseCurrency() != null) {
+            user.setBaseCurrency(fxRateService.normalizeCurrency(signUpRequest.getBaseCurrency()));
+        }
 
         User savedUser = userRepository.save(user);
 
@@ -200,6 +221,12 @@ public class AuthController {
                 logger.info("Token blacklisted successfully");
             }
 
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null
+                    && authentication.getPrincipal() instanceof UserDetailsServiceImpl.UserPrincipal userPrincipal) {
+                auditTrailService.record(AuditEvent.auth(AuditAction.LOGOUT, userPrincipal.getId(),
+                        userPrincipal.getUsername(), null));
+            }
             SecurityContextHolder.clearContext();
 
             Map<String, Object> response = new HashMap<>();
@@ -247,6 +274,8 @@ public class AuthController {
         response.put("id", userPrincipal.getId());
         response.put("username", userPrincipal.getUsername());
         response.put("email", userPrincipal.getEmail());
+        userRepository.findById(userPrincipal.getId())
+                .ifPresent(user -> response.put("baseCurrency", user.getBaseCurrency()));
         response.put("roles", userPrincipal.getAuthorities().stream()
                 .map(authority -> authority.getAuthority())
                 .collect(Collectors.toList()));
@@ -254,4 +283,27 @@ public class AuthController {
 
         return ResponseEntity.ok(response);
     }
+
+    @PutMapping("/me/base-currency")
+    public ResponseEntity<?> updateBaseCurrency(@RequestBody Map<String, String> request,
+            Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Not authenticated");
+            errorResponse.put("message", "User is not authenticated");
+            errorResponse.put("timestamp", System.currentTimeMillis());
+
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        }
+
+        UserDetailsServiceImpl.UserPrincipal userPrincipal
+                = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        String currency = portfolioService.updateBaseCurrency(userPrincipal.getId(), request.get("baseCurrency"));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("baseCurrency", currency);
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
 }
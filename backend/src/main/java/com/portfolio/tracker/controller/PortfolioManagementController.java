@@ -1,13 +1,31 @@
 package com.portfolio.tracker.controller;
 
 import com.portfolio.tracker.dto.*;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.service.BenchmarkService;
+import com.portfolio.tracker.service.PerformanceService;
+import com.portfolio.tracker.service.PortfolioImportService;
 import com.portfolio.tracker.service.PortfolioManagementService;
+import com.portfolio.tracker.service.RiskService;
+import com.portfolio.tracker.service.SimulationService;
+import com.portfolio.tracker.service.TaxLotService;
+import com.portfolio.tracker.service.TransactionExportService;
 import com.portfolio.tracker.service.TransactionService;
+import com.portfolio.tracker.service.UserDetailsServiceImpl;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,11 +34,32 @@ public class PortfolioManagementController {
 
     private final PortfolioManagementService portfolioService;
     private final TransactionService transactionService;
+    private final PerformanceService performanceService;
+    private final TransactionExportService transactionExportService;
+    private final PortfolioImportService portfolioImportService;
+    private final TaxLotService taxLotService;
+    private final SimulationService simulationService;
+    private final RiskService riskService;
+    private final BenchmarkService benchmarkService;
 
     public PortfolioManagementController(PortfolioManagementService portfolioService,
-            TransactionService transactionService) {
+            TransactionService transactionService,
+            PerformanceService performanceService,
+            TransactionExportService transactionExportService,
+            PortfolioImportService portfolioImportService,
+            TaxLotService taxLotService,
+            SimulationService simulationService,
+            RiskService riskService,
+            BenchmarkService benchmarkService) {
         this.portfolioService = portfolioService;
         this.transactionService = transactionService;
+        this.performanceService = performanceService;
+        this.transactionExportService = transactionExportService;
+        this.portfolioImportService = portfolioImportService;
+        this.taxLotService = taxLotService;
+        this.simulationService = simulationService;
+        this.riskService = riskService;
+        this.benchmarkService = benchmarkService;
     }
 
     @PostMapping
@@ -35,6 +74,12 @@ public class PortfolioManagementController {
         return ResponseEntity.ok(portfolios);
     }
 
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<List<PortfolioSummaryResponse>> getUserPortfolioSummaries(@PathVariable Long userId) {
+        List<PortfolioSummaryResponse> summaries = portfolioService.getUserPortfolioSummaries(userId);
+        return ResponseEntity.ok(summaries);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PortfolioResponse> getPortfolioDetails(@PathVariable Long id, HttpServletRequest request) {
         Long userId = (Long) request.getAttribute("userId");
@@ -95,25 +140,156 @@ public class PortfolioManagementController {
             @PathVariable String tickerSymbol,
             @Valid @RequestBody SellAssetRequest request) {
         TransactionResponse transaction = portfolioService.sellAsset(
-                portfolioId, userId, tickerSymbol, request.getQuantity(), request.getCurrentMarketPrice());
+                portfolioId, userId, tickerSymbol, request.getQuantity(), request.getCurrentMarketPrice(),
+                request.getLotMethod(), request.getLotIds());
         return ResponseEntity.ok(transaction);
     }
 
+    @PostMapping("/{portfolioId}/user/{userId}/assets:batch")
+    public ResponseEntity<AssetBatchResponse> applyAssetBatch(
+            @PathVariable Long portfolioId,
+            @PathVariable Long userId,
+            @Valid @RequestBody AssetBatchRequest request) {
+        AssetBatchResponse response = portfolioService.applyAssetBatch(portfolioId, userId, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{portfolioId}/user/{userId}/import")
+    public ResponseEntity<ImportResultResponse> importTransactions(
+            @PathVariable Long portfolioId,
+            @PathVariable Long userId,
+            @RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("CSV file is required");
+        }
+        try (InputStream csv = file.getInputStream()) {
+            ImportResultResponse result = portfolioImportService.importTransactions(portfolioId, userId, csv);
+            return ResponseEntity.ok(result);
+        }
+    }
+
     @GetMapping("/user/{userId}/transactions")
-    public ResponseEntity<List<TransactionResponse>> getUserTransactions(@PathVariable Long userId) {
-        List<TransactionResponse> transactions = transactionService.getUserTransactions(userId);
+    public ResponseEntity<TransactionPageResponse> getUserTransactions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        TransactionPageResponse transactions = transactionService.getUserTransactions(userId, cursor, limit);
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/user/{userId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportUserTransactions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String format,
+            Authentication authentication) {
+        Long ownerId = ownUserId(userId, authentication);
+        TransactionExportService.Format exportFormat = TransactionExportService.Format.fromParameter(format);
+        StreamingResponseBody body = outputStream ->
+                transactionExportService.exportUserTransactions(ownerId, exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"transactions-" + ownerId + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{portfolioId}/transactions")
-    public ResponseEntity<List<TransactionResponse>> getPortfolioTransactions(@PathVariable Long portfolioId) {
-        List<TransactionResponse> transactions = transactionService.getPortfolioTransactions(portfolioId);
+    public ResponseEntity<TransactionPageResponse> getPortfolioTransactions(
+            @PathVariable Long portfolioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        TransactionPageResponse transactions = transactionService.getPortfolioTransactions(portfolioId, cursor, limit);
         return ResponseEntity.ok(transactions);
     }
 
     @GetMapping("/user/{userId}/transactions/sells")
-    public ResponseEntity<List<TransactionResponse>> getUserSellTransactions(@PathVariable Long userId) {
-        List<TransactionResponse> sellTransactions = transactionService.getSellTransactionsByUser(userId);
+    public ResponseEntity<TransactionPageResponse> getUserSellTransactions(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        TransactionPageResponse sellTransactions = transactionService.getSellTransactionsByUser(userId, cursor, limit);
         return ResponseEntity.ok(sellTransactions);
     }
+
+    @GetMapping("/user/{userId}/transactions/sells/summary")
+    public ResponseEntity<List<RealizedPnlSummaryResponse>> getRealizedPnlSummary(@PathVariable Long userId,
+            Authentication authentication) {
+        List<RealizedPnlSummaryResponse> summary
+                = transactionService.getRealizedPnlByPortfolio(ownUserId(userId, authentication));
+        return ResponseEntity.ok(summary);
+    }
+
+    @GetMapping("/{portfolioId}/lots")
+    public ResponseEntity<List<TaxLotResponse>> getOpenLots(@PathVariable Long portfolioId,
+            Authentication authentication) {
+        List<TaxLotResponse> lots = taxLotService.getOpenLots(portfolioId, currentUserId(authentication));
+        return ResponseEntity.ok(lots);
+    }
+
+    @GetMapping("/user/{userId}/realized-gains")
+    public ResponseEntity<List<RealizedGainsResponse>> getRealizedGains(@PathVariable Long userId,
+            Authentication authentication) {
+        List<RealizedGainsResponse> gains = taxLotService.getRealizedGainsByYear(ownUserId(userId, authentication));
+        return ResponseEntity.ok(gains);
+    }
+
+    @GetMapping("/{portfolioId}/performance")
+    public ResponseEntity<PerformanceResponse> getPortfolioPerformance(
+            @PathVariable Long portfolioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        PerformanceResponse performance = performanceService.getPerformance(portfolioId, currentUserId(authentication),
+                from, to);
+        return ResponseEntity.ok(performance);
+    }
+
+    @GetMapping("/{portfolioId}/benchmark")
+    public ResponseEntity<BenchmarkComparisonResponse> compareWithBenchmark(
+            @PathVariable Long portfolioId,
+            @RequestParam(required = false) String symbol,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        BenchmarkComparisonResponse comparison = benchmarkService.compare(portfolioId, currentUserId(authentication),
+                symbol, from, to);
+        return ResponseEntity.ok(comparison);
+    }
+
+    @GetMapping("/{portfolioId}/risk/var")
+    public ResponseEntity<ValueAtRiskResponse> getValueAtRisk(
+            @PathVariable Long portfolioId,
+            @RequestParam(required = false) Integer paths,
+            Authentication authentication) {
+        ValueAtRiskResponse valueAtRisk = riskService.getValueAtRisk(portfolioId, currentUserId(authentication),
+                paths);
+        return ResponseEntity.ok(valueAtRisk);
+    }
+
+    @PostMapping("/{portfolioId}/simulate")
+    public ResponseEntity<SimulationResponse> simulate(
+            @PathVariable Long portfolioId,
+            @Valid @RequestBody SimulationRequest request,
+            Authentication authentication) {
+        SimulationResponse simulation = simulationService.simulate(portfolioId, currentUserId(authentication), request);
+        return ResponseEntity.ok(simulation);
+    }
+
+    /**
+     * The caller's id, after checking that the path names the caller; other
+     * users' data is reported as not found
+     */
+    private static Long ownUserId(Long userId, Authentication authentication) {
+        Long currentUserId = currentUserId(authentication);
+        if (!currentUserId.equals(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        return currentUserId;
+    }
+
+    private static Long currentUserId(Authentication authentication) {
+        UserDetailsServiceImpl.UserPrincipal userPrincipal
+                = (UserDetailsServiceImpl.UserPrincipal) authentication.getPrincipal();
+        return userPrincipal.getId();
+    }
 }
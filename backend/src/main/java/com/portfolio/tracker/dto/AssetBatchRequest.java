@@ -0,0 +1,153 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.entity.LotSelectionMethod;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Ordered list of position edits applied to one portfolio in a single
+ * transaction; later operations see the effect of earlier ones
+ */
+public class AssetBatchRequest {
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 100, message = "A batch can contain at most 100 operations")
+    private List<@Valid Operation> operations;
+
+    public AssetBatchRequest() {
+    }
+
+    public AssetBatchRequest(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    public enum OperationType {
+        ADD, UPDATE, SELL, REMOVE
+    }
+
+    public static class Operation {
+
+        @NotNull(message = "Operation type is required")
+        private OperationType type;
+
+        @NotBlank(message = "Ticker symbol is required")
+        private String tickerSymbol;
+
+        @Positive(message = "Quantity must be positive")
+        @DecimalMax(value = "1000000000", message = "Quantity must not exceed 1,000,000,000")
+        @Digits(integer = 10, fraction = 8, message = "Quantity allows at most 8 decimal places")
+        private BigDecimal quantity;
+
+        @Positive(message = "Average price must be positive")
+        @DecimalMax(value = "1000000000", message = "Average price must not exceed 1,000,000,000")
+        @Digits(integer = 10, fraction = 2, message = "Average price allows at most 2 decimal places")
+        private BigDecimal averagePrice;
+
+        // Listing currency for ADD and UPDATE; inferred from the symbol when an ADD omits it
+        @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a three-letter code")
+        private String currency;
+
+        // Sale price for SELL; the current market price is used when omitted
+        @Positive(message = "Price must be positive")
+        @DecimalMax(value = "1000000000", message = "Price must not exceed 1,000,000,000")
+        @Digits(integer = 10, fraction = 2, message = "Price allows at most 2 decimal places")
+        private BigDecimal price;
+
+        // Lots a SELL consumes; FIFO unless lot ids are given
+        private LotSelectionMethod lotMethod;
+
+        private List<Long> lotIds;
+
+        public Operation() {
+        }
+
+        public Operation(OperationType type, String tickerSymbol, BigDecimal quantity, BigDecimal averagePrice, BigDecimal price) {
+            this.type = type;
+            this.tickerSymbol = tickerSymbol;
+            this.quantity = quantity;
+            this.averagePrice = averagePrice;
+            this.price = price;
+        }
+
+        public OperationType getType() {
+            return type;
+        }
+
+        public void setType(OperationType type) {
+            this.type = type;
+        }
+
+        public String getTickerSymbol() {
+            return tickerSymbol;
+        }
+
+        public void setTickerSymbol(String tickerSymbol) {
+            this.tickerSymbol = tickerSymbol;
+        }
+
+        public BigDecimal getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(BigDecimal quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getAveragePrice() {
+            return averagePrice;
+        }
+
+        public void setAveragePrice(BigDecimal averagePrice) {
+            this.averagePrice = averagePrice;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+
+        public LotSelectionMethod getLotMethod() {
+            return lotMethod;
+        }
+
+        public void setLotMethod(LotSelectionMethod lotMethod) {
+            this.lotMethod = lotMethod;
+        }
+
+        public List<Long> getLotIds() {
+            return lotIds;
+        }
+
+        public void setLotIds(List<Long> lotIds) {
+            this.lotIds = lotIds;
+        }
+    }
+}
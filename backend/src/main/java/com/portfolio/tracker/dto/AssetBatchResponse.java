@@ -0,0 +1,48 @@
+package com.portfolio.tracker.dto;
+
+import java.util.List;
+
+/**
+ * Result of a batch edit: the final state of every position it touched that
+ * is still held, the ledger entries it recorded and the symbols it closed
+ */
+public class AssetBatchResponse {
+
+    private List<AssetResponse> assets;
+    private List<TransactionResponse> transactions;
+    private List<String> removedSymbols;
+
+    public AssetBatchResponse() {
+    }
+
+    public AssetBatchResponse(List<AssetResponse> assets, List<TransactionResponse> transactions, List<String> removedSymbols) {
+        this.assets = assets;
+        this.transactions = transactions;
+        this.removedSymbols = removedSymbols;
+    }
+
+    // Getters and Setters
+    public List<AssetResponse> getAssets() {
+        return assets;
+    }
+
+    public void setAssets(List<AssetResponse> assets) {
+        this.assets = assets;
+    }
+
+    public List<TransactionResponse> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<TransactionResponse> transactions) {
+        this.transactions = transactions;
+    }
+
+    public List<String> getRemovedSymbols() {
+        return removedSymbols;
+    }
+
+    public void setRemovedSymbols(List<String> removedSymbols) {
+        this.removedSymbols = removedSymbols;
+    }
+}
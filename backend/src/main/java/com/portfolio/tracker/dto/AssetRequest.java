@@ -1,7 +1,10 @@
 package com.portfolio.tracker.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 
@@ -12,12 +15,20 @@ public class AssetRequest {
 
     @NotNull(message = "Quantity is required")
     @Positive(message = "Quantity must be positive")
+    @DecimalMax(value = "1000000000", message = "Quantity must not exceed 1,000,000,000")
+    @Digits(integer = 10, fraction = 8, message = "Quantity allows at most 8 decimal places")
     private BigDecimal quantity;
 
     @NotNull(message = "Average price is required")
     @Positive(message = "Average price must be positive")
+    @DecimalMax(value = "1000000000", message = "Average price must not exceed 1,000,000,000")
+    @Digits(integer = 10, fraction = 2, message = "Average price allows at most 2 decimal places")
     private BigDecimal averagePrice;
 
+    // ISO code the prices are quoted in (GBX for pence); inferred from the symbol when omitted
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Currency must be a three-letter code")
+    private String currency;
+
     public AssetRequest() {
     }
 
@@ -51,4 +62,12 @@ public class AssetRequest {
     public void setAveragePrice(BigDecimal averagePrice) {
         this.averagePrice = averagePrice;
     }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
@@ -1,6 +1,9 @@
 package com.portfolio.tracker.dto;
 
+import com.portfolio.tracker.util.FixedPoint;
+
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 
 public class AssetResponse {
@@ -13,9 +16,24 @@ public class AssetResponse {
     private BigDecimal currentMarketValue;
     private BigDecimal gainLoss;
     private BigDecimal gainLossPercentage;
+    private boolean priceStale;
+    private String currency;
+    private String baseCurrency;
+    private BigDecimal fxRate;
+    private BigDecimal currentMarketValueInBase;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Fixed-point totals kept for portfolio aggregation; not serialized. Positions too large for
+    // the fixed-point range are valued in BigDecimal instead and have no units.
+    private long marketValueUnits;
+    private long costUnits;
+    private boolean valued;
+    private long baseValueUnits;
+    private long baseCostUnits;
+    private boolean converted;
+    private boolean exact;
+
     public AssetResponse() {
     }
 
@@ -30,12 +48,106 @@ public class AssetResponse {
         this.updatedAt = updatedAt;
 
         // Calculate derived values
-        this.currentMarketValue = quantity.multiply(currentMarketPrice);
-        BigDecimal totalCost = quantity.multiply(averagePrice);
-        this.gainLoss = currentMarketValue.subtract(totalCost);
-        this.gainLossPercentage = totalCost.compareTo(BigDecimal.ZERO) > 0
-                ? gainLoss.divide(totalCost, 4, java.math.RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
-                : BigDecimal.ZERO;
+        try {
+            long quantityUnits = FixedPoint.of(quantity);
+            this.marketValueUnits = FixedPoint.multiply(quantityUnits, FixedPoint.of(currentMarketPrice));
+            this.costUnits = FixedPoint.multiply(quantityUnits, FixedPoint.of(averagePrice));
+            this.valued = true;
+
+            long gainLossUnits = FixedPoint.subtract(marketValueUnits, costUnits);
+            this.currentMarketValue = FixedPoint.toBigDecimal(marketValueUnits);
+            this.gainLoss = FixedPoint.toBigDecimal(gainLossUnits);
+            this.gainLossPercentage = costUnits > 0
+                    ? FixedPoint.toBigDecimal(FixedPoint.percentage(gainLossUnits, costUnits), 4)
+                    : BigDecimal.ZERO;
+        } catch (ArithmeticException e) {
+            this.exact = true;
+            this.valued = false;
+            BigDecimal cost = nativeCost();
+            this.currentMarketValue = quantity.multiply(currentMarketPrice).setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+            this.gainLoss = currentMarketValue.subtract(cost);
+            this.gainLossPercentage = cost.signum() > 0 ? FixedPoint.percentage(gainLoss, cost) : BigDecimal.ZERO;
+        }
+    }
+
+    /**
+     * Restate the market value in a base currency at the given rate; cost is
+     * converted at the same current rate for the portfolio totals
+     */
+    public void applyFxRate(String baseCurrency, double fxRate) {
+        this.baseCurrency = baseCurrency;
+        this.fxRate = BigDecimal.valueOf(fxRate).setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+        this.converted = true;
+        if (!exact) {
+            try {
+                long valueUnits = valued ? marketValueUnits : FixedPoint.of(currentMarketValue);
+                long costUnitsNative = valued ? costUnits
+                        : FixedPoint.multiply(FixedPoint.of(quantity), FixedPoint.of(averagePrice));
+                this.baseValueUnits = atRate(valueUnits, fxRate);
+                this.baseCostUnits = atRate(costUnitsNative, fxRate);
+                this.currentMarketValueInBase = FixedPoint.toBigDecimal(baseValueUnits);
+                return;
+            } catch (ArithmeticException e) {
+                this.exact = true;
+            }
+        }
+        this.currentMarketValueInBase = currentMarketValue.multiply(this.fxRate)
+                .setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Whether the aggregation units are unavailable and {@link #marketValue()}
+     * and {@link #cost()} must be summed instead
+     */
+    boolean isExact() {
+        return exact;
+    }
+
+    long marketValueUnits() {
+        if (exact) {
+            throw new ArithmeticException("Asset value exceeds the fixed-point range");
+        }
+        if (converted) {
+            return baseValueUnits;
+        }
+        return valued ? marketValueUnits : FixedPoint.of(currentMarketValue);
+    }
+
+    long costUnits() {
+        if (exact) {
+            throw new ArithmeticException("Asset cost exceeds the fixed-point range");
+        }
+        if (converted) {
+            return baseCostUnits;
+        }
+        return valued ? costUnits : FixedPoint.multiply(FixedPoint.of(quantity), FixedPoint.of(averagePrice));
+    }
+
+    /**
+     * Market value in the aggregation currency, as {@link #marketValueUnits()}
+     */
+    BigDecimal marketValue() {
+        return converted ? currentMarketValueInBase : currentMarketValue;
+    }
+
+    /**
+     * Cost in the aggregation currency, as {@link #costUnits()}
+     */
+    BigDecimal cost() {
+        return converted ? nativeCost().multiply(fxRate) : nativeCost();
+    }
+
+    private BigDecimal nativeCost() {
+        return quantity.multiply(averagePrice).setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static long atRate(long units, double rate) {
+        double converted = units * rate;
+        // Math.round saturates instead of failing outside the long range
+        if (Math.abs(converted) >= 0x1p63) {
+            throw new ArithmeticException("Converted amount exceeds the fixed-point range");
+        }
+        return Math.round(converted);
     }
 
     // Getters and Setters
@@ -103,6 +215,46 @@ public class AssetResponse {
         this.gainLossPercentage = gainLossPercentage;
     }
 
+    public boolean isPriceStale() {
+        return priceStale;
+    }
+
+    public void setPriceStale(boolean priceStale) {
+        this.priceStale = priceStale;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public BigDecimal getFxRate() {
+        return fxRate;
+    }
+
+    public void setFxRate(BigDecimal fxRate) {
+        this.fxRate = fxRate;
+    }
+
+    public BigDecimal getCurrentMarketValueInBase() {
+        return currentMarketValueInBase;
+    }
+
+    public void setCurrentMarketValueInBase(BigDecimal currentMarketValueInBase) {
+        this.currentMarketValueInBase = currentMarketValueInBase;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,19 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Unmanaged projection of a holding, enough to value it without loading the
+ * entity or its portfolio
+ */
+public record AssetRow(
+        Long id,
+        Long portfolioId,
+        String tickerSymbol,
+        BigDecimal quantity,
+        BigDecimal averagePrice,
+        String currency,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,200 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO comparing a portfolio's time-weighted return with a benchmark symbol
+ * over the same days. Returns, alpha and tracking error are percentages;
+ * alpha and tracking error are annualized. Statistics are null when there is
+ * too little overlapping history.
+ */
+public class BenchmarkComparisonResponse {
+
+    private Long portfolioId;
+    private String benchmarkSymbol;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal portfolioReturn;
+    private BigDecimal benchmarkReturn;
+    private BigDecimal excessReturn;
+    private BigDecimal alpha;
+    private BigDecimal beta;
+    private BigDecimal correlation;
+    private BigDecimal trackingError;
+    // Period returns the statistics were estimated from
+    private int observations;
+    private List<ComparisonPoint> series;
+
+    public BenchmarkComparisonResponse() {
+    }
+
+    public BenchmarkComparisonResponse(Long portfolioId, String benchmarkSymbol, LocalDate from, LocalDate to,
+            BigDecimal portfolioReturn, BigDecimal benchmarkReturn, BigDecimal excessReturn, BigDecimal alpha,
+            BigDecimal beta, BigDecimal correlation, BigDecimal trackingError, int observations,
+            List<ComparisonPoint> series) {
+        this.portfolioId = portfolioId;
+        this.benchmarkSymbol = benchmarkSymbol;
+        this.from = from;
+        this.to = to;
+        this.portfolioReturn = portfolioReturn;
+        this.benchmarkReturn = benchmarkReturn;
+        this.excessReturn = excessReturn;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.correlation = correlation;
+        this.trackingError = trackingError;
+        this.observations = observations;
+        this.series = series;
+    }
+
+    // Getters and Setters
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public String getBenchmarkSymbol() {
+        return benchmarkSymbol;
+    }
+
+    public void setBenchmarkSymbol(String benchmarkSymbol) {
+        this.benchmarkSymbol = benchmarkSymbol;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public BigDecimal getPortfolioReturn() {
+        return portfolioReturn;
+    }
+
+    public void setPortfolioReturn(BigDecimal portfolioReturn) {
+        this.portfolioReturn = portfolioReturn;
+    }
+
+    public BigDecimal getBenchmarkReturn() {
+        return benchmarkReturn;
+    }
+
+    public void setBenchmarkReturn(BigDecimal benchmarkReturn) {
+        this.benchmarkReturn = benchmarkReturn;
+    }
+
+    public BigDecimal getExcessReturn() {
+        return excessReturn;
+    }
+
+    public void setExcessReturn(BigDecimal excessReturn) {
+        this.excessReturn = excessReturn;
+    }
+
+    public BigDecimal getAlpha() {
+        return alpha;
+    }
+
+    public void setAlpha(BigDecimal alpha) {
+        this.alpha = alpha;
+    }
+
+    public BigDecimal getBeta() {
+        return beta;
+    }
+
+    public void setBeta(BigDecimal beta) {
+        this.beta = beta;
+    }
+
+    public BigDecimal getCorrelation() {
+        return correlation;
+    }
+
+    public void setCorrelation(BigDecimal correlation) {
+        this.correlation = correlation;
+    }
+
+    public BigDecimal getTrackingError() {
+        return trackingError;
+    }
+
+    public void setTrackingError(BigDecimal trackingError) {
+        this.trackingError = trackingError;
+    }
+
+    public int getObservations() {
+        return observations;
+    }
+
+    public void setObservations(int observations) {
+        this.observations = observations;
+    }
+
+    public List<ComparisonPoint> getSeries() {
+        return series;
+    }
+
+    public void setSeries(List<ComparisonPoint> series) {
+        this.series = series;
+    }
+
+    /**
+     * Cumulative returns since the start of the window; the benchmark's is
+     * null before its first close
+     */
+    public static class ComparisonPoint {
+
+        private LocalDate date;
+        private BigDecimal portfolioReturn;
+        private BigDecimal benchmarkReturn;
+
+        public ComparisonPoint() {
+        }
+
+        public ComparisonPoint(LocalDate date, BigDecimal portfolioReturn, BigDecimal benchmarkReturn) {
+            this.date = date;
+            this.portfolioReturn = portfolioReturn;
+            this.benchmarkReturn = benchmarkReturn;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public BigDecimal getPortfolioReturn() {
+            return portfolioReturn;
+        }
+
+        public void setPortfolioReturn(BigDecimal portfolioReturn) {
+            this.portfolioReturn = portfolioReturn;
+        }
+
+        public BigDecimal getBenchmarkReturn() {
+            return benchmarkReturn;
+        }
+
+        public void setBenchmarkReturn(BigDecimal benchmarkReturn) {
+            this.benchmarkReturn = benchmarkReturn;
+        }
+    }
+}
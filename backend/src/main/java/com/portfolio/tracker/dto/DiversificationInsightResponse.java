@@ -12,11 +12,15 @@ public class DiversificationInsightResponse {
     private Long portfolioId;
     private String portfolioName;
     private BigDecimal diversificationScore;
+    private BigDecimal correlationScore;
+    private BigDecimal averageCorrelation;
     private String riskLevel;
     private Map<String, BigDecimal> sectorAllocation;
     private List<AssetRecommendation> recommendations;
     private List<String> insights;
     private String overallAssessment;
+    // Currency the holdings were converted to before weighing them
+    private String currency;
 
     public DiversificationInsightResponse() {
     }
@@ -61,6 +65,22 @@ public class DiversificationInsightResponse {
         this.diversificationScore = diversificationScore;
     }
 
+    public BigDecimal getCorrelationScore() {
+        return correlationScore;
+    }
+
+    public void setCorrelationScore(BigDecimal correlationScore) {
+        this.correlationScore = correlationScore;
+    }
+
+    public BigDecimal getAverageCorrelation() {
+        return averageCorrelation;
+    }
+
+    public void setAverageCorrelation(BigDecimal averageCorrelation) {
+        this.averageCorrelation = averageCorrelation;
+    }
+
     public String getRiskLevel() {
         return riskLevel;
     }
@@ -100,4 +120,12 @@ public class DiversificationInsightResponse {
     public void setOverallAssessment(String overallAssessment) {
         this.overallAssessment = overallAssessment;
     }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
 }
@@ -0,0 +1,160 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the long-only efficient frontier over a portfolio's holdings and
+ * the candidate universe. Returns, volatilities and weights are annualized
+ * percentages.
+ */
+public class EfficientFrontierResponse {
+
+    private Long portfolioId;
+    private LocalDate asOf;
+    private BigDecimal riskFreeRate;
+    // In order of increasing expected return
+    private List<FrontierPoint> frontier;
+    private FrontierPoint maxSharpe;
+    // Current holdings at market value; null for an empty portfolio
+    private FrontierPoint current;
+    // False when the time budget ran out before the search finished
+    private boolean complete;
+    // Symbols without enough price history to estimate
+    private List<String> excludedSymbols;
+
+    public EfficientFrontierResponse() {
+    }
+
+    public EfficientFrontierResponse(Long portfolioId, LocalDate asOf, BigDecimal riskFreeRate,
+            List<FrontierPoint> frontier, FrontierPoint maxSharpe, FrontierPoint current, boolean complete,
+            List<String> excludedSymbols) {
+        this.portfolioId = portfolioId;
+        this.asOf = asOf;
+        this.riskFreeRate = riskFreeRate;
+        this.frontier = frontier;
+        this.maxSharpe = maxSharpe;
+        this.current = current;
+        this.complete = complete;
+        this.excludedSymbols = excludedSymbols;
+    }
+
+    // Getters and Setters
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    public BigDecimal getRiskFreeRate() {
+        return riskFreeRate;
+    }
+
+    public void setRiskFreeRate(BigDecimal riskFreeRate) {
+        this.riskFreeRate = riskFreeRate;
+    }
+
+    public List<FrontierPoint> getFrontier() {
+        return frontier;
+    }
+
+    public void setFrontier(List<FrontierPoint> frontier) {
+        this.frontier = frontier;
+    }
+
+    public FrontierPoint getMaxSharpe() {
+        return maxSharpe;
+    }
+
+    public void setMaxSharpe(FrontierPoint maxSharpe) {
+        this.maxSharpe = maxSharpe;
+    }
+
+    public FrontierPoint getCurrent() {
+        return current;
+    }
+
+    public void setCurrent(FrontierPoint current) {
+        this.current = current;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public List<String> getExcludedSymbols() {
+        return excludedSymbols;
+    }
+
+    public void setExcludedSymbols(List<String> excludedSymbols) {
+        this.excludedSymbols = excludedSymbols;
+    }
+
+    public static class FrontierPoint {
+
+        private BigDecimal expectedReturn;
+        private BigDecimal volatility;
+        private BigDecimal sharpeRatio;
+        // Percentage per symbol; symbols with no weight are left out
+        private Map<String, BigDecimal> weights;
+
+        public FrontierPoint() {
+        }
+
+        public FrontierPoint(BigDecimal expectedReturn, BigDecimal volatility, BigDecimal sharpeRatio,
+                Map<String, BigDecimal> weights) {
+            this.expectedReturn = expectedReturn;
+            this.volatility = volatility;
+            this.sharpeRatio = sharpeRatio;
+            this.weights = weights;
+        }
+
+        public BigDecimal getExpectedReturn() {
+            return expectedReturn;
+        }
+
+        public void setExpectedReturn(BigDecimal expectedReturn) {
+            this.expectedReturn = expectedReturn;
+        }
+
+        public BigDecimal getVolatility() {
+            return volatility;
+        }
+
+        public void setVolatility(BigDecimal volatility) {
+            this.volatility = volatility;
+        }
+
+        public BigDecimal getSharpeRatio() {
+            return sharpeRatio;
+        }
+
+        public void setSharpeRatio(BigDecimal sharpeRatio) {
+            this.sharpeRatio = sharpeRatio;
+        }
+
+        public Map<String, BigDecimal> getWeights() {
+            return weights;
+        }
+
+        public void setWeights(Map<String, BigDecimal> weights) {
+            this.weights = weights;
+        }
+    }
+}
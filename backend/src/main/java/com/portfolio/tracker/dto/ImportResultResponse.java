@@ -0,0 +1,88 @@
+package com.portfolio.tracker.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Valid rows are imported; each rejected row is
+ * reported with its line number.
+ */
+public class ImportResultResponse {
+
+    private int rowsRead;
+    private int rowsImported;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    public ImportResultResponse() {
+    }
+
+    public ImportResultResponse(int rowsRead, int rowsImported, List<RowError> errors, boolean errorsTruncated) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    // Getters and Setters
+    public int getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(int rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public int getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(int rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public static class RowError {
+
+        private int line;
+        private String message;
+
+        public RowError() {
+        }
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public void setLine(int line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for a portfolio's daily value series and period returns. Returns are
+ * percentages; the money-weighted return is annualized.
+ */
+public class PerformanceResponse {
+
+    private Long portfolioId;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal startValue;
+    private BigDecimal endValue;
+    private BigDecimal netContributions;
+    private BigDecimal timeWeightedReturn;
+    private BigDecimal moneyWeightedReturn;
+    private List<PerformancePoint> series;
+    private String currency;
+
+    public PerformanceResponse() {
+    }
+
+    public PerformanceResponse(Long portfolioId, LocalDate from, LocalDate to, BigDecimal startValue,
+            BigDecimal endValue, BigDecimal netContributions, BigDecimal timeWeightedReturn,
+            BigDecimal moneyWeightedReturn, List<PerformancePoint> series, String currency) {
+        this.portfolioId = portfolioId;
+        this.from = from;
+        this.to = to;
+        this.startValue = startValue;
+        this.endValue = endValue;
+        this.netContributions = netContributions;
+        this.timeWeightedReturn = timeWeightedReturn;
+        this.moneyWeightedReturn = moneyWeightedReturn;
+        this.series = series;
+        this.currency = currency;
+    }
+
+    // Getters and Setters
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public BigDecimal getStartValue() {
+        return startValue;
+    }
+
+    public void setStartValue(BigDecimal startValue) {
+        this.startValue = startValue;
+    }
+
+    public BigDecimal getEndValue() {
+        return endValue;
+    }
+
+    public void setEndValue(BigDecimal endValue) {
+        this.endValue = endValue;
+    }
+
+    public BigDecimal getNetContributions() {
+        return netContributions;
+    }
+
+    public void setNetContributions(BigDecimal netContributions) {
+        this.netContributions = netContributions;
+    }
+
+    public BigDecimal getTimeWeightedReturn() {
+        return timeWeightedReturn;
+    }
+
+    public void setTimeWeightedReturn(BigDecimal timeWeightedReturn) {
+        this.timeWeightedReturn = timeWeightedReturn;
+    }
+
+    public BigDecimal getMoneyWeightedReturn() {
+        return moneyWeightedReturn;
+    }
+
+    public void setMoneyWeightedReturn(BigDecimal moneyWeightedReturn) {
+        this.moneyWeightedReturn = moneyWeightedReturn;
+    }
+
+    public List<PerformancePoint> getSeries() {
+        return series;
+    }
+
+    public void setSeries(List<PerformancePoint> series) {
+        this.series = series;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Inner class representing the portfolio on a single day
+     */
+    public static class PerformancePoint {
+
+        private LocalDate date;
+        private BigDecimal marketValue;
+        private BigDecimal cumulativeReturn;
+
+        public PerformancePoint() {
+        }
+
+        public PerformancePoint(LocalDate date, BigDecimal marketValue, BigDecimal cumulativeReturn) {
+            this.date = date;
+            this.marketValue = marketValue;
+            this.cumulativeReturn = cumulativeReturn;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public BigDecimal getMarketValue() {
+            return marketValue;
+        }
+
+        public void setMarketValue(BigDecimal marketValue) {
+            this.marketValue = marketValue;
+        }
+
+        public BigDecimal getCumulativeReturn() {
+            return cumulativeReturn;
+        }
+
+        public void setCumulativeReturn(BigDecimal cumulativeReturn) {
+            this.cumulativeReturn = cumulativeReturn;
+        }
+    }
+}
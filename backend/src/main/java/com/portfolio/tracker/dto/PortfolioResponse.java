@@ -1,6 +1,9 @@
 package com.portfolio.tracker.dto;
 
+import com.portfolio.tracker.util.FixedPoint;
+
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -10,36 +13,70 @@ public class PortfolioResponse {
     private String name;
     private Long userId;
     private LocalDateTime createdAt;
+    private String currency;
     private BigDecimal totalValue;
     private BigDecimal totalCost;
     private BigDecimal totalGainLoss;
     private BigDecimal totalGainLossPercentage;
+    private boolean stale;
     private List<AssetResponse> assets;
 
     public PortfolioResponse() {
     }
 
     public PortfolioResponse(Long id, String name, Long userId, LocalDateTime createdAt, List<AssetResponse> assets) {
+        this(id, name, userId, null, createdAt, assets);
+    }
+
+    /**
+     * Totals are summed in the base currency when the assets were converted
+     * to it, in their own prices otherwise
+     */
+    public PortfolioResponse(Long id, String name, Long userId, String currency, LocalDateTime createdAt,
+            List<AssetResponse> assets) {
         this.id = id;
+        this.currency = currency;
         this.name = name;
         this.userId = userId;
         this.createdAt = createdAt;
         this.assets = assets;
 
         // Calculate portfolio totals
-        this.totalValue = assets.stream()
-                .map(AssetResponse::getCurrentMarketValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        this.totalCost = assets.stream()
-                .map(asset -> asset.getQuantity().multiply(asset.getAveragePrice()))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        this.totalGainLoss = totalValue.subtract(totalCost);
-
-        this.totalGainLossPercentage = totalCost.compareTo(BigDecimal.ZERO) > 0
-                ? totalGainLoss.divide(totalCost, 4, java.math.RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
-                : BigDecimal.ZERO;
+        boolean anyStale = false;
+        for (AssetResponse asset : assets) {
+            anyStale |= asset.isPriceStale();
+        }
+        try {
+            long valueUnits = FixedPoint.ZERO;
+            long costUnits = FixedPoint.ZERO;
+            for (AssetResponse asset : assets) {
+                valueUnits = FixedPoint.add(valueUnits, asset.marketValueUnits());
+                costUnits = FixedPoint.add(costUnits, asset.costUnits());
+            }
+            long gainLossUnits = FixedPoint.subtract(valueUnits, costUnits);
+
+            this.totalValue = FixedPoint.toBigDecimal(valueUnits);
+            this.totalCost = FixedPoint.toBigDecimal(costUnits);
+            this.totalGainLoss = FixedPoint.toBigDecimal(gainLossUnits);
+            this.totalGainLossPercentage = costUnits > 0
+                    ? FixedPoint.toBigDecimal(FixedPoint.percentage(gainLossUnits, costUnits), 4)
+                    : BigDecimal.ZERO;
+        } catch (ArithmeticException e) {
+            // Beyond the fixed-point range; sum the same amounts in BigDecimal
+            BigDecimal value = BigDecimal.ZERO;
+            BigDecimal cost = BigDecimal.ZERO;
+            for (AssetResponse asset : assets) {
+                value = value.add(asset.marketValue());
+                cost = cost.add(asset.cost());
+            }
+            this.totalValue = value.setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+            this.totalCost = cost.setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+            this.totalGainLoss = totalValue.subtract(totalCost);
+            this.totalGainLossPercentage = cost.signum() > 0
+                    ? FixedPoint.percentage(totalGainLoss, totalCost)
+                    : BigDecimal.ZERO;
+        }
+        this.stale = anyStale;
     }
 
     // Getters and Setters
@@ -75,6 +112,14 @@ public class PortfolioResponse {
         this.createdAt = createdAt;
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public BigDecimal getTotalValue() {
         return totalValue;
     }
@@ -107,6 +152,14 @@ public class PortfolioResponse {
         this.totalGainLossPercentage = totalGainLossPercentage;
     }
 
+    public boolean isStale() {
+        return stale;
+    }
+
+    public void setStale(boolean stale) {
+        this.stale = stale;
+    }
+
     public List<AssetResponse> getAssets() {
         return assets;
     }
@@ -0,0 +1,14 @@
+package com.portfolio.tracker.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Unmanaged projection of the portfolio columns the read endpoints return
+ */
+public record PortfolioRow(
+        Long id,
+        String portfolioName,
+        Long userId,
+        String baseCurrency,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,112 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight portfolio totals for dashboard listings, built from the
+ * materialized valuation rather than per-asset price lookups
+ */
+public class PortfolioSummaryResponse {
+
+    private Long id;
+    private String name;
+    private LocalDateTime createdAt;
+    private int positions;
+    private BigDecimal totalValue;
+    private BigDecimal totalCost;
+    private BigDecimal totalGainLoss;
+    private BigDecimal totalGainLossPercentage;
+    private String currency;
+
+    public PortfolioSummaryResponse() {
+    }
+
+    public PortfolioSummaryResponse(Long id, String name, LocalDateTime createdAt, int positions,
+            BigDecimal totalValue, BigDecimal totalCost) {
+        this.id = id;
+        this.name = name;
+        this.createdAt = createdAt;
+        this.positions = positions;
+        this.totalValue = totalValue.setScale(2, RoundingMode.HALF_UP);
+        this.totalCost = totalCost.setScale(2, RoundingMode.HALF_UP);
+        this.totalGainLoss = this.totalValue.subtract(this.totalCost);
+        this.totalGainLossPercentage = this.totalCost.compareTo(BigDecimal.ZERO) > 0
+                ? totalGainLoss.divide(this.totalCost, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100))
+                : BigDecimal.ZERO;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getPositions() {
+        return positions;
+    }
+
+    public void setPositions(int positions) {
+        this.positions = positions;
+    }
+
+    public BigDecimal getTotalValue() {
+        return totalValue;
+    }
+
+    public void setTotalValue(BigDecimal totalValue) {
+        this.totalValue = totalValue;
+    }
+
+    public BigDecimal getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(BigDecimal totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public BigDecimal getTotalGainLoss() {
+        return totalGainLoss;
+    }
+
+    public void setTotalGainLoss(BigDecimal totalGainLoss) {
+        this.totalGainLoss = totalGainLoss;
+    }
+
+    public BigDecimal getTotalGainLossPercentage() {
+        return totalGainLossPercentage;
+    }
+
+    public void setTotalGainLossPercentage(BigDecimal totalGainLossPercentage) {
+        this.totalGainLossPercentage = totalGainLossPercentage;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
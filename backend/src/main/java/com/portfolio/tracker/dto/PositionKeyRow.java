@@ -0,0 +1,9 @@
+package com.portfolio.tracker.dto;
+
+/**
+ * Unmanaged projection of a (portfolio, symbol) ledger the position engine folds
+ */
+public record PositionKeyRow(
+        Long portfolioId,
+        String symbol) {
+}
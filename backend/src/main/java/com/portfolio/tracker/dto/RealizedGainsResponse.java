@@ -0,0 +1,89 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Realized gains for one calendar year of sales. Long term means the lot was
+ * held for more than a year.
+ */
+public class RealizedGainsResponse {
+
+    private int year;
+    private BigDecimal proceeds;
+    private BigDecimal costBasis;
+    private BigDecimal shortTermGain;
+    private BigDecimal longTermGain;
+    private BigDecimal totalGain;
+    private long disposals;
+
+    public RealizedGainsResponse() {
+    }
+
+    public RealizedGainsResponse(Integer year, BigDecimal proceeds, BigDecimal costBasis,
+            BigDecimal shortTermGain, BigDecimal longTermGain, Long disposals) {
+        this.year = year;
+        this.proceeds = proceeds;
+        this.costBasis = costBasis;
+        this.shortTermGain = shortTermGain;
+        this.longTermGain = longTermGain;
+        this.totalGain = shortTermGain.add(longTermGain);
+        this.disposals = disposals;
+    }
+
+    // Getters and Setters
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public BigDecimal getProceeds() {
+        return proceeds;
+    }
+
+    public void setProceeds(BigDecimal proceeds) {
+        this.proceeds = proceeds;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public BigDecimal getShortTermGain() {
+        return shortTermGain;
+    }
+
+    public void setShortTermGain(BigDecimal shortTermGain) {
+        this.shortTermGain = shortTermGain;
+    }
+
+    public BigDecimal getLongTermGain() {
+        return longTermGain;
+    }
+
+    public void setLongTermGain(BigDecimal longTermGain) {
+        this.longTermGain = longTermGain;
+    }
+
+    public BigDecimal getTotalGain() {
+        return totalGain;
+    }
+
+    public void setTotalGain(BigDecimal totalGain) {
+        this.totalGain = totalGain;
+    }
+
+    public long getDisposals() {
+        return disposals;
+    }
+
+    public void setDisposals(long disposals) {
+        this.disposals = disposals;
+    }
+}
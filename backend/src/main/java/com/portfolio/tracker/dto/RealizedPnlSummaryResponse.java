@@ -0,0 +1,47 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Realized P&L over every sale recorded in one portfolio
+ */
+public class RealizedPnlSummaryResponse {
+
+    private Long portfolioId;
+    private BigDecimal realizedPnL;
+    private long sales;
+
+    public RealizedPnlSummaryResponse() {
+    }
+
+    public RealizedPnlSummaryResponse(Long portfolioId, BigDecimal realizedPnL, Long sales) {
+        this.portfolioId = portfolioId;
+        this.realizedPnL = realizedPnL != null ? realizedPnL : BigDecimal.ZERO;
+        this.sales = sales;
+    }
+
+    // Getters and Setters
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public BigDecimal getRealizedPnL() {
+        return realizedPnL;
+    }
+
+    public void setRealizedPnL(BigDecimal realizedPnL) {
+        this.realizedPnL = realizedPnL;
+    }
+
+    public long getSales() {
+        return sales;
+    }
+
+    public void setSales(long sales) {
+        this.sales = sales;
+    }
+}
@@ -2,6 +2,7 @@ package com.portfolio.tracker.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
 /**
@@ -26,6 +27,10 @@ public class RegisterRequest {
 
     private String lastName;
 
+    /** Currency totals are reported in; USD when omitted */
+    @Pattern(regexp = "[A-Za-z]{3}", message = "Base currency must be a three-letter code")
+    private String baseCurrency;
+
     public RegisterRequest() {
     }
 
@@ -77,4 +82,12 @@ public class RegisterRequest {
     public void setLastName(String lastName) {
         this.lastName = lastName;
     }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
 }
@@ -1,19 +1,32 @@
 package com.portfolio.tracker.dto;
 
+import com.portfolio.tracker.entity.LotSelectionMethod;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
+import java.util.List;
 
 public class SellAssetRequest {
 
     @NotNull(message = "Quantity is required")
     @Positive(message = "Quantity must be positive")
+    @DecimalMax(value = "1000000000", message = "Quantity must not exceed 1,000,000,000")
+    @Digits(integer = 10, fraction = 8, message = "Quantity allows at most 8 decimal places")
     private BigDecimal quantity;
 
     @NotNull(message = "Current market price is required")
     @Positive(message = "Current market price must be positive")
+    @DecimalMax(value = "1000000000", message = "Current market price must not exceed 1,000,000,000")
+    @Digits(integer = 10, fraction = 2, message = "Current market price allows at most 2 decimal places")
     private BigDecimal currentMarketPrice;
 
+    // Lots to sell from; FIFO unless lot ids are given
+    private LotSelectionMethod lotMethod;
+
+    private List<Long> lotIds;
+
     // Constructors
     public SellAssetRequest() {
     }
@@ -39,4 +52,20 @@ public class SellAssetRequest {
     public void setCurrentMarketPrice(BigDecimal currentMarketPrice) {
         this.currentMarketPrice = currentMarketPrice;
     }
+
+    public LotSelectionMethod getLotMethod() {
+        return lotMethod;
+    }
+
+    public void setLotMethod(LotSelectionMethod lotMethod) {
+        this.lotMethod = lotMethod;
+    }
+
+    public List<Long> getLotIds() {
+        return lotIds;
+    }
+
+    public void setLotIds(List<Long> lotIds) {
+        this.lotIds = lotIds;
+    }
 }
@@ -0,0 +1,146 @@
+package com.portfolio.tracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What-if scenarios evaluated independently against the portfolio's current
+ * positions; nothing is saved
+ */
+public class SimulationRequest {
+
+    @NotEmpty(message = "At least one scenario is required")
+    private List<@Valid Scenario> scenarios;
+
+    public SimulationRequest() {
+    }
+
+    public SimulationRequest(List<Scenario> scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(List<Scenario> scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    public enum Side {
+        BUY, SELL
+    }
+
+    /**
+     * Trades applied in order, then an optional rebalance to target sector
+     * percentages that must add up to 100
+     */
+    public static class Scenario {
+
+        private String name;
+
+        @Size(max = 100, message = "A scenario can contain at most 100 trades")
+        private List<@Valid Trade> trades;
+
+        private Map<String, BigDecimal> targetSectorAllocation;
+
+        public Scenario() {
+        }
+
+        public Scenario(String name, List<Trade> trades, Map<String, BigDecimal> targetSectorAllocation) {
+            this.name = name;
+            this.trades = trades;
+            this.targetSectorAllocation = targetSectorAllocation;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<Trade> getTrades() {
+            return trades;
+        }
+
+        public void setTrades(List<Trade> trades) {
+            this.trades = trades;
+        }
+
+        public Map<String, BigDecimal> getTargetSectorAllocation() {
+            return targetSectorAllocation;
+        }
+
+        public void setTargetSectorAllocation(Map<String, BigDecimal> targetSectorAllocation) {
+            this.targetSectorAllocation = targetSectorAllocation;
+        }
+    }
+
+    public static class Trade {
+
+        @NotNull(message = "Trade side is required")
+        private Side side;
+
+        @NotBlank(message = "Ticker symbol is required")
+        private String tickerSymbol;
+
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        private BigDecimal quantity;
+
+        // Execution price; the cached market price is used when omitted
+        @Positive(message = "Price must be positive")
+        private BigDecimal price;
+
+        public Trade() {
+        }
+
+        public Trade(Side side, String tickerSymbol, BigDecimal quantity, BigDecimal price) {
+            this.side = side;
+            this.tickerSymbol = tickerSymbol;
+            this.quantity = quantity;
+            this.price = price;
+        }
+
+        public Side getSide() {
+            return side;
+        }
+
+        public void setSide(Side side) {
+            this.side = side;
+        }
+
+        public String getTickerSymbol() {
+            return tickerSymbol;
+        }
+
+        public void setTickerSymbol(String tickerSymbol) {
+            this.tickerSymbol = tickerSymbol;
+        }
+
+        public BigDecimal getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(BigDecimal quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Current positions and every scenario, each revalued at cached prices and
+ * rescored for diversification and risk
+ */
+public class SimulationResponse {
+
+    private Long portfolioId;
+    private ScenarioResult current;
+    private List<ScenarioResult> scenarios;
+    // Currency the market values and cash balances are stated in
+    private String currency;
+
+    public SimulationResponse() {
+    }
+
+    public SimulationResponse(Long portfolioId, ScenarioResult current, List<ScenarioResult> scenarios) {
+        this.portfolioId = portfolioId;
+        this.current = current;
+        this.scenarios = scenarios;
+    }
+
+    // Getters and Setters
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public ScenarioResult getCurrent() {
+        return current;
+    }
+
+    public void setCurrent(ScenarioResult current) {
+        this.current = current;
+    }
+
+    public List<ScenarioResult> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(List<ScenarioResult> scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public static class ScenarioResult {
+
+        private String name;
+        private BigDecimal marketValue;
+        // Net cash from the scenario's trades; negative when buys exceed sales
+        private BigDecimal cashBalance;
+        private int positions;
+        private Map<String, BigDecimal> sectorAllocation;
+        private BigDecimal diversificationScore;
+        private String riskLevel;
+        // Set when the scenario could not be applied, e.g. selling more than held
+        private String error;
+
+        public ScenarioResult() {
+        }
+
+        public ScenarioResult(String name, BigDecimal marketValue, BigDecimal cashBalance, int positions,
+                Map<String, BigDecimal> sectorAllocation, BigDecimal diversificationScore, String riskLevel,
+                String error) {
+            this.name = name;
+            this.marketValue = marketValue;
+            this.cashBalance = cashBalance;
+            this.positions = positions;
+            this.sectorAllocation = sectorAllocation;
+            this.diversificationScore = diversificationScore;
+            this.riskLevel = riskLevel;
+            this.error = error;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public BigDecimal getMarketValue() {
+            return marketValue;
+        }
+
+        public void setMarketValue(BigDecimal marketValue) {
+            this.marketValue = marketValue;
+        }
+
+        public BigDecimal getCashBalance() {
+            return cashBalance;
+        }
+
+        public void setCashBalance(BigDecimal cashBalance) {
+            this.cashBalance = cashBalance;
+        }
+
+        public int getPositions() {
+            return positions;
+        }
+
+        public void setPositions(int positions) {
+            this.positions = positions;
+        }
+
+        public Map<String, BigDecimal> getSectorAllocation() {
+            return sectorAllocation;
+        }
+
+        public void setSectorAllocation(Map<String, BigDecimal> sectorAllocation) {
+            this.sectorAllocation = sectorAllocation;
+        }
+
+        public BigDecimal getDiversificationScore() {
+            return diversificationScore;
+        }
+
+        public void setDiversificationScore(BigDecimal diversificationScore) {
+            this.diversificationScore = diversificationScore;
+        }
+
+        public String getRiskLevel() {
+            return riskLevel;
+        }
+
+        public void setRiskLevel(String riskLevel) {
+            this.riskLevel = riskLevel;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.portfolio.tracker.dto;
+
+/**
+ * Unmanaged projection of a stock's classification
+ */
+public record StockSectorRow(
+        String symbol,
+        String sector,
+        String industry) {
+}
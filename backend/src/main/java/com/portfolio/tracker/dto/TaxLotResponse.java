@@ -0,0 +1,79 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * An open tax lot; ids are what specific-ID sells refer to
+ */
+public class TaxLotResponse {
+
+    private Long id;
+    private String tickerSymbol;
+    private BigDecimal originalQuantity;
+    private BigDecimal remainingQuantity;
+    private BigDecimal costPerShare;
+    private LocalDateTime acquiredAt;
+
+    public TaxLotResponse() {
+    }
+
+    public TaxLotResponse(Long id, String tickerSymbol, BigDecimal originalQuantity, BigDecimal remainingQuantity,
+            BigDecimal costPerShare, LocalDateTime acquiredAt) {
+        this.id = id;
+        this.tickerSymbol = tickerSymbol;
+        this.originalQuantity = originalQuantity;
+        this.remainingQuantity = remainingQuantity;
+        this.costPerShare = costPerShare;
+        this.acquiredAt = acquiredAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTickerSymbol() {
+        return tickerSymbol;
+    }
+
+    public void setTickerSymbol(String tickerSymbol) {
+        this.tickerSymbol = tickerSymbol;
+    }
+
+    public BigDecimal getOriginalQuantity() {
+        return originalQuantity;
+    }
+
+    public void setOriginalQuantity(BigDecimal originalQuantity) {
+        this.originalQuantity = originalQuantity;
+    }
+
+    public BigDecimal getRemainingQuantity() {
+        return remainingQuantity;
+    }
+
+    public void setRemainingQuantity(BigDecimal remainingQuantity) {
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    public BigDecimal getCostPerShare() {
+        return costPerShare;
+    }
+
+    public void setCostPerShare(BigDecimal costPerShare) {
+        this.costPerShare = costPerShare;
+    }
+
+    public LocalDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public void setAcquiredAt(LocalDateTime acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+}
@@ -0,0 +1,23 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, unmanaged projection of a transaction for exports
+ */
+public record TransactionExportRow(
+        Long id,
+        LocalDateTime transactionDate,
+        Long portfolioId,
+        String portfolioName,
+        String tickerSymbol,
+        TransactionType transactionType,
+        BigDecimal quantity,
+        BigDecimal pricePerShare,
+        BigDecimal totalAmount,
+        BigDecimal fees,
+        BigDecimal realizedPnl) {
+}
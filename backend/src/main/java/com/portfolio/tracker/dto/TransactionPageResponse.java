@@ -0,0 +1,38 @@
+package com.portfolio.tracker.dto;
+
+import java.util.List;
+
+/**
+ * One page of transaction history, newest first. Pass nextCursor back as the
+ * cursor parameter to continue; it is null on the last page.
+ */
+public class TransactionPageResponse {
+
+    private List<TransactionResponse> items;
+    private String nextCursor;
+
+    public TransactionPageResponse() {
+    }
+
+    public TransactionPageResponse(List<TransactionResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<TransactionResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TransactionResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
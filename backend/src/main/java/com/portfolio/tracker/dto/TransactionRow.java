@@ -0,0 +1,25 @@
+package com.portfolio.tracker.dto;
+
+import com.portfolio.tracker.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Unmanaged projection of a transaction for history pages, with the portfolio
+ * name and symbol joined in
+ */
+public record TransactionRow(
+        Long id,
+        LocalDateTime transactionDate,
+        LocalDateTime createdAt,
+        Long portfolioId,
+        String portfolioName,
+        String tickerSymbol,
+        TransactionType transactionType,
+        BigDecimal quantity,
+        BigDecimal pricePerShare,
+        BigDecimal totalAmount,
+        BigDecimal fees,
+        BigDecimal realizedPnl) {
+}
@@ -0,0 +1,155 @@
+package com.portfolio.tracker.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for Monte Carlo Value-at-Risk of a portfolio's current positions.
+ * Losses are positive amounts in the owner's base currency.
+ */
+public class ValueAtRiskResponse {
+
+    private Long portfolioId;
+    private LocalDate asOf;
+    private BigDecimal marketValue;
+    private int paths;
+    // Daily returns the distribution was estimated from
+    private int observations;
+    private List<RiskMeasure> measures;
+    // Holdings without price history, left out of the simulation
+    private List<String> excludedSymbols;
+    private String currency;
+
+    public ValueAtRiskResponse() {
+    }
+
+    public ValueAtRiskResponse(Long portfolioId, LocalDate asOf, BigDecimal marketValue, int paths,
+            int observations, List<RiskMeasure> measures, List<String> excludedSymbols, String currency) {
+        this.portfolioId = portfolioId;
+        this.asOf = asOf;
+        this.marketValue = marketValue;
+        this.paths = paths;
+        this.observations = observations;
+        this.measures = measures;
+        this.excludedSymbols = excludedSymbols;
+        this.currency = currency;
+    }
+
+    // Getters and Setters
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public void setPortfolioId(Long portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public void setAsOf(LocalDate asOf) {
+        this.asOf = asOf;
+    }
+
+    public BigDecimal getMarketValue() {
+        return marketValue;
+    }
+
+    public void setMarketValue(BigDecimal marketValue) {
+        this.marketValue = marketValue;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    public void setPaths(int paths) {
+        this.paths = paths;
+    }
+
+    public int getObservations() {
+        return observations;
+    }
+
+    public void setObservations(int observations) {
+        this.observations = observations;
+    }
+
+    public List<RiskMeasure> getMeasures() {
+        return measures;
+    }
+
+    public void setMeasures(List<RiskMeasure> measures) {
+        this.measures = measures;
+    }
+
+    public List<String> getExcludedSymbols() {
+        return excludedSymbols;
+    }
+
+    public void setExcludedSymbols(List<String> excludedSymbols) {
+        this.excludedSymbols = excludedSymbols;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public static class RiskMeasure {
+
+        private int horizonDays;
+        // Percentage, e.g. 99
+        private BigDecimal confidenceLevel;
+        private BigDecimal valueAtRisk;
+        private BigDecimal conditionalValueAtRisk;
+
+        public RiskMeasure() {
+        }
+
+        public RiskMeasure(int horizonDays, BigDecimal confidenceLevel, BigDecimal valueAtRisk,
+                BigDecimal conditionalValueAtRisk) {
+            this.horizonDays = horizonDays;
+            this.confidenceLevel = confidenceLevel;
+            this.valueAtRisk = valueAtRisk;
+            this.conditionalValueAtRisk = conditionalValueAtRisk;
+        }
+
+        public int getHorizonDays() {
+            return horizonDays;
+        }
+
+        public void setHorizonDays(int horizonDays) {
+            this.horizonDays = horizonDays;
+        }
+
+        public BigDecimal getConfidenceLevel() {
+            return confidenceLevel;
+        }
+
+        public void setConfidenceLevel(BigDecimal confidenceLevel) {
+            this.confidenceLevel = confidenceLevel;
+        }
+
+        public BigDecimal getValueAtRisk() {
+            return valueAtRisk;
+        }
+
+        public void setValueAtRisk(BigDecimal valueAtRisk) {
+            this.valueAtRisk = valueAtRisk;
+        }
+
+        public BigDecimal getConditionalValueAtRisk() {
+            return conditionalValueAtRisk;
+        }
+
+        public void setConditionalValueAtRisk(BigDecimal conditionalValueAtRisk) {
+            this.conditionalValueAtRisk = conditionalValueAtRisk;
+        }
+    }
+}
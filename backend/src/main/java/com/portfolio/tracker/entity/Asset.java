@@ -29,12 +29,21 @@ public class Asset {
     @Column(name = "average_price", precision = 19, scale = 2)
     private BigDecimal averagePrice;
 
+    // Listing currency the prices are quoted in
+    @NotBlank
+    @Column(name = "currency", length = 3)
+    private String currency = "USD";
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "portfolio_id", nullable = false)
     private Portfolio portfolio;
@@ -87,6 +96,14 @@ public class Asset {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -111,6 +128,14 @@ public class Asset {
         this.portfolio = portfolio;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
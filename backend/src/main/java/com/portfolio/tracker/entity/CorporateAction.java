@@ -0,0 +1,110 @@
+package com.portfolio.tracker.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A split or cash dividend of a symbol. Splits carry the ratio of new shares
+ * to old, dividends the cash amount per share.
+ */
+@Entity
+@Table(name = "corporate_actions")
+public class CorporateAction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String symbol;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action_type", nullable = false, length = 16)
+    private CorporateActionType actionType;
+
+    @Column(name = "ex_date", nullable = false)
+    private LocalDate exDate;
+
+    @Column(precision = 19, scale = 8)
+    private BigDecimal ratio;
+
+    @Column(precision = 19, scale = 8)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "applied_at")
+    private LocalDateTime appliedAt;
+
+    public CorporateAction() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public CorporateActionType getActionType() {
+        return actionType;
+    }
+
+    public void setActionType(CorporateActionType actionType) {
+        this.actionType = actionType;
+    }
+
+    public LocalDate getExDate() {
+        return exDate;
+    }
+
+    public void setExDate(LocalDate exDate) {
+        this.exDate = exDate;
+    }
+
+    public BigDecimal getRatio() {
+        return ratio;
+    }
+
+    public void setRatio(BigDecimal ratio) {
+        this.ratio = ratio;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getAppliedAt() {
+        return appliedAt;
+    }
+
+    public void setAppliedAt(LocalDateTime appliedAt) {
+        this.appliedAt = appliedAt;
+    }
+}
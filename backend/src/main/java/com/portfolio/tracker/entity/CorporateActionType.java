@@ -0,0 +1,6 @@
+package com.portfolio.tracker.entity;
+
+public enum CorporateActionType {
+    SPLIT,
+    DIVIDEND
+}
@@ -0,0 +1,163 @@
+package com.portfolio.tracker.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Quantity taken out of one tax lot by a sale, with the proceeds and basis
+ * attributable to it
+ */
+@Entity
+@Table(name = "lot_disposals")
+public class LotDisposal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(name = "ticker_symbol")
+    private String tickerSymbol;
+
+    @NotNull
+    @Column(name = "quantity", precision = 19, scale = 8)
+    private BigDecimal quantity;
+
+    @NotNull
+    @Column(name = "proceeds", precision = 19, scale = 2)
+    private BigDecimal proceeds;
+
+    @NotNull
+    @Column(name = "cost_basis", precision = 19, scale = 2)
+    private BigDecimal costBasis;
+
+    @NotNull
+    @Column(name = "realized_gain", precision = 19, scale = 2)
+    private BigDecimal realizedGain;
+
+    @Column(name = "long_term", nullable = false)
+    private boolean longTerm;
+
+    @NotNull
+    @Column(name = "acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @NotNull
+    @Column(name = "disposed_at")
+    private LocalDateTime disposedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "lot_id", nullable = false)
+    private TaxLot lot;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "portfolio_id", nullable = false)
+    private Portfolio portfolio;
+
+    public LotDisposal() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTickerSymbol() {
+        return tickerSymbol;
+    }
+
+    public void setTickerSymbol(String tickerSymbol) {
+        this.tickerSymbol = tickerSymbol;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(BigDecimal quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getProceeds() {
+        return proceeds;
+    }
+
+    public void setProceeds(BigDecimal proceeds) {
+        this.proceeds = proceeds;
+    }
+
+    public BigDecimal getCostBasis() {
+        return costBasis;
+    }
+
+    public void setCostBasis(BigDecimal costBasis) {
+        this.costBasis = costBasis;
+    }
+
+    public BigDecimal getRealizedGain() {
+        return realizedGain;
+    }
+
+    public void setRealizedGain(BigDecimal realizedGain) {
+        this.realizedGain = realizedGain;
+    }
+
+    public boolean isLongTerm() {
+        return longTerm;
+    }
+
+    public void setLongTerm(boolean longTerm) {
+        this.longTerm = longTerm;
+    }
+
+    public LocalDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public void setAcquiredAt(LocalDateTime acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+
+    public LocalDateTime getDisposedAt() {
+        return disposedAt;
+    }
+
+    public void setDisposedAt(LocalDateTime disposedAt) {
+        this.disposedAt = disposedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public TaxLot getLot() {
+        return lot;
+    }
+
+    public void setLot(TaxLot lot) {
+        this.lot = lot;
+    }
+
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    public void setPortfolio(Portfolio portfolio) {
+        this.portfolio = portfolio;
+    }
+}
@@ -0,0 +1,10 @@
+package com.portfolio.tracker.entity;
+
+/**
+ * Which open lots a sale consumes first
+ */
+public enum LotSelectionMethod {
+    FIFO,
+    LIFO,
+    SPECIFIC_ID
+}
@@ -4,19 +4,35 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Stock reference data. Rows are effectively immutable once created, so the
+ * entity and its symbol lookup are kept in the second-level cache.
+ */
 @Entity
 @Table(name = "stocks")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Stock.CACHE_REGION)
+@NaturalIdCache(region = Stock.NATURAL_ID_CACHE_REGION)
 public class Stock {
 
+    public static final String CACHE_REGION = "stocks";
+    public static final String NATURAL_ID_CACHE_REGION = "stocks-by-symbol";
+    public static final String QUERY_CACHE_REGION = "stock-queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank
+    @NaturalId
     @Column(name = "symbol", unique = true)
     private String symbol;
 
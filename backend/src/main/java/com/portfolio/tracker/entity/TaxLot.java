@@ -0,0 +1,128 @@
+package com.portfolio.tracker.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Shares of one position bought together at one cost. Sells deplete lots
+ * rather than the average, so each disposal keeps its own basis and holding
+ * period.
+ */
+@Entity
+@Table(name = "tax_lots")
+public class TaxLot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Column(name = "ticker_symbol")
+    private String tickerSymbol;
+
+    @NotNull
+    @Column(name = "original_quantity", precision = 19, scale = 8)
+    private BigDecimal originalQuantity;
+
+    @NotNull
+    @Column(name = "remaining_quantity", precision = 19, scale = 8)
+    private BigDecimal remainingQuantity;
+
+    @NotNull
+    @Column(name = "cost_per_share", precision = 19, scale = 8)
+    private BigDecimal costPerShare;
+
+    @NotNull
+    @Column(name = "acquired_at")
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "portfolio_id", nullable = false)
+    private Portfolio portfolio;
+
+    public TaxLot() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public TaxLot(Portfolio portfolio, String tickerSymbol, BigDecimal quantity, BigDecimal costPerShare,
+            LocalDateTime acquiredAt) {
+        this();
+        this.portfolio = portfolio;
+        this.tickerSymbol = tickerSymbol;
+        this.originalQuantity = quantity;
+        this.remainingQuantity = quantity;
+        this.costPerShare = costPerShare;
+        this.acquiredAt = acquiredAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTickerSymbol() {
+        return tickerSymbol;
+    }
+
+    public void setTickerSymbol(String tickerSymbol) {
+        this.tickerSymbol = tickerSymbol;
+    }
+
+    public BigDecimal getOriginalQuantity() {
+        return originalQuantity;
+    }
+
+    public void setOriginalQuantity(BigDecimal originalQuantity) {
+        this.originalQuantity = originalQuantity;
+    }
+
+    public BigDecimal getRemainingQuantity() {
+        return remainingQuantity;
+    }
+
+    public void setRemainingQuantity(BigDecimal remainingQuantity) {
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    public BigDecimal getCostPerShare() {
+        return costPerShare;
+    }
+
+    public void setCostPerShare(BigDecimal costPerShare) {
+        this.costPerShare = costPerShare;
+    }
+
+    public LocalDateTime getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    public void setAcquiredAt(LocalDateTime acquiredAt) {
+        this.acquiredAt = acquiredAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Portfolio getPortfolio() {
+        return portfolio;
+    }
+
+    public void setPortfolio(Portfolio portfolio) {
+        this.portfolio = portfolio;
+    }
+}
@@ -1,8 +1,8 @@
 package com.portfolio.tracker.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -18,13 +18,12 @@ public class Transaction {
     @Column(name = "transaction_type")
     private TransactionType transactionType;
 
+    // Signed for SPLIT entries, positive otherwise
     @NotNull
-    @Positive
     @Column(name = "quantity", precision = 19, scale = 8)
     private BigDecimal quantity;
 
-    @NotNull
-    @Positive
+    // Null for SPLIT entries, positive otherwise
     @Column(name = "price_per_share", precision = 19, scale = 2)
     private BigDecimal pricePerShare;
 
@@ -35,6 +34,9 @@ public class Transaction {
     @Column(name = "fees", precision = 19, scale = 2)
     private BigDecimal fees;
 
+    @Column(name = "realized_pnl", precision = 19, scale = 2)
+    private BigDecimal realizedPnl;
+
     @Column(name = "transaction_date")
     private LocalDateTime transactionDate;
 
@@ -55,6 +57,21 @@ public class Transaction {
         this.fees = BigDecimal.ZERO;
     }
 
+    /**
+     * A SPLIT entry adds (or for a reverse split removes) shares and has no
+     * price; every other entry needs a positive quantity and price
+     */
+    @AssertTrue(message = "quantity and price per share must be positive, or a split's quantity non-zero without a price")
+    private boolean isAmountsValid() {
+        if (quantity == null) {
+            return true;
+        }
+        if (transactionType == TransactionType.SPLIT) {
+            return pricePerShare == null && quantity.signum() != 0;
+        }
+        return quantity.signum() > 0 && pricePerShare != null && pricePerShare.signum() > 0;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -104,6 +121,14 @@ public class Transaction {
         this.fees = fees;
     }
 
+    public BigDecimal getRealizedPnl() {
+        return realizedPnl;
+    }
+
+    public void setRealizedPnl(BigDecimal realizedPnl) {
+        this.realizedPnl = realizedPnl;
+    }
+
     public LocalDateTime getTransactionDate() {
         return transactionDate;
     }
@@ -35,6 +35,11 @@ public class User {
     @Column(name = "last_name")
     private String lastName;
 
+    // Currency portfolio totals and performance are reported in
+    @NotBlank
+    @Column(name = "base_currency", length = 3)
+    private String baseCurrency = "USD";
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -98,6 +103,14 @@ public class User {
         this.lastName = lastName;
     }
 
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,16 @@
+package com.portfolio.tracker.event;
+
+/**
+ * Kinds of actions recorded in the audit trail
+ */
+public enum AuditAction {
+    LOGIN,
+    LOGIN_FAILED,
+    LOGOUT,
+    ASSET_ADDED,
+    ASSET_UPDATED,
+    ASSET_REMOVED,
+    SELL,
+    ASSETS_IMPORTED,
+    PORTFOLIO_DELETED
+}
@@ -0,0 +1,38 @@
+package com.portfolio.tracker.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One audit trail entry. Trade fields are null for authentication events.
+ */
+public record AuditEvent(
+        AuditAction action,
+        LocalDateTime occurredAt,
+        Long userId,
+        String username,
+        Long portfolioId,
+        String tickerSymbol,
+        BigDecimal quantity,
+        BigDecimal price,
+        String details) {
+
+    public static AuditEvent position(AuditAction action, Long userId, Long portfolioId, String tickerSymbol,
+            BigDecimal quantity, BigDecimal price) {
+        return new AuditEvent(action, LocalDateTime.now(), userId, null, portfolioId, tickerSymbol, quantity, price,
+                null);
+    }
+
+    public static AuditEvent portfolio(AuditAction action, Long userId, Long portfolioId, String details) {
+        return new AuditEvent(action, LocalDateTime.now(), userId, null, portfolioId, null, null, null, details);
+    }
+
+    public static AuditEvent auth(AuditAction action, Long userId, String username, String details) {
+        return new AuditEvent(action, LocalDateTime.now(), userId, username, null, null, null, null, details);
+    }
+
+    public AuditEvent withUsername(String username) {
+        return new AuditEvent(action, occurredAt, userId, username, portfolioId, tickerSymbol, quantity, price,
+                details);
+    }
+}
@@ -0,0 +1,19 @@
+package com.portfolio.tracker.event;
+
+import com.portfolio.tracker.service.FxMatrix;
+
+/**
+ * Published when a refreshed FX rate matrix replaces the previous one
+ */
+public class FxRatesUpdatedEvent {
+
+    private final FxMatrix matrix;
+
+    public FxRatesUpdatedEvent(FxMatrix matrix) {
+        this.matrix = matrix;
+    }
+
+    public FxMatrix getMatrix() {
+        return matrix;
+    }
+}
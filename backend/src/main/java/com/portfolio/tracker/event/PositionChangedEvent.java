@@ -0,0 +1,60 @@
+package com.portfolio.tracker.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published when a holding in a portfolio is created, modified or removed. A
+ * zero quantity means the position no longer exists.
+ */
+public class PositionChangedEvent {
+
+    private final Long portfolioId;
+    private final String symbol;
+    private final BigDecimal quantity;
+    private final BigDecimal averagePrice;
+    private final String currency;
+
+    public PositionChangedEvent(Long portfolioId, String symbol, BigDecimal quantity, BigDecimal averagePrice) {
+        this(portfolioId, symbol, quantity, averagePrice, null);
+    }
+
+    /**
+     * @param currency listing currency of the holding; null when unchanged
+     */
+    public PositionChangedEvent(Long portfolioId, String symbol, BigDecimal quantity, BigDecimal averagePrice,
+            String currency) {
+        this.portfolioId = portfolioId;
+        this.symbol = symbol;
+        this.quantity = quantity;
+        this.averagePrice = averagePrice;
+        this.currency = currency;
+    }
+
+    public static PositionChangedEvent removed(Long portfolioId, String symbol) {
+        return new PositionChangedEvent(portfolioId, symbol, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    public Long getPortfolioId() {
+        return portfolioId;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getAveragePrice() {
+        return averagePrice;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public boolean isRemoval() {
+        return quantity == null || quantity.signum() == 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.portfolio.tracker.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published whenever a newly observed market price for a symbol differs from
+ * the last one seen
+ */
+public class PriceTickEvent {
+
+    private final String symbol;
+    private final BigDecimal price;
+
+    public PriceTickEvent(String symbol, BigDecimal price) {
+        this.symbol = symbol;
+        this.price = price;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+}
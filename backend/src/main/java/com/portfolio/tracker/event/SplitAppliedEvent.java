@@ -0,0 +1,34 @@
+package com.portfolio.tracker.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Published after a split has been carried into holdings, lots and the
+ * ledger. Anything derived from the symbol's price history before that point
+ * is stale.
+ */
+public class SplitAppliedEvent {
+
+    private final String symbol;
+    private final LocalDate exDate;
+    private final BigDecimal ratio;
+
+    public SplitAppliedEvent(String symbol, LocalDate exDate, BigDecimal ratio) {
+        this.symbol = symbol;
+        this.exDate = exDate;
+        this.ratio = ratio;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public LocalDate getExDate() {
+        return exDate;
+    }
+
+    public BigDecimal getRatio() {
+        return ratio;
+    }
+}
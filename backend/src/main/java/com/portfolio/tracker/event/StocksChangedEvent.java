@@ -0,0 +1,30 @@
+package com.portfolio.tracker.event;
+
+import com.portfolio.tracker.dto.StockSectorRow;
+import com.portfolio.tracker.entity.Stock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published when stock reference rows are created or reclassified. Carries the
+ * new classification so listeners do not have to read it back.
+ */
+public class StocksChangedEvent {
+
+    private final List<StockSectorRow> stocks;
+
+    public StocksChangedEvent(List<StockSectorRow> stocks) {
+        this.stocks = List.copyOf(stocks);
+    }
+
+    public static StocksChangedEvent of(Iterable<Stock> stocks) {
+        List<StockSectorRow> rows = new ArrayList<>();
+        stocks.forEach(stock -> rows.add(new StockSectorRow(stock.getSymbol(), stock.getSector(), stock.getIndustry())));
+        return new StocksChangedEvent(rows);
+    }
+
+    public List<StockSectorRow> getStocks() {
+        return stocks;
+    }
+}
@@ -3,9 +3,12 @@ package com.portfolio.tracker.external;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.Map;
+
 /**
  * Response DTOs for Alpha Vantage API Supports both Global Quote (real-time)
- * and Time Series Daily (historical) data
+ * and Time Series Daily (historical) data, plus the FX exchange rate and FX
+ * daily series
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class AlphaVantageResponse {
@@ -16,12 +19,21 @@ public class AlphaVantageResponse {
     @JsonProperty("Time Series (Daily)")
     private Object timeSeriesDaily;
 
+    @JsonProperty("Time Series FX (Daily)")
+    private Object timeSeriesFxDaily;
+
+    @JsonProperty("Realtime Currency Exchange Rate")
+    private Map<String, String> exchangeRate;
+
     @JsonProperty("Error Message")
     private String errorMessage;
 
     @JsonProperty("Note")
     private String note;
 
+    @JsonProperty("Information")
+    private String information;
+
     // Constructors
     public AlphaVantageResponse() {
     }
@@ -43,6 +55,22 @@ public class AlphaVantageResponse {
         this.timeSeriesDaily = timeSeriesDaily;
     }
 
+    public Object getTimeSeriesFxDaily() {
+        return timeSeriesFxDaily;
+    }
+
+    public void setTimeSeriesFxDaily(Object timeSeriesFxDaily) {
+        this.timeSeriesFxDaily = timeSeriesFxDaily;
+    }
+
+    public Map<String, String> getExchangeRate() {
+        return exchangeRate;
+    }
+
+    public void setExchangeRate(Map<String, String> exchangeRate) {
+        this.exchangeRate = exchangeRate;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
@@ -59,6 +87,14 @@ public class AlphaVantageResponse {
         this.note = note;
     }
 
+    public String getInformation() {
+        return information;
+    }
+
+    public void setInformation(String information) {
+        this.information = information;
+    }
+
     /**
      * Global Quote DTO for real-time stock data
      */
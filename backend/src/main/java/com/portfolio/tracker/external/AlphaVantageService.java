@@ -9,6 +9,7 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -34,6 +35,12 @@ public class AlphaVantageService {
     @Value("${alphavantage.api.base-url}")
     private String baseUrl;
 
+    @Value("${alphavantage.api.adjusted-history:true}")
+    private boolean adjustedHistory;
+
+    // Set once the key turns out not to have the adjusted endpoint, so later calls go straight to the raw one
+    private volatile boolean adjustedHistoryUnavailable;
+
     private final RestTemplate restTemplate;
 
     // Simple in-memory cache to avoid hitting API limits
@@ -73,7 +80,7 @@ public class AlphaVantageService {
 
         try {
             // Build URL for Global Quote API
-            String url = UriComponentsBuilder.fromHttpUrl(baseUrl)
+            String url = UriComponentsBuilder.fromUriString(baseUrl)
                     .queryParam("function", "GLOBAL_QUOTE")
                     .queryParam("symbol", upperSymbol)
                     .queryParam("apikey", apiKey)
@@ -161,6 +168,14 @@ public class AlphaVantageService {
         logger.info("Price and historical caches cleared");
     }
 
+    /**
+     * Drop every cached history of a symbol, e.g. after a split was applied
+     */
+    public void evictHistorical(String symbol) {
+        String prefix = symbol.toUpperCase().trim() + "_";
+        historicalCache.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
     /**
      * Get cache statistics for monitoring
      */
@@ -181,7 +196,9 @@ public class AlphaVantageService {
      * @param symbol Stock ticker symbol
      * @param days Number of days of historical data to fetch (max 100 for daily
      * compact)
-     * @return Map of date to price data, or empty map if unable to fetch
+     * @return Map of date to price data, or empty map if unable to fetch.
+     * Prices and volumes are adjusted for every split after their date, so
+     * the series is continuous across splits
      */
     public Map<LocalDate, HistoricalPrice> getHistoricalData(String symbol, int days) {
         if (symbol == null || symbol.trim().isEmpty()) {
@@ -199,10 +216,11 @@ public class AlphaVantageService {
             return cached.getData();
         }
 
+        boolean adjusted = adjustedHistory && !adjustedHistoryUnavailable;
         try {
-            // Build URL for Time Series Daily API
-            String url = UriComponentsBuilder.fromHttpUrl(baseUrl)
-                    .queryParam("function", "TIME_SERIES_DAILY")
+            // Build URL for Time Series Daily API; the adjusted variant adds dividend and split columns
+            String url = UriComponentsBuilder.fromUriString(baseUrl)
+                    .queryParam("function", adjusted ? "TIME_SERIES_DAILY_ADJUSTED" : "TIME_SERIES_DAILY")
                     .queryParam("symbol", upperSymbol)
                     .queryParam("outputsize", days > 100 ? "full" : "compact")
                     .queryParam("apikey", apiKey)
@@ -230,6 +248,13 @@ public class AlphaVantageService {
                 return getCachedHistoricalDataOrEmpty(cacheKey);
             }
 
+            // Keys without the adjusted endpoint get an "Information" message instead of a series
+            if (adjusted && response.getTimeSeriesDaily() == null && response.getInformation() != null) {
+                logger.warn("Adjusted daily series unavailable, falling back to raw closes: {}", response.getInformation());
+                adjustedHistoryUnavailable = true;
+                return getHistoricalData(upperSymbol, days);
+            }
+
             // Parse time series data
             if (response.getTimeSeriesDaily() != null) {
                 Map<LocalDate, HistoricalPrice> historicalData = parseTimeSeriesData(response.getTimeSeriesDaily(), days);
@@ -259,7 +284,95 @@ public class AlphaVantageService {
     }
 
     /**
-     * Parse the time series data from Alpha Vantage response
+     * Fetch the current exchange rate between two currencies
+     *
+     * @return units of toCurrency per unit of fromCurrency, or null if unable
+     * to fetch
+     */
+    public BigDecimal getExchangeRate(String fromCurrency, String toCurrency) {
+        String from = fromCurrency.toUpperCase().trim();
+        String to = toCurrency.toUpperCase().trim();
+        try {
+            String url = UriComponentsBuilder.fromUriString(baseUrl)
+                    .queryParam("function", "CURRENCY_EXCHANGE_RATE")
+                    .queryParam("from_currency", from)
+                    .queryParam("to_currency", to)
+                    .queryParam("apikey", apiKey)
+                    .toUriString();
+
+            logger.info("Fetching exchange rate {}/{} from Alpha Vantage", from, to);
+            AlphaVantageResponse response = restTemplate.getForObject(url, AlphaVantageResponse.class);
+
+            if (response == null || response.getExchangeRate() == null) {
+                logger.warn("No exchange rate in response for {}/{}", from, to);
+                return null;
+            }
+            String rateStr = response.getExchangeRate().get("5. Exchange Rate");
+            BigDecimal rate = parseBigDecimal(rateStr);
+            return rate.signum() > 0 ? rate : null;
+
+        } catch (ResourceAccessException e) {
+            logger.error("Network error accessing Alpha Vantage API for {}/{}: {}", from, to, e.getMessage());
+            return null;
+        } catch (Exception e) {
+            logger.error("Unexpected error fetching exchange rate {}/{} from Alpha Vantage: {}", from, to, e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Fetch daily exchange rates for the last N days
+     *
+     * @return Map of date to rate, the close being units of toCurrency per
+     * unit of fromCurrency, or empty map if unable to fetch
+     */
+    public Map<LocalDate, HistoricalPrice> getFxHistory(String fromCurrency, String toCurrency, int days) {
+        String from = fromCurrency.toUpperCase().trim();
+        String to = toCurrency.toUpperCase().trim();
+        String cacheKey = "FX:" + from + "/" + to + "_" + days;
+
+        CachedHistoricalData cached = historicalCache.get(cacheKey);
+        if (cached != null && !cached.isExpired()) {
+            return cached.getData();
+        }
+
+        try {
+            String url = UriComponentsBuilder.fromUriString(baseUrl)
+                    .queryParam("function", "FX_DAILY")
+                    .queryParam("from_symbol", from)
+                    .queryParam("to_symbol", to)
+                    .queryParam("outputsize", days > 100 ? "full" : "compact")
+                    .queryParam("apikey", apiKey)
+                    .toUriString();
+
+            logger.info("Fetching FX history {}/{} from Alpha Vantage", from, to);
+            AlphaVantageResponse response = restTemplate.getForObject(url, AlphaVantageResponse.class);
+
+            if (response == null || response.getTimeSeriesFxDaily() == null) {
+                logger.warn("No FX time series in response for {}/{}", from, to);
+                return getCachedHistoricalDataOrEmpty(cacheKey);
+            }
+
+            Map<LocalDate, HistoricalPrice> historicalData = parseTimeSeriesData(response.getTimeSeriesFxDaily(), days);
+            if (!historicalData.isEmpty()) {
+                historicalCache.put(cacheKey, new CachedHistoricalData(historicalData, LocalDateTime.now()));
+            }
+            return historicalData;
+
+        } catch (ResourceAccessException e) {
+            logger.error("Network error accessing Alpha Vantage API for {}/{}: {}", from, to, e.getMessage());
+            return getCachedHistoricalDataOrEmpty(cacheKey);
+        } catch (Exception e) {
+            logger.error("Unexpected error fetching FX history {}/{} from Alpha Vantage: {}", from, to, e.getMessage(), e);
+            return getCachedHistoricalDataOrEmpty(cacheKey);
+        }
+    }
+
+    /**
+     * Parse the time series data from Alpha Vantage response. Walking from the
+     * newest day back, each day's split coefficient divides every earlier
+     * price (and multiplies every earlier volume), which is the same
+     * adjustment the adjusted close carries without the dividend part
      */
     @SuppressWarnings("unchecked")
     private Map<LocalDate, HistoricalPrice> parseTimeSeriesData(Object timeSeriesDaily, int maxDays) {
@@ -276,6 +389,8 @@ public class AlphaVantageService {
                         .limit(maxDays)
                         .collect(Collectors.toList());
 
+                // Product of the split coefficients of every day after the current one
+                BigDecimal splitFactor = BigDecimal.ONE;
                 for (String dateStr : sortedDates) {
                     try {
                         LocalDate date = LocalDate.parse(dateStr, formatter);
@@ -288,18 +403,33 @@ public class AlphaVantageService {
                             String highStr = dailyData.get("2. high");
                             String lowStr = dailyData.get("3. low");
                             String closeStr = dailyData.get("4. close");
-                            String volumeStr = dailyData.get("5. volume");
+                            // The adjusted series moves volume to "6. volume"
+                            String volumeStr = dailyData.containsKey("6. volume")
+                                    ? dailyData.get("6. volume") : dailyData.get("5. volume");
+                            String adjustedCloseStr = dailyData.get("5. adjusted close");
+                            String dividendStr = dailyData.get("7. dividend amount");
+                            String splitStr = dailyData.get("8. split coefficient");
 
                             if (closeStr != null) {
+                                BigDecimal close = parseBigDecimal(closeStr);
+                                BigDecimal splitCoefficient = splitStr != null ? parseBigDecimal(splitStr) : BigDecimal.ONE;
+                                if (splitCoefficient.signum() <= 0) {
+                                    splitCoefficient = BigDecimal.ONE;
+                                }
                                 HistoricalPrice price = new HistoricalPrice(
-                                        parseBigDecimal(openStr),
-                                        parseBigDecimal(highStr),
-                                        parseBigDecimal(lowStr),
-                                        parseBigDecimal(closeStr),
-                                        parseLong(volumeStr)
+                                        splitAdjusted(parseBigDecimal(openStr), splitFactor),
+                                        splitAdjusted(parseBigDecimal(highStr), splitFactor),
+                                        splitAdjusted(parseBigDecimal(lowStr), splitFactor),
+                                        splitAdjusted(close, splitFactor),
+                                        BigDecimal.valueOf(parseLong(volumeStr)).multiply(splitFactor).longValue(),
+                                        close,
+                                        adjustedCloseStr != null ? parseBigDecimal(adjustedCloseStr) : splitAdjusted(close, splitFactor),
+                                        dividendStr != null ? parseBigDecimal(dividendStr) : BigDecimal.ZERO,
+                                        splitCoefficient
                                 );
 
                                 result.put(date, price);
+                                splitFactor = splitFactor.multiply(splitCoefficient);
                             }
                         }
                     } catch (Exception e) {
@@ -314,6 +444,13 @@ public class AlphaVantageService {
         return result;
     }
 
+    private static BigDecimal splitAdjusted(BigDecimal price, BigDecimal splitFactor) {
+        if (splitFactor.compareTo(BigDecimal.ONE) == 0) {
+            return price;
+        }
+        return price.divide(splitFactor, 4, RoundingMode.HALF_UP);
+    }
+
     private BigDecimal parseBigDecimal(String value) {
         if (value == null || value.trim().isEmpty()) {
             return BigDecimal.ZERO;
@@ -398,7 +535,9 @@ public class AlphaVantageService {
     }
 
     /**
-     * Class representing a historical price data point
+     * Class representing a historical price data point. Open, high, low,
+     * close and volume are split-adjusted; rawClose is the close as traded
+     * and adjustedClose also accounts for dividends
      */
     public static class HistoricalPrice {
 
@@ -407,13 +546,26 @@ public class AlphaVantageService {
         private final BigDecimal low;
         private final BigDecimal close;
         private final Long volume;
+        private final BigDecimal rawClose;
+        private final BigDecimal adjustedClose;
+        private final BigDecimal dividendAmount;
+        private final BigDecimal splitCoefficient;
 
         public HistoricalPrice(BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, Long volume) {
+            this(open, high, low, close, volume, close, close, BigDecimal.ZERO, BigDecimal.ONE);
+        }
+
+        public HistoricalPrice(BigDecimal open, BigDecimal high, BigDecimal low, BigDecimal close, Long volume,
+                BigDecimal rawClose, BigDecimal adjustedClose, BigDecimal dividendAmount, BigDecimal splitCoefficient) {
             this.open = open;
             this.high = high;
             this.low = low;
             this.close = close;
             this.volume = volume;
+            this.rawClose = rawClose;
+            this.adjustedClose = adjustedClose;
+            this.dividendAmount = dividendAmount;
+            this.splitCoefficient = splitCoefficient;
         }
 
         public BigDecimal getOpen() {
@@ -435,5 +587,21 @@ public class AlphaVantageService {
         public Long getVolume() {
             return volume;
         }
+
+        public BigDecimal getRawClose() {
+            return rawClose;
+        }
+
+        public BigDecimal getAdjustedClose() {
+            return adjustedClose;
+        }
+
+        public BigDecimal getDividendAmount() {
+            return dividendAmount;
+        }
+
+        public BigDecimal getSplitCoefficient() {
+            return splitCoefficient;
+        }
     }
 }
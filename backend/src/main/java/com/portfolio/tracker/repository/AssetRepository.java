@@ -1,10 +1,14 @@
 package com.portfolio.tracker.repository;
 
+import com.portfolio.tracker.dto.AssetRow;
 import com.portfolio.tracker.entity.Asset;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +25,56 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
     @Query("SELECT a FROM Asset a WHERE a.portfolio.user.id = :userId")
     List<Asset> findByUserId(@Param("userId") Long userId);
 
+    @Query("SELECT new com.portfolio.tracker.dto.AssetRow(a.id, a.portfolio.id, a.tickerSymbol, a.quantity, "
+            + "a.averagePrice, a.currency, a.createdAt, a.updatedAt) FROM Asset a WHERE a.portfolio.id = :portfolioId")
+    List<AssetRow> findRowsByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    @Query("SELECT new com.portfolio.tracker.dto.AssetRow(a.id, a.portfolio.id, a.tickerSymbol, a.quantity, "
+            + "a.averagePrice, a.currency, a.createdAt, a.updatedAt) FROM Asset a WHERE a.portfolio.user.id = :userId")
+    List<AssetRow> findRowsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.portfolio.tracker.dto.AssetRow(a.id, a.portfolio.id, a.tickerSymbol, a.quantity, "
+            + "a.averagePrice, a.currency, a.createdAt, a.updatedAt) FROM Asset a WHERE a.tickerSymbol = :symbol")
+    List<AssetRow> findRowsByTickerSymbol(@Param("symbol") String symbol);
+
+    @Query("SELECT DISTINCT a.tickerSymbol FROM Asset a ORDER BY a.tickerSymbol")
+    List<String> findDistinctTickerSymbols();
+
+    /**
+     * Take shares out of a holding only if it still has them. Returns 0 instead
+     * of overselling; bumps the version so entity writes racing with it fail.
+     */
+    @Modifying
+    @Query("UPDATE Asset a SET a.quantity = a.quantity - :quantity, a.version = a.version + 1, a.updatedAt = :now "
+            + "WHERE a.id = :id AND a.quantity >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") BigDecimal quantity, @Param("now") LocalDateTime now);
+
+    /**
+     * Carry a split into every holding of the symbol in one statement. Only
+     * shares in lots acquired before the ex-date multiply, so a run that
+     * comes after post-split buys still adds the right number of shares; the
+     * average price keeps the holding's total cost.
+     */
+    @Modifying
+    @Query(value = "UPDATE assets a SET quantity = a.quantity + held.quantity * (:ratio - 1), "
+            + "average_price = ROUND(a.average_price * a.quantity / (a.quantity + held.quantity * (:ratio - 1)), 2), "
+            + "version = a.version + 1, updated_at = :now "
+            + "FROM (SELECT portfolio_id, SUM(remaining_quantity) AS quantity FROM tax_lots "
+            + "WHERE ticker_symbol = :symbol AND acquired_at < :exDate AND remaining_quantity > 0 "
+            + "GROUP BY portfolio_id) held "
+            + "WHERE a.portfolio_id = held.portfolio_id AND a.ticker_symbol = :symbol "
+            + "AND a.quantity + held.quantity * (:ratio - 1) > 0",
+            nativeQuery = true)
+    int applySplit(@Param("symbol") String symbol, @Param("exDate") LocalDateTime exDate,
+            @Param("ratio") BigDecimal ratio, @Param("now") LocalDateTime now);
+
+    @Query("SELECT a.quantity FROM Asset a WHERE a.id = :id")
+    Optional<BigDecimal> findQuantityById(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Asset a WHERE a.id = :id AND a.quantity = 0")
+    int deleteIfEmpty(@Param("id") Long id);
+
     boolean existsByPortfolioIdAndTickerSymbol(Long portfolioId, String tickerSymbol);
 
     void deleteByPortfolioIdAndTickerSymbol(Long portfolioId, String tickerSymbol);
@@ -0,0 +1,47 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.entity.CorporateAction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CorporateActionRepository extends JpaRepository<CorporateAction, Long> {
+
+    /**
+     * Record an action unless it is already known; returns 0 for a repeat
+     */
+    @Modifying
+    @Query(value = "INSERT INTO corporate_actions (symbol, action_type, ex_date, ratio, amount, created_at) "
+            + "VALUES (:symbol, :actionType, :exDate, :ratio, :amount, :now) "
+            + "ON CONFLICT (symbol, action_type, ex_date) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("symbol") String symbol,
+            @Param("actionType") String actionType,
+            @Param("exDate") LocalDate exDate,
+            @Param("ratio") BigDecimal ratio,
+            @Param("amount") BigDecimal amount,
+            @Param("now") LocalDateTime now);
+
+    @Query("SELECT c FROM CorporateAction c WHERE c.actionType = com.portfolio.tracker.entity.CorporateActionType.SPLIT "
+            + "AND c.appliedAt IS NULL ORDER BY c.exDate ASC, c.id ASC")
+    List<CorporateAction> findPendingSplits();
+
+    /**
+     * Claim a split for application; returns 0 if another run already applied it
+     */
+    @Modifying
+    @Query("UPDATE CorporateAction c SET c.appliedAt = :now WHERE c.id = :id AND c.appliedAt IS NULL")
+    int markApplied(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Query("SELECT c FROM CorporateAction c WHERE c.actionType = com.portfolio.tracker.entity.CorporateActionType.SPLIT "
+            + "AND c.symbol IN :symbols AND c.exDate > :since ORDER BY c.exDate ASC")
+    List<CorporateAction> findSplitsSince(@Param("symbols") Collection<String> symbols, @Param("since") LocalDate since);
+}
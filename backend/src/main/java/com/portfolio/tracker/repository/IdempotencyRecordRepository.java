@@ -0,0 +1,44 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.scopeKey = :scopeKey AND r.expiresAt > :now")
+    Optional<IdempotencyRecord> findLive(@Param("scopeKey") String scopeKey, @Param("now") LocalDateTime now);
+
+    /**
+     * Record a response unless another instance already holds a live one for
+     * the key, in which case the existing response wins
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_records AS r (scope_key, request_fingerprint, status_code, "
+            + "content_type, response_body, created_at, expires_at) "
+            + "VALUES (:scopeKey, :fingerprint, :statusCode, :contentType, :body, :createdAt, :expiresAt) "
+            + "ON CONFLICT (scope_key) DO UPDATE SET request_fingerprint = EXCLUDED.request_fingerprint, "
+            + "status_code = EXCLUDED.status_code, content_type = EXCLUDED.content_type, "
+            + "response_body = EXCLUDED.response_body, created_at = EXCLUDED.created_at, "
+            + "expires_at = EXCLUDED.expires_at WHERE r.expires_at <= EXCLUDED.created_at",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("scopeKey") String scopeKey,
+            @Param("fingerprint") String fingerprint,
+            @Param("statusCode") int statusCode,
+            @Param("contentType") String contentType,
+            @Param("body") byte[] body,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,27 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.dto.RealizedGainsResponse;
+import com.portfolio.tracker.entity.LotDisposal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface LotDisposalRepository extends JpaRepository<LotDisposal, Long> {
+
+    @Query("SELECT new com.portfolio.tracker.dto.RealizedGainsResponse(extract(year from d.disposedAt), "
+            + "SUM(d.proceeds), SUM(d.costBasis), "
+            + "SUM(CASE WHEN d.longTerm = false THEN d.realizedGain ELSE 0 END), "
+            + "SUM(CASE WHEN d.longTerm = true THEN d.realizedGain ELSE 0 END), "
+            + "COUNT(d)) "
+            + "FROM LotDisposal d JOIN d.portfolio p WHERE p.user.id = :userId "
+            + "GROUP BY extract(year from d.disposedAt) ORDER BY extract(year from d.disposedAt)")
+    List<RealizedGainsResponse> summarizeByYear(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM LotDisposal d WHERE d.portfolio.id = :portfolioId")
+    int deleteByPortfolioId(@Param("portfolioId") Long portfolioId);
+}
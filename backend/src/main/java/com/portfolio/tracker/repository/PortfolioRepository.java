@@ -1,10 +1,13 @@
 package com.portfolio.tracker.repository;
 
+import com.portfolio.tracker.dto.PortfolioRow;
 import com.portfolio.tracker.entity.Portfolio;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,10 +21,26 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
     @Query("SELECT p FROM Portfolio p WHERE p.user.id = :userId ORDER BY p.createdAt DESC")
     List<Portfolio> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
 
+    @Query("SELECT new com.portfolio.tracker.dto.PortfolioRow(p.id, p.portfolioName, p.user.id, p.user.baseCurrency, p.createdAt) "
+            + "FROM Portfolio p WHERE p.id = :id AND p.user.id = :userId")
+    Optional<PortfolioRow> findRowByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Query("SELECT new com.portfolio.tracker.dto.PortfolioRow(p.id, p.portfolioName, p.user.id, p.user.baseCurrency, p.createdAt) "
+            + "FROM Portfolio p WHERE p.user.id = :userId ORDER BY p.createdAt DESC")
+    List<PortfolioRow> findRowsByUserId(@Param("userId") Long userId);
+
     @Query("SELECT p FROM Portfolio p "
+            + "JOIN FETCH p.user "
             + "LEFT JOIN FETCH p.assets "
             + "WHERE p.id = :portfolioId")
     Optional<Portfolio> findByIdWithAssets(@Param("portfolioId") Long portfolioId);
 
+    @Query("SELECT p FROM Portfolio p WHERE p.user.id = :userId ORDER BY p.currentValue DESC, p.id")
+    List<Portfolio> findByUserIdOrderByCurrentValueDesc(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Portfolio p SET p.currentValue = :currentValue WHERE p.id = :portfolioId")
+    int updateCurrentValue(@Param("portfolioId") Long portfolioId, @Param("currentValue") BigDecimal currentValue);
+
     boolean existsByPortfolioNameAndUserId(String portfolioName, Long userId);
 }
@@ -0,0 +1,19 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.entity.PositionSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface PositionSnapshotRepository extends JpaRepository<PositionSnapshot, Long> {
+
+    Optional<PositionSnapshot> findTopByPortfolioIdAndTickerSymbolOrderByLastTransactionIdDesc(Long portfolioId, String tickerSymbol);
+
+    @Modifying
+    @Query("DELETE FROM PositionSnapshot s WHERE s.portfolio.id = :portfolioId")
+    int deleteByPortfolioId(@Param("portfolioId") Long portfolioId);
+}
@@ -1,23 +1,44 @@
 package com.portfolio.tracker.repository;
 
+import com.portfolio.tracker.dto.StockSectorRow;
 import com.portfolio.tracker.entity.Stock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface StockRepository extends JpaRepository<Stock, Long> {
-
-    Optional<Stock> findBySymbol(String symbol);
+public interface StockRepository extends JpaRepository<Stock, Long>, StockRepositoryCustom {
 
     boolean existsBySymbol(String symbol);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Stock.QUERY_CACHE_REGION)
+    })
     List<Stock> findBySectorIgnoreCase(String sector);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Stock.QUERY_CACHE_REGION)
+    })
     List<Stock> findByIndustryIgnoreCase(String industry);
 
     @Query("SELECT s FROM Stock s WHERE UPPER(s.companyName) LIKE UPPER(CONCAT('%', :searchTerm, '%')) OR UPPER(s.symbol) LIKE UPPER(CONCAT('%', :searchTerm, '%'))")
     List<Stock> findByCompanyNameOrSymbolContainingIgnoreCase(String searchTerm);
+
+    @Query("SELECT new com.portfolio.tracker.dto.StockSectorRow(s.symbol, s.sector, s.industry) FROM Stock s")
+    List<StockSectorRow> findAllSectorRows();
+
+    /**
+     * One IN query for symbols the natural-id cache may not hold
+     */
+    @Query("SELECT new com.portfolio.tracker.dto.StockSectorRow(s.symbol, s.sector, s.industry) FROM Stock s "
+            + "WHERE s.symbol IN :symbols")
+    List<StockSectorRow> findSectorRowsBySymbolIn(@Param("symbols") Collection<String> symbols);
 }
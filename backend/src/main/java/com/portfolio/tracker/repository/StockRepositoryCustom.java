@@ -0,0 +1,16 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.entity.Stock;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Symbol lookups resolved through the natural-id cache instead of a query
+ */
+public interface StockRepositoryCustom {
+
+    Optional<Stock> findBySymbol(String symbol);
+
+    List<Stock> findBySymbolIn(Collection<String> symbols);
+}
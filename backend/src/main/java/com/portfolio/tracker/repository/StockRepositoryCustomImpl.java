@@ -0,0 +1,80 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.entity.Stock;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Transactional(readOnly = true)
+class StockRepositoryCustomImpl implements StockRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Symbol to id comes from the natural-id region and the row from the
+     * entity region, so a repeated lookup does not touch the database
+     */
+    @Override
+    public Optional<Stock> findBySymbol(String symbol) {
+        return session().bySimpleNaturalId(Stock.class).loadOptional(symbol);
+    }
+
+    /**
+     * Symbols whose id is in the natural-id region are loaded by id, which the
+     * entity region serves; every other symbol is loaded with one IN query,
+     * and those rows are cached on load for the next call
+     */
+    @Override
+    public List<Stock> findBySymbolIn(Collection<String> symbols) {
+        if (symbols.isEmpty()) {
+            return List.of();
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Stock.class);
+        NaturalIdDataAccess naturalIds = persister.getNaturalIdCacheAccessStrategy();
+
+        List<Object> cachedIds = new ArrayList<>();
+        Set<String> misses = new LinkedHashSet<>();
+        for (String symbol : new LinkedHashSet<>(symbols)) {
+            Object id = null;
+            if (naturalIds != null && session.getCacheMode().isGetEnabled()) {
+                id = naturalIds.get(session, naturalIds.generateCacheKey(symbol, persister, session));
+            }
+            if (id != null) {
+                cachedIds.add(id);
+            } else {
+                misses.add(symbol);
+            }
+        }
+
+        List<Stock> stocks = new ArrayList<>(symbols.size());
+        for (Object id : cachedIds) {
+            Stock stock = session.get(Stock.class, id);
+            if (stock != null) {
+                stocks.add(stock);
+            }
+        }
+        if (!misses.isEmpty()) {
+            stocks.addAll(entityManager.createQuery("SELECT s FROM Stock s WHERE s.symbol IN :symbols", Stock.class)
+                    .setParameter("symbols", misses)
+                    .getResultList());
+        }
+        return stocks;
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.dto.TaxLotResponse;
+import com.portfolio.tracker.entity.TaxLot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaxLotRepository extends JpaRepository<TaxLot, Long> {
+
+    @Query("SELECT l FROM TaxLot l WHERE l.portfolio.id = :portfolioId AND l.tickerSymbol = :symbol "
+            + "AND l.remainingQuantity > 0 ORDER BY l.acquiredAt ASC, l.id ASC")
+    List<TaxLot> findOpenLots(@Param("portfolioId") Long portfolioId, @Param("symbol") String symbol);
+
+    @Query("SELECT new com.portfolio.tracker.dto.TaxLotResponse(l.id, l.tickerSymbol, l.originalQuantity, "
+            + "l.remainingQuantity, l.costPerShare, l.acquiredAt) FROM TaxLot l "
+            + "WHERE l.portfolio.id = :portfolioId AND l.remainingQuantity > 0 "
+            + "ORDER BY l.tickerSymbol ASC, l.acquiredAt ASC, l.id ASC")
+    List<TaxLotResponse> findOpenLotRows(@Param("portfolioId") Long portfolioId);
+
+    /**
+     * Zero out the open lots of a position that was removed or restated
+     * without a sale; depleted lots stay as the parents of past disposals
+     */
+    @Modifying
+    @Query("UPDATE TaxLot l SET l.remainingQuantity = 0 WHERE l.portfolio.id = :portfolioId "
+            + "AND l.tickerSymbol = :symbol AND l.remainingQuantity > 0")
+    int closeOpenLots(@Param("portfolioId") Long portfolioId, @Param("symbol") String symbol);
+
+    /**
+     * Restate the open lots acquired before a split in post-split shares,
+     * keeping each lot's total cost
+     */
+    @Modifying
+    @Query("UPDATE TaxLot l SET l.originalQuantity = l.originalQuantity * :ratio, "
+            + "l.remainingQuantity = l.remainingQuantity * :ratio, l.costPerShare = l.costPerShare / :ratio "
+            + "WHERE l.tickerSymbol = :symbol AND l.acquiredAt < :exDate AND l.remainingQuantity > 0")
+    int applySplit(@Param("symbol") String symbol, @Param("exDate") LocalDateTime exDate,
+            @Param("ratio") BigDecimal ratio);
+
+    @Modifying
+    @Query("DELETE FROM TaxLot l WHERE l.portfolio.id = :portfolioId")
+    int deleteByPortfolioId(@Param("portfolioId") Long portfolioId);
+}
@@ -1,17 +1,32 @@
 package com.portfolio.tracker.repository;
 
+import com.portfolio.tracker.dto.PositionKeyRow;
+import com.portfolio.tracker.dto.RealizedPnlSummaryResponse;
+import com.portfolio.tracker.dto.TransactionExportRow;
+import com.portfolio.tracker.dto.TransactionRow;
 import com.portfolio.tracker.entity.Transaction;
 import com.portfolio.tracker.entity.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
+    String TRANSACTION_ROW = "new com.portfolio.tracker.dto.TransactionRow(t.id, t.transactionDate, t.createdAt, "
+            + "p.id, p.portfolioName, s.symbol, t.transactionType, t.quantity, t.pricePerShare, t.totalAmount, "
+            + "t.fees, t.realizedPnl)";
+
     List<Transaction> findByPortfolioId(Long portfolioId);
 
     List<Transaction> findByStockId(Long stockId);
@@ -20,9 +35,85 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 
     List<Transaction> findByTransactionType(TransactionType transactionType);
 
-    @Query("SELECT t FROM Transaction t WHERE t.portfolio.user.id = :userId ORDER BY t.transactionDate DESC")
-    List<Transaction> findByUserIdOrderByTransactionDateDesc(@Param("userId") Long userId);
-
     @Query("SELECT t FROM Transaction t WHERE t.portfolio.id = :portfolioId AND t.transactionDate BETWEEN :startDate AND :endDate ORDER BY t.transactionDate DESC")
     List<Transaction> findByPortfolioIdAndTransactionDateBetween(@Param("portfolioId") Long portfolioId, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
+
+    @Query("SELECT t FROM Transaction t WHERE t.portfolio.id = :portfolioId AND t.stock.symbol = :symbol AND t.id > :afterId ORDER BY t.id ASC")
+    List<Transaction> findPositionLedgerAfter(@Param("portfolioId") Long portfolioId, @Param("symbol") String symbol, @Param("afterId") Long afterId);
+
+    /**
+     * Ledgers holding sells recorded before realized P&L was stored with them
+     */
+    @Query("SELECT DISTINCT new com.portfolio.tracker.dto.PositionKeyRow(t.portfolio.id, t.stock.symbol) "
+            + "FROM Transaction t WHERE t.transactionType = com.portfolio.tracker.entity.TransactionType.SELL "
+            + "AND t.realizedPnl IS NULL")
+    List<PositionKeyRow> findLedgersWithUnpricedSells();
+
+    @Query("SELECT MAX(t.transactionDate) FROM Transaction t WHERE t.portfolio.id = :portfolioId")
+    LocalDateTime findLatestTransactionDate(@Param("portfolioId") Long portfolioId);
+
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.stock WHERE t.portfolio.id = :portfolioId AND t.transactionDate >= :since ORDER BY t.transactionDate ASC, t.id ASC")
+    List<Transaction> findByPortfolioIdSinceWithStock(@Param("portfolioId") Long portfolioId, @Param("since") LocalDateTime since);
+
+    // Keyset pages ordered newest first; rows strictly before (beforeDate, beforeId) in that order.
+    // Projected straight into TransactionRow so no entity or proxy enters the persistence context.
+
+    @Query("SELECT " + TRANSACTION_ROW + " FROM Transaction t JOIN t.portfolio p JOIN t.stock s "
+            + "WHERE p.user.id = :userId "
+            + "AND (t.transactionDate < :beforeDate OR (t.transactionDate = :beforeDate AND t.id < :beforeId)) "
+            + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionRow> findUserPage(@Param("userId") Long userId,
+            @Param("beforeDate") LocalDateTime beforeDate, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT " + TRANSACTION_ROW + " FROM Transaction t JOIN t.portfolio p JOIN t.stock s "
+            + "WHERE p.user.id = :userId AND t.transactionType = :type "
+            + "AND (t.transactionDate < :beforeDate OR (t.transactionDate = :beforeDate AND t.id < :beforeId)) "
+            + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionRow> findUserPageByType(@Param("userId") Long userId, @Param("type") TransactionType type,
+            @Param("beforeDate") LocalDateTime beforeDate, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT " + TRANSACTION_ROW + " FROM Transaction t JOIN t.portfolio p JOIN t.stock s "
+            + "WHERE p.id = :portfolioId "
+            + "AND (t.transactionDate < :beforeDate OR (t.transactionDate = :beforeDate AND t.id < :beforeId)) "
+            + "ORDER BY t.transactionDate DESC, t.id DESC")
+    List<TransactionRow> findPortfolioPage(@Param("portfolioId") Long portfolioId,
+            @Param("beforeDate") LocalDateTime beforeDate, @Param("beforeId") Long beforeId, Pageable pageable);
+
+    @Query("SELECT new com.portfolio.tracker.dto.RealizedPnlSummaryResponse(p.id, SUM(t.realizedPnl), COUNT(t)) "
+            + "FROM Transaction t JOIN t.portfolio p "
+            + "WHERE p.user.id = :userId AND t.transactionType = com.portfolio.tracker.entity.TransactionType.SELL "
+            + "GROUP BY p.id")
+    List<RealizedPnlSummaryResponse> summarizeRealizedPnlByPortfolio(@Param("userId") Long userId);
+
+    /**
+     * Full history of a user as a forward-only cursor of unmanaged rows, oldest
+     * first. Must be consumed inside a read-only transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.portfolio.tracker.dto.TransactionExportRow(t.id, t.transactionDate, p.id, p.portfolioName, "
+            + "s.symbol, t.transactionType, t.quantity, t.pricePerShare, t.totalAmount, t.fees, t.realizedPnl) "
+            + "FROM Transaction t JOIN t.portfolio p JOIN t.stock s "
+            + "WHERE p.user.id = :userId ORDER BY t.transactionDate ASC, t.id ASC")
+    Stream<TransactionExportRow> streamExportRowsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Ledger entry for a split in every portfolio holding the symbol before
+     * its ex-date: the shares it adds (negative for a reverse split), with no
+     * price and no cost. Must run before the lots are restated, since the
+     * holding before the split is read from them.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO transactions (transaction_type, quantity, price_per_share, total_amount, fees, "
+            + "transaction_date, created_at, portfolio_id, stock_id) "
+            + "SELECT 'SPLIT', held.quantity * (:ratio - 1), NULL, 0, 0, :exDate, :now, held.portfolio_id, s.id "
+            + "FROM (SELECT portfolio_id, SUM(remaining_quantity) AS quantity FROM tax_lots "
+            + "WHERE ticker_symbol = :symbol AND acquired_at < :exDate AND remaining_quantity > 0 "
+            + "GROUP BY portfolio_id) held "
+            + "JOIN stocks s ON s.symbol = :symbol",
+            nativeQuery = true)
+    int insertSplitEntries(@Param("symbol") String symbol, @Param("exDate") LocalDateTime exDate,
+            @Param("ratio") BigDecimal ratio, @Param("now") LocalDateTime now);
 }
@@ -4,77 +4,162 @@ import com.portfolio.tracker.dto.AssetRecommendation;
 import com.portfolio.tracker.dto.DiversificationInsightResponse;
 import com.portfolio.tracker.entity.Asset;
 import com.portfolio.tracker.entity.Portfolio;
-import com.portfolio.tracker.entity.Stock;
 import com.portfolio.tracker.exception.ResourceNotFoundException;
 import com.portfolio.tracker.repository.PortfolioRepository;
-import com.portfolio.tracker.repository.StockRepository;
+import com.portfolio.tracker.util.FixedPoint;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class AiInsightService {
 
-    private final PortfolioRepository portfolioRepository;
-    private final StockRepository stockRepository;
+    // Thresholds in FixedPoint units; allocations and scores are percentages
+    private static final long PERCENT_40 = FixedPoint.units(40);
+    private static final long PERCENT_60 = FixedPoint.units(60);
+    private static final long PERCENT_70 = FixedPoint.units(70);
+    private static final long PERCENT_80 = FixedPoint.units(80);
+    private static final long PERCENT_100 = FixedPoint.units(100);
+
+    // Average pairwise correlation above / below which an insight is added
+    private static final double HIGH_CORRELATION = 0.7;
+    private static final double LOW_CORRELATION = 0.3;
 
-    public AiInsightService(PortfolioRepository portfolioRepository, StockRepository stockRepository) {
+    private final PortfolioRepository portfolioRepository;
+    private final SectorIndex sectorIndex;
+    private final CorrelationService correlationService;
+    private final PortfolioOptimizerService optimizerService;
+    private final FxRateService fxRateService;
+
+    public AiInsightService(PortfolioRepository portfolioRepository, SectorIndex sectorIndex,
+            CorrelationService correlationService, PortfolioOptimizerService optimizerService,
+            FxRateService fxRateService) {
         this.portfolioRepository = portfolioRepository;
-        this.stockRepository = stockRepository;
+        this.sectorIndex = sectorIndex;
+        this.correlationService = correlationService;
+        this.optimizerService = optimizerService;
+        this.fxRateService = fxRateService;
     }
 
     public DiversificationInsightResponse generateDiversificationInsights(Long portfolioId) {
         Portfolio portfolio = portfolioRepository.findByIdWithAssets(portfolioId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
 
+        // Holdings listed in different currencies are weighed against each other in the owner's one
+        FxMatrix matrix = fxRateService.getMatrix();
+        String baseCurrency = portfolio.getUser().getBaseCurrency();
+        String currency = matrix.supports(baseCurrency) ? baseCurrency : FxMatrix.PIVOT;
+
         if (portfolio.getAssets() == null || portfolio.getAssets().isEmpty()) {
-            return createEmptyPortfolioInsight(portfolio);
+            return createEmptyPortfolioInsight(portfolio, currency);
         }
 
-        Map<String, BigDecimal> sectorAllocation = calculateSectorAllocationFromAssets(portfolio.getAssets());
+        Map<String, BigDecimal> holdingValues = calculateHoldingValues(portfolio.getAssets(), matrix, currency);
+        Map<String, Long> sectorAllocation = calculateSectorAllocation(holdingValues);
         int totalPositions = portfolio.getAssets().size();
 
-        // Calculate diversification score
-        BigDecimal diversificationScore = calculateDiversificationScore(sectorAllocation, totalPositions);
+        // Calculate diversification score, blending in co-movement when there is history for it
+        long diversificationScore = calculateDiversificationScore(sectorAllocation, totalPositions);
+        Map<String, Double> weights = new LinkedHashMap<>();
+        holdingValues.forEach((symbol, value) -> weights.put(symbol, value.doubleValue()));
+        CorrelationSummary correlation = summarizeCorrelation(weights);
+        if (correlation != null) {
+            diversificationScore = FixedPoint.divide(FixedPoint.add(diversificationScore, correlation.score()), 2);
+        }
 
         // Determine risk level
         String riskLevel = determineRiskLevel(diversificationScore, sectorAllocation);
 
         // Generate recommendations
-        List<AssetRecommendation> recommendations = generateRecommendations(sectorAllocation);
+        List<AssetRecommendation> recommendations = optimizerService.recommend(weights, 3);
 
         // Generate insights
         List<String> insights = generateInsights(sectorAllocation, totalPositions, diversificationScore);
+        if (correlation != null && correlation.averageCorrelation() > HIGH_CORRELATION) {
+            insights.add(String.format("Holdings are highly correlated (average %.2f) and tend to move together. "
+                    + "Sector spread alone may overstate diversification.", correlation.averageCorrelation()));
+        } else if (correlation != null && correlation.averageCorrelation() < LOW_CORRELATION) {
+            insights.add(String.format("Holdings have low average correlation (%.2f), which helps cushion "
+                    + "moves in any single position.", correlation.averageCorrelation()));
+        }
 
         // Overall assessment
         String overallAssessment = generateOverallAssessment(diversificationScore);
 
-        return new DiversificationInsightResponse(
+        DiversificationInsightResponse response = new DiversificationInsightResponse(
                 portfolio.getId(),
                 portfolio.getPortfolioName(),
-                diversificationScore,
+                FixedPoint.toBigDecimal(diversificationScore),
                 riskLevel,
-                sectorAllocation,
+                toPercentages(sectorAllocation),
                 recommendations,
                 insights,
                 overallAssessment
         );
+        response.setCurrency(currency);
+        if (correlation != null) {
+            response.setCorrelationScore(FixedPoint.toBigDecimal(correlation.score()));
+            response.setAverageCorrelation(BigDecimal.valueOf(correlation.averageCorrelation())
+                    .setScale(4, RoundingMode.HALF_UP));
+        }
+        return response;
     }
 
-    private DiversificationInsightResponse createEmptyPortfolioInsight(Portfolio portfolio) {
-        List<AssetRecommendation> recommendations = Arrays.asList(
-                new AssetRecommendation("SPY", "SPDR S&P 500 ETF", "Diversified",
-                        new BigDecimal("30"), "Broad market exposure for instant diversification", new BigDecimal("420.50")),
-                new AssetRecommendation("QQQ", "Invesco QQQ Trust", "Technology",
-                        new BigDecimal("20"), "Technology sector exposure", new BigDecimal("385.20")),
-                new AssetRecommendation("VTI", "Vanguard Total Stock Market ETF", "Diversified",
-                        new BigDecimal("25"), "Total market exposure with low fees", new BigDecimal("245.80"))
-        );
+    /**
+     * Correlation-aware score from the diversification ratio
+     * DR = sum(w_i * sigma_i) / sigma_p of cost-basis weights: 1 - 1/DR^2 is
+     * the share of stand-alone volatility diversified away, 0 for a single
+     * position or perfectly correlated holdings. Null for fewer than two
+     * symbols or when no pair shares enough history.
+     */
+    private CorrelationSummary summarizeCorrelation(Map<String, Double> values) {
+        if (values.size() < 2) {
+            return null;
+        }
+
+        CorrelationService.CorrelationMatrix matrix = correlationService.getMatrix(new ArrayList<>(values.keySet()));
+        int n = matrix.symbols().size();
+        double total = values.values().stream().mapToDouble(value -> value).sum();
+        if (total <= 0) {
+            return null;
+        }
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = values.get(matrix.symbols().get(i)) / total;
+        }
+
+        double[][] covariance = matrix.covariance();
+        double[][] correlation = matrix.correlation();
+        double weightedVolatility = 0.0;
+        double portfolioVariance = 0.0;
+        double correlationSum = 0.0;
+        double pairWeight = 0.0;
+        for (int i = 0; i < n; i++) {
+            weightedVolatility += weights[i] * Math.sqrt(covariance[i][i]);
+            for (int j = 0; j < n; j++) {
+                portfolioVariance += weights[i] * weights[j] * covariance[i][j];
+                if (j > i && !Double.isNaN(correlation[i][j])) {
+                    correlationSum += weights[i] * weights[j] * correlation[i][j];
+                    pairWeight += weights[i] * weights[j];
+                }
+            }
+        }
+        if (pairWeight == 0.0 || portfolioVariance <= 0.0) {
+            return null;
+        }
 
-        return new DiversificationInsightResponse(
+        double ratio = weightedVolatility / Math.sqrt(portfolioVariance);
+        double score = Math.max(0.0, Math.min(1.0, 1.0 - 1.0 / (ratio * ratio))) * 100;
+        long fixedScore = FixedPoint.of(BigDecimal.valueOf(score).setScale(4, RoundingMode.HALF_UP));
+        return new CorrelationSummary(fixedScore, correlationSum / pairWeight);
+    }
+
+    private DiversificationInsightResponse createEmptyPortfolioInsight(Portfolio portfolio, String currency) {
+        List<AssetRecommendation> recommendations = optimizerService.recommend(Map.of(), 3);
+
+        DiversificationInsightResponse response = new DiversificationInsightResponse(
                 portfolio.getId(),
                 portfolio.getPortfolioName(),
                 BigDecimal.ZERO,
@@ -84,128 +169,124 @@ public class AiInsightService {
                 Arrays.asList("Portfolio is empty. Consider adding diversified ETFs to start building a balanced portfolio."),
                 "Start building your portfolio with broad market ETFs for instant diversification."
         );
+        response.setCurrency(currency);
+        return response;
     }
 
-    private Map<String, BigDecimal> calculateSectorAllocationFromAssets(List<Asset> assets) {
+    /**
+     * Sector weights of the converted holding values. Summed in BigDecimal,
+     * since a large portfolio can exceed the fixed-point range.
+     */
+    private Map<String, Long> calculateSectorAllocation(Map<String, BigDecimal> holdingValues) {
         Map<String, BigDecimal> sectorValues = new HashMap<>();
         BigDecimal totalValue = BigDecimal.ZERO;
 
-        // Calculate total value and sector values
-        for (Asset asset : assets) {
-            // Look up stock information by ticker symbol
-            Optional<Stock> stockOpt = stockRepository.findBySymbol(asset.getTickerSymbol());
+        // Sectors for every holding from the in-memory index, not a lookup per asset
+        Map<String, String> sectors = sectorIndex.sectorsOf(holdingValues.keySet());
 
-            String sector = stockOpt.map(Stock::getSector).orElse("Other");
-            if (sector == null || sector.trim().isEmpty()) {
-                sector = "Other";
-            }
-
-            BigDecimal assetValue = asset.getQuantity().multiply(asset.getAveragePrice());
-            sectorValues.merge(sector, assetValue, BigDecimal::add);
-            totalValue = totalValue.add(assetValue);
+        // Calculate total value and sector values
+        for (Map.Entry<String, BigDecimal> holding : holdingValues.entrySet()) {
+            String sector = sectors.getOrDefault(holding.getKey(), "Other");
+            sectorValues.merge(sector, holding.getValue(), BigDecimal::add);
+            totalValue = totalValue.add(holding.getValue());
         }
 
         // Convert to percentages
-        return convertToPercentages(sectorValues, totalValue);
+        Map<String, Long> sectorPercentages = new HashMap<>();
+        if (totalValue.signum() > 0) {
+            for (Map.Entry<String, BigDecimal> entry : sectorValues.entrySet()) {
+                sectorPercentages.put(entry.getKey(), FixedPoint.of(FixedPoint.percentage(entry.getValue(), totalValue)));
+            }
+        }
+        return sectorPercentages;
     }
 
-    private Map<String, BigDecimal> convertToPercentages(Map<String, BigDecimal> sectorValues, BigDecimal totalValue) {
-        Map<String, BigDecimal> sectorPercentages = new HashMap<>();
-        for (Map.Entry<String, BigDecimal> entry : sectorValues.entrySet()) {
-            if (totalValue.compareTo(BigDecimal.ZERO) > 0) {
-                BigDecimal percentage = entry.getValue()
-                        .divide(totalValue, 4, RoundingMode.HALF_UP)
-                        .multiply(new BigDecimal("100"));
-                sectorPercentages.put(entry.getKey(), percentage);
+    static Map<String, Long> convertToPercentages(Map<String, Long> sectorValues, long totalValue) {
+        Map<String, Long> sectorPercentages = new HashMap<>();
+        for (Map.Entry<String, Long> entry : sectorValues.entrySet()) {
+            if (totalValue > 0) {
+                sectorPercentages.put(entry.getKey(), FixedPoint.percentage(entry.getValue(), totalValue));
             }
         }
         return sectorPercentages;
     }
 
-    private BigDecimal calculateDiversificationScore(Map<String, BigDecimal> sectorAllocation, int numberOfHoldings) {
+    private Map<String, BigDecimal> toPercentages(Map<String, Long> sectorAllocation) {
+        Map<String, BigDecimal> percentages = new HashMap<>();
+        sectorAllocation.forEach((sector, percentage) -> percentages.put(sector, FixedPoint.toBigDecimal(percentage, 4)));
+        return percentages;
+    }
+
+    /**
+     * Inverse sector HHI on a 0-100 scale plus a bonus for the number of
+     * holdings; shared with the what-if simulator
+     */
+    static long calculateDiversificationScore(Map<String, Long> sectorAllocation, int numberOfHoldings) {
         if (sectorAllocation.isEmpty()) {
-            return BigDecimal.ZERO;
+            return FixedPoint.ZERO;
         }
 
         // Base score calculation using Herfindahl-Hirschman Index inverse
-        BigDecimal hhi = sectorAllocation.values().stream()
-                .map(percentage -> percentage.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP))
-                .map(decimal -> decimal.multiply(decimal))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long hhi = FixedPoint.ZERO;
+        for (long percentage : sectorAllocation.values()) {
+            long share = FixedPoint.round(FixedPoint.divide(percentage, 100), 4);
+            hhi = FixedPoint.add(hhi, FixedPoint.multiply(share, share));
+        }
 
         // Convert HHI to diversification score (0-100 scale)
-        BigDecimal diversificationScore = BigDecimal.ONE.subtract(hhi).multiply(new BigDecimal("100"));
+        long diversificationScore = Math.multiplyExact(FixedPoint.subtract(FixedPoint.ONE, hhi), 100);
 
         // Adjust based on number of holdings (more holdings generally means better diversification)
-        BigDecimal holdingBonus = BigDecimal.valueOf(Math.min(numberOfHoldings * 2, 20));
-        diversificationScore = diversificationScore.add(holdingBonus);
+        long holdingBonus = FixedPoint.units(Math.min(numberOfHoldings * 2, 20));
+        diversificationScore = FixedPoint.add(diversificationScore, holdingBonus);
 
         // Cap at 100
-        return diversificationScore.min(new BigDecimal("100"));
+        return FixedPoint.min(diversificationScore, PERCENT_100);
     }
 
-    private String determineRiskLevel(BigDecimal diversificationScore, Map<String, BigDecimal> sectorAllocation) {
+    static String determineRiskLevel(long diversificationScore, Map<String, Long> sectorAllocation) {
         // Check for concentration risk
         boolean hasHighConcentration = sectorAllocation.values().stream()
-                .anyMatch(percentage -> percentage.compareTo(new BigDecimal("60")) > 0);
+                .anyMatch(percentage -> percentage > PERCENT_60);
 
-        if (hasHighConcentration || diversificationScore.compareTo(new BigDecimal("40")) < 0) {
+        if (hasHighConcentration || diversificationScore < PERCENT_40) {
             return "HIGH";
-        } else if (diversificationScore.compareTo(new BigDecimal("70")) >= 0) {
+        } else if (diversificationScore >= PERCENT_70) {
             return "LOW";
         } else {
             return "MODERATE";
         }
     }
 
-    private List<AssetRecommendation> generateRecommendations(Map<String, BigDecimal> sectorAllocation) {
-        List<AssetRecommendation> recommendations = new ArrayList<>();
-
-        // Check for missing major sectors and recommend accordingly
-        if (!sectorAllocation.containsKey("Healthcare")
-                || sectorAllocation.getOrDefault("Healthcare", BigDecimal.ZERO).compareTo(new BigDecimal("10")) < 0) {
-            recommendations.add(new AssetRecommendation("JNJ", "Johnson & Johnson", "Healthcare",
-                    new BigDecimal("10"), "Add healthcare sector exposure for defensive positioning", new BigDecimal("162.30")));
-        }
-
-        if (!sectorAllocation.containsKey("Financial Services")
-                || sectorAllocation.getOrDefault("Financial Services", BigDecimal.ZERO).compareTo(new BigDecimal("10")) < 0) {
-            recommendations.add(new AssetRecommendation("JPM", "JPMorgan Chase & Co", "Financial Services",
-                    new BigDecimal("10"), "Financial sector exposure benefits from rising interest rates", new BigDecimal("165.40")));
-        }
-
-        if (!sectorAllocation.containsKey("Consumer Defensive")
-                || sectorAllocation.getOrDefault("Consumer Defensive", BigDecimal.ZERO).compareTo(new BigDecimal("5")) < 0) {
-            recommendations.add(new AssetRecommendation("PG", "Procter & Gamble", "Consumer Defensive",
-                    new BigDecimal("8"), "Consumer staples provide stability during market downturns", new BigDecimal("155.75")));
-        }
-
-        // If too concentrated in Technology, recommend other sectors
-        if (sectorAllocation.getOrDefault("Technology", BigDecimal.ZERO).compareTo(new BigDecimal("50")) > 0) {
-            recommendations.add(new AssetRecommendation("VTI", "Vanguard Total Stock Market ETF", "Diversified",
-                    new BigDecimal("20"), "Reduce technology concentration with broad market exposure", new BigDecimal("245.80")));
-        }
-
-        // If too concentrated in any single sector, recommend diversification
-        for (Map.Entry<String, BigDecimal> entry : sectorAllocation.entrySet()) {
-            if (entry.getValue().compareTo(new BigDecimal("70")) > 0 && !entry.getKey().equals("Technology")) {
-                recommendations.add(new AssetRecommendation("SPY", "SPDR S&P 500 ETF", "Diversified",
-                        new BigDecimal("15"), String.format("Reduce %s concentration with broad market ETF", entry.getKey()),
-                        new BigDecimal("420.50")));
-                break;
+    /**
+     * Cost basis per symbol in the given currency, merging lots held as
+     * separate assets. A listing currency without a rate is taken as is, as
+     * the portfolio totals do.
+     */
+    private static Map<String, BigDecimal> calculateHoldingValues(List<Asset> assets, FxMatrix matrix, String currency) {
+        int base = matrix.indexOf(currency);
+        Map<String, BigDecimal> values = new LinkedHashMap<>();
+        for (Asset asset : assets) {
+            BigDecimal assetValue = asset.getQuantity().multiply(asset.getAveragePrice());
+            int listing = matrix.indexOf(asset.getCurrency());
+            if (listing >= 0 && listing != base) {
+                assetValue = assetValue.multiply(BigDecimal.valueOf(matrix.rate(listing, base)));
             }
+            values.merge(asset.getTickerSymbol().toUpperCase(), assetValue, BigDecimal::add);
         }
+        return values;
+    }
 
-        return recommendations.stream().limit(3).collect(Collectors.toList());
+    private record CorrelationSummary(long score, double averageCorrelation) {
     }
 
-    private List<String> generateInsights(Map<String, BigDecimal> sectorAllocation, int numberOfHoldings, BigDecimal diversificationScore) {
+    private List<String> generateInsights(Map<String, Long> sectorAllocation, int numberOfHoldings, long diversificationScore) {
         List<String> insights = new ArrayList<>();
 
         // Diversification insights
-        if (diversificationScore.compareTo(new BigDecimal("80")) >= 0) {
+        if (diversificationScore >= PERCENT_80) {
             insights.add("Excellent diversification! Your portfolio is well-balanced across multiple sectors.");
-        } else if (diversificationScore.compareTo(new BigDecimal("60")) >= 0) {
+        } else if (diversificationScore >= PERCENT_60) {
             insights.add("Good diversification with room for improvement. Consider adding more sectors.");
         } else {
             insights.add("Limited diversification detected. High concentration risk in current holdings.");
@@ -218,10 +299,10 @@ public class AiInsightService {
                     .map(Map.Entry::getKey)
                     .orElse("Unknown");
 
-            BigDecimal dominantPercentage = sectorAllocation.getOrDefault(dominantSector, BigDecimal.ZERO);
-            if (dominantPercentage.compareTo(new BigDecimal("40")) > 0) {
+            long dominantPercentage = sectorAllocation.getOrDefault(dominantSector, FixedPoint.ZERO);
+            if (dominantPercentage > PERCENT_40) {
                 insights.add(String.format("High concentration in %s sector (%.1f%%). Consider diversifying into other sectors.",
-                        dominantSector, dominantPercentage));
+                        dominantSector, FixedPoint.toBigDecimal(dominantPercentage)));
             }
         }
 
@@ -235,12 +316,12 @@ public class AiInsightService {
         return insights;
     }
 
-    private String generateOverallAssessment(BigDecimal diversificationScore) {
-        if (diversificationScore.compareTo(new BigDecimal("80")) >= 0) {
+    private String generateOverallAssessment(long diversificationScore) {
+        if (diversificationScore >= PERCENT_80) {
             return "Your portfolio demonstrates excellent diversification with well-balanced sector allocation. Continue monitoring and rebalancing as needed.";
-        } else if (diversificationScore.compareTo(new BigDecimal("60")) >= 0) {
+        } else if (diversificationScore >= PERCENT_60) {
             return "Your portfolio shows good diversification fundamentals. Consider adding exposure to underrepresented sectors for optimal balance.";
-        } else if (diversificationScore.compareTo(new BigDecimal("40")) >= 0) {
+        } else if (diversificationScore >= PERCENT_40) {
             return "Your portfolio has moderate diversification. Focus on reducing concentration risk and adding defensive sectors.";
         } else {
             return "Your portfolio shows limited diversification with high concentration risk. Immediate rebalancing recommended to reduce volatility.";
@@ -0,0 +1,171 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetResponse;
+import com.portfolio.tracker.dto.AssetRow;
+import com.portfolio.tracker.entity.Asset;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Values detached asset positions against live quotes. Quotes for distinct
+ * symbols are resolved concurrently on virtual threads under a per-request
+ * deadline; any symbol that misses the deadline is valued at its last known
+ * price and flagged as stale instead of failing the response.
+ *
+ * Callers are expected to load positions first and end their transaction, so
+ * no database connection is held while quotes are outstanding.
+ */
+@Service
+public class AssetValuationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AssetValuationService.class);
+
+    private final MarketPriceService marketPriceService;
+    private final FxRateService fxRateService;
+    private final ExecutorService quoteExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${portfolio.valuation.quote-deadline-ms:2000}")
+    private long quoteDeadlineMs;
+
+    public AssetValuationService(MarketPriceService marketPriceService, FxRateService fxRateService) {
+        this.marketPriceService = marketPriceService;
+        this.fxRateService = fxRateService;
+    }
+
+    public AssetResponse valueAsset(Asset asset) {
+        return valueAssets(List.of(asset)).get(0);
+    }
+
+    public List<AssetResponse> valueAssets(List<Asset> assets) {
+        return valueRows(toRows(assets));
+    }
+
+    /**
+     * Value against quotes the caller already resolved; symbols missing from
+     * the map are treated as stale
+     */
+    public List<AssetResponse> valueAssets(List<Asset> assets, Map<String, BigDecimal> quotes) {
+        return valueRows(toRows(assets), quotes);
+    }
+
+    public List<AssetResponse> valueRows(List<AssetRow> assets) {
+        if (assets.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, BigDecimal> quotes = resolveQuotes(assets.stream()
+                .map(AssetRow::tickerSymbol)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        return valueRows(assets, quotes);
+    }
+
+    public List<AssetResponse> valueRows(List<AssetRow> assets, Map<String, BigDecimal> quotes) {
+        return assets.stream()
+                .map(asset -> toAssetResponse(asset, quotes.get(asset.tickerSymbol())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Restate valued assets in a base currency using one snapshot of the rate
+     * matrix, so every asset in a response is converted at the same rates
+     */
+    public List<AssetResponse> toBaseCurrency(List<AssetResponse> assets, String baseCurrency) {
+        FxMatrix matrix = fxRateService.getMatrix();
+        int base = matrix.indexOf(baseCurrency);
+        if (base < 0) {
+            return assets;
+        }
+        for (AssetResponse asset : assets) {
+            int currency = matrix.indexOf(asset.getCurrency());
+            if (currency >= 0) {
+                asset.applyFxRate(baseCurrency, matrix.rate(currency, base));
+            }
+        }
+        return assets;
+    }
+
+    /**
+     * Fork one quote lookup per symbol, join them all against a single
+     * deadline and cancel whatever is still running when it expires. Symbols
+     * without a live quote are absent from the returned map.
+     */
+    public Map<String, BigDecimal> resolveQuotes(Collection<String> symbols) {
+        List<String> orderedSymbols = new ArrayList<>(symbols);
+        List<Callable<BigDecimal>> lookups = orderedSymbols.stream()
+                .map(symbol -> (Callable<BigDecimal>) () -> marketPriceService.getMarketPrice(symbol))
+                .collect(Collectors.toList());
+
+        List<Future<BigDecimal>> results;
+        try {
+            results = quoteExecutor.invokeAll(lookups, quoteDeadlineMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        }
+
+        Map<String, BigDecimal> quotes = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            Future<BigDecimal> result = results.get(i);
+            if (result.state() == Future.State.SUCCESS && result.resultNow() != null) {
+                quotes.put(orderedSymbols.get(i), result.resultNow());
+            } else {
+                logger.warn("Quote for {} not available within {} ms ({})",
+                        orderedSymbols.get(i), quoteDeadlineMs, result.state());
+            }
+        }
+        return quotes;
+    }
+
+    private static List<AssetRow> toRows(List<Asset> assets) {
+        return assets.stream()
+                .map(asset -> new AssetRow(asset.getId(), null, asset.getTickerSymbol(), asset.getQuantity(),
+                        asset.getAveragePrice(), asset.getCurrency(), asset.getCreatedAt(), asset.getUpdatedAt()))
+                .collect(Collectors.toList());
+    }
+
+    private AssetResponse toAssetResponse(AssetRow asset, BigDecimal quote) {
+        boolean stale = quote == null;
+        BigDecimal price = quote;
+        if (stale) {
+            price = marketPriceService.getLastKnownPrice(asset.tickerSymbol());
+            if (price == null) {
+                price = asset.averagePrice();
+            }
+        }
+
+        AssetResponse response = new AssetResponse(
+                asset.id(),
+                asset.tickerSymbol(),
+                asset.quantity(),
+                asset.averagePrice(),
+                price,
+                asset.createdAt(),
+                asset.updatedAt()
+        );
+        response.setPriceStale(stale);
+        response.setCurrency(asset.currency());
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        quoteExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,357 @@
+package com.portfolio.tracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.tracker.event.AuditEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind audit trail. Callers only enqueue onto a bounded lock-free
+ * queue; a background writer drains it into batched inserts into
+ * audit_events. When the queue is full the configured overflow policy
+ * applies: BLOCK waits for space up to a timeout, DROP discards and counts,
+ * SPILL appends to a local JSON-lines file. Batches that fail to insert are
+ * spilled as well, and spill files are loaded back on the next start. The
+ * queue is drained on shutdown.
+ */
+@Service
+public class AuditTrailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditTrailService.class);
+
+    public enum OverflowPolicy {
+        BLOCK, DROP, SPILL
+    }
+
+    private static final String INSERT_EVENT = "INSERT INTO audit_events "
+            + "(action, occurred_at, user_id, username, portfolio_id, ticker_symbol, quantity, price, details) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {
+            Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.VARCHAR,
+            Types.NUMERIC, Types.NUMERIC, Types.VARCHAR
+    };
+    private static final String REPLAY_SUFFIX = ".replay";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate replayTransaction;
+    private final ObjectMapper objectMapper;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long blockTimeoutNanos;
+    private final long shutdownTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+    private final Path spillFile;
+
+    // The queue itself is unbounded; the counter enforces the capacity without a lock
+    private final Queue<AuditEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final Object spillLock = new Object();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditTrailService(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${portfolio.audit.queue-capacity:10000}") int capacity,
+            @Value("${portfolio.audit.batch-size:200}") int batchSize,
+            @Value("${portfolio.audit.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${portfolio.audit.overflow-policy:SPILL}") OverflowPolicy overflowPolicy,
+            @Value("${portfolio.audit.block-timeout-ms:50}") long blockTimeoutMs,
+            @Value("${portfolio.audit.shutdown-timeout-ms:10000}") long shutdownTimeoutMs,
+            @Value("${portfolio.audit.spill-file:audit-spill.jsonl}") String spillFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.replayTransaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.spillFile = Path.of(spillFile).toAbsolutePath();
+
+        meterRegistry.gauge("audit.events.queued", queued);
+        meterRegistry.more().counter("audit.events.written", List.of(), written);
+        meterRegistry.more().counter("audit.events.dropped", List.of(), dropped);
+        meterRegistry.more().counter("audit.events.spilled", List.of(), spilled);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Record an event. Inside a transaction it is queued only once the
+     * transaction commits, so rolled back or retried work leaves no entry.
+     * The username defaults to the authenticated caller.
+     */
+    public void record(AuditEvent event) {
+        AuditEvent withActor = event.username() != null ? event : event.withUsername(currentUsername());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(withActor);
+                }
+            });
+        } else {
+            enqueue(withActor);
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.get();
+    }
+
+    /**
+     * Stop the writer and persist everything still queued before the
+     * application shuts down
+     */
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the writer could not finish in time goes to the spill file
+        List<AuditEvent> remaining = drain(Integer.MAX_VALUE);
+        if (!remaining.isEmpty()) {
+            logger.warn("Audit writer did not finish in time; spilling {} events", remaining.size());
+            spill(remaining);
+        }
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (!running) {
+            spill(List.of(event));
+            return;
+        }
+        if (tryReserve() || (overflowPolicy == OverflowPolicy.BLOCK && awaitReserve())) {
+            queue.offer(event);
+            if (queued.get() >= batchSize) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            spill(List.of(event));
+        } else if (dropped.incrementAndGet() % 1000 == 1) {
+            logger.warn("Audit queue full; {} events dropped so far", dropped.get());
+        }
+    }
+
+    private boolean tryReserve() {
+        while (true) {
+            int current = queued.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean awaitReserve() {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        LockSupport.unpark(writer);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            if (tryReserve()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drainLoop() {
+        replaySpillFiles();
+        while (running) {
+            if (queued.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            flushQueued();
+        }
+        flushQueued();
+    }
+
+    private void flushQueued() {
+        List<AuditEvent> batch;
+        while (!(batch = drain(batchSize)).isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private List<AuditEvent> drain(int max) {
+        List<AuditEvent> batch = new ArrayList<>(Math.min(max, batchSize));
+        AuditEvent event;
+        while (batch.size() < max && (event = queue.poll()) != null) {
+            batch.add(event);
+        }
+        queued.addAndGet(-batch.size());
+        return batch;
+    }
+
+    private void write(List<AuditEvent> batch) {
+        try {
+            insert(batch);
+        } catch (RuntimeException e) {
+            logger.error("Failed to write {} audit events; spilling to {}: {}", batch.size(), spillFile,
+                    e.getMessage());
+            spill(batch);
+        }
+    }
+
+    private void insert(List<AuditEvent> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            rows.add(new Object[]{
+                    event.action().name(),
+                    Timestamp.valueOf(event.occurredAt()),
+                    event.userId(),
+                    event.username(),
+                    event.portfolioId(),
+                    event.tickerSymbol(),
+                    event.quantity(),
+                    event.price(),
+                    event.details()
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows, INSERT_TYPES);
+        written.addAndGet(batch.size());
+    }
+
+    private void spill(List<AuditEvent> events) {
+        synchronized (spillLock) {
+            try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (AuditEvent event : events) {
+                    out.write(objectMapper.writeValueAsString(event));
+                    out.newLine();
+                }
+                spilled.addAndGet(events.size());
+            } catch (IOException e) {
+                dropped.addAndGet(events.size());
+                logger.error("Failed to spill {} audit events to {}: {}", events.size(), spillFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Load events spilled by earlier runs; files that fail to load are kept
+     * for the next start
+     */
+    private void replaySpillFiles() {
+        synchronized (spillLock) {
+            if (Files.exists(spillFile)) {
+                try {
+                    Files.move(spillFile, spillFile.resolveSibling(spillFile.getFileName() + "."
+                            + System.currentTimeMillis() + REPLAY_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    logger.error("Failed to rotate audit spill file {}: {}", spillFile, e.getMessage());
+                    return;
+                }
+            }
+        }
+
+        String prefix = spillFile.getFileName() + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spillFile.getParent(),
+                path -> path.getFileName().toString().startsWith(prefix)
+                        && path.getFileName().toString().endsWith(REPLAY_SUFFIX))) {
+            for (Path file : files) {
+                replay(file);
+            }
+        } catch (IOException e) {
+            logger.error("Failed to list audit spill files: {}", e.getMessage());
+        }
+    }
+
+    private void replay(Path file) {
+        try {
+            List<AuditEvent> events = new ArrayList<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    events.add(objectMapper.readValue(line, AuditEvent.class));
+                } catch (IOException e) {
+                    // A line cut short by a crash while spilling
+                    logger.warn("Skipping unreadable audit spill line in {}: {}", file, e.getMessage());
+                }
+            }
+            // All or nothing, so a failed replay can be retried without duplicates
+            replayTransaction.executeWithoutResult(status -> {
+                for (int from = 0; from < events.size(); from += batchSize) {
+                    insert(events.subList(from, Math.min(from + batchSize, events.size())));
+                }
+            });
+            Files.delete(file);
+            logger.info("Replayed {} spilled audit events from {}", events.size(), file);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to replay audit spill file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,116 @@
+package com.portfolio.tracker.service;
+
+/**
+ * Aligns a portfolio's cumulative return series with a benchmark's closes and
+ * measures the portfolio against it.
+ *
+ * Both inputs are sorted by day, so alignment is one forward merge over the
+ * portfolio's days with a single cursor into the benchmark, carrying the last
+ * close over days the benchmark did not trade. Statistics use the period
+ * returns between consecutive aligned days.
+ */
+public final class BenchmarkComparison {
+
+    private static final int TRADING_DAYS = 252;
+
+    private BenchmarkComparison() {
+    }
+
+    /**
+     * @param days the portfolio's days
+     * @param benchmarkReturns benchmark cumulative return on each day; NaN
+     * before the benchmark's first close
+     * @param alpha annualized mean of the period return left after beta times
+     * the benchmark's
+     * @param trackingError annualized standard deviation of the period return
+     * difference
+     * @param observations period returns the statistics use
+     */
+    public record Result(int[] days, double[] portfolioReturns, double[] benchmarkReturns,
+            double portfolioReturn, double benchmarkReturn, double alpha, double beta, double correlation,
+            double trackingError, int observations) {
+    }
+
+    /**
+     * @param days ascending epoch days of the portfolio series
+     * @param cumulativeReturns portfolio cumulative return on each day, as a
+     * fraction of the value at days[0]
+     * @param benchmarkDays ascending epoch days of the benchmark closes; may
+     * start before days[0] so the opening close can be carried forward
+     */
+    public static Result compare(int[] days, double[] cumulativeReturns, int[] benchmarkDays,
+            double[] benchmarkCloses) {
+        int n = days.length;
+        double[] benchmarkReturns = new double[n];
+        double base = Double.NaN;
+        double close = Double.NaN;
+        int cursor = 0;
+        for (int i = 0; i < n; i++) {
+            while (cursor < benchmarkDays.length && benchmarkDays[cursor] <= days[i]) {
+                close = benchmarkCloses[cursor++];
+            }
+            if (Double.isNaN(base) && !Double.isNaN(close)) {
+                base = close;
+            }
+            benchmarkReturns[i] = close / base - 1.0;
+        }
+
+        // Period returns between consecutive days on which both series are defined
+        double sumP = 0.0;
+        double sumB = 0.0;
+        double sumPP = 0.0;
+        double sumBB = 0.0;
+        double sumPB = 0.0;
+        int observations = 0;
+        int first = -1;
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(benchmarkReturns[i])) {
+                continue;
+            }
+            if (first >= 0) {
+                double p = (1.0 + cumulativeReturns[i]) / (1.0 + cumulativeReturns[i - 1]) - 1.0;
+                double b = (1.0 + benchmarkReturns[i]) / (1.0 + benchmarkReturns[i - 1]) - 1.0;
+                if (Double.isFinite(p)) {
+                    sumP += p;
+                    sumB += b;
+                    sumPP += p * p;
+                    sumBB += b * b;
+                    sumPB += p * b;
+                    observations++;
+                }
+            } else {
+                first = i;
+            }
+        }
+
+        double beta = Double.NaN;
+        double alpha = Double.NaN;
+        double correlation = Double.NaN;
+        double trackingError = Double.NaN;
+        if (observations >= 2) {
+            double meanP = sumP / observations;
+            double meanB = sumB / observations;
+            double varianceP = (sumPP - sumP * meanP) / (observations - 1);
+            double varianceB = (sumBB - sumB * meanB) / (observations - 1);
+            double covariance = (sumPB - sumP * meanB) / (observations - 1);
+            if (varianceB > 0.0) {
+                beta = covariance / varianceB;
+                alpha = (meanP - beta * meanB) * TRADING_DAYS;
+                if (varianceP > 0.0) {
+                    correlation = Math.max(-1.0, Math.min(1.0, covariance / Math.sqrt(varianceP * varianceB)));
+                }
+            }
+            // var(p - b) = var(p) + var(b) - 2 cov(p, b)
+            trackingError = Math.sqrt(Math.max(0.0, varianceP + varianceB - 2 * covariance) * TRADING_DAYS);
+        }
+
+        double portfolioReturn = Double.NaN;
+        double benchmarkReturn = Double.NaN;
+        if (first >= 0) {
+            portfolioReturn = (1.0 + cumulativeReturns[n - 1]) / (1.0 + cumulativeReturns[first]) - 1.0;
+            benchmarkReturn = benchmarkReturns[n - 1];
+        }
+        return new Result(days, cumulativeReturns, benchmarkReturns,
+                portfolioReturn, benchmarkReturn, alpha, beta, correlation, trackingError, observations);
+    }
+}
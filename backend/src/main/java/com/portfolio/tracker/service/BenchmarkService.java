@@ -0,0 +1,160 @@
+package com.portfolio.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.tracker.dto.BenchmarkComparisonResponse;
+import com.portfolio.tracker.event.SplitAppliedEvent;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.StockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Portfolio against a benchmark symbol over the same window. The portfolio
+ * side is the cached valuation of {@link PerformanceService} and the benchmark
+ * side the cached daily history, so a comparison is a merge of two arrays.
+ * Benchmarks are limited to the configured indices and symbols with a stock
+ * row, so callers cannot trigger history fetches for arbitrary tickers.
+ * Results are cached per portfolio positions version, benchmark, range and
+ * price day in a bounded cache.
+ */
+@Service
+public class BenchmarkService {
+
+    private static final String DEFAULT_BENCHMARK = "SPY";
+    private static final Pattern SYMBOL = Pattern.compile("[A-Z0-9.\\-^]{1,10}");
+    private static final int PRICE_LOOKBACK_DAYS = 10;
+    private static final int MAX_CACHED_RESULTS = 1_000;
+    private static final Duration CACHE_IDLE_TIMEOUT = Duration.ofHours(1);
+
+    private final PerformanceService performanceService;
+    private final PriceHistoryService priceHistoryService;
+    private final PortfolioValuationIndex valuationIndex;
+    private final PortfolioRepository portfolioRepository;
+    private final StockRepository stockRepository;
+    private final Set<String> indices;
+    private final Cache<BenchmarkKey, BenchmarkComparisonResponse> comparisonCache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_RESULTS)
+            .expireAfterAccess(CACHE_IDLE_TIMEOUT)
+            .build();
+
+    public BenchmarkService(PerformanceService performanceService,
+            PriceHistoryService priceHistoryService,
+            PortfolioValuationIndex valuationIndex,
+            PortfolioRepository portfolioRepository,
+            StockRepository stockRepository,
+            @Value("${portfolio.benchmark.symbols:SPY,QQQ,DIA,IWM,VTI,EFA,AGG}") List<String> indices) {
+        this.performanceService = performanceService;
+        this.priceHistoryService = priceHistoryService;
+        this.valuationIndex = valuationIndex;
+        this.portfolioRepository = portfolioRepository;
+        this.stockRepository = stockRepository;
+        this.indices = indices.stream().map(String::trim).filter(s -> !s.isEmpty()).map(String::toUpperCase)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public BenchmarkComparisonResponse compare(Long portfolioId, Long userId, String symbol, LocalDate from,
+            LocalDate to) {
+        String benchmark = symbol == null || symbol.isBlank() ? DEFAULT_BENCHMARK : symbol.trim().toUpperCase();
+        if (!SYMBOL.matcher(benchmark).matches()) {
+            throw new IllegalArgumentException("Invalid benchmark symbol: " + symbol);
+        }
+        if (!indices.contains(benchmark) && stockRepository.findBySymbol(benchmark).isEmpty()) {
+            throw new IllegalArgumentException("Unsupported benchmark symbol: " + benchmark);
+        }
+
+        // Checked on every call; cached results are not keyed by user
+        if (portfolioRepository.findRowByIdAndUserId(portfolioId, userId).isEmpty()) {
+            throw new ResourceNotFoundException("Portfolio not found with id: " + portfolioId);
+        }
+
+        LocalDate today = LocalDate.now();
+        long version = valuationIndex.getPositionsVersion(portfolioId);
+        BenchmarkKey key = new BenchmarkKey(portfolioId, version, benchmark, from, to, today);
+        BenchmarkComparisonResponse cached = comparisonCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Validates the range and resolves its defaults; the first and last days are the window bounds
+        PerformanceCalculator.Result valuation = performanceService.getValuation(portfolioId, userId, from, to);
+        int[] days = valuation.days();
+        LocalDate start = LocalDate.ofEpochDay(days[0]);
+        LocalDate end = LocalDate.ofEpochDay(days[days.length - 1]);
+        DailySeries series = priceHistoryService.getDailySeries(benchmark, start.minusDays(PRICE_LOOKBACK_DAYS), end);
+
+        BenchmarkComparison.Result result = BenchmarkComparison.compare(days, valuation.cumulativeReturns(),
+                series.days(), series.closes());
+
+        List<BenchmarkComparisonResponse.ComparisonPoint> points = new ArrayList<>(days.length);
+        for (int i = 0; i < days.length; i++) {
+            points.add(new BenchmarkComparisonResponse.ComparisonPoint(LocalDate.ofEpochDay(days[i]),
+                    percentage(result.portfolioReturns()[i]), percentage(result.benchmarkReturns()[i])));
+        }
+        BenchmarkComparisonResponse response = new BenchmarkComparisonResponse(
+                portfolioId,
+                benchmark,
+                start,
+                end,
+                percentage(result.portfolioReturn()),
+                percentage(result.benchmarkReturn()),
+                percentage(result.portfolioReturn() - result.benchmarkReturn()),
+                percentage(result.alpha()),
+                ratio(result.beta()),
+                ratio(result.correlation()),
+                percentage(result.trackingError()),
+                result.observations(),
+                points
+        );
+
+        // Results for older positions versions or price days can never be served again
+        comparisonCache.asMap().keySet().removeIf(k -> k.portfolioId().equals(portfolioId)
+                && (k.version() != version || !k.asOf().equals(today)));
+        comparisonCache.put(key, response);
+        return response;
+    }
+
+    /**
+     * Portfolio sides are versioned, but a split of the benchmark itself
+     * restates its closes
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitApplied(SplitAppliedEvent event) {
+        String symbol = event.getSymbol().toUpperCase();
+        comparisonCache.asMap().keySet().removeIf(key -> key.symbol().equals(symbol));
+    }
+
+    private static BigDecimal percentage(double fraction) {
+        if (!Double.isFinite(fraction)) {
+            return null;
+        }
+        return BigDecimal.valueOf(fraction * 100).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal ratio(double value) {
+        if (!Double.isFinite(value)) {
+            return null;
+        }
+        return BigDecimal.valueOf(value).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Keyed by the requested bounds; nulls resolve to the same window for a
+     * given price day
+     */
+    private record BenchmarkKey(Long portfolioId, long version, String symbol, LocalDate from, LocalDate to,
+            LocalDate asOf) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetRow;
+import com.portfolio.tracker.entity.CorporateAction;
+import com.portfolio.tracker.entity.CorporateActionType;
+import com.portfolio.tracker.event.PositionChangedEvent;
+import com.portfolio.tracker.event.SplitAppliedEvent;
+import com.portfolio.tracker.external.AlphaVantageService;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.CorporateActionRepository;
+import com.portfolio.tracker.repository.TaxLotRepository;
+import com.portfolio.tracker.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps holdings whole across corporate actions. Splits and dividends are
+ * read from the adjusted daily series of every held symbol and recorded once
+ * each; a newly seen split is then carried into assets, tax lots and the
+ * ledger with one set-based statement per table, however many portfolios
+ * hold the symbol.
+ */
+@Service
+public class CorporateActionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CorporateActionService.class);
+
+    private final CorporateActionRepository corporateActionRepository;
+    private final AssetRepository assetRepository;
+    private final TaxLotRepository taxLotRepository;
+    private final TransactionRepository transactionRepository;
+    private final AlphaVantageService alphaVantageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final int lookbackDays;
+
+    public CorporateActionService(CorporateActionRepository corporateActionRepository,
+            AssetRepository assetRepository,
+            TaxLotRepository taxLotRepository,
+            TransactionRepository transactionRepository,
+            AlphaVantageService alphaVantageService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${portfolio.corporate-actions.lookback-days:30}") int lookbackDays) {
+        this.corporateActionRepository = corporateActionRepository;
+        this.assetRepository = assetRepository;
+        this.taxLotRepository = taxLotRepository;
+        this.transactionRepository = transactionRepository;
+        this.alphaVantageService = alphaVantageService;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.lookbackDays = lookbackDays;
+    }
+
+    /**
+     * Record the actions of every held symbol and apply any new splits
+     */
+    @Scheduled(cron = "${portfolio.corporate-actions.refresh-cron:0 30 6 * * *}")
+    public void refresh() {
+        if (!alphaVantageService.isApiAvailable()) {
+            logger.debug("Skipping corporate action refresh, Alpha Vantage is not configured");
+            return;
+        }
+        int recorded = 0;
+        for (String symbol : assetRepository.findDistinctTickerSymbols()) {
+            recorded += record(symbol, alphaVantageService.getHistoricalData(symbol, lookbackDays));
+        }
+        int applied = applyPendingSplits();
+        logger.info("Corporate action refresh recorded {} new actions and applied {} splits", recorded, applied);
+    }
+
+    /**
+     * Record the splits and dividends found in a symbol's daily history;
+     * actions already known are left alone
+     *
+     * @return the number of actions not seen before
+     */
+    public int record(String symbol, Map<LocalDate, AlphaVantageService.HistoricalPrice> history) {
+        String upperSymbol = symbol.toUpperCase();
+        Integer recorded = writeTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int inserted = 0;
+            for (Map.Entry<LocalDate, AlphaVantageService.HistoricalPrice> day : history.entrySet()) {
+                AlphaVantageService.HistoricalPrice price = day.getValue();
+                if (price.getSplitCoefficient() != null && price.getSplitCoefficient().signum() > 0
+                        && price.getSplitCoefficient().compareTo(BigDecimal.ONE) != 0) {
+                    inserted += corporateActionRepository.insertIfAbsent(upperSymbol,
+                            CorporateActionType.SPLIT.name(), day.getKey(), price.getSplitCoefficient(), null, now);
+                }
+                if (price.getDividendAmount() != null && price.getDividendAmount().signum() > 0) {
+                    inserted += corporateActionRepository.insertIfAbsent(upperSymbol,
+                            CorporateActionType.DIVIDEND.name(), day.getKey(), null, price.getDividendAmount(), now);
+                }
+            }
+            return inserted;
+        });
+        return recorded != null ? recorded : 0;
+    }
+
+    /**
+     * Apply every recorded split that has not been applied yet, oldest
+     * first, each in its own transaction
+     *
+     * @return the number of splits applied by this call
+     */
+    public int applyPendingSplits() {
+        int applied = 0;
+        for (CorporateAction split : corporateActionRepository.findPendingSplits()) {
+            if (Boolean.TRUE.equals(writeTransaction.execute(status -> applySplit(split)))) {
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private boolean applySplit(CorporateAction split) {
+        LocalDateTime now = LocalDateTime.now();
+        // Claiming the row first makes a concurrent run on another instance skip it
+        if (corporateActionRepository.markApplied(split.getId(), now) == 0) {
+            return false;
+        }
+
+        String symbol = split.getSymbol();
+        LocalDateTime exDate = split.getExDate().atStartOfDay();
+        BigDecimal ratio = split.getRatio();
+        // The ledger and the assets both read the pre-split holding from the lots, so the lots go last
+        int entries = transactionRepository.insertSplitEntries(symbol, exDate, ratio, now);
+        int assets = assetRepository.applySplit(symbol, exDate, ratio, now);
+        int lots = taxLotRepository.applySplit(symbol, exDate, ratio);
+        logger.info("Applied {}-for-1 split of {} on {}: {} holdings, {} lots, {} ledger entries",
+                ratio.stripTrailingZeros().toPlainString(), symbol, split.getExDate(), assets, lots, entries);
+
+        // Delivered after commit: valuations pick up the new quantities, price-derived caches drop the symbol
+        List<AssetRow> holdings = assetRepository.findRowsByTickerSymbol(symbol);
+        for (AssetRow holding : holdings) {
+            eventPublisher.publishEvent(new PositionChangedEvent(holding.portfolioId(), holding.tickerSymbol(),
+                    holding.quantity(), holding.averagePrice()));
+        }
+        eventPublisher.publishEvent(new SplitAppliedEvent(symbol, split.getExDate(), ratio));
+        return true;
+    }
+}
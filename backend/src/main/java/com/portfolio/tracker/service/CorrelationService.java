@@ -0,0 +1,219 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.event.SplitAppliedEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Covariance and correlation between holdings from the cached daily history.
+ *
+ * Every symbol's history is mapped onto the same weekday calendar for the
+ * lookback window, so the statistics of a pair do not depend on which other
+ * symbols are requested with it. Pair results are memoized per price day:
+ * adding a holding to a portfolio only computes the new symbol's row.
+ */
+@Service
+public class CorrelationService {
+
+    private final PriceHistoryService priceHistoryService;
+    private final ForkJoinPool correlationPool;
+    private final int lookbackDays;
+
+    private final ConcurrentHashMap<ReturnsKey, SymbolReturns> returnsCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<PairKey, PairwiseCovariance.Stats> pairCache = new ConcurrentHashMap<>();
+    private volatile Calendar calendar;
+
+    public CorrelationService(PriceHistoryService priceHistoryService,
+            @Value("${portfolio.correlation.lookback-days:365}") int lookbackDays,
+            @Value("${portfolio.correlation.parallelism:0}") int parallelism) {
+        this.priceHistoryService = priceHistoryService;
+        this.lookbackDays = lookbackDays;
+        this.correlationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Covariance and correlation of daily log returns between the symbols,
+     * in the order given; duplicates are ignored
+     */
+    public CorrelationMatrix getMatrix(List<String> requestedSymbols) {
+        Calendar current = currentCalendar();
+        Set<String> distinct = new LinkedHashSet<>();
+        requestedSymbols.forEach(symbol -> distinct.add(symbol.toUpperCase()));
+        List<String> symbols = new ArrayList<>(distinct);
+        int n = symbols.size();
+
+        double[][] returns = new double[n][];
+        int[] starts = new int[n];
+        double[] means = new double[n];
+        int[] observations = new int[n];
+        for (int i = 0; i < n; i++) {
+            SymbolReturns vector = returnsCache.computeIfAbsent(new ReturnsKey(symbols.get(i), current.asOf()),
+                    key -> load(key.symbol(), current));
+            returns[i] = vector.returns();
+            starts[i] = vector.start();
+            means[i] = vector.mean();
+            observations[i] = returns[i].length - starts[i];
+        }
+
+        // Only pairs not seen since the last price day are computed. Cached pairs are read
+        // once into locals, since a rollover or split may drop them from the cache meanwhile.
+        PairwiseCovariance.Stats[][] pairs = new PairwiseCovariance.Stats[n][];
+        List<int[]> missing = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            pairs[i] = new PairwiseCovariance.Stats[i + 1];
+            for (int j = 0; j <= i; j++) {
+                pairs[i][j] = pairCache.get(PairKey.of(symbols.get(i), symbols.get(j), current.asOf()));
+                if (pairs[i][j] == null) {
+                    missing.add(new int[]{i, j});
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            int[] rows = new int[missing.size()];
+            int[] cols = new int[missing.size()];
+            for (int p = 0; p < rows.length; p++) {
+                rows[p] = missing.get(p)[0];
+                cols[p] = missing.get(p)[1];
+            }
+            PairwiseCovariance.Stats[] computed = PairwiseCovariance.compute(returns, starts, rows, cols, correlationPool);
+            for (int p = 0; p < rows.length; p++) {
+                pairs[rows[p]][cols[p]] = computed[p];
+                pairCache.put(PairKey.of(symbols.get(rows[p]), symbols.get(cols[p]), current.asOf()), computed[p]);
+            }
+        }
+
+        double[][] covariance = new double[n][n];
+        double[][] correlation = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                PairwiseCovariance.Stats stats = pairs[i][j];
+                covariance[i][j] = stats.covariance();
+                covariance[j][i] = stats.covariance();
+                correlation[i][j] = stats.correlation();
+                correlation[j][i] = stats.correlation();
+            }
+        }
+        return new CorrelationMatrix(symbols, means, observations, covariance, correlation);
+    }
+
+    public void clearCache() {
+        returnsCache.clear();
+        pairCache.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitApplied(SplitAppliedEvent event) {
+        String symbol = event.getSymbol().toUpperCase();
+        returnsCache.keySet().removeIf(key -> key.symbol().equals(symbol));
+        pairCache.keySet().removeIf(key -> key.first().equals(symbol) || key.second().equals(symbol));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        correlationPool.shutdownNow();
+    }
+
+    /**
+     * Weekday calendar ending today; results are keyed by price day and a
+     * new day drops those of the previous one
+     */
+    private Calendar currentCalendar() {
+        LocalDate today = LocalDate.now();
+        Calendar current = calendar;
+        if (current != null && current.asOf().equals(today)) {
+            return current;
+        }
+        synchronized (this) {
+            current = calendar;
+            if (current == null || !current.asOf().equals(today)) {
+                returnsCache.keySet().removeIf(key -> !key.asOf().equals(today));
+                pairCache.keySet().removeIf(key -> !key.asOf().equals(today));
+                current = Calendar.of(today, lookbackDays);
+                calendar = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Log returns on the calendar, carrying the last close over days the
+     * symbol did not trade; entries before the first return are zero
+     */
+    private SymbolReturns load(String symbol, Calendar calendar) {
+        DailySeries series = priceHistoryService.getDailySeries(symbol,
+                LocalDate.ofEpochDay(calendar.days()[0]), calendar.asOf());
+        int[] days = calendar.days();
+        double[] returns = new double[days.length];
+        int[] seriesDays = series.days();
+        double[] closes = series.closes();
+
+        int cursor = 0;
+        double previous = Double.NaN;
+        int start = days.length;
+        for (int t = 0; t < days.length; t++) {
+            double close = previous;
+            while (cursor < seriesDays.length && seriesDays[cursor] <= days[t]) {
+                close = closes[cursor++];
+            }
+            if (!Double.isNaN(previous) && !Double.isNaN(close)) {
+                returns[t] = Math.log(close / previous);
+                start = Math.min(start, t);
+            }
+            previous = close;
+        }
+        double sum = 0.0;
+        for (int t = start; t < days.length; t++) {
+            sum += returns[t];
+        }
+        return new SymbolReturns(returns, start, start < days.length ? sum / (days.length - start) : 0.0);
+    }
+
+    /**
+     * @param meanReturns mean daily log return of each symbol over its own history
+     * @param observations daily returns available for each symbol
+     * @param covariance daily log-return covariance; the diagonal holds variances
+     * @param correlation NaN where two symbols share too little history
+     */
+    public record CorrelationMatrix(List<String> symbols, double[] meanReturns, int[] observations,
+            double[][] covariance, double[][] correlation) {
+    }
+
+    private record SymbolReturns(double[] returns, int start, double mean) {
+    }
+
+    private record ReturnsKey(String symbol, LocalDate asOf) {
+    }
+
+    private record PairKey(String first, String second, LocalDate asOf) {
+
+        static PairKey of(String a, String b, LocalDate asOf) {
+            return a.compareTo(b) <= 0 ? new PairKey(a, b, asOf) : new PairKey(b, a, asOf);
+        }
+    }
+
+    private record Calendar(LocalDate asOf, int[] days) {
+
+        static Calendar of(LocalDate asOf, int lookbackDays) {
+            int[] days = new int[lookbackDays + 1];
+            int size = 0;
+            for (LocalDate date = asOf.minusDays(lookbackDays); !date.isAfter(asOf); date = date.plusDays(1)) {
+                if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                    days[size++] = (int) date.toEpochDay();
+                }
+            }
+            return new Calendar(asOf, Arrays.copyOf(days, size));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.external.AlphaVantageService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable daily close series for one symbol, stored as parallel primitive
+ * arrays sorted by ascending epoch day. Kernels walk these arrays with
+ * cursors instead of looking prices up per day; the arrays returned by
+ * {@link #days()} and {@link #closes()} are shared and must not be modified.
+ */
+public final class DailySeries {
+
+    private final String symbol;
+    private final int[] days;
+    private final double[] closes;
+
+    public DailySeries(String symbol, int[] days, double[] closes) {
+        if (days.length != closes.length) {
+            throw new IllegalArgumentException("Days and closes must have the same length");
+        }
+        this.symbol = symbol;
+        this.days = days;
+        this.closes = closes;
+    }
+
+    public static DailySeries fromHistory(String symbol, Map<LocalDate, AlphaVantageService.HistoricalPrice> history) {
+        LocalDate[] dates = history.keySet().toArray(new LocalDate[0]);
+        Arrays.sort(dates);
+
+        int[] days = new int[dates.length];
+        double[] closes = new double[dates.length];
+        int size = 0;
+        for (LocalDate date : dates) {
+            BigDecimal close = history.get(date).getClose();
+            if (close != null && close.signum() > 0) {
+                days[size] = (int) date.toEpochDay();
+                closes[size] = close.doubleValue();
+                size++;
+            }
+        }
+        return new DailySeries(symbol, Arrays.copyOf(days, size), Arrays.copyOf(closes, size));
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return days.length;
+    }
+
+    public boolean isEmpty() {
+        return days.length == 0;
+    }
+
+    public int[] days() {
+        return days;
+    }
+
+    public double[] closes() {
+        return closes;
+    }
+
+    public int firstDay() {
+        return days[0];
+    }
+
+    public int lastDay() {
+        return days[days.length - 1];
+    }
+
+    public double lastClose() {
+        return closes[closes.length - 1];
+    }
+
+    /**
+     * Points whose day falls within [fromDay, toDay]
+     */
+    public DailySeries slice(int fromDay, int toDay) {
+        int start = lowerBound(fromDay);
+        int end = lowerBound(toDay + 1);
+        if (start == 0 && end == days.length) {
+            return this;
+        }
+        return new DailySeries(symbol, Arrays.copyOfRange(days, start, end), Arrays.copyOfRange(closes, start, end));
+    }
+
+    /**
+     * Each close multiplied by the factor in effect on its day: the latest
+     * factor on or before it, or the first factor for days before the
+     * factors start. Used to restate closes in another currency.
+     */
+    public DailySeries times(DailySeries factors) {
+        if (factors.isEmpty()) {
+            return this;
+        }
+        double[] restated = new double[closes.length];
+        int cursor = 0;
+        double factor = factors.closes[0];
+        for (int i = 0; i < days.length; i++) {
+            while (cursor < factors.days.length && factors.days[cursor] <= days[i]) {
+                factor = factors.closes[cursor++];
+            }
+            restated[i] = closes[i] * factor;
+        }
+        return new DailySeries(symbol, days, restated);
+    }
+
+    /**
+     * Close in effect on a day, carried forward like {@link #times}
+     */
+    public double valueOn(int day) {
+        int i = lowerBound(day + 1) - 1;
+        return closes[Math.max(i, 0)];
+    }
+
+    private int lowerBound(int day) {
+        int index = Arrays.binarySearch(days, day);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && days[index - 1] == day) {
+            index--;
+        }
+        return index;
+    }
+}
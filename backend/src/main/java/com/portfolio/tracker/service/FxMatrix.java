@@ -0,0 +1,117 @@
+package com.portfolio.tracker.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable cross rates between every pair of supported currencies, built
+ * from one USD value per currency so the matrix is always consistent
+ * (rate(a, c) == rate(a, b) * rate(b, c)). Currencies are addressed by index
+ * so converting a portfolio is one array read per holding.
+ */
+public final class FxMatrix {
+
+    public static final String PIVOT = "USD";
+
+    private final List<String> currencies;
+    private final Map<String, Integer> index;
+    private final double[][] rates;
+    private final LocalDateTime asOf;
+
+    private FxMatrix(List<String> currencies, Map<String, Integer> index, double[][] rates, LocalDateTime asOf) {
+        this.currencies = currencies;
+        this.index = index;
+        this.rates = rates;
+        this.asOf = asOf;
+    }
+
+    /**
+     * @param usdPerUnit USD value of one unit of each currency; must include
+     * USD itself
+     */
+    public static FxMatrix fromUsdRates(Map<String, Double> usdPerUnit, LocalDateTime asOf) {
+        if (!usdPerUnit.containsKey(PIVOT)) {
+            throw new IllegalArgumentException("Rates must include " + PIVOT);
+        }
+        List<String> currencies = new ArrayList<>(usdPerUnit.keySet());
+        Collections.sort(currencies);
+        int n = currencies.size();
+        Map<String, Integer> index = new HashMap<>();
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            index.put(currencies.get(i), i);
+            values[i] = usdPerUnit.get(currencies.get(i));
+            if (!(values[i] > 0.0) || Double.isInfinite(values[i])) {
+                throw new IllegalArgumentException("Invalid rate for " + currencies.get(i) + ": " + values[i]);
+            }
+        }
+        double[][] rates = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                rates[i][j] = i == j ? 1.0 : values[i] / values[j];
+            }
+        }
+        return new FxMatrix(List.copyOf(currencies), Map.copyOf(index), rates, asOf);
+    }
+
+    public List<String> currencies() {
+        return currencies;
+    }
+
+    public LocalDateTime asOf() {
+        return asOf;
+    }
+
+    public boolean supports(String currency) {
+        return currency != null && index.containsKey(currency);
+    }
+
+    /**
+     * Index of a currency, or -1 if it is not supported
+     */
+    public int indexOf(String currency) {
+        Integer i = currency != null ? index.get(currency) : null;
+        return i != null ? i : -1;
+    }
+
+    /**
+     * Units of the target currency per unit of the source
+     */
+    public double rate(int from, int to) {
+        return rates[from][to];
+    }
+
+    public double rate(String from, String to) {
+        return rates[require(from)][require(to)];
+    }
+
+    /**
+     * Convert a FixedPoint amount between currencies by index
+     */
+    public long convert(long units, int from, int to) {
+        return from == to ? units : Math.round(units * rates[from][to]);
+    }
+
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        int source = require(from);
+        int target = require(to);
+        if (amount == null || source == target) {
+            return amount;
+        }
+        return amount.multiply(BigDecimal.valueOf(rates[source][target]), MathContext.DECIMAL64);
+    }
+
+    private int require(String currency) {
+        int i = indexOf(currency);
+        if (i < 0) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency);
+        }
+        return i;
+    }
+}
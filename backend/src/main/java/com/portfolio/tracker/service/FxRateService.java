@@ -0,0 +1,237 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.event.FxRatesUpdatedEvent;
+import com.portfolio.tracker.external.AlphaVantageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exchange rates between the supported currencies. The current rates live in
+ * an immutable {@link FxMatrix} that is rebuilt from the provider on a
+ * schedule and swapped in whole, so reads never wait on the provider. Daily
+ * rate history is cached per currency pair and price day, like
+ * {@link PriceHistoryService}. Without a provider the fallback rates are
+ * used and history is flat at the current rate.
+ */
+@Service
+public class FxRateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FxRateService.class);
+
+    // Quote units that are a fixed fraction of a currency, e.g. London listings priced in pence
+    private static final Map<String, SubUnit> SUB_UNITS = Map.of("GBX", new SubUnit("GBP", 0.01));
+
+    // Listing currency by exchange suffix, for symbols added without one
+    private static final Map<String, String> EXCHANGE_CURRENCIES = Map.ofEntries(
+            Map.entry("LON", "GBX"), Map.entry("L", "GBX"),
+            Map.entry("TRT", "CAD"), Map.entry("TO", "CAD"),
+            Map.entry("TRV", "CAD"), Map.entry("V", "CAD"),
+            Map.entry("DEX", "EUR"), Map.entry("DE", "EUR"),
+            Map.entry("PA", "EUR"), Map.entry("AS", "EUR"),
+            Map.entry("SW", "CHF"), Map.entry("T", "JPY"),
+            Map.entry("AX", "AUD"));
+
+    private final AlphaVantageService alphaVantageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<String> currencies;
+    private final Map<String, Double> fallbackRates = new HashMap<>();
+    private final ConcurrentHashMap<String, CachedRates> historyCache = new ConcurrentHashMap<>();
+    private volatile FxMatrix matrix;
+
+    public FxRateService(AlphaVantageService alphaVantageService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${portfolio.fx.currencies:USD,EUR,GBP,GBX,CAD,JPY,CHF,AUD}") List<String> currencies) {
+        this.alphaVantageService = alphaVantageService;
+        this.eventPublisher = eventPublisher;
+        this.currencies = currencies.stream().map(String::trim).filter(c -> !c.isEmpty()).map(String::toUpperCase).toList();
+        initializeFallbackRates();
+        this.matrix = buildMatrix(Map.of());
+    }
+
+    private void initializeFallbackRates() {
+        // USD value of one unit, used until the provider answers
+        fallbackRates.put("USD", 1.0);
+        fallbackRates.put("EUR", 1.08);
+        fallbackRates.put("GBP", 1.27);
+        fallbackRates.put("CAD", 0.73);
+        fallbackRates.put("JPY", 0.0067);
+        fallbackRates.put("CHF", 1.12);
+        fallbackRates.put("AUD", 0.66);
+    }
+
+    /**
+     * Current rate matrix; never blocks
+     */
+    public FxMatrix getMatrix() {
+        return matrix;
+    }
+
+    /**
+     * Upper-cased currency code, rejected if no rate is known for it
+     */
+    public String normalizeCurrency(String currency) {
+        String code = currency == null ? null : currency.trim().toUpperCase();
+        if (!matrix.supports(code)) {
+            throw new IllegalArgumentException("Unsupported currency: " + currency
+                    + ". Supported: " + String.join(", ", matrix.currencies()));
+        }
+        return code;
+    }
+
+    /**
+     * Listing currency implied by a symbol's exchange suffix (e.g. "VOD.LON"
+     * trades in pence); USD when there is none
+     */
+    public String inferCurrency(String symbol) {
+        int dot = symbol.lastIndexOf('.');
+        if (dot > 0) {
+            String currency = EXCHANGE_CURRENCIES.get(symbol.substring(dot + 1).toUpperCase());
+            if (currency != null && matrix.supports(currency)) {
+                return currency;
+            }
+        }
+        return FxMatrix.PIVOT;
+    }
+
+    /**
+     * Fetch each currency's USD rate and swap in a new matrix. Currencies the
+     * provider does not answer for keep their previous rate.
+     */
+    @Scheduled(fixedDelayString = "${portfolio.fx.refresh-interval-ms:86400000}")
+    public void refresh() {
+        if (!alphaVantageService.isApiAvailable()) {
+            return;
+        }
+        Map<String, Double> fetched = new HashMap<>();
+        for (String currency : currencies) {
+            if (currency.equals(FxMatrix.PIVOT) || SUB_UNITS.containsKey(currency)) {
+                continue;
+            }
+            BigDecimal rate = alphaVantageService.getExchangeRate(currency, FxMatrix.PIVOT);
+            if (rate != null) {
+                fetched.put(currency, rate.doubleValue());
+            }
+        }
+        if (fetched.isEmpty()) {
+            logger.warn("No exchange rates fetched; keeping rates as of {}", matrix.asOf());
+            return;
+        }
+        matrix = buildMatrix(fetched);
+        logger.info("FX matrix refreshed with {} live rates across {} currencies", fetched.size(), matrix.currencies().size());
+        eventPublisher.publishEvent(new FxRatesUpdatedEvent(matrix));
+    }
+
+    /**
+     * Daily rate from one currency to another between the two dates: units of
+     * the target per unit of the source on each day
+     */
+    public DailySeries getDailyRates(String from, String to, LocalDate start, LocalDate end) {
+        FxMatrix current = matrix;
+        int fromDay = (int) start.toEpochDay();
+        if (from.equals(to)) {
+            return flat(from + "/" + to, fromDay, 1.0);
+        }
+
+        // Sub-units are a fixed fraction of their currency, so only whole-currency pairs are fetched
+        SubUnit source = SUB_UNITS.getOrDefault(from, new SubUnit(from, 1.0));
+        SubUnit target = SUB_UNITS.getOrDefault(to, new SubUnit(to, 1.0));
+        double scale = source.fraction() / target.fraction();
+        if (source.currency().equals(target.currency())) {
+            return flat(from + "/" + to, fromDay, scale);
+        }
+
+        String pair = source.currency() + "/" + target.currency();
+        LocalDate today = LocalDate.now();
+        CachedRates cached = historyCache.get(pair);
+        if (cached == null || !cached.covers(today, fromDay)) {
+            int calendarDays = (int) Math.max(1, ChronoUnit.DAYS.between(start, today) + 1);
+            DailySeries series = null;
+            if (alphaVantageService.isApiAvailable()) {
+                Map<LocalDate, AlphaVantageService.HistoricalPrice> history
+                        = alphaVantageService.getFxHistory(source.currency(), target.currency(), calendarDays);
+                if (!history.isEmpty()) {
+                    series = DailySeries.fromHistory(pair, history);
+                }
+            }
+            if (series == null) {
+                series = flat(pair, fromDay, current.rate(source.currency(), target.currency()));
+            }
+            cached = new CachedRates(today, fromDay, series);
+            historyCache.put(pair, cached);
+        }
+
+        DailySeries rates = cached.series.slice(Integer.MIN_VALUE, (int) end.toEpochDay());
+        if (scale == 1.0) {
+            return rates;
+        }
+        return rates.times(flat(pair, rates.isEmpty() ? fromDay : rates.firstDay(), scale));
+    }
+
+    private FxMatrix buildMatrix(Map<String, Double> fetched) {
+        FxMatrix previous = matrix;
+        Map<String, Double> usdPerUnit = new LinkedHashMap<>();
+        usdPerUnit.put(FxMatrix.PIVOT, 1.0);
+        for (String currency : currencies) {
+            if (SUB_UNITS.containsKey(currency) || currency.equals(FxMatrix.PIVOT)) {
+                continue;
+            }
+            Double rate = fetched.get(currency);
+            if (rate == null && previous != null && previous.supports(currency)) {
+                rate = previous.rate(currency, FxMatrix.PIVOT);
+            }
+            if (rate == null) {
+                rate = fallbackRates.get(currency);
+            }
+            if (rate != null) {
+                usdPerUnit.put(currency, rate);
+            } else {
+                logger.warn("No exchange rate known for {}; it is unsupported until the provider has one", currency);
+            }
+        }
+        for (String currency : currencies) {
+            SubUnit subUnit = SUB_UNITS.get(currency);
+            if (subUnit != null && usdPerUnit.containsKey(subUnit.currency())) {
+                usdPerUnit.put(currency, usdPerUnit.get(subUnit.currency()) * subUnit.fraction());
+            }
+        }
+        return FxMatrix.fromUsdRates(usdPerUnit, LocalDateTime.now());
+    }
+
+    private static DailySeries flat(String pair, int day, double rate) {
+        return new DailySeries(pair, new int[]{day}, new double[]{rate});
+    }
+
+    private record SubUnit(String currency, double fraction) {
+    }
+
+    private static final class CachedRates {
+
+        private final LocalDate asOf;
+        private final int fromDay;
+        private final DailySeries series;
+
+        private CachedRates(LocalDate asOf, int fromDay, DailySeries series) {
+            this.asOf = asOf;
+            this.fromDay = fromDay;
+            this.series = series;
+        }
+
+        private boolean covers(LocalDate today, int requestedFromDay) {
+            return asOf.equals(today) && fromDay <= requestedFromDay;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.entity.IdempotencyRecord;
+import com.portfolio.tracker.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Response store behind the Idempotency-Key header. Completed responses are
+ * kept in a bounded in-memory LRU in front of the idempotency_records table,
+ * both expiring after the configured TTL. A key that is still executing is
+ * tracked as an in-flight future so concurrent duplicates wait for the first
+ * execution instead of running the request again; this collapsing is per
+ * instance, across instances the stored row is what deduplicates retries.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final String KEY_REUSED = "Idempotency-Key was already used for a different request";
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final Duration ttl;
+    private final Map<String, StoredResponse> recent;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+            @Value("${portfolio.idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${portfolio.idempotency.cache-size:10000}") int cacheSize) {
+        this.recordRepository = recordRepository;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.recent = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Response recorded for a completed request
+     */
+    public record StoredResponse(String fingerprint, int statusCode, String contentType, byte[] body,
+            LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Outcome of claiming a key: a stored response to replay, an in-flight
+     * execution to wait for, or the right to execute the request
+     */
+    public record Claim(StoredResponse stored, CompletableFuture<StoredResponse> pending, boolean owner) {
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<StoredResponse> future) {
+    }
+
+    /**
+     * Claim a key for a request. Owners must call {@link #complete} or
+     * {@link #abandon} once the request finishes. Reusing a key for a
+     * different request is rejected.
+     */
+    public Claim claim(String scopeKey, String fingerprint) {
+        StoredResponse stored = lookup(scopeKey);
+        if (stored != null) {
+            return replay(stored, fingerprint);
+        }
+
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(scopeKey, mine);
+        if (running != null) {
+            if (!running.fingerprint().equals(fingerprint)) {
+                throw new IllegalArgumentException(KEY_REUSED);
+            }
+            return new Claim(null, running.future(), false);
+        }
+
+        // A duplicate may have completed between the lookup and the claim
+        stored = lookup(scopeKey);
+        if (stored != null) {
+            inFlight.remove(scopeKey, mine);
+            mine.future().complete(stored);
+            return replay(stored, fingerprint);
+        }
+        return new Claim(null, mine.future(), true);
+    }
+
+    private Claim replay(StoredResponse stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException(KEY_REUSED);
+        }
+        return new Claim(stored, null, false);
+    }
+
+    /**
+     * Record the response of an owned execution and hand it to any waiting
+     * duplicates. Responses that should not be replayed are only handed over.
+     */
+    public void complete(String scopeKey, String fingerprint, int statusCode, String contentType, byte[] body,
+            boolean replayable) {
+        LocalDateTime now = LocalDateTime.now();
+        StoredResponse response = new StoredResponse(fingerprint, statusCode, contentType, body, now.plus(ttl));
+        if (replayable) {
+            try {
+                recordRepository.insertIfAbsent(scopeKey, fingerprint, statusCode, contentType, body, now,
+                        response.expiresAt());
+            } catch (RuntimeException e) {
+                // The in-memory copy still covers retries that land on this instance
+                logger.warn("Failed to persist idempotent response for key {}: {}", scopeKey, e.getMessage());
+            }
+            synchronized (recent) {
+                recent.put(scopeKey, response);
+            }
+        }
+        InFlight running = inFlight.remove(scopeKey);
+        if (running != null) {
+            running.future().complete(response);
+        }
+    }
+
+    /**
+     * Release an owned key after the request failed without a response, so
+     * the next duplicate executes it again
+     */
+    public void abandon(String scopeKey) {
+        InFlight running = inFlight.remove(scopeKey);
+        if (running != null) {
+            running.future().complete(null);
+        }
+    }
+
+    /**
+     * Drop expired responses from the table; the in-memory copies expire on
+     * lookup or are evicted by size
+     */
+    @Scheduled(fixedDelayString = "${portfolio.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = recordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            logger.debug("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    private StoredResponse lookup(String scopeKey) {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (recent) {
+            StoredResponse cached = recent.get(scopeKey);
+            if (cached != null) {
+                if (cached.expiresAt().isAfter(now)) {
+                    return cached;
+                }
+                recent.remove(scopeKey);
+            }
+        }
+
+        Optional<IdempotencyRecord> record = recordRepository.findLive(scopeKey, now);
+        if (record.isEmpty()) {
+            return null;
+        }
+        IdempotencyRecord r = record.get();
+        StoredResponse stored = new StoredResponse(r.getRequestFingerprint(), r.getStatusCode(), r.getContentType(),
+                r.getResponseBody(), r.getExpiresAt());
+        synchronized (recent) {
+            recent.put(scopeKey, stored);
+        }
+        return stored;
+    }
+}
@@ -0,0 +1,195 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.entity.LotDisposal;
+import com.portfolio.tracker.entity.LotSelectionMethod;
+import com.portfolio.tracker.entity.Portfolio;
+import com.portfolio.tracker.entity.TaxLot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Open lots of one position, ordered by acquisition time. A sale walks the
+ * tree from either end, or jumps to the lots it names, so it costs
+ * O(lots consumed) rather than a replay of the position. Lots are mutated in
+ * place; new lots and disposals are queued until {@link TaxLotService#save}.
+ */
+public class LotBook {
+
+    private static final int COST_SCALE = 8;
+
+    private final Portfolio portfolio;
+    private final String symbol;
+    private final TreeMap<LotKey, TaxLot> lots = new TreeMap<>();
+    private final Map<Long, LotKey> keysById = new HashMap<>();
+    private final List<TaxLot> opened = new ArrayList<>();
+    private final List<LotDisposal> disposals = new ArrayList<>();
+    private BigDecimal quantity = BigDecimal.ZERO;
+    private long sequence;
+
+    LotBook(Portfolio portfolio, String symbol, List<TaxLot> openLots) {
+        this.portfolio = portfolio;
+        this.symbol = symbol;
+        openLots.forEach(this::insert);
+    }
+
+    public BigDecimal quantity() {
+        return quantity;
+    }
+
+    /**
+     * Open a lot for a purchase; fees are capitalized into the cost
+     */
+    public TaxLot buy(BigDecimal shares, BigDecimal totalCost, LocalDateTime acquiredAt) {
+        TaxLot lot = new TaxLot(portfolio, symbol, shares,
+                totalCost.divide(shares, COST_SCALE, RoundingMode.HALF_UP), acquiredAt);
+        insert(lot);
+        opened.add(lot);
+        return lot;
+    }
+
+    /**
+     * Take the sold shares out of open lots. A null method means specific-ID
+     * when lot ids are given and FIFO otherwise. Fees reduce proceeds in
+     * proportion to the shares taken from each lot.
+     */
+    public List<LotDisposal> sell(BigDecimal shares, BigDecimal price, BigDecimal fees, LocalDateTime disposedAt,
+            LotSelectionMethod method, List<Long> lotIds) {
+        if (shares.compareTo(quantity) > 0) {
+            throw new IllegalArgumentException("Cannot sell more shares than held in lots. Available: "
+                    + quantity + ", Requested: " + shares);
+        }
+        boolean hasLotIds = lotIds != null && !lotIds.isEmpty();
+        LotSelectionMethod selection = method != null ? method
+                : hasLotIds ? LotSelectionMethod.SPECIFIC_ID : LotSelectionMethod.FIFO;
+
+        List<LotDisposal> taken = new ArrayList<>();
+        BigDecimal remaining = shares;
+        if (selection == LotSelectionMethod.SPECIFIC_ID) {
+            if (!hasLotIds) {
+                throw new IllegalArgumentException("lotIds are required for SPECIFIC_ID sales");
+            }
+            for (Long lotId : lotIds) {
+                if (remaining.signum() == 0) {
+                    break;
+                }
+                LotKey key = keysById.get(lotId);
+                if (key == null) {
+                    throw new IllegalArgumentException("Lot " + lotId + " is not an open lot of " + symbol);
+                }
+                remaining = remaining.subtract(take(key, remaining, shares, price, fees, disposedAt, taken));
+            }
+            if (remaining.signum() > 0) {
+                throw new IllegalArgumentException("Selected lots hold " + shares.subtract(remaining)
+                        + " shares of " + symbol + ", Requested: " + shares);
+            }
+        } else {
+            while (remaining.signum() > 0) {
+                LotKey key = selection == LotSelectionMethod.FIFO ? lots.firstKey() : lots.lastKey();
+                remaining = remaining.subtract(take(key, remaining, shares, price, fees, disposedAt, taken));
+            }
+        }
+        disposals.addAll(taken);
+        return taken;
+    }
+
+    /**
+     * Replace the open lots with a single lot at the given position, keeping
+     * the earliest acquisition time. Used when a holding is edited by hand.
+     */
+    public void restate(BigDecimal shares, BigDecimal averagePrice, LocalDateTime now) {
+        LocalDateTime acquiredAt = lots.isEmpty() ? now : lots.firstEntry().getValue().getAcquiredAt();
+        closeAll();
+        buy(shares, shares.multiply(averagePrice), acquiredAt);
+    }
+
+    /**
+     * Drop every open lot without a disposal, as when a holding is removed
+     */
+    public void closeAll() {
+        lots.values().forEach(lot -> lot.setRemainingQuantity(BigDecimal.ZERO));
+        lots.clear();
+        keysById.clear();
+        quantity = BigDecimal.ZERO;
+    }
+
+    /**
+     * Cover shares the lots do not account for (holdings that predate lot
+     * tracking) with a lot at the holding's average price
+     */
+    public void reconcile(BigDecimal heldShares, BigDecimal averagePrice, LocalDateTime heldSince) {
+        BigDecimal missing = heldShares.subtract(quantity);
+        if (missing.signum() > 0) {
+            buy(missing, missing.multiply(averagePrice), heldSince != null ? heldSince : LocalDateTime.now());
+        }
+    }
+
+    List<TaxLot> drainOpened() {
+        List<TaxLot> drained = new ArrayList<>(opened);
+        opened.clear();
+        return drained;
+    }
+
+    List<LotDisposal> drainDisposals() {
+        List<LotDisposal> drained = new ArrayList<>(disposals);
+        disposals.clear();
+        return drained;
+    }
+
+    private void insert(TaxLot lot) {
+        LotKey key = new LotKey(lot.getAcquiredAt(), sequence++);
+        lots.put(key, lot);
+        if (lot.getId() != null) {
+            keysById.put(lot.getId(), key);
+        }
+        quantity = quantity.add(lot.getRemainingQuantity());
+    }
+
+    private BigDecimal take(LotKey key, BigDecimal wanted, BigDecimal saleShares, BigDecimal price, BigDecimal fees,
+            LocalDateTime disposedAt, List<LotDisposal> taken) {
+        TaxLot lot = lots.get(key);
+        BigDecimal shares = wanted.min(lot.getRemainingQuantity());
+        lot.setRemainingQuantity(lot.getRemainingQuantity().subtract(shares));
+        quantity = quantity.subtract(shares);
+        if (lot.getRemainingQuantity().signum() == 0) {
+            lots.remove(key);
+            if (lot.getId() != null) {
+                keysById.remove(lot.getId());
+            }
+        }
+
+        BigDecimal feeShare = fees == null || fees.signum() == 0 ? BigDecimal.ZERO
+                : fees.multiply(shares).divide(saleShares, 2, RoundingMode.HALF_UP);
+        LotDisposal disposal = new LotDisposal();
+        disposal.setPortfolio(portfolio);
+        disposal.setLot(lot);
+        disposal.setTickerSymbol(symbol);
+        disposal.setQuantity(shares);
+        disposal.setProceeds(shares.multiply(price).subtract(feeShare).setScale(2, RoundingMode.HALF_UP));
+        disposal.setCostBasis(shares.multiply(lot.getCostPerShare()).setScale(2, RoundingMode.HALF_UP));
+        disposal.setRealizedGain(disposal.getProceeds().subtract(disposal.getCostBasis()));
+        disposal.setAcquiredAt(lot.getAcquiredAt());
+        disposal.setDisposedAt(disposedAt);
+        disposal.setLongTerm(disposedAt.isAfter(lot.getAcquiredAt().plusYears(1)));
+        taken.add(disposal);
+        return shares;
+    }
+
+    /**
+     * Acquisition time with an insertion sequence to keep same-time lots distinct
+     */
+    private record LotKey(LocalDateTime acquiredAt, long sequence) implements Comparable<LotKey> {
+
+        @Override
+        public int compareTo(LotKey other) {
+            int byTime = acquiredAt.compareTo(other.acquiredAt);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,24 +1,49 @@
 package com.portfolio.tracker.service;
 
+import com.portfolio.tracker.event.PriceTickEvent;
 import com.portfolio.tracker.external.AlphaVantageService;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
-import java.util.HashMap;
+import java.math.RoundingMode;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Random;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Market prices from Alpha Vantage with mock prices as fallback. Lookups may
+ * run concurrently, so price ticks are not published on the calling thread:
+ * they are coalesced per symbol and handed to the listeners by one
+ * background thread, so a slow or failing listener never delays or fails a
+ * quote.
+ */
 @Service
 public class MarketPriceService {
 
     private static final Logger logger = LoggerFactory.getLogger(MarketPriceService.class);
     private final AlphaVantageService alphaVantageService;
-    private final Map<String, BigDecimal> mockPrices = new HashMap<>();
-    private final Random random = new Random();
-
-    public MarketPriceService(AlphaVantageService alphaVantageService) {
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<String, BigDecimal> mockPrices = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> lastObservedPrices = new ConcurrentHashMap<>();
+    // Latest unpublished price per symbol, drained by the tick publisher
+    private final Map<String, BigDecimal> pendingTicks = new ConcurrentHashMap<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService tickPublisher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "price-tick-publisher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MarketPriceService(AlphaVantageService alphaVantageService, ApplicationEventPublisher eventPublisher) {
         this.alphaVantageService = alphaVantageService;
+        this.eventPublisher = eventPublisher;
         initializeMockPrices();
     }
 
@@ -49,7 +74,7 @@ public class MarketPriceService {
                 BigDecimal realTimePrice = alphaVantageService.getRealTimePrice(upperTicker);
                 if (realTimePrice != null && realTimePrice.compareTo(BigDecimal.ZERO) > 0) {
                     logger.debug("Retrieved real-time price for {}: {}", upperTicker, realTimePrice);
-                    return realTimePrice;
+                    return observe(upperTicker, realTimePrice);
                 }
             } catch (Exception e) {
                 logger.warn("Failed to get real-time price for {} from Alpha Vantage: {}", upperTicker, e.getMessage());
@@ -57,26 +82,75 @@ public class MarketPriceService {
         }
 
         // Fallback to mock prices
-        return getMockPrice(upperTicker);
+        return observe(upperTicker, getMockPrice(upperTicker));
+    }
+
+    /**
+     * Record the price and queue a tick if it moved since the last
+     * observation
+     */
+    private BigDecimal observe(String upperTicker, BigDecimal price) {
+        BigDecimal previous = lastObservedPrices.put(upperTicker, price);
+        if (previous == null || previous.compareTo(price) != 0) {
+            pendingTicks.put(upperTicker, price);
+            if (drainScheduled.compareAndSet(false, true)) {
+                tickPublisher.execute(this::publishPendingTicks);
+            }
+        }
+        return price;
+    }
+
+    /**
+     * Publish every queued tick; ticks queued while this runs schedule the
+     * next drain
+     */
+    private void publishPendingTicks() {
+        drainScheduled.set(false);
+        Iterator<Map.Entry<String, BigDecimal>> ticks = pendingTicks.entrySet().iterator();
+        while (ticks.hasNext()) {
+            Map.Entry<String, BigDecimal> tick = ticks.next();
+            String symbol = tick.getKey();
+            BigDecimal price = tick.getValue();
+            // Only drop the entry if no newer price replaced it meanwhile
+            pendingTicks.remove(symbol, price);
+            try {
+                eventPublisher.publishEvent(new PriceTickEvent(symbol, price));
+            } catch (RuntimeException e) {
+                logger.warn("Price tick listener failed for {}: {}", symbol, e.getMessage(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        tickPublisher.shutdownNow();
     }
 
     private BigDecimal getMockPrice(String upperTicker) {
         logger.info("Using mock price for {} (Alpha Vantage unavailable or failed)", upperTicker);
 
-        if (mockPrices.containsKey(upperTicker)) {
+        BigDecimal basePrice = mockPrices.get(upperTicker);
+        if (basePrice != null) {
             // Add some realistic price fluctuation (±2%)
-            BigDecimal basePrice = mockPrices.get(upperTicker);
-            double fluctuation = (random.nextDouble() - 0.5) * 0.04; // ±2%
+            double fluctuation = (ThreadLocalRandom.current().nextDouble() - 0.5) * 0.04; // ±2%
             BigDecimal priceChange = basePrice.multiply(BigDecimal.valueOf(fluctuation));
-            return basePrice.add(priceChange).setScale(2, java.math.RoundingMode.HALF_UP);
+            return basePrice.add(priceChange).setScale(2, RoundingMode.HALF_UP);
         }
 
-        // For unknown tickers, generate a random price between $10-$500
-        BigDecimal randomPrice = BigDecimal.valueOf(10 + (random.nextDouble() * 490))
-                .setScale(2, java.math.RoundingMode.HALF_UP);
-        mockPrices.put(upperTicker, randomPrice);
-        logger.info("Generated new mock price for {}: {}", upperTicker, randomPrice);
-        return randomPrice;
+        // For unknown tickers, generate a random price between $10-$500; concurrent lookups agree on one
+        return mockPrices.computeIfAbsent(upperTicker, ticker -> {
+            BigDecimal randomPrice = BigDecimal.valueOf(10 + (ThreadLocalRandom.current().nextDouble() * 490))
+                    .setScale(2, RoundingMode.HALF_UP);
+            logger.info("Generated new mock price for {}: {}", ticker, randomPrice);
+            return randomPrice;
+        });
+    }
+
+    /**
+     * Most recently observed price for a symbol without triggering a lookup
+     */
+    public BigDecimal getLastKnownPrice(String tickerSymbol) {
+        return tickerSymbol == null ? null : lastObservedPrices.get(tickerSymbol.toUpperCase());
     }
 
     public boolean isTickerSupported(String tickerSymbol) {
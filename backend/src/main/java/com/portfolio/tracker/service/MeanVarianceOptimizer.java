@@ -0,0 +1,258 @@
+package com.portfolio.tracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Long-only mean-variance optimizer: traces the efficient frontier and finds
+ * the maximum Sharpe ratio allocation, with every weight between zero and a
+ * cap and the weights summing to one.
+ *
+ * Each frontier point minimizes w'Sw/2 - t * mu'w for a trade-off t. The
+ * quadratic program is solved with accelerated projected gradient (FISTA) on
+ * flat primitive arrays; the projection onto the capped simplex is a
+ * bisection on a single threshold. Successive points are warm-started from
+ * their neighbour, and all work stops at a deadline, returning what has been
+ * solved so far.
+ */
+public final class MeanVarianceOptimizer {
+
+    private static final int MAX_ITERATIONS = 5000;
+    private static final double TOLERANCE = 1e-10;
+    // Iterations between deadline checks
+    private static final int DEADLINE_CHECK = 32;
+    private static final int PROJECTION_STEPS = 60;
+    private static final int SHARPE_REFINEMENTS = 24;
+    private static final double GOLDEN = (Math.sqrt(5) - 1) / 2;
+
+    private MeanVarianceOptimizer() {
+    }
+
+    public record Allocation(double[] weights, double expectedReturn, double volatility, double sharpeRatio) {
+    }
+
+    /**
+     * @param points efficient allocations in order of increasing expected return
+     * @param complete false when the deadline cut the search short
+     */
+    public record Frontier(List<Allocation> points, Allocation maxSharpe, boolean complete) {
+    }
+
+    /**
+     * @param expectedReturns expected return of each asset over the period
+     * @param covariance covariance of the asset returns over the same period
+     * @param maxWeight largest weight of any one asset; raised to 1/n when
+     * the assets could not otherwise be fully invested
+     * @param points trade-offs to sample between minimum variance and maximum return
+     * @param deadlineNanos System.nanoTime() after which no new work starts; the
+     * minimum variance allocation is always solved
+     */
+    public static Frontier optimize(double[] expectedReturns, double[][] covariance, double riskFreeRate,
+            double maxWeight, int points, long deadlineNanos) {
+        int n = expectedReturns.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one asset is required");
+        }
+        Problem problem = Problem.of(expectedReturns, covariance, riskFreeRate, Math.max(maxWeight, 1.0 / n));
+
+        // Beyond tMax the return term dominates the curvature and the solution is the max-return corner
+        double spread = Arrays.stream(expectedReturns).max().getAsDouble()
+                - Arrays.stream(expectedReturns).min().getAsDouble();
+        double tMax = spread > 0.0 ? 4 * problem.lipschitz() / spread : 0.0;
+
+        boolean complete = true;
+        List<Allocation> frontier = new ArrayList<>();
+        double[] trades = new double[Math.max(points, 2)];
+        double[] weights = new double[n];
+        Arrays.fill(weights, 1.0 / n);
+        problem.project(weights, weights);
+        int best = -1;
+        int bestSample = 0;
+        int sampled = 0;
+        for (int k = 0; k < trades.length; k++) {
+            if (k > 0 && (tMax == 0.0 || System.nanoTime() > deadlineNanos)) {
+                complete = tMax == 0.0;
+                break;
+            }
+            // Quadratic spacing puts more points near the minimum variance end, where the frontier bends
+            double fraction = (double) k / (trades.length - 1);
+            trades[k] = tMax * fraction * fraction;
+            weights = problem.minimize(trades[k], weights, k == 0 ? Long.MAX_VALUE : deadlineNanos);
+            Allocation allocation = problem.allocation(weights);
+            sampled = k + 1;
+            // Points only count when they add return; near the corner the samples crowd together
+            if (frontier.isEmpty()
+                    || allocation.expectedReturn() > frontier.get(frontier.size() - 1).expectedReturn() + spread * 1e-4) {
+                frontier.add(allocation);
+                if (best < 0 || allocation.sharpeRatio() > frontier.get(best).sharpeRatio()) {
+                    best = frontier.size() - 1;
+                    bestSample = k;
+                }
+            }
+        }
+
+        Allocation maxSharpe = frontier.get(best);
+        if (complete && tMax > 0.0) {
+            double low = trades[Math.max(0, bestSample - 1)];
+            double high = trades[Math.min(sampled - 1, bestSample + 1)];
+            Allocation refined = refineSharpe(problem, maxSharpe, low, high, deadlineNanos);
+            if (refined == null) {
+                complete = false;
+            } else if (refined.sharpeRatio() > maxSharpe.sharpeRatio()) {
+                maxSharpe = refined;
+            }
+        }
+        return new Frontier(frontier, maxSharpe, complete);
+    }
+
+    /**
+     * Expected return, volatility and Sharpe ratio of any allocation under the
+     * same estimates
+     */
+    public static Allocation evaluate(double[] weights, double[] expectedReturns, double[][] covariance,
+            double riskFreeRate) {
+        return Problem.of(expectedReturns, covariance, riskFreeRate, 1.0).allocation(weights);
+    }
+
+    /**
+     * Golden-section search on the trade-off between the neighbours of the
+     * best sampled point; the Sharpe ratio is unimodal along the efficient
+     * frontier. Null when the deadline passes first.
+     */
+    private static Allocation refineSharpe(Problem problem, Allocation sampled, double low, double high,
+            long deadlineNanos) {
+        double[] weights = sampled.weights();
+        double a = high - GOLDEN * (high - low);
+        double b = low + GOLDEN * (high - low);
+        Allocation atA = problem.allocation(weights = problem.minimize(a, weights, deadlineNanos));
+        Allocation atB = problem.allocation(weights = problem.minimize(b, weights, deadlineNanos));
+        for (int step = 0; step < SHARPE_REFINEMENTS; step++) {
+            if (System.nanoTime() > deadlineNanos) {
+                return null;
+            }
+            if (atA.sharpeRatio() >= atB.sharpeRatio()) {
+                high = b;
+                b = a;
+                atB = atA;
+                a = high - GOLDEN * (high - low);
+                atA = problem.allocation(weights = problem.minimize(a, weights, deadlineNanos));
+            } else {
+                low = a;
+                a = b;
+                atA = atB;
+                b = low + GOLDEN * (high - low);
+                atB = problem.allocation(weights = problem.minimize(b, weights, deadlineNanos));
+            }
+        }
+        return atA.sharpeRatio() >= atB.sharpeRatio() ? atA : atB;
+    }
+
+    private record Problem(int n, double[] mu, double[] sigma, double riskFreeRate, double cap, double lipschitz) {
+
+        static Problem of(double[] expectedReturns, double[][] covariance, double riskFreeRate, double cap) {
+            int n = expectedReturns.length;
+            double[] sigma = new double[n * n];
+            double lipschitz = 0.0;
+            for (int i = 0; i < n; i++) {
+                double rowSum = 0.0;
+                for (int j = 0; j < n; j++) {
+                    sigma[i * n + j] = covariance[i][j];
+                    rowSum += Math.abs(covariance[i][j]);
+                }
+                // Gershgorin bound on the largest eigenvalue
+                lipschitz = Math.max(lipschitz, rowSum);
+            }
+            return new Problem(n, expectedReturns.clone(), sigma, riskFreeRate, cap, Math.max(lipschitz, 1e-12));
+        }
+
+        /**
+         * FISTA from the given start; the start is not modified
+         */
+        double[] minimize(double trade, double[] start, long deadlineNanos) {
+            double[] current = start.clone();
+            double[] previous = start.clone();
+            double[] lookahead = new double[n];
+            double[] next = new double[n];
+            double step = 1.0 / lipschitz;
+            double momentum = 1.0;
+            for (int iteration = 1; iteration <= MAX_ITERATIONS; iteration++) {
+                double nextMomentum = (1 + Math.sqrt(1 + 4 * momentum * momentum)) / 2;
+                double beta = (momentum - 1) / nextMomentum;
+                for (int i = 0; i < n; i++) {
+                    lookahead[i] = current[i] + beta * (current[i] - previous[i]);
+                }
+                for (int i = 0; i < n; i++) {
+                    double gradient = -trade * mu[i];
+                    int row = i * n;
+                    for (int j = 0; j < n; j++) {
+                        gradient += sigma[row + j] * lookahead[j];
+                    }
+                    next[i] = lookahead[i] - step * gradient;
+                }
+                project(next, next);
+
+                double change = 0.0;
+                for (int i = 0; i < n; i++) {
+                    change = Math.max(change, Math.abs(next[i] - current[i]));
+                }
+                double[] recycled = previous;
+                previous = current;
+                current = next;
+                next = recycled;
+                momentum = nextMomentum;
+                if (change < TOLERANCE
+                        || (iteration % DEADLINE_CHECK == 0 && System.nanoTime() > deadlineNanos)) {
+                    break;
+                }
+            }
+            return current;
+        }
+
+        /**
+         * Euclidean projection onto {0 <= w <= cap, sum w = 1}: w = clamp(v - tau)
+         * for the tau that makes the weights sum to one
+         */
+        void project(double[] v, double[] out) {
+            double low = Double.POSITIVE_INFINITY;
+            double high = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                low = Math.min(low, v[i]);
+                high = Math.max(high, v[i]);
+            }
+            // At tau = low - cap every weight is capped (sum >= 1); at tau = high all are zero
+            low -= cap;
+            for (int s = 0; s < PROJECTION_STEPS; s++) {
+                double tau = (low + high) / 2;
+                double sum = 0.0;
+                for (int i = 0; i < n; i++) {
+                    sum += Math.min(cap, Math.max(0.0, v[i] - tau));
+                }
+                if (sum > 1.0) {
+                    low = tau;
+                } else {
+                    high = tau;
+                }
+            }
+            double tau = (low + high) / 2;
+            for (int i = 0; i < n; i++) {
+                out[i] = Math.min(cap, Math.max(0.0, v[i] - tau));
+            }
+        }
+
+        Allocation allocation(double[] weights) {
+            double expectedReturn = 0.0;
+            double variance = 0.0;
+            for (int i = 0; i < n; i++) {
+                expectedReturn += weights[i] * mu[i];
+                int row = i * n;
+                for (int j = 0; j < n; j++) {
+                    variance += weights[i] * sigma[row + j] * weights[j];
+                }
+            }
+            double volatility = Math.sqrt(Math.max(0.0, variance));
+            double sharpe = volatility > 0.0 ? (expectedReturn - riskFreeRate) / volatility : 0.0;
+            return new Allocation(weights.clone(), expectedReturn, volatility, sharpe);
+        }
+    }
+}
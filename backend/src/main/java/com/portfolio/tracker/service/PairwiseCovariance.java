@@ -0,0 +1,180 @@
+package com.portfolio.tracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Covariance and correlation for selected pairs of daily return vectors.
+ *
+ * Pairs are grouped into tiles of SYMBOL_BLOCK x SYMBOL_BLOCK symbols and each
+ * tile walks the calendar in DAY_BLOCK slices, so the few dozen vectors a tile
+ * touches stay in cache while every pair in it is accumulated. Each pair uses
+ * the days on which both symbols have a return (pairwise-complete), which
+ * makes a pair's result independent of whatever else is computed with it.
+ * Tiles run on a fork-join pool once there are enough pairs to pay for it.
+ */
+public final class PairwiseCovariance {
+
+    private static final int SYMBOL_BLOCK = 16;
+    private static final int DAY_BLOCK = 512;
+    // Fewer pairs than this are computed on the calling thread
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private PairwiseCovariance() {
+    }
+
+    /**
+     * @param correlation NaN when fewer than two common observations exist;
+     * zero when either series is flat
+     */
+    public record Stats(double covariance, double correlation, int observations) {
+    }
+
+    /**
+     * @param returns daily returns per symbol, all on the same calendar
+     * @param starts first calendar index with a real return for each symbol
+     * @param rows first symbol of each requested pair
+     * @param cols second symbol of each requested pair
+     * @return stats for each requested pair, in request order
+     */
+    public static Stats[] compute(double[][] returns, int[] starts, int[] rows, int[] cols, ForkJoinPool pool) {
+        Stats[] stats = new Stats[rows.length];
+        List<int[]> tiles = tiles(rows, cols);
+        Inputs inputs = new Inputs(returns, starts, rows, cols, stats);
+        if (rows.length < PARALLEL_THRESHOLD) {
+            tiles.forEach(tile -> computeTile(inputs, tile));
+        } else {
+            pool.invoke(new TileBatch(inputs, tiles, 0, tiles.size()));
+        }
+        return stats;
+    }
+
+    /**
+     * Pair indexes grouped by the symbol blocks of both members
+     */
+    private static List<int[]> tiles(int[] rows, int[] cols) {
+        long[] keyed = new long[rows.length];
+        for (int p = 0; p < rows.length; p++) {
+            int rowBlock = Math.min(rows[p], cols[p]) / SYMBOL_BLOCK;
+            int colBlock = Math.max(rows[p], cols[p]) / SYMBOL_BLOCK;
+            long tile = ((long) rowBlock << 16) | colBlock;
+            keyed[p] = (tile << 32) | p;
+        }
+        Arrays.sort(keyed);
+
+        List<int[]> tiles = new ArrayList<>();
+        int from = 0;
+        for (int k = 1; k <= keyed.length; k++) {
+            if (k == keyed.length || (keyed[k] >>> 32) != (keyed[from] >>> 32)) {
+                int[] tile = new int[k - from];
+                for (int i = from; i < k; i++) {
+                    tile[i - from] = (int) keyed[i];
+                }
+                tiles.add(tile);
+                from = k;
+            }
+        }
+        return tiles;
+    }
+
+    private static void computeTile(Inputs inputs, int[] tile) {
+        int pairs = tile.length;
+        double[] sumX = new double[pairs];
+        double[] sumY = new double[pairs];
+        double[] sumXY = new double[pairs];
+        double[] sumXX = new double[pairs];
+        double[] sumYY = new double[pairs];
+        int[] pairStarts = new int[pairs];
+
+        int length = inputs.returns()[inputs.rows()[tile[0]]].length;
+        int first = length;
+        for (int k = 0; k < pairs; k++) {
+            int p = tile[k];
+            pairStarts[k] = Math.max(inputs.starts()[inputs.rows()[p]], inputs.starts()[inputs.cols()[p]]);
+            first = Math.min(first, pairStarts[k]);
+        }
+
+        for (int dayFrom = first; dayFrom < length; dayFrom += DAY_BLOCK) {
+            int dayTo = Math.min(length, dayFrom + DAY_BLOCK);
+            for (int k = 0; k < pairs; k++) {
+                int p = tile[k];
+                double[] x = inputs.returns()[inputs.rows()[p]];
+                double[] y = inputs.returns()[inputs.cols()[p]];
+                double sx = 0.0;
+                double sy = 0.0;
+                double sxy = 0.0;
+                double sxx = 0.0;
+                double syy = 0.0;
+                for (int t = Math.max(dayFrom, pairStarts[k]); t < dayTo; t++) {
+                    double xt = x[t];
+                    double yt = y[t];
+                    sx += xt;
+                    sy += yt;
+                    sxy += xt * yt;
+                    sxx += xt * xt;
+                    syy += yt * yt;
+                }
+                sumX[k] += sx;
+                sumY[k] += sy;
+                sumXY[k] += sxy;
+                sumXX[k] += sxx;
+                sumYY[k] += syy;
+            }
+        }
+
+        for (int k = 0; k < pairs; k++) {
+            int n = Math.max(0, length - pairStarts[k]);
+            inputs.stats()[tile[k]] = stats(n, sumX[k], sumY[k], sumXY[k], sumXX[k], sumYY[k],
+                    inputs.rows()[tile[k]] == inputs.cols()[tile[k]]);
+        }
+    }
+
+    private static Stats stats(int n, double sx, double sy, double sxy, double sxx, double syy, boolean diagonal) {
+        if (n < 2) {
+            return new Stats(0.0, Double.NaN, n);
+        }
+        double covariance = (sxy - sx * sy / n) / (n - 1);
+        double varianceX = Math.max(0.0, (sxx - sx * sx / n) / (n - 1));
+        double varianceY = Math.max(0.0, (syy - sy * sy / n) / (n - 1));
+        double correlation;
+        if (diagonal) {
+            correlation = 1.0;
+        } else if (varianceX == 0.0 || varianceY == 0.0) {
+            correlation = 0.0;
+        } else {
+            correlation = Math.max(-1.0, Math.min(1.0, covariance / Math.sqrt(varianceX * varianceY)));
+        }
+        return new Stats(diagonal ? varianceX : covariance, correlation, n);
+    }
+
+    private record Inputs(double[][] returns, int[] starts, int[] rows, int[] cols, Stats[] stats) {
+    }
+
+    private static final class TileBatch extends RecursiveAction {
+
+        private final Inputs inputs;
+        private final List<int[]> tiles;
+        private final int from;
+        private final int to;
+
+        TileBatch(Inputs inputs, List<int[]> tiles, int from, int to) {
+            this.inputs = inputs;
+            this.tiles = tiles;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                computeTile(inputs, tiles.get(from));
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileBatch(inputs, tiles, from, middle), new TileBatch(inputs, tiles, middle, to));
+        }
+    }
+}
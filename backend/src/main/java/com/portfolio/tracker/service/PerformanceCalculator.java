@@ -0,0 +1,216 @@
+package com.portfolio.tracker.service;
+
+import java.util.Arrays;
+
+/**
+ * Allocation-light kernel that turns holdings, trades and daily closes into a
+ * daily market value series with time-weighted and money-weighted returns.
+ *
+ * Every input is sorted by day, so the whole computation is a single forward
+ * merge: one cursor per price series and one over the trades, advanced as the
+ * calendar day increases. Prices carry forward over days a symbol did not
+ * trade.
+ */
+public final class PerformanceCalculator {
+
+    private static final double DAYS_PER_YEAR = 365.0;
+    private static final int IRR_MAX_ITERATIONS = 100;
+    private static final double IRR_TOLERANCE = 1e-10;
+
+    private PerformanceCalculator() {
+    }
+
+    /**
+     * @param fromDay first epoch day of the window, inclusive
+     * @param toDay last epoch day of the window, inclusive
+     * @param series close series per holding; may start before fromDay so the
+     * opening price can be carried forward
+     * @param startQuantities quantity of each holding before any trade on fromDay
+     * @param tradeDays epoch day of each trade within the window, ascending
+     * @param tradeHoldings index into series for each trade
+     * @param tradeQuantities signed quantity change, positive for buys
+     * @param tradeCashFlows cash moved into the portfolio, positive for buys and
+     * negative for sale proceeds
+     */
+    public static Result compute(int fromDay, int toDay, DailySeries[] series, double[] startQuantities,
+            int[] tradeDays, int[] tradeHoldings, double[] tradeQuantities, double[] tradeCashFlows) {
+        int holdings = series.length;
+        int[] cursors = new int[holdings];
+        double[] lastClose = new double[holdings];
+        double[] quantities = Arrays.copyOf(startQuantities, holdings);
+
+        // Prime each cursor with the last close before the window opens
+        for (int h = 0; h < holdings; h++) {
+            int[] days = series[h].days();
+            double[] closes = series[h].closes();
+            int c = 0;
+            while (c < days.length && days[c] < fromDay) {
+                lastClose[h] = closes[c];
+                c++;
+            }
+            cursors[h] = c;
+        }
+
+        int capacity = toDay - fromDay + 1;
+        int[] pointDays = new int[capacity];
+        double[] pointValues = new double[capacity];
+        double[] pointReturns = new double[capacity];
+        int points = 0;
+
+        // Investor-side cash flows for the IRR: opening value, trades, closing value
+        double[] flowYears = new double[tradeDays.length + 2];
+        double[] flowAmounts = new double[tradeDays.length + 2];
+        int flows = 1;
+
+        double growth = 1.0;
+        double previousValue = 0.0;
+        double pendingFlow = 0.0;
+        double netContributions = 0.0;
+        double startValue = 0.0;
+        int trade = 0;
+
+        for (int day = fromDay; day <= toDay; day++) {
+            boolean priced = false;
+            for (int h = 0; h < holdings; h++) {
+                int[] days = series[h].days();
+                int c = cursors[h];
+                while (c < days.length && days[c] <= day) {
+                    lastClose[h] = series[h].closes()[c];
+                    priced = true;
+                    c++;
+                }
+                cursors[h] = c;
+            }
+
+            while (trade < tradeDays.length && tradeDays[trade] <= day) {
+                quantities[tradeHoldings[trade]] += tradeQuantities[trade];
+                pendingFlow += tradeCashFlows[trade];
+                netContributions += tradeCashFlows[trade];
+                flowYears[flows] = (day - fromDay) / DAYS_PER_YEAR;
+                flowAmounts[flows] = -tradeCashFlows[trade];
+                flows++;
+                trade++;
+            }
+
+            if (!priced && day != fromDay && day != toDay) {
+                continue;
+            }
+
+            double value = 0.0;
+            for (int h = 0; h < holdings; h++) {
+                value += quantities[h] * lastClose[h];
+            }
+
+            if (points == 0) {
+                startValue = value - pendingFlow;
+                previousValue = startValue;
+            }
+            if (previousValue > 0.0) {
+                growth *= (value - pendingFlow) / previousValue;
+            }
+            previousValue = value;
+            pendingFlow = 0.0;
+
+            pointDays[points] = day;
+            pointValues[points] = value;
+            pointReturns[points] = growth - 1.0;
+            points++;
+        }
+
+        double endValue = points > 0 ? pointValues[points - 1] : 0.0;
+        flowYears[0] = 0.0;
+        flowAmounts[0] = -Math.max(startValue, 0.0);
+        flowYears[flows] = (toDay - fromDay) / DAYS_PER_YEAR;
+        flowAmounts[flows] = endValue;
+        flows++;
+
+        return new Result(
+                Arrays.copyOf(pointDays, points),
+                Arrays.copyOf(pointValues, points),
+                Arrays.copyOf(pointReturns, points),
+                startValue,
+                endValue,
+                netContributions,
+                growth - 1.0,
+                internalRateOfReturn(flowYears, flowAmounts, flows)
+        );
+    }
+
+    /**
+     * Annualized rate that discounts the cash flows to zero, solved by Newton's
+     * method with a bisection fallback. NaN when the flows do not change sign.
+     */
+    static double internalRateOfReturn(double[] years, double[] amounts, int count) {
+        boolean hasInflow = false;
+        boolean hasOutflow = false;
+        for (int i = 0; i < count; i++) {
+            hasInflow |= amounts[i] > 0;
+            hasOutflow |= amounts[i] < 0;
+        }
+        if (!hasInflow || !hasOutflow) {
+            return Double.NaN;
+        }
+
+        double rate = 0.1;
+        for (int iteration = 0; iteration < IRR_MAX_ITERATIONS; iteration++) {
+            double npv = 0.0;
+            double derivative = 0.0;
+            for (int i = 0; i < count; i++) {
+                double discount = Math.pow(1.0 + rate, -years[i]);
+                npv += amounts[i] * discount;
+                derivative -= years[i] * amounts[i] * discount / (1.0 + rate);
+            }
+            if (Math.abs(npv) < IRR_TOLERANCE) {
+                return rate;
+            }
+            double next = rate - npv / derivative;
+            if (!Double.isFinite(next) || next <= -1.0) {
+                break;
+            }
+            if (Math.abs(next - rate) < IRR_TOLERANCE) {
+                return next;
+            }
+            rate = next;
+        }
+        return bisectRate(years, amounts, count);
+    }
+
+    private static double bisectRate(double[] years, double[] amounts, int count) {
+        double low = -0.9999;
+        double high = 100.0;
+        double npvLow = netPresentValue(years, amounts, count, low);
+        if (npvLow * netPresentValue(years, amounts, count, high) > 0) {
+            return Double.NaN;
+        }
+        for (int iteration = 0; iteration < 200; iteration++) {
+            double mid = (low + high) / 2.0;
+            double npvMid = netPresentValue(years, amounts, count, mid);
+            if (Math.abs(npvMid) < IRR_TOLERANCE || (high - low) < IRR_TOLERANCE) {
+                return mid;
+            }
+            if (npvLow * npvMid < 0) {
+                high = mid;
+            } else {
+                low = mid;
+                npvLow = npvMid;
+            }
+        }
+        return (low + high) / 2.0;
+    }
+
+    private static double netPresentValue(double[] years, double[] amounts, int count, double rate) {
+        double npv = 0.0;
+        for (int i = 0; i < count; i++) {
+            npv += amounts[i] * Math.pow(1.0 + rate, -years[i]);
+        }
+        return npv;
+    }
+
+    /**
+     * Daily points plus period totals. Returns are fractions, not percentages.
+     */
+    public record Result(int[] days, double[] values, double[] cumulativeReturns,
+            double startValue, double endValue, double netContributions,
+            double timeWeightedReturn, double moneyWeightedReturn) {
+    }
+}
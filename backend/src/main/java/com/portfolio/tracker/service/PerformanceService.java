@@ -0,0 +1,288 @@
+package com.portfolio.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.tracker.dto.PerformanceResponse;
+import com.portfolio.tracker.dto.PortfolioRow;
+import com.portfolio.tracker.entity.Asset;
+import com.portfolio.tracker.entity.CorporateAction;
+import com.portfolio.tracker.entity.Transaction;
+import com.portfolio.tracker.entity.TransactionType;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.CorporateActionRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.TransactionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Portfolio value over time with time-weighted and money-weighted returns.
+ *
+ * Holdings at the start of the window are rolled back from the current
+ * positions using the transaction ledger, then replayed forward against the
+ * cached daily history of every symbol involved. That history is
+ * split-adjusted, so trades from before a split are restated in post-split
+ * shares, as the current positions already are. Values are in the owner's
+ * base currency: each symbol's closes are restated with the daily rate from
+ * its listing currency and each trade is converted at its day's rate. Results
+ * are cached per portfolio positions version, range and price day, in a
+ * bounded cache since callers choose the range.
+ */
+@Service
+public class PerformanceService {
+
+    private static final long MAX_RANGE_DAYS = 3660;
+    private static final int PRICE_LOOKBACK_DAYS = 10;
+    private static final int MAX_CACHED_RESULTS = 1_000;
+    private static final Duration CACHE_IDLE_TIMEOUT = Duration.ofHours(1);
+
+    private final PortfolioRepository portfolioRepository;
+    private final AssetRepository assetRepository;
+    private final TransactionRepository transactionRepository;
+    private final CorporateActionRepository corporateActionRepository;
+    private final PriceHistoryService priceHistoryService;
+    private final PortfolioValuationIndex valuationIndex;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<PerformanceKey, Performance> performanceCache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_RESULTS)
+            .expireAfterAccess(CACHE_IDLE_TIMEOUT)
+            .build();
+
+    public PerformanceService(PortfolioRepository portfolioRepository,
+            AssetRepository assetRepository,
+            TransactionRepository transactionRepository,
+            CorporateActionRepository corporateActionRepository,
+            PriceHistoryService priceHistoryService,
+            PortfolioValuationIndex valuationIndex,
+            FxRateService fxRateService,
+            PlatformTransactionManager transactionManager) {
+        this.portfolioRepository = portfolioRepository;
+        this.assetRepository = assetRepository;
+        this.transactionRepository = transactionRepository;
+        this.corporateActionRepository = corporateActionRepository;
+        this.priceHistoryService = priceHistoryService;
+        this.valuationIndex = valuationIndex;
+        this.fxRateService = fxRateService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public PerformanceResponse getPerformance(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        return lookup(portfolioId, userId, from, to).response();
+    }
+
+    /**
+     * The daily value series behind {@link #getPerformance}, unrounded; the
+     * first and last points are the resolved window bounds
+     */
+    public PerformanceCalculator.Result getValuation(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        return lookup(portfolioId, userId, from, to).result();
+    }
+
+    private Performance lookup(Long portfolioId, Long userId, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now();
+        LocalDate end = to != null ? to : today;
+        LocalDate start = from != null ? from : end.minusYears(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (end.isAfter(today)) {
+            throw new IllegalArgumentException("'to' must not be in the future");
+        }
+        if (ChronoUnit.DAYS.between(start, end) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Performance range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        // Checked on every call; cached results are not keyed by user
+        PortfolioRow portfolio = portfolioRepository.findRowByIdAndUserId(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+
+        long version = valuationIndex.getPositionsVersion(portfolioId);
+        PerformanceKey key = new PerformanceKey(portfolioId, version, start, end, today);
+        Performance cached = performanceCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Ledger ledger = readOnlyTransaction.execute(status -> loadLedger(portfolio, start));
+        Performance performance = compute(portfolioId, start, end, ledger);
+
+        // Results for older positions versions or price days can never be served again
+        performanceCache.asMap().keySet().removeIf(k -> k.portfolioId().equals(portfolioId)
+                && (k.version() != version || !k.asOf().equals(today)));
+        performanceCache.put(key, performance);
+        return performance;
+    }
+
+    private Ledger loadLedger(PortfolioRow portfolio, LocalDate start) {
+        Long portfolioId = portfolio.id();
+
+        Map<String, BigDecimal> currentQuantities = new LinkedHashMap<>();
+        Map<String, String> currencies = new HashMap<>();
+        for (Asset asset : assetRepository.findByPortfolioId(portfolioId)) {
+            currentQuantities.merge(asset.getTickerSymbol(), asset.getQuantity(), BigDecimal::add);
+            currencies.put(asset.getTickerSymbol(), asset.getCurrency());
+        }
+
+        List<Transaction> transactions = transactionRepository.findByPortfolioIdSinceWithStock(
+                portfolioId, start.atStartOfDay());
+        Map<String, List<CorporateAction>> splits = new HashMap<>();
+        if (!transactions.isEmpty()) {
+            Set<String> symbols = new HashSet<>();
+            transactions.forEach(transaction -> symbols.add(transaction.getStock().getSymbol()));
+            for (CorporateAction split : corporateActionRepository.findSplitsSince(symbols, start)) {
+                splits.computeIfAbsent(split.getSymbol(), s -> new ArrayList<>()).add(split);
+            }
+        }
+
+        List<Trade> trades = new ArrayList<>();
+        for (Transaction transaction : transactions) {
+            // Symbols no longer held fall back to the currency their listing implies
+            currencies.computeIfAbsent(transaction.getStock().getSymbol(), fxRateService::inferCurrency);
+            int sign;
+            if (transaction.getTransactionType() == TransactionType.BUY) {
+                sign = 1;
+            } else if (transaction.getTransactionType() == TransactionType.SELL) {
+                sign = -1;
+            } else {
+                // Split entries only restate shares already held, which the adjusted history covers
+                continue;
+            }
+            LocalDate tradeDate = transaction.getTransactionDate().toLocalDate();
+            double splitFactor = 1.0;
+            for (CorporateAction split : splits.getOrDefault(transaction.getStock().getSymbol(), List.of())) {
+                if (split.getExDate().isAfter(tradeDate)) {
+                    splitFactor *= split.getRatio().doubleValue();
+                }
+            }
+            trades.add(new Trade(
+                    (int) tradeDate.toEpochDay(),
+                    transaction.getStock().getSymbol(),
+                    sign * transaction.getQuantity().doubleValue() * splitFactor,
+                    sign * transaction.getTotalAmount().doubleValue()));
+        }
+        return new Ledger(portfolio.baseCurrency(), currentQuantities, currencies, trades);
+    }
+
+    private Performance compute(Long portfolioId, LocalDate start, LocalDate end, Ledger ledger) {
+        Map<String, Integer> holdingIndex = new LinkedHashMap<>();
+        ledger.currentQuantities().keySet().forEach(symbol -> holdingIndex.putIfAbsent(symbol, holdingIndex.size()));
+        ledger.trades().forEach(trade -> holdingIndex.putIfAbsent(trade.symbol(), holdingIndex.size()));
+
+        int holdings = holdingIndex.size();
+        double[] startQuantities = new double[holdings];
+        ledger.currentQuantities().forEach((symbol, quantity)
+                -> startQuantities[holdingIndex.get(symbol)] = quantity.doubleValue());
+
+        // Undo every trade since the window opened to recover the opening positions
+        int endDay = (int) end.toEpochDay();
+        int tradesInRange = 0;
+        for (Trade trade : ledger.trades()) {
+            startQuantities[holdingIndex.get(trade.symbol())] -= trade.quantity();
+            if (trade.day() <= endDay) {
+                tradesInRange++;
+            }
+        }
+        for (int h = 0; h < holdings; h++) {
+            startQuantities[h] = Math.max(startQuantities[h], 0.0);
+        }
+
+        // Listing-currency closes restated in the base currency, one rate series per currency
+        String baseCurrency = ledger.baseCurrency();
+        LocalDate priceStart = start.minusDays(PRICE_LOOKBACK_DAYS);
+        Map<String, DailySeries> rates = new HashMap<>();
+        DailySeries[] fxSeries = new DailySeries[holdings];
+        DailySeries[] series = new DailySeries[holdings];
+        holdingIndex.forEach((symbol, index) -> {
+            String currency = ledger.currencies().get(symbol);
+            DailySeries prices = priceHistoryService.getDailySeries(symbol, priceStart, end);
+            if (!currency.equals(baseCurrency)) {
+                fxSeries[index] = rates.computeIfAbsent(currency,
+                        c -> fxRateService.getDailyRates(c, baseCurrency, priceStart, end));
+                prices = prices.times(fxSeries[index]);
+            }
+            series[index] = prices;
+        });
+
+        int[] tradeDays = new int[tradesInRange];
+        int[] tradeHoldings = new int[tradesInRange];
+        double[] tradeQuantities = new double[tradesInRange];
+        double[] tradeCashFlows = new double[tradesInRange];
+        for (int i = 0; i < tradesInRange; i++) {
+            Trade trade = ledger.trades().get(i);
+            tradeDays[i] = trade.day();
+            tradeHoldings[i] = holdingIndex.get(trade.symbol());
+            tradeQuantities[i] = trade.quantity();
+            tradeCashFlows[i] = trade.cashFlow();
+            DailySeries fx = fxSeries[tradeHoldings[i]];
+            if (fx != null && !fx.isEmpty()) {
+                tradeCashFlows[i] *= fx.valueOn(trade.day());
+            }
+        }
+
+        PerformanceCalculator.Result result = PerformanceCalculator.compute(
+                (int) start.toEpochDay(), endDay, series, startQuantities,
+                tradeDays, tradeHoldings, tradeQuantities, tradeCashFlows);
+
+        List<PerformanceResponse.PerformancePoint> points = new ArrayList<>(result.days().length);
+        for (int i = 0; i < result.days().length; i++) {
+            points.add(new PerformanceResponse.PerformancePoint(
+                    LocalDate.ofEpochDay(result.days()[i]),
+                    money(result.values()[i]),
+                    percentage(result.cumulativeReturns()[i])));
+        }
+
+        return new Performance(result, new PerformanceResponse(
+                portfolioId,
+                start,
+                end,
+                money(result.startValue()),
+                money(result.endValue()),
+                money(result.netContributions()),
+                percentage(result.timeWeightedReturn()),
+                percentage(result.moneyWeightedReturn()),
+                points,
+                baseCurrency
+        ));
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal percentage(double fraction) {
+        if (!Double.isFinite(fraction)) {
+            return null;
+        }
+        return BigDecimal.valueOf(fraction * 100).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private record Trade(int day, String symbol, double quantity, double cashFlow) {
+    }
+
+    private record Ledger(String baseCurrency, Map<String, BigDecimal> currentQuantities,
+            Map<String, String> currencies, List<Trade> trades) {
+    }
+
+    private record Performance(PerformanceCalculator.Result result, PerformanceResponse response) {
+    }
+
+    private record PerformanceKey(Long portfolioId, long version, LocalDate from, LocalDate to, LocalDate asOf) {
+    }
+}
@@ -0,0 +1,496 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.ImportResultResponse;
+import com.portfolio.tracker.entity.Asset;
+import com.portfolio.tracker.entity.LotSelectionMethod;
+import com.portfolio.tracker.entity.Portfolio;
+import com.portfolio.tracker.entity.Stock;
+import com.portfolio.tracker.entity.Transaction;
+import com.portfolio.tracker.entity.TransactionType;
+import com.portfolio.tracker.event.AuditAction;
+import com.portfolio.tracker.event.AuditEvent;
+import com.portfolio.tracker.event.PositionChangedEvent;
+import com.portfolio.tracker.event.StocksChangedEvent;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.StockRepository;
+import com.portfolio.tracker.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of trades from a broker CSV export.
+ *
+ * The file is parsed line by line, then the rows are put in trade-date order
+ * (file order among equal dates, undated rows last) so a sell is checked
+ * against the buys that precede it whatever order the export uses. Rows are
+ * written in chunks: each chunk resolves its symbols with one lookup and
+ * inserts its transactions as a single JDBC batch (rewritten into multi-row
+ * INSERTs by pgjdbc). Rows are folded onto the holdings in that order, and the
+ * resulting assets are saved once at the end.
+ * Tax lots follow the same rows (sells consume them FIFO) and are saved after
+ * each chunk.
+ * Invalid rows are skipped and reported; everything else commits together.
+ */
+@Service
+public class PortfolioImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioImportService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 500;
+    private static final Pattern SYMBOL_PATTERN = Pattern.compile("^[A-Z0-9.\\-]{1,10}$");
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("1000000000");
+
+    private static final String INSERT_TRANSACTION = "INSERT INTO transactions "
+            + "(transaction_type, quantity, price_per_share, total_amount, fees, realized_pnl, "
+            + "transaction_date, created_at, portfolio_id, stock_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int[] INSERT_TYPES = {
+            Types.VARCHAR, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC, Types.NUMERIC,
+            Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT
+    };
+
+    private final PortfolioRepository portfolioRepository;
+    private final AssetRepository assetRepository;
+    private final StockRepository stockRepository;
+    private final TransactionRepository transactionRepository;
+    private final PositionEngine positionEngine;
+    private final TaxLotService taxLotService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditTrailService auditTrailService;
+    private final FxRateService fxRateService;
+
+    public PortfolioImportService(PortfolioRepository portfolioRepository,
+            AssetRepository assetRepository,
+            StockRepository stockRepository,
+            TransactionRepository transactionRepository,
+            PositionEngine positionEngine,
+            TaxLotService taxLotService,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            AuditTrailService auditTrailService,
+            FxRateService fxRateService) {
+        this.portfolioRepository = portfolioRepository;
+        this.assetRepository = assetRepository;
+        this.stockRepository = stockRepository;
+        this.transactionRepository = transactionRepository;
+        this.positionEngine = positionEngine;
+        this.taxLotService = taxLotService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.auditTrailService = auditTrailService;
+        this.fxRateService = fxRateService;
+    }
+
+    /**
+     * Import trades from CSV with a header row. Recognized columns are
+     * ticker_symbol, transaction_type (BUY or SELL, default BUY), quantity,
+     * price_per_share, fees and transaction_date (ISO date or date-time).
+     * Rows dated before the portfolio's latest transaction are rejected, since
+     * positions are replayed in the order trades were recorded.
+     */
+    @Transactional
+    public ImportResultResponse importTransactions(Long portfolioId, Long userId, InputStream csv) throws IOException {
+        Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+
+        ImportRun run = new ImportRun(portfolio, transactionRepository.findLatestTransactionDate(portfolioId));
+        for (Asset asset : assetRepository.findByPortfolioId(portfolioId)) {
+            run.assets.put(asset.getTickerSymbol(), asset);
+        }
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            Columns columns = Columns.fromHeader(parseLine(header.replace("\uFEFF", "")));
+
+            List<ImportRow> rows = new ArrayList<>();
+            int lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                run.rowsRead++;
+                try {
+                    ImportRow row = columns.parse(lineNumber, parseLine(line));
+                    if (row.date() != null && run.latestDate != null && row.date().isBefore(run.latestDate)) {
+                        throw new IllegalArgumentException("Transaction date is before the portfolio's latest transaction ("
+                                + run.latestDate + ")");
+                    }
+                    rows.add(row);
+                } catch (IllegalArgumentException e) {
+                    run.reject(lineNumber, e.getMessage());
+                }
+            }
+
+            // Stable sort, so rows with the same date keep their file order
+            rows.sort(Comparator.comparing(ImportRow::date, Comparator.nullsLast(Comparator.naturalOrder())));
+            for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                writeChunk(run, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+            }
+        }
+
+        applyHoldings(run);
+        run.errors.sort(Comparator.comparingInt(ImportResultResponse.RowError::getLine));
+        logger.info("Imported {} of {} rows into portfolio {}", run.rowsImported, run.rowsRead, portfolioId);
+        auditTrailService.record(AuditEvent.portfolio(AuditAction.ASSETS_IMPORTED, userId, portfolioId,
+                "Imported " + run.rowsImported + " of " + run.rowsRead + " rows"));
+        return new ImportResultResponse(run.rowsRead, run.rowsImported, run.errors, run.errorsTruncated);
+    }
+
+    private void writeChunk(ImportRun run, List<ImportRow> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        resolveStocks(run, chunk);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(chunk.size());
+        Set<LotBook> changedLots = new HashSet<>();
+        for (ImportRow row : chunk) {
+            PositionEngine.Position position = run.positions.get(row.symbol());
+            if (position == null) {
+                position = openingPosition(run, row.symbol());
+            }
+            LotBook lots = run.lots.computeIfAbsent(row.symbol(), symbol -> openingLots(run, symbol));
+            LocalDateTime date = row.date() != null ? row.date() : now;
+
+            Transaction transaction = new Transaction();
+            transaction.setTransactionType(row.type());
+            transaction.setQuantity(row.quantity());
+            transaction.setPricePerShare(row.price());
+            transaction.setTotalAmount(row.quantity().multiply(row.price()));
+            transaction.setFees(row.fees());
+            if (row.type() == TransactionType.SELL) {
+                if (position.quantity().compareTo(row.quantity()) < 0) {
+                    run.reject(row.line(), "Cannot sell more shares than owned. Available: "
+                            + position.quantity() + ", Requested: " + row.quantity());
+                    continue;
+                }
+                transaction.setRealizedPnl(PositionEngine.realizedPnlOnSale(
+                        position.averageCost(), row.quantity(), row.price(), row.fees()));
+                try {
+                    lots.sell(row.quantity(), row.price(), row.fees(), date, LotSelectionMethod.FIFO, null);
+                } catch (IllegalArgumentException e) {
+                    run.reject(row.line(), e.getMessage());
+                    continue;
+                }
+            } else {
+                BigDecimal fees = row.fees() != null ? row.fees() : BigDecimal.ZERO;
+                lots.buy(row.quantity(), transaction.getTotalAmount().add(fees), date);
+            }
+            run.positions.put(row.symbol(), position.apply(transaction));
+            changedLots.add(lots);
+
+            batch.add(new Object[] {
+                    row.type().name(),
+                    transaction.getQuantity(),
+                    transaction.getPricePerShare(),
+                    transaction.getTotalAmount(),
+                    transaction.getFees(),
+                    transaction.getRealizedPnl(),
+                    date,
+                    now,
+                    run.portfolio.getId(),
+                    run.stocks.get(row.symbol()).getId()
+            });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, batch, INSERT_TYPES);
+        changedLots.forEach(taxLotService::save);
+        run.rowsImported += batch.size();
+    }
+
+    /**
+     * One lookup for every symbol in the chunk not seen before; unknown symbols
+     * are created the same way a single add does
+     */
+    private void resolveStocks(ImportRun run, List<ImportRow> chunk) {
+        Map<String, BigDecimal> unresolved = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            if (!run.stocks.containsKey(row.symbol())) {
+                unresolved.putIfAbsent(row.symbol(), row.price());
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        for (Stock stock : stockRepository.findBySymbolIn(unresolved.keySet())) {
+            run.stocks.put(stock.getSymbol(), stock);
+        }
+        List<Stock> created = new ArrayList<>();
+        unresolved.forEach((symbol, price) -> {
+            if (!run.stocks.containsKey(symbol)) {
+                Stock stock = new Stock();
+                stock.setSymbol(symbol);
+                stock.setCompanyName(symbol + " Inc.");
+                stock.setCurrentPrice(price);
+                created.add(stock);
+            }
+        });
+        for (Stock stock : stockRepository.saveAll(created)) {
+            run.stocks.put(stock.getSymbol(), stock);
+        }
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(StocksChangedEvent.of(created));
+        }
+    }
+
+    /**
+     * Same rule as a single sell: the ledger is trusted when it agrees with the
+     * holding, otherwise the holding's own average is the starting cost
+     */
+    private PositionEngine.Position openingPosition(ImportRun run, String symbol) {
+        Asset asset = run.assets.get(symbol);
+        PositionEngine.Position ledger = positionEngine.replay(run.portfolio.getId(), symbol);
+        if (asset == null) {
+            return new PositionEngine.Position(BigDecimal.ZERO, BigDecimal.ZERO, ledger.realizedPnl(),
+                    ledger.lastTransactionId(), 0);
+        }
+        if (ledger.quantity().compareTo(asset.getQuantity()) == 0) {
+            return ledger;
+        }
+        return new PositionEngine.Position(asset.getQuantity(), asset.getAveragePrice(), ledger.realizedPnl(),
+                ledger.lastTransactionId(), 0);
+    }
+
+    /**
+     * Existing holdings are topped up to their quantity the same way a single sell does
+     */
+    private LotBook openingLots(ImportRun run, String symbol) {
+        Asset asset = run.assets.get(symbol);
+        return asset != null
+                ? taxLotService.openBook(run.portfolio, asset)
+                : taxLotService.openBook(run.portfolio, symbol);
+    }
+
+    private void applyHoldings(ImportRun run) {
+        Long portfolioId = run.portfolio.getId();
+        run.positions.forEach((symbol, position) -> {
+            Asset asset = run.assets.get(symbol);
+            if (position.quantity().signum() <= 0) {
+                if (asset != null) {
+                    assetRepository.delete(asset);
+                    eventPublisher.publishEvent(PositionChangedEvent.removed(portfolioId, symbol));
+                }
+            } else {
+                BigDecimal averagePrice = position.averageCost().setScale(2, RoundingMode.HALF_UP);
+                if (asset == null) {
+                    asset = new Asset(symbol, position.quantity(), averagePrice, run.portfolio);
+                    asset.setCurrency(fxRateService.inferCurrency(symbol));
+                } else {
+                    asset.setQuantity(position.quantity());
+                    asset.setAveragePrice(averagePrice);
+                }
+                asset = assetRepository.save(asset);
+                eventPublisher.publishEvent(new PositionChangedEvent(
+                        portfolioId, symbol, asset.getQuantity(), asset.getAveragePrice(), asset.getCurrency()));
+            }
+            positionEngine.afterRecorded(run.portfolio, symbol);
+        });
+    }
+
+    /**
+     * Split one CSV record; quoted fields may contain commas and doubled quotes
+     * but not line breaks
+     */
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private record ImportRow(int line, String symbol, TransactionType type, BigDecimal quantity,
+            BigDecimal price, BigDecimal fees, LocalDateTime date) {
+    }
+
+    /**
+     * Column positions resolved from the header, accepting common broker aliases
+     */
+    private record Columns(int symbol, int type, int quantity, int price, int fees, int date) {
+
+        static Columns fromHeader(List<String> header) {
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                positions.putIfAbsent(header.get(i).toLowerCase(Locale.ROOT).replace(' ', '_'), i);
+            }
+            Columns columns = new Columns(
+                    find(positions, "ticker_symbol", "symbol", "ticker"),
+                    find(positions, "transaction_type", "type", "action"),
+                    find(positions, "quantity", "shares"),
+                    find(positions, "price_per_share", "price", "average_price"),
+                    find(positions, "fees", "commission"),
+                    find(positions, "transaction_date", "date"));
+            if (columns.symbol < 0 || columns.quantity < 0 || columns.price < 0) {
+                throw new IllegalArgumentException("CSV header must include ticker_symbol, quantity and price_per_share");
+            }
+            return columns;
+        }
+
+        private static int find(Map<String, Integer> positions, String... names) {
+            for (String name : names) {
+                Integer position = positions.get(name);
+                if (position != null) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        ImportRow parse(int line, List<String> fields) {
+            String symbolValue = field(fields, symbol).toUpperCase(Locale.ROOT);
+            if (!SYMBOL_PATTERN.matcher(symbolValue).matches()) {
+                throw new IllegalArgumentException("Invalid ticker symbol: " + symbolValue);
+            }
+
+            String typeValue = field(fields, type);
+            TransactionType transactionType;
+            if (typeValue.isEmpty()) {
+                transactionType = TransactionType.BUY;
+            } else {
+                try {
+                    transactionType = TransactionType.valueOf(typeValue.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown transaction type: " + typeValue);
+                }
+                if (transactionType != TransactionType.BUY && transactionType != TransactionType.SELL) {
+                    throw new IllegalArgumentException("Only BUY and SELL rows can be imported");
+                }
+            }
+
+            BigDecimal quantityValue = decimal(fields, quantity, "quantity");
+            BigDecimal priceValue = decimal(fields, price, "price_per_share");
+            if (quantityValue == null || quantityValue.signum() <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive");
+            }
+            if (priceValue == null || priceValue.signum() <= 0) {
+                throw new IllegalArgumentException("Price must be positive");
+            }
+            // Same bounds as AssetRequest so stored amounts fit the fixed-point kernel
+            if (quantityValue.compareTo(MAX_AMOUNT) > 0 || priceValue.compareTo(MAX_AMOUNT) > 0) {
+                throw new IllegalArgumentException("Quantity and price must not exceed 1,000,000,000");
+            }
+            BigDecimal feesValue = decimal(fields, fees, "fees");
+            if (feesValue != null && feesValue.signum() < 0) {
+                throw new IllegalArgumentException("Fees cannot be negative");
+            }
+
+            return new ImportRow(line, symbolValue, transactionType, quantityValue, priceValue,
+                    feesValue != null ? feesValue : BigDecimal.ZERO, dateTime(field(fields, date)));
+        }
+
+        private static String field(List<String> fields, int position) {
+            return position >= 0 && position < fields.size() ? fields.get(position) : "";
+        }
+
+        private static BigDecimal decimal(List<String> fields, int position, String name) {
+            String value = field(fields, position);
+            if (value.isEmpty()) {
+                return null;
+            }
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+
+        private static LocalDateTime dateTime(String value) {
+            if (value.isEmpty()) {
+                return null;
+            }
+            LocalDateTime parsed;
+            try {
+                parsed = value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid transaction_date: " + value);
+            }
+            if (parsed.isAfter(LocalDateTime.now())) {
+                throw new IllegalArgumentException("transaction_date cannot be in the future");
+            }
+            return parsed;
+        }
+    }
+
+    private static final class ImportRun {
+
+        private final Portfolio portfolio;
+        private final LocalDateTime latestDate;
+        private final Map<String, Asset> assets = new HashMap<>();
+        private final Map<String, Stock> stocks = new HashMap<>();
+        private final Map<String, PositionEngine.Position> positions = new LinkedHashMap<>();
+        private final Map<String, LotBook> lots = new HashMap<>();
+        private final List<ImportResultResponse.RowError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+        private int rowsRead;
+        private int rowsImported;
+
+        private ImportRun(Portfolio portfolio, LocalDateTime latestDate) {
+            this.portfolio = portfolio;
+            this.latestDate = latestDate;
+        }
+
+        private void reject(int line, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResultResponse.RowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
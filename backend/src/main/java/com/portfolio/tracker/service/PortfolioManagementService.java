@@ -2,38 +2,89 @@ package com.portfolio.tracker.service;
 
 import com.portfolio.tracker.dto.*;
 import com.portfolio.tracker.entity.*;
+import com.portfolio.tracker.event.AuditAction;
+import com.portfolio.tracker.event.AuditEvent;
+import com.portfolio.tracker.event.PositionChangedEvent;
+import com.portfolio.tracker.event.StocksChangedEvent;
 import com.portfolio.tracker.repository.*;
 import com.portfolio.tracker.exception.ResourceNotFoundException;
 import com.portfolio.tracker.exception.DuplicateResourceException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PortfolioManagementService {
 
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     private final PortfolioRepository portfolioRepository;
     private final AssetRepository assetRepository;
     private final UserRepository userRepository;
     private final MarketPriceService marketPriceService;
     private final TransactionRepository transactionRepository;
     private final StockRepository stockRepository;
+    private final PositionSnapshotRepository positionSnapshotRepository;
+    private final PositionEngine positionEngine;
+    private final PortfolioValuationIndex valuationIndex;
+    private final AssetValuationService assetValuationService;
+    private final TaxLotService taxLotService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditTrailService auditTrailService;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate writeTransaction;
 
     public PortfolioManagementService(PortfolioRepository portfolioRepository,
             AssetRepository assetRepository,
             UserRepository userRepository,
             MarketPriceService marketPriceService,
             TransactionRepository transactionRepository,
-            StockRepository stockRepository) {
+            StockRepository stockRepository,
+            PositionSnapshotRepository positionSnapshotRepository,
+            PositionEngine positionEngine,
+            PortfolioValuationIndex valuationIndex,
+            AssetValuationService assetValuationService,
+            TaxLotService taxLotService,
+            ApplicationEventPublisher eventPublisher,
+            AuditTrailService auditTrailService,
+            FxRateService fxRateService,
+            PlatformTransactionManager transactionManager) {
         this.portfolioRepository = portfolioRepository;
         this.assetRepository = assetRepository;
         this.userRepository = userRepository;
         this.marketPriceService = marketPriceService;
         this.transactionRepository = transactionRepository;
         this.stockRepository = stockRepository;
+        this.positionSnapshotRepository = positionSnapshotRepository;
+        this.positionEngine = positionEngine;
+        this.valuationIndex = valuationIndex;
+        this.assetValuationService = assetValuationService;
+        this.taxLotService = taxLotService;
+        this.eventPublisher = eventPublisher;
+        this.auditTrailService = auditTrailService;
+        this.fxRateService = fxRateService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
     public PortfolioResponse createPortfolio(PortfolioRequest request) {
@@ -58,52 +109,98 @@ public class PortfolioManagementService {
                 savedPortfolio.getId(),
                 savedPortfolio.getPortfolioName(),
                 savedPortfolio.getUser().getId(),
+                user.getBaseCurrency(),
                 savedPortfolio.getCreatedAt(),
                 List.of() // Empty assets list for new portfolio
         );
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Positions are loaded in a short read-only transaction and valued after it
+     * ends, so the connection is back in the pool before any quote is fetched
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PortfolioResponse getPortfolioDetails(Long portfolioId, Long userId) {
-        Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+        PortfolioPositions positions = readOnlyTransaction.execute(status -> {
+            PortfolioRow portfolio = portfolioRepository.findRowByIdAndUserId(portfolioId, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+            return new PortfolioPositions(portfolio, assetRepository.findRowsByPortfolioId(portfolioId));
+        });
+
+        return toPortfolioResponse(positions.portfolio(), assetValuationService.toBaseCurrency(
+                assetValuationService.valueRows(positions.assets()), positions.portfolio().baseCurrency()));
+    }
 
-        List<Asset> assets = assetRepository.findByPortfolioId(portfolioId);
-        List<AssetResponse> assetResponses = assets.stream()
-                .map(this::convertToAssetResponse)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<PortfolioResponse> getUserPortfolios(Long userId) {
+        List<PortfolioPositions> portfolios = readOnlyTransaction.execute(status -> {
+            Map<Long, List<AssetRow>> assetsByPortfolio = assetRepository.findRowsByUserId(userId).stream()
+                    .collect(Collectors.groupingBy(AssetRow::portfolioId));
+
+            return portfolioRepository.findRowsByUserId(userId).stream()
+                    .map(portfolio -> new PortfolioPositions(portfolio,
+                            assetsByPortfolio.getOrDefault(portfolio.id(), List.of())))
+                    .collect(Collectors.toList());
+        });
+
+        // Value every holding across all portfolios in one concurrent pass
+        List<AssetRow> allAssets = portfolios.stream()
+                .flatMap(positions -> positions.assets().stream())
                 .collect(Collectors.toList());
+        Map<Long, AssetResponse> valued = assetValuationService.valueRows(allAssets).stream()
+                .collect(Collectors.toMap(AssetResponse::getId, Function.identity()));
 
-        return new PortfolioResponse(
-                portfolio.getId(),
-                portfolio.getPortfolioName(),
-                portfolio.getUser().getId(),
-                portfolio.getCreatedAt(),
-                assetResponses
-        );
+        return portfolios.stream()
+                .map(positions -> toPortfolioResponse(positions.portfolio(), assetValuationService.toBaseCurrency(
+                        positions.assets().stream()
+                                .map(asset -> valued.get(asset.id()))
+                                .collect(Collectors.toList()),
+                        positions.portfolio().baseCurrency())))
+                .collect(Collectors.toList());
     }
 
+    /**
+     * Dashboard summaries served from the materialized valuation index, ordered
+     * by the persisted current value and converted from USD to the user's
+     * base currency
+     */
     @Transactional(readOnly = true)
-    public List<PortfolioResponse> getUserPortfolios(Long userId) {
-        List<Portfolio> portfolios = portfolioRepository.findByUserIdOrderByCreatedAtDesc(userId);
-
-        return portfolios.stream()
+    public List<PortfolioSummaryResponse> getUserPortfolioSummaries(Long userId) {
+        String baseCurrency = userRepository.findById(userId).map(User::getBaseCurrency).orElse(FxMatrix.PIVOT);
+        FxMatrix matrix = fxRateService.getMatrix();
+        return portfolioRepository.findByUserIdOrderByCurrentValueDesc(userId).stream()
                 .map(portfolio -> {
-                    List<Asset> assets = assetRepository.findByPortfolioId(portfolio.getId());
-                    List<AssetResponse> assetResponses = assets.stream()
-                            .map(this::convertToAssetResponse)
-                            .collect(Collectors.toList());
-
-                    return new PortfolioResponse(
+                    PortfolioValuationIndex.PortfolioValuation valuation = valuationIndex.getValuation(portfolio.getId());
+                    PortfolioSummaryResponse summary = new PortfolioSummaryResponse(
                             portfolio.getId(),
                             portfolio.getPortfolioName(),
-                            portfolio.getUser().getId(),
                             portfolio.getCreatedAt(),
-                            assetResponses
+                            valuation.getPositions(),
+                            matrix.convert(valuation.getMarketValue(), FxMatrix.PIVOT, baseCurrency),
+                            matrix.convert(valuation.getCostBasis(), FxMatrix.PIVOT, baseCurrency)
                     );
+                    summary.setCurrency(baseCurrency);
+                    return summary;
                 })
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Change the currency a user's totals and performance are reported in
+     */
+    @Transactional
+    public String updateBaseCurrency(Long userId, String currency) {
+        String code = fxRateService.normalizeCurrency(currency);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        user.setBaseCurrency(code);
+        userRepository.save(user);
+        // Cached performance series are keyed by positions version
+        portfolioRepository.findByUserIdOrderByCreatedAtDesc(userId)
+                .forEach(portfolio -> valuationIndex.touch(portfolio.getId()));
+        return code;
+    }
+
     public AssetResponse addAsset(Long portfolioId, Long userId, AssetRequest request) {
         Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
@@ -124,14 +221,44 @@ public class PortfolioManagementService {
                 request.getAveragePrice(),
                 portfolio
         );
+        asset.setCurrency(request.getCurrency() != null
+                ? fxRateService.normalizeCurrency(request.getCurrency())
+                : fxRateService.inferCurrency(asset.getTickerSymbol()));
 
         Asset savedAsset = assetRepository.save(asset);
+
+        // Record the opening buy so the ledger can reproduce the position
+        Stock stock = findOrCreateStock(savedAsset.getTickerSymbol(), savedAsset.getAveragePrice());
+        Transaction transaction = new Transaction();
+        transaction.setTransactionType(TransactionType.BUY);
+        transaction.setQuantity(savedAsset.getQuantity());
+        transaction.setPricePerShare(savedAsset.getAveragePrice());
+        transaction.setTotalAmount(savedAsset.getQuantity().multiply(savedAsset.getAveragePrice()));
+        transaction.setPortfolio(portfolio);
+        transaction.setStock(stock);
+        transactionRepository.save(transaction);
+        positionEngine.afterRecorded(portfolio, stock.getSymbol());
+
+        LotBook lots = taxLotService.openBook(portfolio, stock.getSymbol());
+        lots.buy(transaction.getQuantity(), transaction.getTotalAmount(), transaction.getTransactionDate());
+        taxLotService.save(lots);
+
+        publishPositionChange(portfolioId, savedAsset);
+        auditTrailService.record(AuditEvent.position(AuditAction.ASSET_ADDED, userId, portfolioId,
+                savedAsset.getTickerSymbol(), savedAsset.getQuantity(), savedAsset.getAveragePrice()));
         return convertToAssetResponse(savedAsset);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AssetResponse updateAsset(Long portfolioId, Long userId, String tickerSymbol, AssetRequest request) {
+        Asset updatedAsset = retryOnConflict(() -> writeTransaction.execute(status ->
+                updateAssetOnce(portfolioId, userId, tickerSymbol, request)));
+        return convertToAssetResponse(updatedAsset);
+    }
+
+    private Asset updateAssetOnce(Long portfolioId, Long userId, String tickerSymbol, AssetRequest request) {
         // Verify portfolio exists and belongs to user
-        portfolioRepository.findByIdAndUserId(portfolioId, userId)
+        Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
 
         Asset asset = assetRepository.findByPortfolioIdAndTickerSymbol(portfolioId, tickerSymbol.toUpperCase())
@@ -139,12 +266,32 @@ public class PortfolioManagementService {
 
         asset.setQuantity(request.getQuantity());
         asset.setAveragePrice(request.getAveragePrice());
+        if (request.getCurrency() != null) {
+            asset.setCurrency(fxRateService.normalizeCurrency(request.getCurrency()));
+        }
 
-        Asset updatedAsset = assetRepository.save(asset);
-        return convertToAssetResponse(updatedAsset);
+        // A hand edit restates the position, so its lots are restated with it
+        LotBook lots = taxLotService.openBook(portfolio, asset.getTickerSymbol());
+        lots.restate(asset.getQuantity(), asset.getAveragePrice(), LocalDateTime.now());
+        taxLotService.save(lots);
+
+        // Version-checked at flush; a concurrent sale of this position makes it retry
+        Asset updatedAsset = assetRepository.saveAndFlush(asset);
+        publishPositionChange(portfolioId, updatedAsset);
+        auditTrailService.record(AuditEvent.position(AuditAction.ASSET_UPDATED, userId, portfolioId,
+                updatedAsset.getTickerSymbol(), updatedAsset.getQuantity(), updatedAsset.getAveragePrice()));
+        return updatedAsset;
     }
 
-    public TransactionResponse sellAsset(Long portfolioId, Long userId, String tickerSymbol, BigDecimal quantity, BigDecimal currentMarketPrice) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransactionResponse sellAsset(Long portfolioId, Long userId, String tickerSymbol, BigDecimal quantity,
+            BigDecimal currentMarketPrice, LotSelectionMethod lotMethod, List<Long> lotIds) {
+        return retryOnConflict(() -> writeTransaction.execute(status -> sellAssetOnce(
+                portfolioId, userId, tickerSymbol, quantity, currentMarketPrice, lotMethod, lotIds)));
+    }
+
+    private TransactionResponse sellAssetOnce(Long portfolioId, Long userId, String tickerSymbol, BigDecimal quantity,
+            BigDecimal currentMarketPrice, LotSelectionMethod lotMethod, List<Long> lotIds) {
         // Verify portfolio exists and belongs to user
         Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
@@ -156,62 +303,313 @@ public class PortfolioManagementService {
             throw new IllegalArgumentException("Cannot sell more shares than owned. Available: " + asset.getQuantity() + ", Requested: " + quantity);
         }
 
-        // Find or create stock
-        Stock stock = stockRepository.findBySymbol(tickerSymbol.toUpperCase())
-                .orElseGet(() -> {
-                    Stock newStock = new Stock();
-                    newStock.setSymbol(tickerSymbol.toUpperCase());
-                    newStock.setCompanyName(tickerSymbol.toUpperCase() + " Inc.");
-                    newStock.setCurrentPrice(currentMarketPrice);
-                    return stockRepository.save(newStock);
-                });
+        // Claim the shares before anything else is read. The conditional decrement cannot
+        // oversell, and it keeps the row locked until commit, so the lots and ledger read
+        // below already include any competing sale of this position.
+        if (assetRepository.decrementQuantity(asset.getId(), quantity, LocalDateTime.now()) == 0) {
+            BigDecimal available = assetRepository.findQuantityById(asset.getId()).orElse(BigDecimal.ZERO);
+            throw new IllegalArgumentException("Cannot sell more shares than owned. Available: " + available + ", Requested: " + quantity);
+        }
+        BigDecimal remaining = assetRepository.findQuantityById(asset.getId()).orElseThrow();
+        BigDecimal heldBefore = remaining.add(quantity);
+
+        Stock stock = findOrCreateStock(tickerSymbol.toUpperCase(), currentMarketPrice);
 
-        // Create sell transaction
+        // Cost basis comes from the ledger when it agrees with the holding; positions
+        // that predate the ledger or were edited by hand fall back to the asset's average
+        PositionEngine.Position position = positionEngine.replay(portfolioId, stock.getSymbol());
+        BigDecimal averageCost = position.quantity().compareTo(heldBefore) == 0
+                ? position.averageCost()
+                : asset.getAveragePrice();
+
+        // Create sell transaction with its realized P&L fixed at write time
         Transaction transaction = new Transaction();
         transaction.setTransactionType(TransactionType.SELL);
         transaction.setQuantity(quantity);
         transaction.setPricePerShare(currentMarketPrice);
         transaction.setTotalAmount(quantity.multiply(currentMarketPrice));
+        transaction.setRealizedPnl(PositionEngine.realizedPnlOnSale(averageCost, quantity, currentMarketPrice, transaction.getFees()));
         transaction.setPortfolio(portfolio);
         transaction.setStock(stock);
+
+        // Tax lots are depleted under the requested method; the ledger keeps average cost
+        LotBook lots = taxLotService.openBook(portfolio, stock.getSymbol());
+        lots.reconcile(heldBefore, asset.getAveragePrice(), asset.getCreatedAt());
+        lots.sell(quantity, currentMarketPrice, transaction.getFees(), transaction.getTransactionDate(), lotMethod, lotIds);
+        taxLotService.save(lots);
+
         transaction = transactionRepository.save(transaction);
+        positionEngine.afterRecorded(portfolio, stock.getSymbol());
 
-        // Update or remove asset
-        if (asset.getQuantity().compareTo(quantity) == 0) {
-            // Selling all shares - remove asset
-            assetRepository.delete(asset);
+        // The managed asset still holds the pre-sale quantity and version, so the
+        // holding is finished with statements rather than through the entity
+        if (remaining.signum() == 0) {
+            assetRepository.deleteIfEmpty(asset.getId());
+            eventPublisher.publishEvent(PositionChangedEvent.removed(portfolioId, asset.getTickerSymbol()));
         } else {
-            // Partial sale - update quantity
-            asset.setQuantity(asset.getQuantity().subtract(quantity));
-            assetRepository.save(asset);
+            eventPublisher.publishEvent(new PositionChangedEvent(
+                    portfolioId, asset.getTickerSymbol(), remaining, asset.getAveragePrice()));
         }
+        auditTrailService.record(AuditEvent.position(AuditAction.SELL, userId, portfolioId,
+                stock.getSymbol(), quantity, currentMarketPrice));
 
         // Create response with realized P&L
-        TransactionResponse response = new TransactionResponse();
-        response.setId(transaction.getId());
-        response.setTransactionType(transaction.getTransactionType());
-        response.setQuantity(transaction.getQuantity());
-        response.setPricePerShare(transaction.getPricePerShare());
-        response.setTotalAmount(transaction.getTotalAmount());
-        response.setTransactionDate(transaction.getTransactionDate());
-        response.setCreatedAt(transaction.getCreatedAt());
-        response.setPortfolioId(portfolio.getId());
-        response.setPortfolioName(portfolio.getPortfolioName());
-        response.setTickerSymbol(stock.getSymbol());
+        return toTransactionResponse(transaction, portfolio);
+    }
 
-        // Calculate realized P&L
-        BigDecimal costBasis = asset.getAveragePrice().multiply(quantity);
-        BigDecimal saleProceeds = transaction.getTotalAmount();
-        BigDecimal realizedPnL = saleProceeds.subtract(costBasis);
-        response.setRealizedPnL(realizedPnL);
+    /**
+     * Apply a list of add/update/sell/remove operations to one portfolio
+     * atomically. Quotes for every symbol involved are resolved once before
+     * the transaction starts; ownership, holdings and stocks are each loaded
+     * once inside it.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AssetBatchResponse applyAssetBatch(Long portfolioId, Long userId, AssetBatchRequest request) {
+        List<AssetBatchRequest.Operation> operations = request.getOperations();
+        Set<String> symbols = new LinkedHashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            validateOperation(i, operations.get(i));
+            symbols.add(operations.get(i).getTickerSymbol().toUpperCase());
+        }
 
-        return response;
+        Map<String, BigDecimal> quotes = assetValuationService.resolveQuotes(symbols);
+        BatchResult result = retryOnConflict(() -> writeTransaction.execute(status ->
+                applyOperations(portfolioId, userId, operations, quotes)));
+        return new AssetBatchResponse(
+                assetValuationService.valueAssets(result.assets(), quotes),
+                result.transactions(),
+                result.removedSymbols());
+    }
+
+    private void validateOperation(int index, AssetBatchRequest.Operation operation) {
+        boolean needsPosition = operation.getType() == AssetBatchRequest.OperationType.ADD
+                || operation.getType() == AssetBatchRequest.OperationType.UPDATE;
+        if (needsPosition && (operation.getQuantity() == null || operation.getAveragePrice() == null)) {
+            throw new IllegalArgumentException("Operation " + index + ": quantity and averagePrice are required for "
+                    + operation.getType());
+        }
+        if (operation.getType() == AssetBatchRequest.OperationType.SELL && operation.getQuantity() == null) {
+            throw new IllegalArgumentException("Operation " + index + ": quantity is required for SELL");
+        }
+        if (operation.getType() == AssetBatchRequest.OperationType.ADD
+                && !marketPriceService.isTickerSupported(operation.getTickerSymbol())) {
+            throw new IllegalArgumentException("Operation " + index + ": invalid ticker symbol: " + operation.getTickerSymbol());
+        }
+    }
+
+    private BatchResult applyOperations(Long portfolioId, Long userId, List<AssetBatchRequest.Operation> operations,
+            Map<String, BigDecimal> quotes) {
+        Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+
+        Map<String, Asset> holdings = new HashMap<>();
+        for (Asset asset : assetRepository.findByPortfolioId(portfolioId)) {
+            holdings.put(asset.getTickerSymbol(), asset);
+        }
+        Map<String, Stock> stocks = new HashMap<>();
+        Map<String, PositionEngine.Position> ledger = new HashMap<>();
+        Map<String, LotBook> lotBooks = new HashMap<>();
+        Map<String, Asset> touched = new LinkedHashMap<>();
+        List<Asset> removed = new ArrayList<>();
+        List<Transaction> transactions = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            AssetBatchRequest.Operation operation = operations.get(i);
+            String symbol = operation.getTickerSymbol().toUpperCase();
+            Asset asset = holdings.get(symbol);
+            if (operation.getType() != AssetBatchRequest.OperationType.ADD && asset == null) {
+                throw new ResourceNotFoundException("Operation " + i + ": Asset " + symbol + " not found in portfolio");
+            }
+
+            switch (operation.getType()) {
+                case ADD -> {
+                    if (asset != null) {
+                        throw new DuplicateResourceException("Operation " + i + ": Asset " + symbol
+                                + " already exists in this portfolio");
+                    }
+                    asset = new Asset(symbol, operation.getQuantity(), operation.getAveragePrice(), portfolio);
+                    asset.setCurrency(operation.getCurrency() != null
+                            ? fxRateService.normalizeCurrency(operation.getCurrency())
+                            : fxRateService.inferCurrency(symbol));
+                    holdings.put(symbol, asset);
+                    touched.put(symbol, asset);
+
+                    Transaction buy = new Transaction();
+                    buy.setTransactionType(TransactionType.BUY);
+                    buy.setQuantity(operation.getQuantity());
+                    buy.setPricePerShare(operation.getAveragePrice());
+                    buy.setTotalAmount(operation.getQuantity().multiply(operation.getAveragePrice()));
+                    recordTransaction(portfolio, symbol, buy, ledger, transactions);
+                    lotBooks.computeIfAbsent(symbol, s -> taxLotService.openBook(portfolio, s))
+                            .buy(buy.getQuantity(), buy.getTotalAmount(), buy.getTransactionDate());
+                }
+                case UPDATE -> {
+                    asset.setQuantity(operation.getQuantity());
+                    asset.setAveragePrice(operation.getAveragePrice());
+                    if (operation.getCurrency() != null) {
+                        asset.setCurrency(fxRateService.normalizeCurrency(operation.getCurrency()));
+                    }
+                    touched.put(symbol, asset);
+                    lotBooks.computeIfAbsent(symbol, s -> taxLotService.openBook(portfolio, s))
+                            .restate(asset.getQuantity(), asset.getAveragePrice(), LocalDateTime.now());
+                }
+                case SELL -> {
+                    BigDecimal quantity = operation.getQuantity();
+                    if (asset.getQuantity().compareTo(quantity) < 0) {
+                        throw new IllegalArgumentException("Operation " + i + ": Cannot sell more shares than owned. Available: "
+                                + asset.getQuantity() + ", Requested: " + quantity);
+                    }
+                    BigDecimal price = operation.getPrice() != null ? operation.getPrice() : quotes.get(symbol);
+                    if (price == null) {
+                        throw new IllegalArgumentException("Operation " + i + ": no market price available for " + symbol
+                                + "; provide a price");
+                    }
+
+                    // Same cost basis rule as a single sell
+                    PositionEngine.Position position = ledgerPosition(portfolioId, symbol, ledger);
+                    BigDecimal averageCost = position.quantity().compareTo(asset.getQuantity()) == 0
+                            ? position.averageCost()
+                            : asset.getAveragePrice();
+
+                    Transaction sell = new Transaction();
+                    sell.setTransactionType(TransactionType.SELL);
+                    sell.setQuantity(quantity);
+                    sell.setPricePerShare(price);
+                    sell.setTotalAmount(quantity.multiply(price));
+                    sell.setRealizedPnl(PositionEngine.realizedPnlOnSale(averageCost, quantity, price, sell.getFees()));
+                    recordTransaction(portfolio, symbol, sell, ledger, transactions);
+                    Asset held = asset;
+                    try {
+                        lotBooks.computeIfAbsent(symbol, s -> taxLotService.openBook(portfolio, held))
+                                .sell(quantity, price, sell.getFees(), sell.getTransactionDate(),
+                                        operation.getLotMethod(), operation.getLotIds());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Operation " + i + ": " + e.getMessage());
+                    }
+
+                    if (asset.getQuantity().compareTo(quantity) == 0) {
+                        holdings.remove(symbol);
+                        touched.remove(symbol);
+                        removed.add(asset);
+                    } else {
+                        asset.setQuantity(asset.getQuantity().subtract(quantity));
+                        touched.put(symbol, asset);
+                    }
+                }
+                case REMOVE -> {
+                    holdings.remove(symbol);
+                    touched.remove(symbol);
+                    removed.add(asset);
+                    lotBooks.computeIfAbsent(symbol, s -> taxLotService.openBook(portfolio, s)).closeAll();
+                }
+            }
+        }
+
+        resolveStocks(transactions, stocks);
+        List<Asset> removedPersistent = removed.stream().filter(asset -> asset.getId() != null).collect(Collectors.toList());
+        if (!removedPersistent.isEmpty()) {
+            // Deletes flush last by default; a symbol removed and re-added in one batch needs its row gone first
+            assetRepository.deleteAll(removedPersistent);
+            assetRepository.flush();
+        }
+        // Version-checked at flush; a concurrent write to any of these holdings retries the batch
+        List<Asset> saved = assetRepository.saveAllAndFlush(touched.values());
+        transactionRepository.saveAll(transactions);
+        lotBooks.values().forEach(taxLotService::save);
+
+        Set<String> ledgerSymbols = new LinkedHashSet<>();
+        transactions.forEach(transaction -> ledgerSymbols.add(transaction.getStock().getSymbol()));
+        ledgerSymbols.forEach(symbol -> positionEngine.afterRecorded(portfolio, symbol));
+
+        List<String> removedSymbols = new ArrayList<>();
+        for (Asset asset : removed) {
+            if (!touched.containsKey(asset.getTickerSymbol()) && !removedSymbols.contains(asset.getTickerSymbol())) {
+                removedSymbols.add(asset.getTickerSymbol());
+                eventPublisher.publishEvent(PositionChangedEvent.removed(portfolioId, asset.getTickerSymbol()));
+            }
+        }
+        saved.forEach(asset -> publishPositionChange(portfolioId, asset));
+        operations.forEach(operation -> auditTrailService.record(auditEvent(portfolioId, userId, operation, quotes)));
+
+        return new BatchResult(
+                saved,
+                transactions.stream().map(transaction -> toTransactionResponse(transaction, portfolio)).collect(Collectors.toList()),
+                removedSymbols);
+    }
+
+    private static AuditEvent auditEvent(Long portfolioId, Long userId, AssetBatchRequest.Operation operation,
+            Map<String, BigDecimal> quotes) {
+        String symbol = operation.getTickerSymbol().toUpperCase();
+        return switch (operation.getType()) {
+            case ADD -> AuditEvent.position(AuditAction.ASSET_ADDED, userId, portfolioId, symbol,
+                    operation.getQuantity(), operation.getAveragePrice());
+            case UPDATE -> AuditEvent.position(AuditAction.ASSET_UPDATED, userId, portfolioId, symbol,
+                    operation.getQuantity(), operation.getAveragePrice());
+            case SELL -> AuditEvent.position(AuditAction.SELL, userId, portfolioId, symbol, operation.getQuantity(),
+                    operation.getPrice() != null ? operation.getPrice() : quotes.get(symbol));
+            case REMOVE -> AuditEvent.position(AuditAction.ASSET_REMOVED, userId, portfolioId, symbol, null, null);
+        };
+    }
+
+    private PositionEngine.Position ledgerPosition(Long portfolioId, String symbol, Map<String, PositionEngine.Position> ledger) {
+        return ledger.computeIfAbsent(symbol, s -> positionEngine.replay(portfolioId, s));
+    }
+
+    private void recordTransaction(Portfolio portfolio, String symbol, Transaction transaction,
+            Map<String, PositionEngine.Position> ledger, List<Transaction> transactions) {
+        transaction.setPortfolio(portfolio);
+        transaction.setStock(stockPlaceholder(symbol));
+        ledger.put(symbol, ledgerPosition(portfolio.getId(), symbol, ledger).apply(transaction));
+        transactions.add(transaction);
+    }
+
+    /**
+     * Look up every stock the batch records against in one query and create
+     * the missing ones, then attach them to the pending transactions
+     */
+    private void resolveStocks(List<Transaction> transactions, Map<String, Stock> stocks) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        Map<String, BigDecimal> prices = new LinkedHashMap<>();
+        transactions.forEach(transaction -> prices.putIfAbsent(transaction.getStock().getSymbol(), transaction.getPricePerShare()));
+        stockRepository.findBySymbolIn(prices.keySet()).forEach(stock -> stocks.put(stock.getSymbol(), stock));
+
+        List<Stock> created = new ArrayList<>();
+        prices.forEach((symbol, price) -> {
+            if (!stocks.containsKey(symbol)) {
+                Stock stock = new Stock();
+                stock.setSymbol(symbol);
+                stock.setCompanyName(symbol + " Inc.");
+                stock.setCurrentPrice(price);
+                created.add(stock);
+            }
+        });
+        stockRepository.saveAll(created).forEach(stock -> stocks.put(stock.getSymbol(), stock));
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(StocksChangedEvent.of(created));
+        }
+        transactions.forEach(transaction -> transaction.setStock(stocks.get(transaction.getStock().getSymbol())));
+    }
+
+    private static Stock stockPlaceholder(String symbol) {
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        return stock;
     }
 
     /**
      * Remove asset from portfolio (without creating transaction record)
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void removeAsset(Long portfolioId, Long userId, String tickerSymbol) {
+        retryOnConflict(() -> writeTransaction.execute(status -> {
+            removeAssetOnce(portfolioId, userId, tickerSymbol);
+            return null;
+        }));
+    }
+
+    private void removeAssetOnce(Long portfolioId, Long userId, String tickerSymbol) {
         // Verify portfolio exists and belongs to user
         portfolioRepository.findByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
@@ -220,12 +618,28 @@ public class PortfolioManagementService {
                 .orElseThrow(() -> new ResourceNotFoundException("Asset " + tickerSymbol + " not found in portfolio"));
 
         assetRepository.delete(asset);
+        assetRepository.flush();
+        taxLotService.closeLots(portfolioId, asset.getTickerSymbol());
+        eventPublisher.publishEvent(PositionChangedEvent.removed(portfolioId, asset.getTickerSymbol()));
+        auditTrailService.record(AuditEvent.position(AuditAction.ASSET_REMOVED, userId, portfolioId,
+                asset.getTickerSymbol(), asset.getQuantity(), null));
     }
 
     /**
      * Update portfolio name
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PortfolioResponse updatePortfolio(Long portfolioId, Long userId, String name) {
+        retryOnConflict(() -> writeTransaction.execute(status -> {
+            renamePortfolio(portfolioId, userId, name);
+            return null;
+        }));
+
+        // Get updated portfolio details with assets
+        return getPortfolioDetails(portfolioId, userId);
+    }
+
+    private void renamePortfolio(Long portfolioId, Long userId, String name) {
         Portfolio portfolio = portfolioRepository.findByIdAndUserId(portfolioId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
 
@@ -237,9 +651,6 @@ public class PortfolioManagementService {
 
         portfolio.setPortfolioName(name);
         portfolioRepository.save(portfolio);
-
-        // Get updated portfolio details with assets
-        return getPortfolioDetails(portfolioId, userId);
     }
 
     /**
@@ -255,24 +666,101 @@ public class PortfolioManagementService {
             transactionRepository.deleteAll(transactions);
         }
 
+        positionSnapshotRepository.deleteByPortfolioId(portfolioId);
+        taxLotService.deletePortfolioLots(portfolioId);
+
+        // Drop the holdings from the valuation index once the delete commits
+        assetRepository.findByPortfolioId(portfolioId).forEach(asset
+                -> eventPublisher.publishEvent(PositionChangedEvent.removed(portfolioId, asset.getTickerSymbol())));
+
         // Now delete the portfolio (assets will be cascade deleted automatically)
         portfolioRepository.delete(portfolio);
+        auditTrailService.record(AuditEvent.portfolio(AuditAction.PORTFOLIO_DELETED, userId, portfolioId,
+                portfolio.getPortfolioName()));
+    }
+
+    private Stock findOrCreateStock(String symbol, BigDecimal price) {
+        return stockRepository.findBySymbol(symbol)
+                .orElseGet(() -> {
+                    Stock newStock = new Stock();
+                    newStock.setSymbol(symbol);
+                    newStock.setCompanyName(symbol + " Inc.");
+                    newStock.setCurrentPrice(price);
+                    Stock saved = stockRepository.save(newStock);
+                    eventPublisher.publishEvent(StocksChangedEvent.of(List.of(saved)));
+                    return saved;
+                });
+    }
+
+    /**
+     * Run a write again when its optimistic version check lost to a concurrent
+     * write. Every attempt is a fresh transaction that re-reads what it needs;
+     * the conflict surfaces once the attempts are used up.
+     */
+    private <T> T retryOnConflict(Supplier<T> attempt) {
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attemptNumber >= MAX_CONFLICT_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    // Jittered so two writers that collided do not collide again
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(5, 20) * attemptNumber);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private TransactionResponse toTransactionResponse(Transaction transaction, Portfolio portfolio) {
+        TransactionResponse response = new TransactionResponse();
+        response.setId(transaction.getId());
+        response.setTransactionType(transaction.getTransactionType());
+        response.setQuantity(transaction.getQuantity());
+        response.setPricePerShare(transaction.getPricePerShare());
+        response.setTotalAmount(transaction.getTotalAmount());
+        response.setTransactionDate(transaction.getTransactionDate());
+        response.setCreatedAt(transaction.getCreatedAt());
+        response.setPortfolioId(portfolio.getId());
+        response.setPortfolioName(portfolio.getPortfolioName());
+        response.setTickerSymbol(transaction.getStock().getSymbol());
+        response.setRealizedPnL(transaction.getRealizedPnl());
+        return response;
+    }
+
+    private void publishPositionChange(Long portfolioId, Asset asset) {
+        eventPublisher.publishEvent(new PositionChangedEvent(
+                portfolioId, asset.getTickerSymbol(), asset.getQuantity(), asset.getAveragePrice(), asset.getCurrency()));
+    }
+
+    private PortfolioResponse toPortfolioResponse(PortfolioRow portfolio, List<AssetResponse> assetResponses) {
+        return new PortfolioResponse(
+                portfolio.id(),
+                portfolio.portfolioName(),
+                portfolio.userId(),
+                portfolio.baseCurrency(),
+                portfolio.createdAt(),
+                assetResponses
+        );
     }
 
     /**
      * Convert Asset entity to AssetResponse with current market data
      */
     private AssetResponse convertToAssetResponse(Asset asset) {
-        BigDecimal currentPrice = marketPriceService.getMarketPrice(asset.getTickerSymbol());
-
-        return new AssetResponse(
-                asset.getId(),
-                asset.getTickerSymbol(),
-                asset.getQuantity(),
-                asset.getAveragePrice(),
-                currentPrice,
-                asset.getCreatedAt(),
-                asset.getUpdatedAt()
-        );
+        return assetValuationService.valueAsset(asset);
+    }
+
+    private record BatchResult(List<Asset> assets, List<TransactionResponse> transactions, List<String> removedSymbols) {
+    }
+
+    /**
+     * Portfolio and its holdings as projected inside the read transaction
+     */
+    private record PortfolioPositions(PortfolioRow portfolio, List<AssetRow> assets) {
     }
 }
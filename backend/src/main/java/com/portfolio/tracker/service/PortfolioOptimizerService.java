@@ -0,0 +1,284 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetRecommendation;
+import com.portfolio.tracker.dto.EfficientFrontierResponse;
+import com.portfolio.tracker.entity.Asset;
+import com.portfolio.tracker.entity.Stock;
+import com.portfolio.tracker.event.SplitAppliedEvent;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.StockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Efficient frontier and maximum Sharpe allocation over a portfolio's
+ * holdings plus a configured candidate universe.
+ *
+ * Expected returns and covariances are annualized from the daily statistics
+ * of {@link CorrelationService}, so only symbols new to that cache cost any
+ * history work. The optimization depends only on which symbols are held, not
+ * on how much of each, and complete results are cached per holding set and
+ * price day. Current weights are taken from market values converted out of
+ * each listing currency with the current rate matrix.
+ */
+@Service
+public class PortfolioOptimizerService {
+
+    private static final int TRADING_DAYS = 252;
+    // Share of every covariance moved onto the diagonal; steadies estimates from a year of history
+    private static final double SHRINKAGE = 0.1;
+    private static final int MIN_OBSERVATIONS = 20;
+    // Smallest weight increase worth recommending, as a fraction
+    private static final double MIN_RECOMMENDED_INCREASE = 0.01;
+
+    private final PortfolioRepository portfolioRepository;
+    private final AssetRepository assetRepository;
+    private final StockRepository stockRepository;
+    private final CorrelationService correlationService;
+    private final PriceHistoryService priceHistoryService;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final List<String> candidates;
+    private final double riskFreeRate;
+    private final double maxWeight;
+    private final int frontierPoints;
+    private final long timeBudgetNanos;
+    private final ConcurrentHashMap<OptimizationKey, Optimization> optimizationCache = new ConcurrentHashMap<>();
+
+    public PortfolioOptimizerService(PortfolioRepository portfolioRepository,
+            AssetRepository assetRepository,
+            StockRepository stockRepository,
+            CorrelationService correlationService,
+            PriceHistoryService priceHistoryService,
+            FxRateService fxRateService,
+            PlatformTransactionManager transactionManager,
+            @Value("${portfolio.optimizer.candidates:SPY,QQQ,VTI,JNJ,JPM,PG}") List<String> candidates,
+            @Value("${portfolio.optimizer.risk-free-rate:0.04}") double riskFreeRate,
+            @Value("${portfolio.optimizer.max-weight:0.4}") double maxWeight,
+            @Value("${portfolio.optimizer.frontier-points:20}") int frontierPoints,
+            @Value("${portfolio.optimizer.time-budget-ms:250}") long timeBudgetMs) {
+        this.portfolioRepository = portfolioRepository;
+        this.assetRepository = assetRepository;
+        this.stockRepository = stockRepository;
+        this.correlationService = correlationService;
+        this.priceHistoryService = priceHistoryService;
+        this.fxRateService = fxRateService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.candidates = candidates.stream().map(String::trim).filter(s -> !s.isEmpty()).map(String::toUpperCase).toList();
+        this.riskFreeRate = riskFreeRate;
+        this.maxWeight = maxWeight;
+        this.frontierPoints = frontierPoints;
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+    }
+
+    public EfficientFrontierResponse getEfficientFrontier(Long portfolioId, Long userId) {
+        Map<String, Holding> holdings = readOnlyTransaction.execute(status -> loadHoldings(portfolioId, userId));
+        Optimization optimization = optimize(holdings.keySet());
+        MeanVarianceOptimizer.Frontier frontier = optimization.frontier();
+
+        List<EfficientFrontierResponse.FrontierPoint> points = new ArrayList<>();
+        for (MeanVarianceOptimizer.Allocation allocation : frontier.points()) {
+            points.add(toPoint(optimization, allocation));
+        }
+
+        // Current holdings scored with the same estimates, weighted by market value in one currency
+        EfficientFrontierResponse.FrontierPoint current = null;
+        FxMatrix matrix = fxRateService.getMatrix();
+        int pivot = matrix.indexOf(FxMatrix.PIVOT);
+        double[] currentWeights = new double[optimization.symbols().size()];
+        double total = 0.0;
+        for (int i = 0; i < currentWeights.length; i++) {
+            Holding holding = holdings.get(optimization.symbols().get(i));
+            int listing = holding != null ? matrix.indexOf(holding.currency()) : -1;
+            if (listing >= 0) {
+                currentWeights[i] = holding.quantity().doubleValue() * optimization.prices()[i]
+                        * matrix.rate(listing, pivot);
+                total += currentWeights[i];
+            }
+        }
+        if (total > 0.0) {
+            for (int i = 0; i < currentWeights.length; i++) {
+                currentWeights[i] /= total;
+            }
+            current = toPoint(optimization, MeanVarianceOptimizer.evaluate(currentWeights,
+                    optimization.expectedReturns(), optimization.covariance(), riskFreeRate));
+        }
+
+        return new EfficientFrontierResponse(portfolioId, optimization.asOf(), percent(riskFreeRate), points,
+                toPoint(optimization, frontier.maxSharpe()), current, frontier.complete(), optimization.excluded());
+    }
+
+    /**
+     * Symbols whose weight in the maximum Sharpe allocation most exceeds
+     * their current weight, held or not
+     *
+     * @param holdingValues value of each held symbol, all in one currency
+     */
+    public List<AssetRecommendation> recommend(Map<String, Double> holdingValues, int limit) {
+        Optimization optimization = optimize(holdingValues.keySet());
+        MeanVarianceOptimizer.Allocation target = optimization.frontier().maxSharpe();
+        double total = holdingValues.values().stream().mapToDouble(value -> value).sum();
+
+        List<Integer> order = new ArrayList<>();
+        double[] increases = new double[optimization.symbols().size()];
+        double[] currentWeights = new double[increases.length];
+        for (int i = 0; i < increases.length; i++) {
+            Double value = holdingValues.get(optimization.symbols().get(i));
+            currentWeights[i] = value != null && total > 0.0 ? value / total : 0.0;
+            increases[i] = target.weights()[i] - currentWeights[i];
+            if (increases[i] >= MIN_RECOMMENDED_INCREASE) {
+                order.add(i);
+            }
+        }
+        order.sort(Comparator.comparingDouble((Integer i) -> increases[i]).reversed());
+
+        List<AssetRecommendation> recommendations = new ArrayList<>();
+        for (int i : order.subList(0, Math.min(limit, order.size()))) {
+            String symbol = optimization.symbols().get(i);
+            Optional<Stock> stock = stockRepository.findBySymbol(symbol);
+            String sector = stock.map(Stock::getSector).filter(s -> !s.isBlank()).orElse("Other");
+            String rationale = currentWeights[i] > 0.0
+                    ? String.format("Raise from %.1f%% to %.1f%%", currentWeights[i] * 100, target.weights()[i] * 100)
+                    : String.format("Add at %.1f%%", target.weights()[i] * 100);
+            rationale += String.format(" to move toward the maximum Sharpe allocation (expected return %.1f%%, "
+                    + "volatility %.1f%%, Sharpe %.2f)", target.expectedReturn() * 100, target.volatility() * 100,
+                    target.sharpeRatio());
+            recommendations.add(new AssetRecommendation(symbol,
+                    stock.map(Stock::getCompanyName).orElse(symbol),
+                    sector,
+                    BigDecimal.valueOf(target.weights()[i] * 100).setScale(1, RoundingMode.HALF_UP),
+                    rationale,
+                    BigDecimal.valueOf(optimization.prices()[i]).setScale(2, RoundingMode.HALF_UP)));
+        }
+        return recommendations;
+    }
+
+    public void clearCache() {
+        optimizationCache.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitApplied(SplitAppliedEvent event) {
+        clearCache();
+    }
+
+    private Map<String, Holding> loadHoldings(Long portfolioId, Long userId) {
+        if (portfolioRepository.findRowByIdAndUserId(portfolioId, userId).isEmpty()) {
+            throw new ResourceNotFoundException("Portfolio not found with id: " + portfolioId);
+        }
+        Map<String, Holding> holdings = new LinkedHashMap<>();
+        for (Asset asset : assetRepository.findByPortfolioId(portfolioId)) {
+            holdings.merge(asset.getTickerSymbol().toUpperCase(), new Holding(asset.getQuantity(), asset.getCurrency()),
+                    (a, b) -> new Holding(a.quantity().add(b.quantity()), a.currency()));
+        }
+        return holdings;
+    }
+
+    private Optimization optimize(Set<String> holdings) {
+        LocalDate today = LocalDate.now();
+        Set<String> held = new TreeSet<>();
+        holdings.forEach(symbol -> held.add(symbol.toUpperCase()));
+        OptimizationKey key = new OptimizationKey(List.copyOf(held), today);
+        Optimization cached = optimizationCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Set<String> universe = new LinkedHashSet<>(held);
+        universe.addAll(candidates);
+        CorrelationService.CorrelationMatrix matrix = correlationService.getMatrix(new ArrayList<>(universe));
+
+        List<Integer> usable = new ArrayList<>();
+        List<String> excluded = new ArrayList<>();
+        for (int i = 0; i < matrix.symbols().size(); i++) {
+            if (matrix.observations()[i] >= MIN_OBSERVATIONS) {
+                usable.add(i);
+            } else {
+                excluded.add(matrix.symbols().get(i));
+            }
+        }
+        if (usable.isEmpty()) {
+            throw new IllegalArgumentException("No holding or candidate has enough price history to optimize");
+        }
+
+        int n = usable.size();
+        List<String> symbols = new ArrayList<>(n);
+        double[] prices = new double[n];
+        double[] expectedReturns = new double[n];
+        double[][] covariance = new double[n][n];
+        for (int a = 0; a < n; a++) {
+            int i = usable.get(a);
+            String symbol = matrix.symbols().get(i);
+            symbols.add(symbol);
+            prices[a] = priceHistoryService.getDailySeries(symbol, today.minusDays(30), today).lastClose();
+            // Arithmetic annual return of lognormal daily returns: mu + sigma^2 / 2 per day
+            expectedReturns[a] = Math.expm1((matrix.meanReturns()[i] + matrix.covariance()[i][i] / 2) * TRADING_DAYS);
+            for (int b = 0; b < n; b++) {
+                double shrink = a == b ? 1.0 : 1.0 - SHRINKAGE;
+                covariance[a][b] = matrix.covariance()[i][usable.get(b)] * shrink * TRADING_DAYS;
+            }
+        }
+
+        // The budget bounds the solver; history loading is bounded by the price history cache
+        MeanVarianceOptimizer.Frontier frontier = MeanVarianceOptimizer.optimize(expectedReturns, covariance,
+                riskFreeRate, maxWeight, frontierPoints, System.nanoTime() + timeBudgetNanos);
+        Optimization optimization = new Optimization(today, symbols, prices, expectedReturns, covariance, excluded, frontier);
+
+        // A search cut short by the time budget is served but retried on the next request
+        if (frontier.complete()) {
+            optimizationCache.keySet().removeIf(k -> !k.asOf().equals(today));
+            optimizationCache.put(key, optimization);
+        }
+        return optimization;
+    }
+
+    private EfficientFrontierResponse.FrontierPoint toPoint(Optimization optimization,
+            MeanVarianceOptimizer.Allocation allocation) {
+        Map<String, BigDecimal> weights = new LinkedHashMap<>();
+        for (int i = 0; i < allocation.weights().length; i++) {
+            BigDecimal weight = percent(allocation.weights()[i]);
+            if (weight.signum() > 0) {
+                weights.put(optimization.symbols().get(i), weight);
+            }
+        }
+        return new EfficientFrontierResponse.FrontierPoint(percent(allocation.expectedReturn()),
+                percent(allocation.volatility()),
+                BigDecimal.valueOf(allocation.sharpeRatio()).setScale(4, RoundingMode.HALF_UP),
+                weights);
+    }
+
+    private static BigDecimal percent(double fraction) {
+        return BigDecimal.valueOf(fraction * 100).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record Holding(BigDecimal quantity, String currency) {
+    }
+
+    private record OptimizationKey(List<String> holdings, LocalDate asOf) {
+    }
+
+    private record Optimization(LocalDate asOf, List<String> symbols, double[] prices, double[] expectedReturns,
+            double[][] covariance, List<String> excluded, MeanVarianceOptimizer.Frontier frontier) {
+    }
+}
@@ -0,0 +1,284 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.entity.Asset;
+import com.portfolio.tracker.event.FxRatesUpdatedEvent;
+import com.portfolio.tracker.event.PositionChangedEvent;
+import com.portfolio.tracker.event.PriceTickEvent;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.util.FixedPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory valuation index that keeps every portfolio's market value current
+ * as price ticks arrive. Holdings are indexed by symbol so a tick only touches
+ * the portfolios that actually hold it; totals are applied as deltas and
+ * written back to portfolios.current_value on a schedule. Amounts are kept in
+ * FixedPoint units so a tick does not allocate per holder.
+ *
+ * Totals are in USD: each holding carries its rate from its listing currency,
+ * taken from the {@link FxMatrix}, and is revalued when the matrix is
+ * refreshed.
+ */
+@Component
+public class PortfolioValuationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioValuationIndex.class);
+
+    private final AssetRepository assetRepository;
+    private final PortfolioRepository portfolioRepository;
+    private final FxRateService fxRateService;
+
+    // Guarded by this; reads go through the valuations snapshot map instead
+    private final Map<String, Map<Long, Holding>> holdingsBySymbol = new HashMap<>();
+    private final Map<Long, Map<String, Holding>> holdingsByPortfolio = new HashMap<>();
+    private final Map<String, Long> lastPrices = new HashMap<>();
+
+    private final ConcurrentHashMap<Long, PortfolioValuation> valuations = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyPortfolios = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<Long, Long> positionVersions = new ConcurrentHashMap<>();
+
+    public PortfolioValuationIndex(AssetRepository assetRepository, PortfolioRepository portfolioRepository,
+            FxRateService fxRateService) {
+        this.assetRepository = assetRepository;
+        this.portfolioRepository = portfolioRepository;
+        this.fxRateService = fxRateService;
+    }
+
+    /**
+     * Build the index from the persisted holdings once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Asset> assets = assetRepository.findAll();
+        synchronized (this) {
+            holdingsBySymbol.clear();
+            holdingsByPortfolio.clear();
+            valuations.clear();
+            for (Asset asset : assets) {
+                applyPosition(asset.getPortfolio().getId(), asset.getTickerSymbol(), asset.getCurrency(),
+                        FixedPoint.of(asset.getQuantity()), FixedPoint.of(asset.getAveragePrice()));
+            }
+        }
+        logger.info("Valuation index built with {} holdings across {} portfolios",
+                assets.size(), valuations.size());
+    }
+
+    @EventListener
+    public synchronized void onPriceTick(PriceTickEvent event) {
+        String symbol = event.getSymbol();
+        long price = FixedPoint.of(event.getPrice());
+        Long previousPrice = lastPrices.put(symbol, price);
+
+        Map<Long, Holding> holders = holdingsBySymbol.get(symbol);
+        if (holders == null) {
+            return;
+        }
+
+        for (Map.Entry<Long, Holding> entry : holders.entrySet()) {
+            Holding holding = entry.getValue();
+            long previousMark = previousPrice != null ? previousPrice : holding.averagePrice;
+            long delta = FixedPoint.multiply(holding.quantity, FixedPoint.subtract(price, previousMark));
+            adjust(entry.getKey(), holding.toUsd(delta), FixedPoint.ZERO, 0);
+        }
+    }
+
+    /**
+     * Restate every holding at the new rates; one pass over the holdings with
+     * an array read per holding
+     */
+    @EventListener
+    public synchronized void onFxRatesUpdated(FxRatesUpdatedEvent event) {
+        FxMatrix matrix = event.getMatrix();
+        int usd = matrix.indexOf(FxMatrix.PIVOT);
+        holdingsByPortfolio.forEach((portfolioId, holdings) -> holdings.forEach((symbol, holding) -> {
+            int currency = matrix.indexOf(holding.currency);
+            if (currency < 0) {
+                return;
+            }
+            double rate = matrix.rate(currency, usd);
+            long value = FixedPoint.multiply(holding.quantity, markPrice(symbol, holding));
+            long cost = FixedPoint.multiply(holding.quantity, holding.averagePrice);
+            long valueDelta = Math.round(value * rate) - holding.toUsd(value);
+            long costDelta = Math.round(cost * rate) - holding.toUsd(cost);
+            holding.usdRate = rate;
+            if (valueDelta != 0 || costDelta != 0) {
+                adjust(portfolioId, valueDelta, costDelta, 0);
+            }
+        }));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPositionChanged(PositionChangedEvent event) {
+        positionVersions.merge(event.getPortfolioId(), 1L, Long::sum);
+        applyPosition(event.getPortfolioId(), event.getSymbol().toUpperCase(), event.getCurrency(),
+                event.isRemoval() ? FixedPoint.ZERO : FixedPoint.of(event.getQuantity()),
+                FixedPoint.of(event.getAveragePrice()));
+    }
+
+    /**
+     * Change the positions version without touching the holdings, for changes
+     * that alter results derived from them, such as the reporting currency
+     */
+    public void touch(Long portfolioId) {
+        positionVersions.merge(portfolioId, 1L, Long::sum);
+    }
+
+    /**
+     * Current materialized valuation of a portfolio in USD; O(1) and never
+     * touches the database or the market data provider
+     */
+    public PortfolioValuation getValuation(Long portfolioId) {
+        return valuations.getOrDefault(portfolioId, PortfolioValuation.EMPTY);
+    }
+
+    /**
+     * Counter that changes whenever any holding of the portfolio changes; used
+     * to key caches of results derived from the positions
+     */
+    public long getPositionsVersion(Long portfolioId) {
+        return positionVersions.getOrDefault(portfolioId, 0L);
+    }
+
+    /**
+     * Write changed portfolio values back to the current_value column
+     */
+    @Scheduled(fixedDelayString = "${portfolio.valuation.flush-interval-ms:60000}")
+    @Transactional
+    public void flush() {
+        if (dirtyPortfolios.isEmpty()) {
+            return;
+        }
+
+        List<Long> pending = new ArrayList<>(dirtyPortfolios);
+        for (Long portfolioId : pending) {
+            dirtyPortfolios.remove(portfolioId);
+            BigDecimal value = FixedPoint.toBigDecimal(getValuation(portfolioId).marketValue, 2);
+            portfolioRepository.updateCurrentValue(portfolioId, value);
+        }
+        logger.debug("Flushed current value for {} portfolios", pending.size());
+    }
+
+    /**
+     * @param currency listing currency; null keeps the currency of the
+     * existing holding
+     */
+    private void applyPosition(Long portfolioId, String symbol, String currency, long quantity, long averagePrice) {
+        Map<String, Holding> portfolioHoldings = holdingsByPortfolio.computeIfAbsent(portfolioId, id -> new HashMap<>());
+        Holding existing = portfolioHoldings.remove(symbol);
+        if (existing != null) {
+            if (currency == null) {
+                currency = existing.currency;
+            }
+            adjust(portfolioId,
+                    -existing.toUsd(FixedPoint.multiply(existing.quantity, markPrice(symbol, existing))),
+                    -existing.toUsd(FixedPoint.multiply(existing.quantity, existing.averagePrice)),
+                    -1);
+            Map<Long, Holding> holders = holdingsBySymbol.get(symbol);
+            holders.remove(portfolioId);
+            if (holders.isEmpty()) {
+                holdingsBySymbol.remove(symbol);
+            }
+        }
+
+        if (quantity > 0) {
+            if (currency == null) {
+                currency = FxMatrix.PIVOT;
+            }
+            FxMatrix matrix = fxRateService.getMatrix();
+            int index = matrix.indexOf(currency);
+            double usdRate = index >= 0 ? matrix.rate(index, matrix.indexOf(FxMatrix.PIVOT)) : 1.0;
+            Holding holding = new Holding(quantity, averagePrice, currency, usdRate);
+            portfolioHoldings.put(symbol, holding);
+            holdingsBySymbol.computeIfAbsent(symbol, s -> new HashMap<>()).put(portfolioId, holding);
+            adjust(portfolioId,
+                    holding.toUsd(FixedPoint.multiply(quantity, markPrice(symbol, holding))),
+                    holding.toUsd(FixedPoint.multiply(quantity, averagePrice)),
+                    1);
+        } else if (portfolioHoldings.isEmpty()) {
+            holdingsByPortfolio.remove(portfolioId);
+        }
+    }
+
+    private long markPrice(String symbol, Holding holding) {
+        // Until a tick has been observed the position is carried at cost
+        return lastPrices.getOrDefault(symbol, holding.averagePrice);
+    }
+
+    private void adjust(Long portfolioId, long valueDelta, long costDelta, int positionDelta) {
+        valuations.compute(portfolioId, (id, current) -> (current != null ? current : PortfolioValuation.EMPTY)
+                .plus(valueDelta, costDelta, positionDelta));
+        dirtyPortfolios.add(portfolioId);
+    }
+
+    private static final class Holding {
+
+        private final long quantity;
+        private final long averagePrice;
+        private final String currency;
+        // Replaced when the FX matrix is refreshed
+        private double usdRate;
+
+        private Holding(long quantity, long averagePrice, String currency, double usdRate) {
+            this.quantity = quantity;
+            this.averagePrice = averagePrice;
+            this.currency = currency;
+            this.usdRate = usdRate;
+        }
+
+        private long toUsd(long units) {
+            return usdRate == 1.0 ? units : Math.round(units * usdRate);
+        }
+    }
+
+    /**
+     * Immutable snapshot of a portfolio's materialized totals
+     */
+    public static final class PortfolioValuation {
+
+        public static final PortfolioValuation EMPTY = new PortfolioValuation(FixedPoint.ZERO, FixedPoint.ZERO, 0);
+
+        private final long marketValue;
+        private final long costBasis;
+        private final int positions;
+
+        private PortfolioValuation(long marketValue, long costBasis, int positions) {
+            this.marketValue = marketValue;
+            this.costBasis = costBasis;
+            this.positions = positions;
+        }
+
+        private PortfolioValuation plus(long valueDelta, long costDelta, int positionDelta) {
+            return new PortfolioValuation(FixedPoint.add(marketValue, valueDelta),
+                    FixedPoint.add(costBasis, costDelta), positions + positionDelta);
+        }
+
+        public BigDecimal getMarketValue() {
+            return FixedPoint.toBigDecimal(marketValue);
+        }
+
+        public BigDecimal getCostBasis() {
+            return FixedPoint.toBigDecimal(costBasis);
+        }
+
+        public int getPositions() {
+            return positions;
+        }
+    }
+}
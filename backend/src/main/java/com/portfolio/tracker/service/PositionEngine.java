@@ -0,0 +1,144 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.entity.Portfolio;
+import com.portfolio.tracker.entity.PositionSnapshot;
+import com.portfolio.tracker.entity.Transaction;
+import com.portfolio.tracker.repository.PositionSnapshotRepository;
+import com.portfolio.tracker.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Derives positions and realized P&L by folding the transaction ledger of a
+ * (portfolio, symbol) pair using average cost. Replays start from the latest
+ * snapshot, and a new snapshot is written once enough transactions have
+ * accumulated after it.
+ */
+@Service
+@Transactional
+public class PositionEngine {
+
+    private static final int COST_SCALE = 8;
+
+    private final TransactionRepository transactionRepository;
+    private final PositionSnapshotRepository snapshotRepository;
+
+    @Value("${portfolio.positions.snapshot-interval:50}")
+    private int snapshotInterval;
+
+    public PositionEngine(TransactionRepository transactionRepository, PositionSnapshotRepository snapshotRepository) {
+        this.transactionRepository = transactionRepository;
+        this.snapshotRepository = snapshotRepository;
+    }
+
+    /**
+     * Current position as recorded by the ledger
+     */
+    @Transactional(readOnly = true)
+    public Position replay(Long portfolioId, String symbol) {
+        Position position = snapshotRepository
+                .findTopByPortfolioIdAndTickerSymbolOrderByLastTransactionIdDesc(portfolioId, symbol)
+                .map(Position::fromSnapshot)
+                .orElse(Position.EMPTY);
+
+        List<Transaction> ledger = transactionRepository.findPositionLedgerAfter(
+                portfolioId, symbol, position.lastTransactionId());
+        for (Transaction transaction : ledger) {
+            position = position.apply(transaction);
+        }
+        return position;
+    }
+
+    /**
+     * Snapshot the position if enough transactions have been folded since the
+     * previous snapshot. Call after the transaction has been saved.
+     */
+    public Position afterRecorded(Portfolio portfolio, String symbol) {
+        Position position = replay(portfolio.getId(), symbol);
+        if (position.sinceSnapshot() >= snapshotInterval) {
+            PositionSnapshot snapshot = new PositionSnapshot();
+            snapshot.setPortfolio(portfolio);
+            snapshot.setTickerSymbol(symbol);
+            snapshot.setQuantity(position.quantity());
+            snapshot.setAverageCost(position.averageCost());
+            snapshot.setRealizedPnl(position.realizedPnl());
+            snapshot.setLastTransactionId(position.lastTransactionId());
+            snapshotRepository.save(snapshot);
+        }
+        return position;
+    }
+
+    /**
+     * Realized P&L of selling the given quantity at the given price out of the
+     * position. Quantities are not checked here.
+     */
+    public static BigDecimal realizedPnlOnSale(BigDecimal averageCost, BigDecimal quantity, BigDecimal price, BigDecimal fees) {
+        return price.subtract(averageCost).multiply(quantity)
+                .subtract(fees != null ? fees : BigDecimal.ZERO)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Folded ledger state for one position
+     */
+    public record Position(BigDecimal quantity, BigDecimal averageCost, BigDecimal realizedPnl,
+            Long lastTransactionId, int sinceSnapshot) {
+
+        public static final Position EMPTY = new Position(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 0L, 0);
+
+        static Position fromSnapshot(PositionSnapshot snapshot) {
+            return new Position(snapshot.getQuantity(), snapshot.getAverageCost(), snapshot.getRealizedPnl(),
+                    snapshot.getLastTransactionId(), 0);
+        }
+
+        Position apply(Transaction transaction) {
+            BigDecimal fees = transaction.getFees() != null ? transaction.getFees() : BigDecimal.ZERO;
+            BigDecimal newQuantity = quantity;
+            BigDecimal newAverageCost = averageCost;
+            BigDecimal newRealized = realizedPnl;
+
+            switch (transaction.getTransactionType()) {
+                case BUY -> {
+                    newQuantity = quantity.add(transaction.getQuantity());
+                    BigDecimal cost = averageCost.multiply(quantity)
+                            .add(transaction.getTotalAmount())
+                            .add(fees);
+                    newAverageCost = cost.divide(newQuantity, COST_SCALE, RoundingMode.HALF_UP);
+                }
+                case SELL -> {
+                    // The value stored at write time is authoritative for history
+                    BigDecimal realized = transaction.getRealizedPnl() != null
+                            ? transaction.getRealizedPnl()
+                            : realizedPnlOnSale(averageCost, transaction.getQuantity(), transaction.getPricePerShare(), fees);
+                    newRealized = realizedPnl.add(realized);
+                    newQuantity = quantity.subtract(transaction.getQuantity());
+                    if (newQuantity.signum() <= 0) {
+                        newQuantity = BigDecimal.ZERO;
+                        newAverageCost = BigDecimal.ZERO;
+                    }
+                }
+                case DIVIDEND -> newRealized = realizedPnl.add(transaction.getTotalAmount()).subtract(fees);
+                case SPLIT -> {
+                    // Adds (or for a reverse split removes) shares at no cost; the total cost is unchanged
+                    newQuantity = quantity.add(transaction.getQuantity());
+                    if (newQuantity.signum() > 0) {
+                        newAverageCost = averageCost.multiply(quantity).divide(newQuantity, COST_SCALE, RoundingMode.HALF_UP);
+                    } else {
+                        newQuantity = BigDecimal.ZERO;
+                        newAverageCost = BigDecimal.ZERO;
+                    }
+                }
+                default -> {
+                    // Mergers do not carry enough information in the ledger to fold
+                }
+            }
+
+            return new Position(newQuantity, newAverageCost, newRealized, transaction.getId(), sinceSnapshot + 1);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.portfolio.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.tracker.external.AlphaVantageService;
+import com.portfolio.tracker.event.SplitAppliedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Daily close history per symbol as primitive {@link DailySeries}. Each
+ * symbol is fetched once per day at the widest range requested so far and
+ * sliced for narrower requests; the cache is bounded and series idle for a
+ * day are dropped, since they are stale by then. When Alpha Vantage is unavailable a
+ * deterministic synthetic series anchored at the latest known price is used,
+ * so analytics stay stable across calls.
+ */
+@Service
+public class PriceHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceHistoryService.class);
+
+    private static final BigDecimal DEFAULT_ANCHOR_PRICE = new BigDecimal("100.00");
+    private static final int MAX_CACHED_SYMBOLS = 2_000;
+    private static final Duration CACHE_IDLE_TIMEOUT = Duration.ofDays(1);
+
+    private final AlphaVantageService alphaVantageService;
+    private final MarketPriceService marketPriceService;
+    private final Cache<String, CachedSeries> seriesCache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_SYMBOLS)
+            .expireAfterAccess(CACHE_IDLE_TIMEOUT)
+            .build();
+
+    public PriceHistoryService(AlphaVantageService alphaVantageService, MarketPriceService marketPriceService) {
+        this.alphaVantageService = alphaVantageService;
+        this.marketPriceService = marketPriceService;
+    }
+
+    /**
+     * Daily closes for a symbol between the two dates, inclusive
+     */
+    public DailySeries getDailySeries(String symbol, LocalDate from, LocalDate to) {
+        String upperSymbol = symbol.toUpperCase();
+        LocalDate today = LocalDate.now();
+        int fromDay = (int) from.toEpochDay();
+
+        CachedSeries cached = seriesCache.getIfPresent(upperSymbol);
+        if (cached == null || !cached.covers(today, fromDay)) {
+            int calendarDays = (int) Math.max(1, ChronoUnit.DAYS.between(from, today) + 1);
+            cached = new CachedSeries(today, fromDay, loadSeries(upperSymbol, calendarDays, today));
+            seriesCache.put(upperSymbol, cached);
+        }
+        return cached.series.slice(fromDay, (int) to.toEpochDay());
+    }
+
+    public void clearCache() {
+        seriesCache.invalidateAll();
+    }
+
+    /**
+     * A split restates every close before its ex-date, so the symbol's
+     * history is fetched again on the next request
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSplitApplied(SplitAppliedEvent event) {
+        String symbol = event.getSymbol().toUpperCase();
+        alphaVantageService.evictHistorical(symbol);
+        seriesCache.invalidate(symbol);
+    }
+
+    private DailySeries loadSeries(String symbol, int calendarDays, LocalDate today) {
+        if (alphaVantageService.isApiAvailable()) {
+            Map<LocalDate, AlphaVantageService.HistoricalPrice> history
+                    = alphaVantageService.getHistoricalData(symbol, calendarDays);
+            if (!history.isEmpty()) {
+                return DailySeries.fromHistory(symbol, history);
+            }
+        }
+
+        logger.info("Using synthetic daily history for {} ({} days)", symbol, calendarDays);
+        return syntheticSeries(symbol, calendarDays, today);
+    }
+
+    /**
+     * Weekday-only random walk seeded by the symbol, ending at the latest
+     * known price
+     */
+    private DailySeries syntheticSeries(String symbol, int calendarDays, LocalDate today) {
+        BigDecimal anchor = marketPriceService.getLastKnownPrice(symbol);
+        if (anchor == null) {
+            anchor = DEFAULT_ANCHOR_PRICE;
+        }
+
+        int[] days = new int[calendarDays];
+        int size = 0;
+        LocalDate date = today.minusDays(calendarDays - 1L);
+        for (int i = 0; i < calendarDays; i++, date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days[size++] = (int) date.toEpochDay();
+            }
+        }
+        days = Arrays.copyOf(days, size);
+
+        SplittableRandom random = new SplittableRandom(symbol.hashCode());
+        double[] closes = new double[size];
+        double close = anchor.doubleValue();
+        for (int i = size - 1; i >= 0; i--) {
+            closes[i] = close;
+            double dailyReturn = 0.0003 + 0.015 * (random.nextDouble() + random.nextDouble() + random.nextDouble() - 1.5);
+            close = close / (1.0 + dailyReturn);
+        }
+        return new DailySeries(symbol, days, closes);
+    }
+
+    private static final class CachedSeries {
+
+        private final LocalDate asOf;
+        private final int fromDay;
+        private final DailySeries series;
+
+        private CachedSeries(LocalDate asOf, int fromDay, DailySeries series) {
+            this.asOf = asOf;
+            this.fromDay = fromDay;
+            this.series = series;
+        }
+
+        private boolean covers(LocalDate today, int requestedFromDay) {
+            return asOf.equals(today) && fromDay <= requestedFromDay;
+        }
+    }
+}
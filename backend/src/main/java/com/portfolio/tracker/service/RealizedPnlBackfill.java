@@ -0,0 +1,73 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.PositionKeyRow;
+import com.portfolio.tracker.entity.Transaction;
+import com.portfolio.tracker.entity.TransactionType;
+import com.portfolio.tracker.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Stores realized P&L on sells recorded before it was written with them.
+ * Each affected (portfolio, symbol) ledger is folded from its first entry
+ * with the same average-cost rules as {@link PositionEngine}, and every sell
+ * without a stored figure gets the one the fold derived for it. Runs at
+ * startup and finds nothing to do once the history has been backfilled.
+ */
+@Component
+public class RealizedPnlBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(RealizedPnlBackfill.class);
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public RealizedPnlBackfill(TransactionRepository transactionRepository,
+            PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<PositionKeyRow> ledgers = transactionTemplate.execute(
+                status -> transactionRepository.findLedgersWithUnpricedSells());
+        if (ledgers.isEmpty()) {
+            return;
+        }
+        int sells = 0;
+        for (PositionKeyRow ledger : ledgers) {
+            // One transaction per ledger, so a failure only leaves that ledger for the next start
+            try {
+                sells += transactionTemplate.execute(status -> backfill(ledger));
+            } catch (RuntimeException e) {
+                logger.error("Could not backfill realized P&L for portfolio {} symbol {}: {}",
+                        ledger.portfolioId(), ledger.symbol(), e.getMessage(), e);
+            }
+        }
+        logger.info("Backfilled realized P&L on {} sells across {} ledgers", sells, ledgers.size());
+    }
+
+    private int backfill(PositionKeyRow ledger) {
+        int updated = 0;
+        PositionEngine.Position position = PositionEngine.Position.EMPTY;
+        for (Transaction transaction : transactionRepository.findPositionLedgerAfter(
+                ledger.portfolioId(), ledger.symbol(), 0L)) {
+            BigDecimal realizedBefore = position.realizedPnl();
+            position = position.apply(transaction);
+            if (transaction.getTransactionType() == TransactionType.SELL && transaction.getRealizedPnl() == null) {
+                transaction.setRealizedPnl(position.realizedPnl().subtract(realizedBefore));
+                updated++;
+            }
+        }
+        return updated;
+    }
+}
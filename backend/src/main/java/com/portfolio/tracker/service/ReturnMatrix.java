@@ -0,0 +1,152 @@
+package com.portfolio.tracker.service;
+
+import java.util.Arrays;
+
+/**
+ * Daily log returns of several symbols on a common calendar. The calendar is
+ * every day on which at least one symbol traded, starting from the first day
+ * all of them have a price; a symbol that did not trade on a day keeps its
+ * previous close, so its return for that day is zero.
+ *
+ * Returns are stored per symbol as contiguous primitive rows, so kernels can
+ * stream over one symbol's history without indirection.
+ */
+public final class ReturnMatrix {
+
+    private final double[][] returns;
+    private final double[] lastCloses;
+    private final int observations;
+
+    private ReturnMatrix(double[][] returns, double[] lastCloses, int observations) {
+        this.returns = returns;
+        this.lastCloses = lastCloses;
+        this.observations = observations;
+    }
+
+    /**
+     * Align the series within [fromDay, toDay]; every series must be non-empty
+     */
+    public static ReturnMatrix align(DailySeries[] series, int fromDay, int toDay) {
+        int symbols = series.length;
+        int[] cursors = new int[symbols];
+        double[] closes = new double[symbols];
+
+        // The calendar opens on the first day every symbol has a close
+        int startDay = fromDay;
+        for (DailySeries s : series) {
+            startDay = Math.max(startDay, s.firstDay());
+        }
+        for (int h = 0; h < symbols; h++) {
+            int[] days = series[h].days();
+            int c = 0;
+            while (c < days.length && days[c] <= startDay) {
+                closes[h] = series[h].closes()[c];
+                c++;
+            }
+            cursors[h] = c;
+        }
+
+        // Usually every symbol trades the same days; grown if the calendars differ
+        int capacity = 1;
+        for (DailySeries s : series) {
+            capacity = Math.max(capacity, s.size());
+        }
+        double[][] returns = new double[symbols][capacity];
+        int observations = 0;
+
+        while (true) {
+            // Next calendar day is the earliest pending close of any symbol
+            int day = Integer.MAX_VALUE;
+            for (int h = 0; h < symbols; h++) {
+                int[] days = series[h].days();
+                if (cursors[h] < days.length && days[cursors[h]] < day) {
+                    day = days[cursors[h]];
+                }
+            }
+            if (day > toDay || day == Integer.MAX_VALUE) {
+                break;
+            }
+
+            if (observations == capacity) {
+                capacity *= 2;
+                for (int h = 0; h < symbols; h++) {
+                    returns[h] = Arrays.copyOf(returns[h], capacity);
+                }
+            }
+            for (int h = 0; h < symbols; h++) {
+                int[] days = series[h].days();
+                if (cursors[h] < days.length && days[cursors[h]] == day) {
+                    double close = series[h].closes()[cursors[h]];
+                    returns[h][observations] = Math.log(close / closes[h]);
+                    closes[h] = close;
+                    cursors[h]++;
+                }
+            }
+            observations++;
+        }
+
+        for (int h = 0; h < symbols; h++) {
+            returns[h] = Arrays.copyOf(returns[h], observations);
+        }
+        return new ReturnMatrix(returns, closes, observations);
+    }
+
+    public int symbols() {
+        return returns.length;
+    }
+
+    public int observations() {
+        return observations;
+    }
+
+    /**
+     * Log returns of one symbol, oldest first; shared, must not be modified
+     */
+    public double[] returns(int symbol) {
+        return returns[symbol];
+    }
+
+    /**
+     * Close each symbol was last seen at within the window
+     */
+    public double lastClose(int symbol) {
+        return lastCloses[symbol];
+    }
+
+    public double[] means() {
+        double[] means = new double[returns.length];
+        for (int h = 0; h < returns.length; h++) {
+            double sum = 0.0;
+            for (int t = 0; t < observations; t++) {
+                sum += returns[h][t];
+            }
+            means[h] = observations == 0 ? 0.0 : sum / observations;
+        }
+        return means;
+    }
+
+    /**
+     * Sample covariance of the daily log returns
+     */
+    public double[][] covariance() {
+        int n = returns.length;
+        double[] means = means();
+        double[][] covariance = new double[n][n];
+        if (observations < 2) {
+            return covariance;
+        }
+        for (int i = 0; i < n; i++) {
+            double[] ri = returns[i];
+            for (int j = 0; j <= i; j++) {
+                double[] rj = returns[j];
+                double sum = 0.0;
+                for (int t = 0; t < observations; t++) {
+                    sum += (ri[t] - means[i]) * (rj[t] - means[j]);
+                }
+                covariance[i][j] = sum / (observations - 1);
+                covariance[j][i] = covariance[i][j];
+            }
+        }
+        return covariance;
+    }
+}
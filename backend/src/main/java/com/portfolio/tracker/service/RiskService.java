@@ -0,0 +1,201 @@
+package com.portfolio.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.tracker.dto.PortfolioRow;
+import com.portfolio.tracker.dto.ValueAtRiskResponse;
+import com.portfolio.tracker.entity.Asset;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Monte Carlo VaR and CVaR of a portfolio's current positions. Return
+ * distributions come from the cached daily history of each holding, and each
+ * exposure is converted from its listing currency to the owner's base
+ * currency with the current rate matrix before they are combined. The
+ * requested path count is rounded up to one of a few fixed tiers, so results
+ * can be cached per portfolio positions version, tier and price day in a
+ * bounded cache.
+ */
+@Service
+public class RiskService {
+
+    private static final int[] HORIZON_DAYS = {1, 10};
+    private static final double[] CONFIDENCES = {0.95, 0.99};
+    private static final int MIN_PATHS = 1000;
+    private static final int[] PATH_TIERS = {10_000, 25_000, 50_000, 100_000, 200_000};
+    private static final int MAX_CACHED_RESULTS = 1_000;
+    private static final Duration CACHE_IDLE_TIMEOUT = Duration.ofHours(1);
+
+    private final PortfolioRepository portfolioRepository;
+    private final AssetRepository assetRepository;
+    private final PriceHistoryService priceHistoryService;
+    private final PortfolioValuationIndex valuationIndex;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool riskPool;
+    private final int lookbackDays;
+    private final int defaultPaths;
+    private final int maxPaths;
+    private final Cache<RiskKey, ValueAtRiskResponse> riskCache = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_RESULTS)
+            .expireAfterAccess(CACHE_IDLE_TIMEOUT)
+            .build();
+
+    public RiskService(PortfolioRepository portfolioRepository,
+            AssetRepository assetRepository,
+            PriceHistoryService priceHistoryService,
+            PortfolioValuationIndex valuationIndex,
+            FxRateService fxRateService,
+            PlatformTransactionManager transactionManager,
+            @Value("${portfolio.risk.parallelism:0}") int parallelism,
+            @Value("${portfolio.risk.lookback-days:365}") int lookbackDays,
+            @Value("${portfolio.risk.default-paths:100000}") int defaultPaths,
+            @Value("${portfolio.risk.max-paths:200000}") int maxPaths) {
+        this.portfolioRepository = portfolioRepository;
+        this.assetRepository = assetRepository;
+        this.priceHistoryService = priceHistoryService;
+        this.valuationIndex = valuationIndex;
+        this.fxRateService = fxRateService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.riskPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.lookbackDays = lookbackDays;
+        this.defaultPaths = defaultPaths;
+        this.maxPaths = maxPaths;
+    }
+
+    public ValueAtRiskResponse getValueAtRisk(Long portfolioId, Long userId, Integer requestedPaths) {
+        int requested = requestedPaths != null ? requestedPaths : defaultPaths;
+        if (requested < MIN_PATHS || requested > maxPaths) {
+            throw new IllegalArgumentException("paths must be between " + MIN_PATHS + " and " + maxPaths);
+        }
+        int paths = pathTier(requested);
+
+        // Checked on every call; cached results are not keyed by user
+        PortfolioRow portfolio = portfolioRepository.findRowByIdAndUserId(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+
+        LocalDate today = LocalDate.now();
+        long version = valuationIndex.getPositionsVersion(portfolioId);
+        RiskKey key = new RiskKey(portfolioId, version, paths, today);
+        ValueAtRiskResponse cached = riskCache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Map<String, Holding> holdings = readOnlyTransaction.execute(status -> loadHoldings(portfolioId));
+        ValueAtRiskResponse response = compute(portfolioId, portfolio.baseCurrency(), today, paths, holdings,
+                Objects.hash(portfolioId, version, today));
+
+        // Results for older positions versions or price days can never be served again
+        riskCache.asMap().keySet().removeIf(k -> k.portfolioId().equals(portfolioId)
+                && (k.version() != version || !k.asOf().equals(today)));
+        riskCache.put(key, response);
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        riskPool.shutdownNow();
+    }
+
+    /**
+     * Smallest tier covering the request, or the configured maximum when no
+     * tier within it does
+     */
+    private int pathTier(int requested) {
+        for (int tier : PATH_TIERS) {
+            if (tier >= requested && tier <= maxPaths) {
+                return tier;
+            }
+        }
+        return maxPaths;
+    }
+
+    private Map<String, Holding> loadHoldings(Long portfolioId) {
+        Map<String, Holding> holdings = new LinkedHashMap<>();
+        for (Asset asset : assetRepository.findByPortfolioId(portfolioId)) {
+            holdings.merge(asset.getTickerSymbol(), new Holding(asset.getQuantity(), asset.getCurrency()),
+                    (a, b) -> new Holding(a.quantity().add(b.quantity()), a.currency()));
+        }
+        return holdings;
+    }
+
+    private ValueAtRiskResponse compute(Long portfolioId, String baseCurrency, LocalDate today, int paths,
+            Map<String, Holding> holdings, long seed) {
+        FxMatrix matrix = fxRateService.getMatrix();
+        String currency = matrix.supports(baseCurrency) ? baseCurrency : FxMatrix.PIVOT;
+        int base = matrix.indexOf(currency);
+
+        LocalDate from = today.minusDays(lookbackDays);
+        List<String> symbols = new ArrayList<>();
+        List<DailySeries> series = new ArrayList<>();
+        List<Double> rates = new ArrayList<>();
+        List<String> excluded = new ArrayList<>();
+        holdings.forEach((symbol, holding) -> {
+            int listing = matrix.indexOf(holding.currency());
+            DailySeries history = priceHistoryService.getDailySeries(symbol, from, today);
+            // Without a rate the exposure cannot be combined with the others
+            if (listing < 0 || history.size() < 2) {
+                excluded.add(symbol);
+            } else {
+                symbols.add(symbol);
+                series.add(history);
+                rates.add(matrix.rate(listing, base));
+            }
+        });
+
+        ReturnMatrix returns = ReturnMatrix.align(series.toArray(new DailySeries[0]),
+                (int) from.toEpochDay(), (int) today.toEpochDay());
+        double[] exposures = new double[symbols.size()];
+        double marketValue = 0.0;
+        for (int i = 0; i < exposures.length; i++) {
+            exposures[i] = holdings.get(symbols.get(i)).quantity().doubleValue() * returns.lastClose(i) * rates.get(i);
+            marketValue += exposures[i];
+        }
+
+        MonteCarloVaR.Result result = MonteCarloVaR.simulate(exposures, returns.means(), returns.covariance(),
+                HORIZON_DAYS, CONFIDENCES, paths, seed, riskPool);
+
+        List<ValueAtRiskResponse.RiskMeasure> measures = new ArrayList<>();
+        for (int h = 0; h < HORIZON_DAYS.length; h++) {
+            for (int c = 0; c < CONFIDENCES.length; c++) {
+                measures.add(new ValueAtRiskResponse.RiskMeasure(
+                        HORIZON_DAYS[h],
+                        BigDecimal.valueOf(CONFIDENCES[c] * 100).setScale(1, RoundingMode.HALF_UP),
+                        money(result.valueAtRisk()[h][c]),
+                        money(result.expectedShortfall()[h][c])));
+            }
+        }
+        return new ValueAtRiskResponse(portfolioId, today, money(marketValue), paths, returns.observations(),
+                measures, excluded, currency);
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private record Holding(BigDecimal quantity, String currency) {
+    }
+
+    private record RiskKey(Long portfolioId, long version, int paths, LocalDate asOf) {
+    }
+}
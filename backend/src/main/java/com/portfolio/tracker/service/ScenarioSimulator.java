@@ -0,0 +1,194 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.util.FixedPoint;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * What-if kernel: applies hypothetical trades and sector rebalances to a copy
+ * of a portfolio's positions and rescores the result, without touching the
+ * database. All amounts are FixedPoint values.
+ *
+ * A {@link Book} is immutable and shared by every scenario; each evaluation
+ * works on its own copy of the quantities, so scenarios can be evaluated in
+ * parallel on a fork-join pool.
+ */
+public final class ScenarioSimulator {
+
+    // Scenarios per leaf task; one evaluation is only a few microseconds
+    private static final int SEQUENTIAL_THRESHOLD = 16;
+
+    private ScenarioSimulator() {
+    }
+
+    /**
+     * Positions and the symbols the scenarios trade, with their cached prices
+     *
+     * @param symbols every symbol the portfolio holds or a scenario trades
+     * @param sectors index into sectorNames for each symbol
+     * @param prices price each symbol is valued at
+     * @param quantities current quantity of each symbol, zero when not held
+     */
+    public record Book(String[] symbols, int[] sectors, String[] sectorNames, long[] prices, long[] quantities) {
+    }
+
+    /**
+     * @param holding index into the book's symbols
+     * @param quantity signed quantity, positive for buys
+     * @param price execution price, or zero to trade at the book price
+     */
+    public record Trade(int holding, long quantity, long price) {
+    }
+
+    /**
+     * Trades are applied in order; a non-null target then rebalances every
+     * sector to its percentage of the resulting market value, proportionally
+     * across the sector's holdings
+     *
+     * @param targetSectorWeights percentage per sector index, or null
+     */
+    public record Scenario(String name, Trade[] trades, long[] targetSectorWeights) {
+    }
+
+    /**
+     * @param cash net cash from the trades, negative when buys exceed sales
+     * @param error why the scenario could not be applied; the other fields are
+     * then empty
+     */
+    public record Outcome(String name, long marketValue, long cash, int positions,
+            Map<String, Long> sectorAllocation, long diversificationScore, String riskLevel, String error) {
+
+        static Outcome failed(String name, String error) {
+            return new Outcome(name, FixedPoint.ZERO, FixedPoint.ZERO, 0, Map.of(), FixedPoint.ZERO, null, error);
+        }
+    }
+
+    public static Outcome evaluate(Book book, Scenario scenario) {
+        long[] quantities = Arrays.copyOf(book.quantities(), book.quantities().length);
+        long cash = FixedPoint.ZERO;
+        try {
+            for (Trade trade : scenario.trades()) {
+                long remaining = FixedPoint.add(quantities[trade.holding()], trade.quantity());
+                if (remaining < 0) {
+                    throw new IllegalArgumentException("Cannot sell more " + book.symbols()[trade.holding()]
+                            + " than held. Available: " + FixedPoint.toBigDecimal(quantities[trade.holding()]));
+                }
+                long price = trade.price() != 0 ? trade.price() : book.prices()[trade.holding()];
+                cash = FixedPoint.subtract(cash, FixedPoint.multiply(trade.quantity(), price));
+                quantities[trade.holding()] = remaining;
+            }
+            if (scenario.targetSectorWeights() != null) {
+                cash = FixedPoint.add(cash, rebalance(book, quantities, scenario.targetSectorWeights()));
+            }
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            return Outcome.failed(scenario.name(), e.getMessage());
+        }
+        return score(book, scenario.name(), quantities, cash);
+    }
+
+    /**
+     * Evaluate every scenario on the pool; outcomes are in scenario order
+     */
+    public static List<Outcome> evaluateAll(Book book, List<Scenario> scenarios, ForkJoinPool pool) {
+        Outcome[] outcomes = new Outcome[scenarios.size()];
+        pool.invoke(new Batch(book, scenarios, outcomes, 0, scenarios.size()));
+        return Arrays.asList(outcomes);
+    }
+
+    /**
+     * Scale each sector's holdings to its target share of the current market
+     * value and return the cash released (or consumed, if negative)
+     */
+    private static long rebalance(Book book, long[] quantities, long[] targetWeights) {
+        long[] sectorValues = new long[book.sectorNames().length];
+        long total = FixedPoint.ZERO;
+        long[] values = new long[quantities.length];
+        for (int i = 0; i < quantities.length; i++) {
+            values[i] = FixedPoint.multiply(quantities[i], book.prices()[i]);
+            sectorValues[book.sectors()[i]] = FixedPoint.add(sectorValues[book.sectors()[i]], values[i]);
+            total = FixedPoint.add(total, values[i]);
+        }
+
+        long[] factors = new long[sectorValues.length];
+        for (int s = 0; s < sectorValues.length; s++) {
+            long target = FixedPoint.divide(FixedPoint.multiply(total, targetWeights[s]), 100);
+            if (target != 0 && sectorValues[s] == 0) {
+                throw new IllegalArgumentException("No holdings in sector " + book.sectorNames()[s]
+                        + " to rebalance into");
+            }
+            factors[s] = sectorValues[s] == 0 ? FixedPoint.ZERO : FixedPoint.divide(target, sectorValues[s]);
+        }
+
+        long released = FixedPoint.ZERO;
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] == 0) {
+                continue;
+            }
+            quantities[i] = FixedPoint.multiply(quantities[i], factors[book.sectors()[i]]);
+            released = FixedPoint.add(released,
+                    FixedPoint.subtract(values[i], FixedPoint.multiply(quantities[i], book.prices()[i])));
+        }
+        return released;
+    }
+
+    private static Outcome score(Book book, String name, long[] quantities, long cash) {
+        long[] sectorValues = new long[book.sectorNames().length];
+        long total = FixedPoint.ZERO;
+        int positions = 0;
+        for (int i = 0; i < quantities.length; i++) {
+            if (quantities[i] == 0) {
+                continue;
+            }
+            long value = FixedPoint.multiply(quantities[i], book.prices()[i]);
+            sectorValues[book.sectors()[i]] = FixedPoint.add(sectorValues[book.sectors()[i]], value);
+            total = FixedPoint.add(total, value);
+            positions++;
+        }
+
+        Map<String, Long> values = new HashMap<>();
+        for (int s = 0; s < sectorValues.length; s++) {
+            if (sectorValues[s] != 0) {
+                values.put(book.sectorNames()[s], sectorValues[s]);
+            }
+        }
+        Map<String, Long> allocation = AiInsightService.convertToPercentages(values, total);
+        long diversificationScore = AiInsightService.calculateDiversificationScore(allocation, positions);
+        String riskLevel = positions == 0 ? "N/A" : AiInsightService.determineRiskLevel(diversificationScore, allocation);
+        return new Outcome(name, total, cash, positions, allocation, diversificationScore, riskLevel, null);
+    }
+
+    private static final class Batch extends RecursiveAction {
+
+        private final Book book;
+        private final List<Scenario> scenarios;
+        private final Outcome[] outcomes;
+        private final int from;
+        private final int to;
+
+        Batch(Book book, List<Scenario> scenarios, Outcome[] outcomes, int from, int to) {
+            this.book = book;
+            this.scenarios = scenarios;
+            this.outcomes = outcomes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    outcomes[i] = evaluate(book, scenarios.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Batch(book, scenarios, outcomes, from, middle),
+                    new Batch(book, scenarios, outcomes, middle, to));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.portfolio.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.portfolio.tracker.dto.StockSectorRow;
+import com.portfolio.tracker.event.StocksChangedEvent;
+import com.portfolio.tracker.repository.StockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Symbol to sector and industry, loaded in bulk and served from an immutable
+ * snapshot that is swapped atomically, so readers never lock or query.
+ * Symbols missing from the snapshot are resolved together with one IN query
+ * and those with a stock row are merged into the next snapshot, so it only
+ * ever holds real stocks. Symbols with no stock row are remembered in a
+ * bounded, expiring side cache until a stock is created for them, since
+ * callers may pass arbitrary symbols.
+ */
+@Component
+public class SectorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(SectorIndex.class);
+
+    private static final Classification UNCLASSIFIED = new Classification(null, null);
+    private static final int MAX_UNKNOWN_SYMBOLS = 10_000;
+    private static final Duration UNKNOWN_SYMBOL_TTL = Duration.ofHours(1);
+
+    private final StockRepository stockRepository;
+
+    // Replaced, never mutated; writers swap it under this
+    private volatile Map<String, Classification> snapshot = Map.of();
+    // Symbols known to have no stock row
+    private final Cache<String, Boolean> unknownSymbols = Caffeine.newBuilder()
+            .maximumSize(MAX_UNKNOWN_SYMBOLS)
+            .expireAfterWrite(UNKNOWN_SYMBOL_TTL)
+            .build();
+
+    public SectorIndex(StockRepository stockRepository) {
+        this.stockRepository = stockRepository;
+    }
+
+    /**
+     * @param sector null when the stock has none
+     */
+    public record Classification(String sector, String industry) {
+    }
+
+    /**
+     * Replace the snapshot with every stock's classification; also picks up
+     * reference data edited outside the application
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${portfolio.sector-index.refresh-interval-ms:3600000}",
+            initialDelayString = "${portfolio.sector-index.refresh-interval-ms:3600000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        List<StockSectorRow> rows = stockRepository.findAllSectorRows();
+        Map<String, Classification> loaded = new HashMap<>(rows.size() * 2);
+        rows.forEach(row -> loaded.put(row.symbol(), classify(row)));
+        synchronized (this) {
+            snapshot = Map.copyOf(loaded);
+        }
+        unknownSymbols.invalidateAll();
+        logger.info("Sector index loaded with {} symbols", loaded.size());
+    }
+
+    /**
+     * Classification of every requested symbol; unknown symbols map to an
+     * empty classification. At most one query, and none once the symbols
+     * have been seen; unknown symbols are looked up again after they expire.
+     */
+    public Map<String, Classification> lookup(Collection<String> symbols) {
+        Map<String, Classification> current = snapshot;
+        Set<String> misses = new LinkedHashSet<>();
+        for (String symbol : symbols) {
+            if (!current.containsKey(symbol) && unknownSymbols.getIfPresent(symbol) == null) {
+                misses.add(symbol);
+            }
+        }
+        if (!misses.isEmpty()) {
+            List<StockSectorRow> rows = stockRepository.findSectorRowsBySymbolIn(misses);
+            rows.forEach(row -> misses.remove(row.symbol()));
+            misses.forEach(symbol -> unknownSymbols.put(symbol, Boolean.TRUE));
+            if (!rows.isEmpty()) {
+                current = merge(rows);
+            }
+        }
+
+        Map<String, Classification> result = new HashMap<>();
+        for (String symbol : symbols) {
+            result.put(symbol, current.getOrDefault(symbol, UNCLASSIFIED));
+        }
+        return result;
+    }
+
+    /**
+     * Non-blank sectors of the requested symbols; unclassified symbols are
+     * left out
+     */
+    public Map<String, String> sectorsOf(Collection<String> symbols) {
+        Map<String, String> sectors = new HashMap<>();
+        lookup(symbols).forEach((symbol, classification) -> {
+            if (classification.sector() != null) {
+                sectors.put(symbol, classification.sector());
+            }
+        });
+        return sectors;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStocksChanged(StocksChangedEvent event) {
+        merge(event.getStocks());
+        event.getStocks().forEach(row -> unknownSymbols.invalidate(row.symbol()));
+    }
+
+    private synchronized Map<String, Classification> merge(List<StockSectorRow> rows) {
+        Map<String, Classification> next = new HashMap<>(snapshot);
+        rows.forEach(row -> next.put(row.symbol(), classify(row)));
+        snapshot = Map.copyOf(next);
+        return snapshot;
+    }
+
+    private static Classification classify(StockSectorRow row) {
+        return new Classification(blankToNull(row.sector()), blankToNull(row.industry()));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
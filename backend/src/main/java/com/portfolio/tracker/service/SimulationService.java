@@ -0,0 +1,244 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetRow;
+import com.portfolio.tracker.dto.PortfolioRow;
+import com.portfolio.tracker.dto.SimulationRequest;
+import com.portfolio.tracker.dto.SimulationResponse;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.util.FixedPoint;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * What-if simulation of trades and target sector allocations. Positions,
+ * sectors and cached prices are read once; the scenarios are then evaluated
+ * in memory on a dedicated fork-join pool and nothing is written.
+ */
+@Service
+public class SimulationService {
+
+    private static final String OTHER_SECTOR = "Other";
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal ALLOCATION_TOLERANCE = new BigDecimal("0.01");
+
+    private final PortfolioRepository portfolioRepository;
+    private final AssetRepository assetRepository;
+    private final SectorIndex sectorIndex;
+    private final MarketPriceService marketPriceService;
+    private final FxRateService fxRateService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool simulationPool;
+    private final int maxScenarios;
+
+    public SimulationService(PortfolioRepository portfolioRepository,
+            AssetRepository assetRepository,
+            SectorIndex sectorIndex,
+            MarketPriceService marketPriceService,
+            FxRateService fxRateService,
+            PlatformTransactionManager transactionManager,
+            @Value("${portfolio.simulation.parallelism:0}") int parallelism,
+            @Value("${portfolio.simulation.max-scenarios:1000}") int maxScenarios) {
+        this.portfolioRepository = portfolioRepository;
+        this.assetRepository = assetRepository;
+        this.sectorIndex = sectorIndex;
+        this.marketPriceService = marketPriceService;
+        this.fxRateService = fxRateService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.simulationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxScenarios = maxScenarios;
+    }
+
+    public SimulationResponse simulate(Long portfolioId, Long userId, SimulationRequest request) {
+        List<SimulationRequest.Scenario> scenarios = request.getScenarios();
+        if (scenarios.size() > maxScenarios) {
+            throw new IllegalArgumentException("A simulation can contain at most " + maxScenarios + " scenarios");
+        }
+
+        Set<String> tradedSymbols = new LinkedHashSet<>();
+        for (SimulationRequest.Scenario scenario : scenarios) {
+            if (scenario.getTrades() != null) {
+                scenario.getTrades().forEach(trade -> tradedSymbols.add(trade.getTickerSymbol().toUpperCase()));
+            }
+        }
+
+        Positions positions = readOnlyTransaction.execute(status -> loadPositions(portfolioId, userId, tradedSymbols));
+        BookBuilder book = new BookBuilder(positions, scenarios);
+
+        List<ScenarioSimulator.Scenario> simulated = new ArrayList<>(scenarios.size());
+        for (int i = 0; i < scenarios.size(); i++) {
+            simulated.add(book.toScenario(i, scenarios.get(i)));
+        }
+
+        ScenarioSimulator.Outcome current = ScenarioSimulator.evaluate(book.book,
+                new ScenarioSimulator.Scenario("current", new ScenarioSimulator.Trade[0], null));
+        List<SimulationResponse.ScenarioResult> results = ScenarioSimulator.evaluateAll(book.book, simulated, simulationPool)
+                .stream()
+                .map(SimulationService::toResult)
+                .toList();
+        SimulationResponse response = new SimulationResponse(portfolioId, toResult(current), results);
+        response.setCurrency(book.currency);
+        return response;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        simulationPool.shutdownNow();
+    }
+
+    private Positions loadPositions(Long portfolioId, Long userId, Set<String> tradedSymbols) {
+        PortfolioRow portfolio = portfolioRepository.findRowByIdAndUserId(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+        List<AssetRow> assets = assetRepository.findRowsByPortfolioId(portfolioId);
+
+        Set<String> symbols = new LinkedHashSet<>();
+        assets.forEach(asset -> symbols.add(asset.tickerSymbol()));
+        symbols.addAll(tradedSymbols);
+        return new Positions(portfolio.baseCurrency(), assets, symbols, sectorIndex.sectorsOf(symbols));
+    }
+
+    private static SimulationResponse.ScenarioResult toResult(ScenarioSimulator.Outcome outcome) {
+        Map<String, BigDecimal> allocation = new HashMap<>();
+        outcome.sectorAllocation().forEach((sector, percentage) ->
+                allocation.put(sector, FixedPoint.toBigDecimal(percentage, 4)));
+        return new SimulationResponse.ScenarioResult(
+                outcome.name(),
+                FixedPoint.toBigDecimal(outcome.marketValue(), 2),
+                FixedPoint.toBigDecimal(outcome.cash(), 2),
+                outcome.positions(),
+                allocation,
+                FixedPoint.toBigDecimal(outcome.diversificationScore()),
+                outcome.riskLevel(),
+                outcome.error());
+    }
+
+    private record Positions(String baseCurrency, List<AssetRow> assets, Set<String> symbols, Map<String, String> sectors) {
+    }
+
+    /**
+     * Indexes symbols and sectors and resolves a price for every symbol:
+     * the cached market price, else the average cost of a held position,
+     * else the first explicit trade price in the request. Prices, including
+     * trade prices, are quoted in the listing currency and converted to the
+     * owner's base currency so values in different currencies can be added.
+     */
+    private final class BookBuilder {
+
+        private final Map<String, Integer> holdings = new LinkedHashMap<>();
+        private final Map<String, Integer> sectorIndex = new LinkedHashMap<>();
+        private final String currency;
+        private final BigDecimal[] rates;
+        private final ScenarioSimulator.Book book;
+
+        BookBuilder(Positions positions, List<SimulationRequest.Scenario> scenarios) {
+            int size = positions.symbols().size();
+            String[] symbols = new String[size];
+            int[] sectors = new int[size];
+            long[] prices = new long[size];
+            long[] quantities = new long[size];
+
+            FxMatrix matrix = fxRateService.getMatrix();
+            currency = matrix.supports(positions.baseCurrency()) ? positions.baseCurrency() : FxMatrix.PIVOT;
+            int base = matrix.indexOf(currency);
+            rates = new BigDecimal[size];
+
+            Map<String, AssetRow> held = new HashMap<>();
+            positions.assets().forEach(asset -> held.put(asset.tickerSymbol(), asset));
+            Map<String, BigDecimal> tradePrices = new HashMap<>();
+            for (SimulationRequest.Scenario scenario : scenarios) {
+                if (scenario.getTrades() != null) {
+                    scenario.getTrades().stream()
+                            .filter(trade -> trade.getPrice() != null)
+                            .forEach(trade -> tradePrices.putIfAbsent(trade.getTickerSymbol().toUpperCase(), trade.getPrice()));
+                }
+            }
+
+            int i = 0;
+            for (String symbol : positions.symbols()) {
+                AssetRow asset = held.get(symbol);
+                BigDecimal price = marketPriceService.getLastKnownPrice(symbol);
+                if (price == null && asset != null) {
+                    price = asset.averagePrice();
+                }
+                if (price == null) {
+                    price = tradePrices.get(symbol);
+                }
+                if (price == null) {
+                    throw new IllegalArgumentException("No cached price for " + symbol + "; provide a trade price");
+                }
+
+                String sector = positions.sectors().getOrDefault(symbol, OTHER_SECTOR);
+                symbols[i] = symbol;
+                sectors[i] = sectorIndex.computeIfAbsent(sector, s -> sectorIndex.size());
+                // A listing currency without a rate is taken as is, as the portfolio totals do
+                int listing = matrix.indexOf(asset != null ? asset.currency() : fxRateService.inferCurrency(symbol));
+                rates[i] = listing >= 0 ? BigDecimal.valueOf(matrix.rate(listing, base)) : BigDecimal.ONE;
+                prices[i] = FixedPoint.of(price.multiply(rates[i]));
+                quantities[i] = asset != null ? FixedPoint.of(asset.quantity()) : FixedPoint.ZERO;
+                holdings.put(symbol, i);
+                i++;
+            }
+            book = new ScenarioSimulator.Book(symbols, sectors, sectorIndex.keySet().toArray(new String[0]),
+                    prices, quantities);
+        }
+
+        ScenarioSimulator.Scenario toScenario(int index, SimulationRequest.Scenario scenario) {
+            String name = scenario.getName() != null ? scenario.getName() : "Scenario " + (index + 1);
+
+            List<SimulationRequest.Trade> requested = scenario.getTrades() != null ? scenario.getTrades() : List.of();
+            ScenarioSimulator.Trade[] trades = new ScenarioSimulator.Trade[requested.size()];
+            for (int t = 0; t < trades.length; t++) {
+                SimulationRequest.Trade trade = requested.get(t);
+                long quantity = FixedPoint.of(trade.getQuantity());
+                int holding = holdings.get(trade.getTickerSymbol().toUpperCase());
+                trades[t] = new ScenarioSimulator.Trade(
+                        holding,
+                        trade.getSide() == SimulationRequest.Side.SELL ? -quantity : quantity,
+                        trade.getPrice() != null ? FixedPoint.of(trade.getPrice().multiply(rates[holding])) : FixedPoint.ZERO);
+            }
+
+            long[] targetWeights = null;
+            if (scenario.getTargetSectorAllocation() != null && !scenario.getTargetSectorAllocation().isEmpty()) {
+                targetWeights = new long[sectorIndex.size()];
+                BigDecimal total = BigDecimal.ZERO;
+                for (Map.Entry<String, BigDecimal> target : scenario.getTargetSectorAllocation().entrySet()) {
+                    BigDecimal percentage = target.getValue();
+                    if (percentage == null || percentage.signum() < 0 || percentage.compareTo(HUNDRED) > 0) {
+                        throw new IllegalArgumentException("Scenario " + index + ": target for " + target.getKey()
+                                + " must be between 0 and 100");
+                    }
+                    Integer sector = sectorIndex.get(target.getKey());
+                    if (sector == null) {
+                        if (percentage.signum() > 0) {
+                            throw new IllegalArgumentException("Scenario " + index + ": no holdings in sector "
+                                    + target.getKey() + " to rebalance into");
+                        }
+                        continue;
+                    }
+                    targetWeights[sector] = FixedPoint.of(percentage);
+                    total = total.add(percentage);
+                }
+                if (total.subtract(HUNDRED).abs().compareTo(ALLOCATION_TOLERANCE) > 0) {
+                    throw new IllegalArgumentException("Scenario " + index
+                            + ": target sector allocation must add up to 100, got " + total);
+                }
+            }
+            return new ScenarioSimulator.Scenario(name, trades, targetWeights);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.RealizedGainsResponse;
+import com.portfolio.tracker.dto.TaxLotResponse;
+import com.portfolio.tracker.entity.Asset;
+import com.portfolio.tracker.entity.Portfolio;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.repository.LotDisposalRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import com.portfolio.tracker.repository.TaxLotRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Loads lot books for positions being traded and persists what they changed.
+ * Depleted lots are managed entities, so their updates go out as one JDBC
+ * batch at flush; new lots and disposals are saved together per book.
+ */
+@Service
+@Transactional
+public class TaxLotService {
+
+    private final TaxLotRepository taxLotRepository;
+    private final LotDisposalRepository lotDisposalRepository;
+    private final PortfolioRepository portfolioRepository;
+
+    public TaxLotService(TaxLotRepository taxLotRepository,
+            LotDisposalRepository lotDisposalRepository,
+            PortfolioRepository portfolioRepository) {
+        this.taxLotRepository = taxLotRepository;
+        this.lotDisposalRepository = lotDisposalRepository;
+        this.portfolioRepository = portfolioRepository;
+    }
+
+    public LotBook openBook(Portfolio portfolio, String symbol) {
+        return new LotBook(portfolio, symbol, taxLotRepository.findOpenLots(portfolio.getId(), symbol));
+    }
+
+    /**
+     * Book for an existing holding, topped up to the holding's quantity
+     */
+    public LotBook openBook(Portfolio portfolio, Asset asset) {
+        LotBook book = openBook(portfolio, asset.getTickerSymbol());
+        book.reconcile(asset.getQuantity(), asset.getAveragePrice(), asset.getCreatedAt());
+        return book;
+    }
+
+    public void save(LotBook book) {
+        taxLotRepository.saveAll(book.drainOpened());
+        lotDisposalRepository.saveAll(book.drainDisposals());
+    }
+
+    public void closeLots(Long portfolioId, String symbol) {
+        taxLotRepository.closeOpenLots(portfolioId, symbol);
+    }
+
+    public void deletePortfolioLots(Long portfolioId) {
+        lotDisposalRepository.deleteByPortfolioId(portfolioId);
+        taxLotRepository.deleteByPortfolioId(portfolioId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TaxLotResponse> getOpenLots(Long portfolioId, Long userId) {
+        portfolioRepository.findByIdAndUserId(portfolioId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio not found with id: " + portfolioId));
+        return taxLotRepository.findOpenLotRows(portfolioId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RealizedGainsResponse> getRealizedGainsByYear(Long userId) {
+        return lotDisposalRepository.summarizeByYear(userId);
+    }
+}
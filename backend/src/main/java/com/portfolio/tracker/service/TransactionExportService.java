@@ -0,0 +1,151 @@
+package com.portfolio.tracker.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.portfolio.tracker.dto.TransactionExportRow;
+import com.portfolio.tracker.repository.TransactionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's full transaction history straight from a database cursor to
+ * the response, one row at a time, so memory use does not grow with history
+ */
+@Service
+public class TransactionExportService {
+
+    private static final String CSV_HEADER = "id,transaction_date,portfolio_id,portfolio_name,ticker_symbol,"
+            + "transaction_type,quantity,price_per_share,total_amount,fees,realized_pnl";
+
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+
+    public TransactionExportService(TransactionRepository transactionRepository, ObjectMapper objectMapper) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromParameter(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    /**
+     * Runs on the response thread after the controller has returned, so the
+     * read-only transaction (and its connection) lives exactly as long as the
+     * cursor is being drained
+     */
+    @Transactional(readOnly = true)
+    public void exportUserTransactions(Long userId, Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (Stream<TransactionExportRow> rows = transactionRepository.streamExportRowsByUserId(userId)) {
+            if (format == Format.NDJSON) {
+                writeNdjson(rows.iterator(), writer);
+            } else {
+                writeCsv(rows.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(Iterator<TransactionExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            writer.write(String.valueOf(row.id()));
+            writer.write(',');
+            writer.write(row.transactionDate() != null ? row.transactionDate().toString() : "");
+            writer.write(',');
+            writer.write(String.valueOf(row.portfolioId()));
+            writer.write(',');
+            writer.write(csvField(row.portfolioName()));
+            writer.write(',');
+            writer.write(csvField(row.tickerSymbol()));
+            writer.write(',');
+            writer.write(row.transactionType() != null ? row.transactionType().name() : "");
+            writer.write(',');
+            writer.write(number(row.quantity()));
+            writer.write(',');
+            writer.write(number(row.pricePerShare()));
+            writer.write(',');
+            writer.write(number(row.totalAmount()));
+            writer.write(',');
+            writer.write(number(row.fees()));
+            writer.write(',');
+            writer.write(number(row.realizedPnl()));
+            writer.write('\n');
+        }
+    }
+
+    private void writeNdjson(Iterator<TransactionExportRow> rows, Writer writer) throws IOException {
+        // Leave the response stream open; the writer is flushed by the caller
+        try (SequenceWriter sequence = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            while (rows.hasNext()) {
+                sequence.write(rows.next());
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String number(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean needsQuoting = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        // Leading formula characters are neutralized so spreadsheets do not evaluate names
+        boolean formula = !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0;
+        String escaped = formula ? "'" + value : value;
+        if (!needsQuoting) {
+            return escaped;
+        }
+        return '"' + escaped.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,12 +1,19 @@
 package com.portfolio.tracker.service;
 
+import com.portfolio.tracker.dto.RealizedPnlSummaryResponse;
+import com.portfolio.tracker.dto.TransactionPageResponse;
 import com.portfolio.tracker.dto.TransactionResponse;
-import com.portfolio.tracker.entity.*;
+import com.portfolio.tracker.dto.TransactionRow;
+import com.portfolio.tracker.entity.TransactionType;
 import com.portfolio.tracker.repository.TransactionRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -14,6 +21,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final TransactionRepository transactionRepository;
 
     public TransactionService(TransactionRepository transactionRepository) {
@@ -21,61 +31,109 @@ public class TransactionService {
     }
 
     @Transactional(readOnly = true)
-    public List<TransactionResponse> getUserTransactions(Long userId) {
-        List<Transaction> transactions = transactionRepository.findByUserIdOrderByTransactionDateDesc(userId);
-        return transactions.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public TransactionPageResponse getUserTransactions(Long userId, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        Cursor position = Cursor.decode(cursor);
+        return toPage(transactionRepository.findUserPage(
+                userId, position.date(), position.id(), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionPageResponse getPortfolioTransactions(Long portfolioId, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        Cursor position = Cursor.decode(cursor);
+        return toPage(transactionRepository.findPortfolioPage(
+                portfolioId, position.date(), position.id(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
     @Transactional(readOnly = true)
-    public List<TransactionResponse> getPortfolioTransactions(Long portfolioId) {
-        List<Transaction> transactions = transactionRepository.findByPortfolioId(portfolioId);
-        return transactions.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public TransactionPageResponse getSellTransactionsByUser(Long userId, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        Cursor position = Cursor.decode(cursor);
+        return toPage(transactionRepository.findUserPageByType(
+                userId, TransactionType.SELL, position.date(), position.id(), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
+    /**
+     * Realized P&L totals per portfolio, so clients need not page through every sale to sum them
+     */
     @Transactional(readOnly = true)
-    public List<TransactionResponse> getSellTransactionsByUser(Long userId) {
-        List<Transaction> transactions = transactionRepository.findByUserIdOrderByTransactionDateDesc(userId);
-        return transactions.stream()
-                .filter(t -> t.getTransactionType() == TransactionType.SELL)
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public List<RealizedPnlSummaryResponse> getRealizedPnlByPortfolio(Long userId) {
+        return transactionRepository.summarizeRealizedPnlByPortfolio(userId);
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    /**
+     * One extra row is fetched to tell whether another page exists without a count query
+     */
+    private TransactionPageResponse toPage(List<TransactionRow> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionRow last = page.get(page.size() - 1);
+            nextCursor = new Cursor(last.transactionDate(), last.id()).encode();
+        }
+        return new TransactionPageResponse(
+                page.stream().map(this::mapToResponse).collect(Collectors.toList()),
+                nextCursor);
     }
 
-    private TransactionResponse mapToResponse(Transaction transaction) {
+    private TransactionResponse mapToResponse(TransactionRow row) {
         TransactionResponse response = new TransactionResponse();
-        response.setId(transaction.getId());
-        response.setTransactionType(transaction.getTransactionType());
-        response.setQuantity(transaction.getQuantity());
-        response.setPricePerShare(transaction.getPricePerShare());
-        response.setTotalAmount(transaction.getTotalAmount());
-        response.setFees(transaction.getFees());
-        response.setTransactionDate(transaction.getTransactionDate());
-        response.setCreatedAt(transaction.getCreatedAt());
-        response.setPortfolioId(transaction.getPortfolio().getId());
-        response.setPortfolioName(transaction.getPortfolio().getPortfolioName());
-        response.setTickerSymbol(transaction.getStock().getSymbol());
-
-        // Calculate realized P&L for sell transactions
-        if (transaction.getTransactionType() == TransactionType.SELL) {
-            // Get the average cost basis from the portfolio's current asset
-            Portfolio portfolio = transaction.getPortfolio();
-            Asset asset = portfolio.getAssets().stream()
-                    .filter(a -> a.getTickerSymbol().equals(transaction.getStock().getSymbol()))
-                    .findFirst()
-                    .orElse(null);
-
-            if (asset != null) {
-                BigDecimal costBasis = asset.getAveragePrice().multiply(transaction.getQuantity());
-                BigDecimal saleProceeds = transaction.getTotalAmount();
-                BigDecimal realizedPnL = saleProceeds.subtract(costBasis);
-                response.setRealizedPnL(realizedPnL);
+        response.setId(row.id());
+        response.setTransactionType(row.transactionType());
+        response.setQuantity(row.quantity());
+        response.setPricePerShare(row.pricePerShare());
+        response.setTotalAmount(row.totalAmount());
+        response.setFees(row.fees());
+        response.setTransactionDate(row.transactionDate());
+        response.setCreatedAt(row.createdAt());
+        response.setPortfolioId(row.portfolioId());
+        response.setPortfolioName(row.portfolioName());
+        response.setTickerSymbol(row.tickerSymbol());
+
+        // Realized P&L is fixed on the row when the sale is recorded
+        response.setRealizedPnL(row.realizedPnl());
+
+        return response;
+    }
+
+    /**
+     * Keyset position (transaction_date, id) of the last row returned, sent to
+     * clients as an opaque token
+     */
+    private record Cursor(LocalDateTime date, Long id) {
+
+        // Sorts after every real row, so the first page needs no separate query
+        private static final Cursor START = new Cursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+        static Cursor decode(String token) {
+            if (token == null || token.isBlank()) {
+                return START;
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.parseLong(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
             }
         }
 
-        return response;
+        String encode() {
+            String raw = date + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
     }
 }
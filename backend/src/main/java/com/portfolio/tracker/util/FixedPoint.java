@@ -0,0 +1,225 @@
+package com.portfolio.tracker.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Scaled-long arithmetic for money and quantities. A value is held as a long
+ * count of 10^-8 units, matching the scale of the quantity columns, so the
+ * valuation paths can add, multiply and compare without allocating. All
+ * operations throw ArithmeticException on overflow instead of wrapping, and
+ * round HALF_UP like the BigDecimal code they replace.
+ *
+ * Convert with {@link #of(BigDecimal)} when reading entities and with
+ * {@link #toBigDecimal(long, int)} when building responses.
+ */
+public final class FixedPoint {
+
+    public static final int SCALE = 8;
+    public static final long ONE = 100_000_000L;
+    public static final long ZERO = 0L;
+
+    private static final long LOW_32_BITS = 0xFFFF_FFFFL;
+    private static final long BASE_32 = 1L << 32;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+    };
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Units for a whole number, e.g. units(100) for 100.00000000
+     */
+    public static long units(long wholeNumber) {
+        return Math.multiplyExact(wholeNumber, ONE);
+    }
+
+    public static long of(BigDecimal value) {
+        if (value == null) {
+            return ZERO;
+        }
+        if (value.scale() <= SCALE) {
+            // Exact shift; avoids materializing the unscaled BigInteger
+            return value.movePointRight(SCALE).longValueExact();
+        }
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+
+    public static BigDecimal toBigDecimal(long value, int scale) {
+        if (scale >= 0 && scale <= SCALE) {
+            return BigDecimal.valueOf(divideRounded(value, POWERS_OF_TEN[SCALE - scale]), scale);
+        }
+        return BigDecimal.valueOf(value, SCALE).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    /**
+     * a * b, using a 128-bit intermediate product so large quantities times
+     * large prices do not overflow before rescaling
+     */
+    public static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return divideRounded(low, ONE);
+        }
+
+        boolean negative = high < 0;
+        if (negative) {
+            low = -low;
+            high = low == 0 ? -high : ~high;
+        }
+
+        // Unsigned 128-bit by 27-bit division, one 32-bit limb at a time
+        long current = high >>> 32;
+        long q0 = current / ONE;
+        long remainder = current % ONE;
+        current = (remainder << 32) | (high & LOW_32_BITS);
+        long q1 = current / ONE;
+        remainder = current % ONE;
+        current = (remainder << 32) | (low >>> 32);
+        long q2 = current / ONE;
+        remainder = current % ONE;
+        current = (remainder << 32) | (low & LOW_32_BITS);
+        long q3 = current / ONE;
+        remainder = current % ONE;
+
+        if (q0 != 0 || q1 != 0 || q2 > Integer.MAX_VALUE) {
+            throw new ArithmeticException("Fixed-point multiply overflow");
+        }
+        long quotient = (q2 << 32) | q3;
+        if (remainder * 2 >= ONE) {
+            quotient = Math.addExact(quotient, 1);
+        }
+        return negative ? -quotient : quotient;
+    }
+
+    /**
+     * a / b at full fixed-point scale
+     */
+    public static long divide(long a, long b) {
+        if (b == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        long dividend = Math.absExact(a);
+        long divisor = Math.absExact(b);
+        long high = Math.unsignedMultiplyHigh(dividend, ONE);
+        long low = dividend * ONE;
+        if (Long.compareUnsigned(high, divisor) >= 0) {
+            throw new ArithmeticException("Fixed-point divide overflow");
+        }
+
+        long quotient = high == 0 ? Long.divideUnsigned(low, divisor) : divideUnsigned128(high, low, divisor);
+        long remainder = low - quotient * divisor;
+        if (Long.compareUnsigned(remainder, divisor - remainder) >= 0) {
+            quotient++;
+        }
+        if (quotient < 0) {
+            throw new ArithmeticException("Fixed-point divide overflow");
+        }
+        return (a < 0) == (b < 0) ? quotient : -quotient;
+    }
+
+    /**
+     * a divided by a plain integer, e.g. an average over a count
+     */
+    public static long divide(long a, int divisor) {
+        if (divisor == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return divideRounded(a, divisor);
+    }
+
+    /**
+     * part / whole as a percentage, with the ratio rounded to four decimals
+     * before scaling to 100 as the BigDecimal responses always did
+     */
+    public static long percentage(long part, long whole) {
+        if (whole == 0) {
+            return ZERO;
+        }
+        return Math.multiplyExact(round(divide(part, whole), 4), 100);
+    }
+
+    /**
+     * {@link #percentage(long, long)} for amounts beyond the fixed-point
+     * range, rounded the same way
+     */
+    public static BigDecimal percentage(BigDecimal part, BigDecimal whole) {
+        if (whole.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return part.divide(whole, 4, RoundingMode.HALF_UP).movePointRight(2).setScale(4);
+    }
+
+    /**
+     * Round to the given number of decimals while keeping the fixed-point scale
+     */
+    public static long round(long value, int decimals) {
+        long step = POWERS_OF_TEN[SCALE - Math.min(decimals, SCALE)];
+        return Math.multiplyExact(divideRounded(value, step), step);
+    }
+
+    public static long min(long a, long b) {
+        return Math.min(a, b);
+    }
+
+    /**
+     * Unsigned (high:low) / divisor for high < divisor, after Hacker's Delight
+     * divlu: normalize the divisor and produce the quotient as two 32-bit digits
+     */
+    private static long divideUnsigned128(long high, long low, long divisor) {
+        int shift = Long.numberOfLeadingZeros(divisor);
+        divisor <<= shift;
+        long divisorHigh = divisor >>> 32;
+        long divisorLow = divisor & LOW_32_BITS;
+
+        long numeratorHigh = shift == 0 ? high : (high << shift) | (low >>> (64 - shift));
+        long numeratorLow = low << shift;
+        long digit1 = numeratorLow >>> 32;
+        long digit0 = numeratorLow & LOW_32_BITS;
+
+        long q1 = Long.divideUnsigned(numeratorHigh, divisorHigh);
+        long estimate = numeratorHigh - q1 * divisorHigh;
+        while (q1 >= BASE_32 || Long.compareUnsigned(q1 * divisorLow, (estimate << 32) | digit1) > 0) {
+            q1--;
+            estimate += divisorHigh;
+            if (estimate >= BASE_32) {
+                break;
+            }
+        }
+
+        long partial = (numeratorHigh << 32) + digit1 - q1 * divisor;
+        long q0 = Long.divideUnsigned(partial, divisorHigh);
+        estimate = partial - q0 * divisorHigh;
+        while (q0 >= BASE_32 || Long.compareUnsigned(q0 * divisorLow, (estimate << 32) | digit0) > 0) {
+            q0--;
+            estimate += divisorHigh;
+            if (estimate >= BASE_32) {
+                break;
+            }
+        }
+        return (q1 << 32) | q0;
+    }
+
+    private static long divideRounded(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder != 0 && Math.abs(remainder) >= Math.abs(divisor) - Math.abs(remainder)) {
+            quotient += (dividend < 0) == (divisor < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+}
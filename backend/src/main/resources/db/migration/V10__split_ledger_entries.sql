@@ -0,0 +1,12 @@
+-- SPLIT ledger entries move shares without a trade: they carry no price, and a reverse split's quantity is
+-- negative. Every other entry still needs a positive quantity and price; existing rows are not revalidated.
+ALTER TABLE transactions ALTER COLUMN price_per_share DROP NOT NULL;
+
+UPDATE transactions SET price_per_share = NULL WHERE transaction_type = 'SPLIT';
+
+ALTER TABLE transactions DROP CONSTRAINT IF EXISTS chk_transactions_amounts;
+ALTER TABLE transactions ADD CONSTRAINT chk_transactions_amounts CHECK (
+    CASE WHEN transaction_type = 'SPLIT'
+        THEN price_per_share IS NULL AND quantity <> 0
+        ELSE price_per_share > 0 AND quantity > 0
+    END) NOT VALID;
@@ -0,0 +1,59 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update) before the ledger, keyset paging and
+-- migrations existed. Every statement is guarded so databases created that way are baselined without
+-- changes; later additions live in their own migrations.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS portfolios (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    portfolio_name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    initial_investment NUMERIC(19, 2) NOT NULL,
+    current_value NUMERIC(19, 2),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    user_id BIGINT NOT NULL REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS stocks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    symbol VARCHAR(255) NOT NULL UNIQUE,
+    company_name VARCHAR(255) NOT NULL,
+    sector VARCHAR(255),
+    industry VARCHAR(255),
+    current_price NUMERIC(19, 2) NOT NULL,
+    market_cap NUMERIC(19, 2),
+    last_updated TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS assets (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ticker_symbol VARCHAR(255) NOT NULL,
+    quantity NUMERIC(19, 8) NOT NULL,
+    average_price NUMERIC(19, 2) NOT NULL,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    portfolio_id BIGINT NOT NULL REFERENCES portfolios (id)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    transaction_type VARCHAR(255) CHECK (transaction_type IN ('BUY', 'SELL', 'DIVIDEND', 'SPLIT', 'MERGE')),
+    quantity NUMERIC(19, 8) NOT NULL,
+    price_per_share NUMERIC(19, 2) NOT NULL,
+    total_amount NUMERIC(19, 2) NOT NULL,
+    fees NUMERIC(19, 2),
+    transaction_date TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    portfolio_id BIGINT NOT NULL REFERENCES portfolios (id),
+    stock_id BIGINT NOT NULL REFERENCES stocks (id)
+);
@@ -0,0 +1,6 @@
+-- History filtered by type (e.g. the sells endpoint): per portfolio, newest first, keyset on (transaction_date, id)
+CREATE INDEX IF NOT EXISTS idx_transactions_portfolio_type_date
+    ON transactions (portfolio_id, transaction_type, transaction_date, id);
+
+-- User-scoped history reaches transactions through the user's portfolios
+CREATE INDEX IF NOT EXISTS idx_portfolios_user_id ON portfolios (user_id);
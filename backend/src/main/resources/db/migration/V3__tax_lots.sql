@@ -0,0 +1,38 @@
+CREATE TABLE tax_lots (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ticker_symbol VARCHAR(255) NOT NULL,
+    original_quantity NUMERIC(19, 8) NOT NULL,
+    remaining_quantity NUMERIC(19, 8) NOT NULL,
+    cost_per_share NUMERIC(19, 8) NOT NULL,
+    acquired_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6),
+    portfolio_id BIGINT NOT NULL REFERENCES portfolios (id)
+);
+
+CREATE TABLE lot_disposals (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ticker_symbol VARCHAR(255) NOT NULL,
+    quantity NUMERIC(19, 8) NOT NULL,
+    proceeds NUMERIC(19, 2) NOT NULL,
+    cost_basis NUMERIC(19, 2) NOT NULL,
+    realized_gain NUMERIC(19, 2) NOT NULL,
+    long_term BOOLEAN NOT NULL,
+    acquired_at TIMESTAMP(6) NOT NULL,
+    disposed_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6),
+    lot_id BIGINT NOT NULL REFERENCES tax_lots (id),
+    portfolio_id BIGINT NOT NULL REFERENCES portfolios (id)
+);
+
+-- Sells only ever read the open lots of one position
+CREATE INDEX idx_tax_lots_open ON tax_lots (portfolio_id, ticker_symbol, acquired_at, id) WHERE remaining_quantity > 0;
+
+-- Yearly gains aggregate per portfolio over disposal time
+CREATE INDEX idx_lot_disposals_portfolio_disposed ON lot_disposals (portfolio_id, disposed_at);
+
+CREATE INDEX idx_lot_disposals_lot_id ON lot_disposals (lot_id);
+
+-- Existing holdings open as one lot each at their average price
+INSERT INTO tax_lots (ticker_symbol, original_quantity, remaining_quantity, cost_per_share, acquired_at, created_at, portfolio_id)
+SELECT ticker_symbol, quantity, quantity, average_price, COALESCE(created_at, now()), now(), portfolio_id
+FROM assets;
@@ -0,0 +1,3 @@
+-- Optimistic locking for holdings and portfolios
+ALTER TABLE assets ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE portfolios ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
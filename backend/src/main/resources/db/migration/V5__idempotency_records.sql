@@ -0,0 +1,12 @@
+-- Responses recorded for Idempotency-Key retries of mutating portfolio requests
+CREATE TABLE IF NOT EXISTS idempotency_records (
+    scope_key VARCHAR(320) PRIMARY KEY,
+    request_fingerprint VARCHAR(64) NOT NULL,
+    status_code INTEGER NOT NULL,
+    content_type VARCHAR(255),
+    response_body BYTEA,
+    created_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_records_expires_at ON idempotency_records (expires_at);
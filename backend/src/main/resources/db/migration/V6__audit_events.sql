@@ -0,0 +1,17 @@
+-- Compliance audit trail of trades, asset changes and sign-ins; no foreign keys so entries outlive what they describe
+CREATE TABLE IF NOT EXISTS audit_events (
+    id BIGSERIAL PRIMARY KEY,
+    action VARCHAR(32) NOT NULL,
+    occurred_at TIMESTAMP(6) NOT NULL,
+    recorded_at TIMESTAMP(6) NOT NULL DEFAULT now(),
+    user_id BIGINT,
+    username VARCHAR(255),
+    portfolio_id BIGINT,
+    ticker_symbol VARCHAR(255),
+    quantity NUMERIC(19, 8),
+    price NUMERIC(19, 8),
+    details TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_events_user_occurred ON audit_events (user_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_audit_events_portfolio_occurred ON audit_events (portfolio_id, occurred_at);
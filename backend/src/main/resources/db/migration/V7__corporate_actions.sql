@@ -0,0 +1,16 @@
+-- Splits and cash dividends seen in the adjusted daily series, one row per symbol, type and ex-date.
+-- applied_at is set once a split has been carried into assets, tax lots and the ledger.
+CREATE TABLE IF NOT EXISTS corporate_actions (
+    id BIGSERIAL PRIMARY KEY,
+    symbol VARCHAR(255) NOT NULL,
+    action_type VARCHAR(16) NOT NULL CHECK (action_type IN ('SPLIT', 'DIVIDEND')),
+    ex_date DATE NOT NULL,
+    ratio NUMERIC(19, 8),
+    amount NUMERIC(19, 8),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT now(),
+    applied_at TIMESTAMP(6),
+    CONSTRAINT uk_corporate_actions_symbol_type_date UNIQUE (symbol, action_type, ex_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_corporate_actions_pending_splits ON corporate_actions (ex_date)
+    WHERE action_type = 'SPLIT' AND applied_at IS NULL;
@@ -0,0 +1,20 @@
+-- Ledger additions that predate the migrations: databases created by ddl-auto=update before them
+-- have none of these, while databases updated afterwards have all of them
+
+-- Realized P&L stored on sells
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS realized_pnl NUMERIC(19, 2);
+
+-- Positions folded from the ledger up to a transaction id
+CREATE TABLE IF NOT EXISTS position_snapshots (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ticker_symbol VARCHAR(255) NOT NULL,
+    quantity NUMERIC(19, 8) NOT NULL,
+    average_cost NUMERIC(19, 8) NOT NULL,
+    realized_pnl NUMERIC(19, 8) NOT NULL,
+    last_transaction_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6),
+    portfolio_id BIGINT NOT NULL REFERENCES portfolios (id)
+);
+
+-- Keyset paging of history on (transaction_date, id) per portfolio
+CREATE INDEX IF NOT EXISTS idx_transactions_portfolio_date_id ON transactions (portfolio_id, transaction_date, id);
@@ -0,0 +1,117 @@
+package com.portfolio.tracker.benchmark;
+
+import com.portfolio.tracker.util.FixedPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Portfolio totals and per-asset gain/loss for 50 positions, computed the way
+ * the responses used to with BigDecimal and with the FixedPoint kernel. Run
+ * with the benchmark profile, which adds -prof gc for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FixedPointValuationBenchmark {
+
+    private static final int POSITIONS = 50;
+
+    private BigDecimal[] quantities;
+    private BigDecimal[] averagePrices;
+    private BigDecimal[] marketPrices;
+    private long[] quantityUnits;
+    private long[] averagePriceUnits;
+    private long[] marketPriceUnits;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        quantities = new BigDecimal[POSITIONS];
+        averagePrices = new BigDecimal[POSITIONS];
+        marketPrices = new BigDecimal[POSITIONS];
+        quantityUnits = new long[POSITIONS];
+        averagePriceUnits = new long[POSITIONS];
+        marketPriceUnits = new long[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            quantities[i] = BigDecimal.valueOf(random.nextLong(1, 500_000_000_000L), 8);
+            averagePrices[i] = BigDecimal.valueOf(random.nextLong(1_000, 500_000), 2);
+            marketPrices[i] = BigDecimal.valueOf(random.nextLong(1_000, 500_000), 2);
+            quantityUnits[i] = FixedPoint.of(quantities[i]);
+            averagePriceUnits[i] = FixedPoint.of(averagePrices[i]);
+            marketPriceUnits[i] = FixedPoint.of(marketPrices[i]);
+        }
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+        BigDecimal hundred = BigDecimal.valueOf(100);
+        BigDecimal totalValue = BigDecimal.ZERO;
+        BigDecimal totalCost = BigDecimal.ZERO;
+        for (int i = 0; i < POSITIONS; i++) {
+            BigDecimal value = quantities[i].multiply(marketPrices[i]);
+            BigDecimal cost = quantities[i].multiply(averagePrices[i]);
+            BigDecimal gainLoss = value.subtract(cost);
+            blackhole.consume(gainLoss.divide(cost, 4, RoundingMode.HALF_UP).multiply(hundred));
+            totalValue = totalValue.add(value);
+            totalCost = totalCost.add(cost);
+        }
+        BigDecimal totalGainLoss = totalValue.subtract(totalCost);
+        blackhole.consume(totalGainLoss.divide(totalCost, 4, RoundingMode.HALF_UP).multiply(hundred));
+    }
+
+    /**
+     * Kernel only, as in the valuation index where holdings are stored as units
+     */
+    @Benchmark
+    public void fixedPoint(Blackhole blackhole) {
+        long totalValue = FixedPoint.ZERO;
+        long totalCost = FixedPoint.ZERO;
+        for (int i = 0; i < POSITIONS; i++) {
+            long value = FixedPoint.multiply(quantityUnits[i], marketPriceUnits[i]);
+            long cost = FixedPoint.multiply(quantityUnits[i], averagePriceUnits[i]);
+            long gainLoss = FixedPoint.subtract(value, cost);
+            blackhole.consume(FixedPoint.percentage(gainLoss, cost));
+            totalValue = FixedPoint.add(totalValue, value);
+            totalCost = FixedPoint.add(totalCost, cost);
+        }
+        blackhole.consume(FixedPoint.percentage(FixedPoint.subtract(totalValue, totalCost), totalCost));
+    }
+
+    /**
+     * Kernel plus conversion at both boundaries, as in the portfolio responses
+     */
+    @Benchmark
+    public void fixedPointWithConversion(Blackhole blackhole) {
+        long totalValue = FixedPoint.ZERO;
+        long totalCost = FixedPoint.ZERO;
+        for (int i = 0; i < POSITIONS; i++) {
+            long quantity = FixedPoint.of(quantities[i]);
+            long value = FixedPoint.multiply(quantity, FixedPoint.of(marketPrices[i]));
+            long cost = FixedPoint.multiply(quantity, FixedPoint.of(averagePrices[i]));
+            long gainLoss = FixedPoint.subtract(value, cost);
+            blackhole.consume(FixedPoint.toBigDecimal(FixedPoint.percentage(gainLoss, cost), 4));
+            totalValue = FixedPoint.add(totalValue, value);
+            totalCost = FixedPoint.add(totalCost, cost);
+        }
+        long totalGainLoss = FixedPoint.subtract(totalValue, totalCost);
+        blackhole.consume(FixedPoint.toBigDecimal(totalValue));
+        blackhole.consume(FixedPoint.toBigDecimal(FixedPoint.percentage(totalGainLoss, totalCost), 4));
+    }
+}
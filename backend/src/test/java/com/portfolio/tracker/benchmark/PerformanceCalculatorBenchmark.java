@@ -0,0 +1,97 @@
+package com.portfolio.tracker.benchmark;
+
+import com.portfolio.tracker.service.DailySeries;
+import com.portfolio.tracker.service.PerformanceCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Daily performance series for a 50-holding portfolio over five years with a
+ * few hundred trades
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PerformanceCalculatorBenchmark {
+
+    private static final int HOLDINGS = 50;
+    private static final int YEARS = 5;
+    private static final int TRADES = 500;
+
+    private int fromDay;
+    private int toDay;
+    private DailySeries[] series;
+    private double[] startQuantities;
+    private int[] tradeDays;
+    private int[] tradeHoldings;
+    private double[] tradeQuantities;
+    private double[] tradeCashFlows;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate to = LocalDate.of(2025, 12, 31);
+        LocalDate from = to.minusYears(YEARS);
+        fromDay = (int) from.toEpochDay();
+        toDay = (int) to.toEpochDay();
+
+        int[] weekdays = new int[toDay - fromDay + 1];
+        int size = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                weekdays[size++] = (int) date.toEpochDay();
+            }
+        }
+        int[] days = Arrays.copyOf(weekdays, size);
+
+        series = new DailySeries[HOLDINGS];
+        startQuantities = new double[HOLDINGS];
+        for (int h = 0; h < HOLDINGS; h++) {
+            double[] closes = new double[size];
+            double close = 20 + random.nextDouble() * 400;
+            for (int i = 0; i < size; i++) {
+                close *= 1 + (random.nextDouble() - 0.5) * 0.04;
+                closes[i] = close;
+            }
+            series[h] = new DailySeries("SYM" + h, days, closes);
+            startQuantities[h] = 10 + random.nextInt(200);
+        }
+
+        tradeDays = new int[TRADES];
+        tradeHoldings = new int[TRADES];
+        tradeQuantities = new double[TRADES];
+        tradeCashFlows = new double[TRADES];
+        for (int i = 0; i < TRADES; i++) {
+            tradeDays[i] = days[random.nextInt(size)];
+        }
+        Arrays.sort(tradeDays);
+        for (int i = 0; i < TRADES; i++) {
+            tradeHoldings[i] = random.nextInt(HOLDINGS);
+            tradeQuantities[i] = random.nextBoolean() ? 5 : -5;
+            tradeCashFlows[i] = tradeQuantities[i] * 100;
+        }
+    }
+
+    @Benchmark
+    public PerformanceCalculator.Result fiftyHoldingsFiveYears() {
+        return PerformanceCalculator.compute(fromDay, toDay, series, startQuantities,
+                tradeDays, tradeHoldings, tradeQuantities, tradeCashFlows);
+    }
+}
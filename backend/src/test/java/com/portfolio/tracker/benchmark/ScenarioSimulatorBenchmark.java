@@ -0,0 +1,104 @@
+package com.portfolio.tracker.benchmark;
+
+import com.portfolio.tracker.service.ScenarioSimulator;
+import com.portfolio.tracker.util.FixedPoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1,000 what-if scenarios against a 50-holding portfolio, one after another
+ * and on a fork-join pool. A quarter of the scenarios also rebalance to a
+ * target sector allocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScenarioSimulatorBenchmark {
+
+    private static final int HOLDINGS = 50;
+    private static final int CANDIDATES = 10;
+    private static final int SECTORS = 10;
+    private static final int SCENARIOS = 1000;
+
+    private ScenarioSimulator.Book book;
+    private List<ScenarioSimulator.Scenario> scenarios;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        int size = HOLDINGS + CANDIDATES;
+        String[] symbols = new String[size];
+        int[] sectors = new int[size];
+        long[] prices = new long[size];
+        long[] quantities = new long[size];
+        for (int i = 0; i < size; i++) {
+            symbols[i] = "SYM" + i;
+            sectors[i] = i % SECTORS;
+            prices[i] = FixedPoint.units(20 + random.nextInt(400));
+            quantities[i] = i < HOLDINGS ? FixedPoint.units(10 + random.nextInt(200)) : FixedPoint.ZERO;
+        }
+        String[] sectorNames = new String[SECTORS];
+        for (int s = 0; s < SECTORS; s++) {
+            sectorNames[s] = "Sector" + s;
+        }
+        book = new ScenarioSimulator.Book(symbols, sectors, sectorNames, prices, quantities);
+
+        scenarios = new ArrayList<>(SCENARIOS);
+        for (int n = 0; n < SCENARIOS; n++) {
+            // Sell part of one holding and spread the proceeds over a few buys
+            ScenarioSimulator.Trade[] trades = new ScenarioSimulator.Trade[1 + random.nextInt(4)];
+            trades[0] = new ScenarioSimulator.Trade(random.nextInt(HOLDINGS), -FixedPoint.units(5), FixedPoint.ZERO);
+            for (int t = 1; t < trades.length; t++) {
+                trades[t] = new ScenarioSimulator.Trade(random.nextInt(size), FixedPoint.units(1 + random.nextInt(20)),
+                        FixedPoint.ZERO);
+            }
+            long[] targets = null;
+            if (n % 4 == 0) {
+                targets = new long[SECTORS];
+                for (int s = 0; s < SECTORS; s++) {
+                    targets[s] = FixedPoint.units(100 / SECTORS);
+                }
+            }
+            scenarios.add(new ScenarioSimulator.Scenario("Scenario " + n, trades, targets));
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    public List<ScenarioSimulator.Outcome> sequential() {
+        List<ScenarioSimulator.Outcome> outcomes = new ArrayList<>(SCENARIOS);
+        for (ScenarioSimulator.Scenario scenario : scenarios) {
+            outcomes.add(ScenarioSimulator.evaluate(book, scenario));
+        }
+        return outcomes;
+    }
+
+    @Benchmark
+    public List<ScenarioSimulator.Outcome> forkJoin() {
+        return ScenarioSimulator.evaluateAll(book, scenarios, pool);
+    }
+}
@@ -0,0 +1,223 @@
+package com.portfolio.tracker.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.tracker.entity.IdempotencyRecord;
+import com.portfolio.tracker.repository.IdempotencyRecordRepository;
+import com.portfolio.tracker.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replay, key reuse and concurrent duplicates through the filter and the
+ * response store, with the idempotency_records table mocked out
+ */
+class IdempotencyFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdempotencyRecordRepository recordRepository = mock(IdempotencyRecordRepository.class);
+    private final IdempotencyFilter filter = newFilter(recordRepository);
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private String username;
+
+    @BeforeEach
+    void authenticate() {
+        username = "idem-" + UUID.randomUUID().toString().substring(0, 8);
+        authenticate(username);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void retryReplaysTheRecordedResponseWithoutExecuting() throws Exception {
+        MockHttpServletResponse first = send(jsonRequest("key-1", "{\"quantity\":5}"), created());
+        MockHttpServletResponse retry = send(jsonRequest("key-1", "{\"quantity\":5}"), created());
+
+        assertEquals(1, executions.get());
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(201, retry.getStatus());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+    }
+
+    @Test
+    void responseStoredByAnotherInstanceIsReplayed() throws Exception {
+        MockHttpServletResponse first = send(jsonRequest("key-5", "{\"quantity\":5}"), created());
+
+        ArgumentCaptor<String> scopeKey = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(recordRepository, times(1)).insertIfAbsent(scopeKey.capture(), fingerprint.capture(), eq(201),
+                anyString(), body.capture(), any(), any());
+
+        // A second instance has nothing in memory and finds the row instead
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setScopeKey(scopeKey.getValue());
+        record.setRequestFingerprint(fingerprint.getValue());
+        record.setStatusCode(201);
+        record.setContentType("application/json");
+        record.setResponseBody(body.getValue());
+        record.setCreatedAt(LocalDateTime.now());
+        record.setExpiresAt(LocalDateTime.now().plusHours(1));
+        IdempotencyRecordRepository sharedTable = mock(IdempotencyRecordRepository.class);
+        when(sharedTable.findLive(eq(scopeKey.getValue()), any())).thenReturn(Optional.of(record));
+
+        MockHttpServletResponse retry = new MockHttpServletResponse();
+        newFilter(sharedTable).doFilter(jsonRequest("key-5", "{\"quantity\":5}"), retry, created());
+
+        assertEquals(1, executions.get());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        verify(sharedTable, times(0)).insertIfAbsent(anyString(), anyString(), anyInt(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void keyReusedForADifferentBodyIsRejected() throws Exception {
+        send(jsonRequest("key-2", "{\"quantity\":5}"), created());
+        MockHttpServletResponse reused = send(jsonRequest("key-2", "{\"quantity\":6}"), created());
+
+        assertEquals(1, executions.get());
+        assertEquals(422, reused.getStatus());
+        JsonNode body = objectMapper.readTree(reused.getContentAsByteArray());
+        assertEquals("Idempotency Key Error", body.get("error").asText());
+        assertTrue(body.get("message").asText().contains("different request"));
+    }
+
+    @Test
+    void keyReusedForADifferentUploadIsRejected() throws Exception {
+        send(multipartRequest("key-3", "symbol,type\nAAPL,BUY\n"), created());
+        MockHttpServletResponse sameFile = send(multipartRequest("key-3", "symbol,type\nAAPL,BUY\n"), created());
+        MockHttpServletResponse otherFile = send(multipartRequest("key-3", "symbol,type\nMSFT,BUY\n"), created());
+
+        assertEquals(1, executions.get());
+        assertEquals("true", sameFile.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(422, otherFile.getStatus());
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstExecution() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            executions.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) response).setStatus(201);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":1}");
+        };
+
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> first = clients.submit(() -> {
+                authenticate(username);
+                return send(jsonRequest("key-4", "{}"), slow);
+            });
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            Future<MockHttpServletResponse> duplicate = clients.submit(() -> {
+                authenticate(username);
+                return send(jsonRequest("key-4", "{}"), slow);
+            });
+            // The duplicate must be parked on the in-flight execution, not running it
+            Thread.sleep(200);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            MockHttpServletResponse waited = duplicate.get(10, TimeUnit.SECONDS);
+            assertEquals(201, first.get(10, TimeUnit.SECONDS).getStatus());
+            assertEquals(1, executions.get());
+            assertEquals(201, waited.getStatus());
+            assertEquals("true", waited.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+            assertEquals("{\"id\":1}", waited.getContentAsString());
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+    }
+
+    private IdempotencyFilter newFilter(IdempotencyRecordRepository repository) {
+        return new IdempotencyFilter(new IdempotencyService(repository, 60, 100), objectMapper, 10_000);
+    }
+
+    private FilterChain created() {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(201);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":" + execution + "}");
+        };
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest jsonRequest(String key, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/portfolios/1/assets");
+        request.setServletPath("/portfolios/1/assets");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletRequest multipartRequest(String key, String csv) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/portfolios/1/import");
+        request.setServletPath("/portfolios/1/import");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setContentType("multipart/form-data; boundary=test");
+        MockPart file = new MockPart("file", "trades.csv", csv.getBytes(StandardCharsets.UTF_8));
+        request.addPart(file);
+        return request;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,73 @@
+package com.portfolio.tracker.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Read-only transactions reach the replica, writes and a user's reads right
+ * after their own write reach the primary. Needs two PostgreSQL instances
+ * with the schema migrated, the second given as REPLICA_DATASOURCE_URL.
+ */
+@SpringBootTest(properties = {
+    "portfolio.datasource.replica.sticky-window-ms=1500",
+    "portfolio.datasource.replica.lag-check-interval-ms=200"
+})
+@EnabledIfEnvironmentVariable(named = "REPLICA_DATASOURCE_URL", matches = ".+")
+class ReplicaRoutingDataSourceTest {
+
+    private static final String SERVER = "SELECT inet_server_addr()::text || ':' || inet_server_port()";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readsFollowReplicaUnlessTheUserJustWrote() throws Exception {
+        for (int i = 0; i < 50 && !routingDataSource.isReplicaAvailable(); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(routingDataSource.isReplicaAvailable());
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        TransactionTemplate writes = new TransactionTemplate(transactionManager);
+
+        String primary = writes.execute(status -> jdbc.queryForObject(SERVER, String.class));
+        String replica = reads.execute(status -> jdbc.queryForObject(SERVER, String.class));
+        assertNotEquals(primary, replica);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("replica-routing-test", null, List.of()));
+        writes.execute(status -> jdbc.queryForObject("SELECT 1", Integer.class));
+        assertEquals(primary, reads.execute(status -> jdbc.queryForObject(SERVER, String.class)));
+
+        Thread.sleep(1700);
+        assertEquals(replica, reads.execute(status -> jdbc.queryForObject(SERVER, String.class)));
+    }
+}
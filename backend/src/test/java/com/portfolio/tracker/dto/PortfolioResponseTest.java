@@ -0,0 +1,57 @@
+package com.portfolio.tracker.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PortfolioResponseTest {
+
+    @Test
+    void positionsBeyondTheFixedPointRangeAreValuedExactly() {
+        // 10^9 shares at 10^9 is far past the ~9.2e10 fixed-point limit
+        AssetResponse large = asset("BRK.A", "1000000000", "1000000000.00", "1100000000.00");
+        AssetResponse small = asset("AAPL", "10", "100.00", "150.00");
+
+        PortfolioResponse portfolio = new PortfolioResponse(1L, "Main", 1L, LocalDateTime.now(), List.of(large, small));
+
+        assertEquals(0, new BigDecimal("1100000000000000000").compareTo(large.getCurrentMarketValue()));
+        assertEquals(0, new BigDecimal("10").compareTo(large.getGainLossPercentage()));
+        assertEquals(0, new BigDecimal("1100000000000001500").compareTo(portfolio.getTotalValue()));
+        assertEquals(0, new BigDecimal("1000000000000001000").compareTo(portfolio.getTotalCost()));
+        assertEquals(0, new BigDecimal("100000000000000500").compareTo(portfolio.getTotalGainLoss()));
+    }
+
+    @Test
+    void convertedPositionsBeyondTheRangeSumInTheBaseCurrency() {
+        AssetResponse large = asset("VOD.L", "1000000000", "500.00", "600.00");
+        large.applyFxRate("USD", 0.5);
+        AssetResponse small = asset("AAPL", "10", "100.00", "150.00");
+        small.applyFxRate("USD", 1.0);
+
+        PortfolioResponse portfolio = new PortfolioResponse(1L, "Main", 1L, "USD", LocalDateTime.now(),
+                List.of(large, small));
+
+        assertEquals(0, new BigDecimal("300000001500").compareTo(portfolio.getTotalValue()));
+        assertEquals(0, new BigDecimal("250000001000").compareTo(portfolio.getTotalCost()));
+        assertEquals(0, new BigDecimal("20").compareTo(portfolio.getTotalGainLossPercentage()));
+    }
+
+    @Test
+    void ordinaryPortfoliosKeepTheFixedPointTotals() {
+        AssetResponse asset = asset("AAPL", "3", "100.00", "133.33");
+
+        PortfolioResponse portfolio = new PortfolioResponse(1L, "Main", 1L, LocalDateTime.now(), List.of(asset));
+
+        assertEquals(new BigDecimal("399.99000000"), portfolio.getTotalValue());
+        assertEquals(new BigDecimal("33.3300"), portfolio.getTotalGainLossPercentage());
+    }
+
+    private static AssetResponse asset(String symbol, String quantity, String averagePrice, String marketPrice) {
+        return new AssetResponse(null, symbol, new BigDecimal(quantity), new BigDecimal(averagePrice),
+                new BigDecimal(marketPrice), null, null);
+    }
+}
@@ -0,0 +1,94 @@
+package com.portfolio.tracker.repository;
+
+import com.portfolio.tracker.entity.Stock;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Repeated stock metadata lookups are served from the second-level cache.
+ * Needs the PostgreSQL database the application is configured for.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "DB_HOST", matches = ".+")
+class StockRepositoryCacheTest {
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repeatedLookupsDoNotReachTheDatabase() {
+        String symbol = "C" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String sector = "Sector " + symbol;
+        Stock stock = new Stock();
+        stock.setSymbol(symbol);
+        stock.setCompanyName(symbol + " Inc.");
+        stock.setSector(sector);
+        stock.setCurrentPrice(new BigDecimal("10.00"));
+        stockRepository.save(stock);
+
+        // Warm the query cache; the entity and natural id were cached on insert
+        assertEquals(1, stockRepository.findBySectorIgnoreCase(sector).size());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 3; i++) {
+            assertTrue(stockRepository.findBySymbol(symbol).isPresent());
+            assertEquals(1, stockRepository.findBySymbolIn(List.of(symbol)).size());
+            assertEquals(1, stockRepository.findBySectorIgnoreCase(sector).size());
+        }
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void coldSymbolsAreLoadedWithOneQueryAndCachedForTheNextLookup() {
+        String suffix = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Stock stock = new Stock();
+            stock.setSymbol("B" + i + suffix);
+            stock.setCompanyName(stock.getSymbol() + " Inc.");
+            stock.setCurrentPrice(new BigDecimal("10.00"));
+            symbols.add(stockRepository.save(stock).getSymbol());
+        }
+        List<String> requested = new ArrayList<>(symbols);
+        requested.add("NONE" + suffix);
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictNaturalIdData(Stock.class);
+        sessionFactory.getCache().evictEntityData(Stock.class);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        // Read-write transactions so the lookups read the primary the rows were written to
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        statistics.clear();
+        assertEquals(Integer.valueOf(3), transaction.execute(status -> stockRepository.findBySymbolIn(requested).size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        assertEquals(Integer.valueOf(3), transaction.execute(status -> stockRepository.findBySymbolIn(symbols).size()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.portfolio.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BenchmarkComparisonTest {
+
+    @Test
+    void leveragedPortfolioHasBetaOfTheLeverage() {
+        int n = 260;
+        Random random = new Random(9);
+        int[] days = new int[n];
+        double[] closes = new double[n];
+        double[] cumulative = new double[n];
+        double close = 100.0;
+        double growth = 1.0;
+        double[] differences = new double[n - 1];
+        for (int i = 0; i < n; i++) {
+            days[i] = 20_000 + i;
+            if (i > 0) {
+                double r = random.nextGaussian() * 0.01;
+                close *= 1 + r;
+                growth *= 1 + 2 * r;
+                differences[i - 1] = r;
+            }
+            closes[i] = close;
+            cumulative[i] = growth - 1.0;
+        }
+
+        BenchmarkComparison.Result result = BenchmarkComparison.compare(days, cumulative, days, closes);
+
+        assertEquals(n - 1, result.observations());
+        assertEquals(2.0, result.beta(), 1e-9);
+        assertEquals(0.0, result.alpha(), 1e-9);
+        assertEquals(1.0, result.correlation(), 1e-9);
+        // The return difference is the benchmark's own return
+        double mean = 0.0;
+        for (double d : differences) {
+            mean += d / differences.length;
+        }
+        double variance = 0.0;
+        for (double d : differences) {
+            variance += (d - mean) * (d - mean) / (differences.length - 1);
+        }
+        assertEquals(Math.sqrt(variance * 252), result.trackingError(), 1e-9);
+        assertEquals(closes[n - 1] / closes[0] - 1.0, result.benchmarkReturn(), 1e-12);
+    }
+
+    @Test
+    void benchmarkClosesCarryForwardOntoPortfolioDays() {
+        int[] days = {100, 101, 102, 103, 104};
+        double[] cumulative = {0.0, 0.01, 0.02, 0.03, 0.04};
+        // Opening close before the window, nothing on day 102 or 103
+        int[] benchmarkDays = {97, 101, 104};
+        double[] benchmarkCloses = {50.0, 55.0, 60.0};
+
+        BenchmarkComparison.Result result = BenchmarkComparison.compare(days, cumulative, benchmarkDays,
+                benchmarkCloses);
+
+        assertEquals(0.0, result.benchmarkReturns()[0], 1e-12);
+        assertEquals(0.1, result.benchmarkReturns()[1], 1e-12);
+        assertEquals(0.1, result.benchmarkReturns()[3], 1e-12);
+        assertEquals(0.2, result.benchmarkReturns()[4], 1e-12);
+        assertEquals(4, result.observations());
+    }
+
+    @Test
+    void daysBeforeTheBenchmarkExistsAreLeftOut() {
+        int[] days = {100, 101, 102, 103};
+        double[] cumulative = {0.0, 0.5, 0.65, 0.815};
+
+        BenchmarkComparison.Result result = BenchmarkComparison.compare(days, cumulative, new int[]{101, 102, 103},
+                new double[]{10.0, 11.0, 12.1});
+
+        assertTrue(Double.isNaN(result.benchmarkReturns()[0]));
+        assertEquals(2, result.observations());
+        assertEquals(0.21, result.portfolioReturn(), 1e-12);
+        assertEquals(0.21, result.benchmarkReturn(), 1e-12);
+    }
+}
@@ -0,0 +1,113 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetRequest;
+import com.portfolio.tracker.dto.PortfolioRequest;
+import com.portfolio.tracker.entity.Transaction;
+import com.portfolio.tracker.entity.TransactionType;
+import com.portfolio.tracker.entity.User;
+import com.portfolio.tracker.exception.ResourceNotFoundException;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.TaxLotRepository;
+import com.portfolio.tracker.repository.TransactionRepository;
+import com.portfolio.tracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many clients selling the same position at once must never sell more than
+ * is held. Needs the PostgreSQL database the application is configured for.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "DB_HOST", matches = ".+")
+class ConcurrentSellStressTest {
+
+    private static final int CLIENTS = 32;
+    private static final BigDecimal HELD = new BigDecimal("100");
+    private static final BigDecimal PER_SALE = new BigDecimal("5");
+
+    @Autowired
+    private PortfolioManagementService portfolioService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TaxLotRepository taxLotRepository;
+
+    @Test
+    void concurrentSellsOfOnePositionNeverOversell() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername("stress-" + suffix);
+        user.setEmail("stress-" + suffix + "@example.com");
+        user.setPassword("not-a-real-password");
+        user = userRepository.save(user);
+        Long userId = user.getId();
+        Long portfolioId = portfolioService.createPortfolio(new PortfolioRequest("Stress " + suffix, userId)).getId();
+        portfolioService.addAsset(portfolioId, userId, new AssetRequest("STRS", HELD, new BigDecimal("50")));
+
+        try {
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> sales = new ArrayList<>();
+            for (int i = 0; i < CLIENTS; i++) {
+                sales.add(clients.submit(() -> {
+                    start.await();
+                    try {
+                        portfolioService.sellAsset(portfolioId, userId, "STRS", PER_SALE, new BigDecimal("60"), null, null);
+                        return true;
+                    } catch (IllegalArgumentException | ResourceNotFoundException e) {
+                        // Lost the race for the last shares
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int filled = 0;
+            for (Future<Boolean> sale : sales) {
+                try {
+                    if (sale.get()) {
+                        filled++;
+                    }
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Sale failed with an unexpected error", e.getCause());
+                }
+            }
+            clients.shutdown();
+
+            assertEquals(HELD.divide(PER_SALE).intValue(), filled);
+            assertTrue(assetRepository.findByPortfolioIdAndTickerSymbol(portfolioId, "STRS").isEmpty());
+            BigDecimal sold = transactionRepository.findByPortfolioId(portfolioId).stream()
+                    .filter(transaction -> transaction.getTransactionType() == TransactionType.SELL)
+                    .map(Transaction::getQuantity)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(0, HELD.compareTo(sold));
+            assertTrue(taxLotRepository.findOpenLots(portfolioId, "STRS").isEmpty());
+        } finally {
+            portfolioService.deletePortfolio(portfolioId, userId);
+            userRepository.deleteById(userId);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetRequest;
+import com.portfolio.tracker.dto.PortfolioRequest;
+import com.portfolio.tracker.entity.Asset;
+import com.portfolio.tracker.entity.TaxLot;
+import com.portfolio.tracker.entity.Transaction;
+import com.portfolio.tracker.entity.TransactionType;
+import com.portfolio.tracker.entity.User;
+import com.portfolio.tracker.external.AlphaVantageService;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.CorporateActionRepository;
+import com.portfolio.tracker.repository.TaxLotRepository;
+import com.portfolio.tracker.repository.TransactionRepository;
+import com.portfolio.tracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * A recorded split restates holdings, lots and the ledger together. Needs the
+ * PostgreSQL database the application is configured for.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "DB_HOST", matches = ".+")
+class CorporateActionSplitTest {
+
+    @Autowired
+    private CorporateActionService corporateActionService;
+
+    @Autowired
+    private PortfolioManagementService portfolioService;
+
+    @Autowired
+    private PositionEngine positionEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private TaxLotRepository taxLotRepository;
+
+    @Autowired
+    private CorporateActionRepository corporateActionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void twoForOneSplitDoublesSharesAndHalvesCost() {
+        String suffix = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        String symbol = "SP" + suffix;
+        User user = new User();
+        user.setUsername("split-" + suffix);
+        user.setEmail("split-" + suffix + "@example.com");
+        user.setPassword("not-a-real-password");
+        user = userRepository.save(user);
+        Long userId = user.getId();
+        Long portfolioId = portfolioService.createPortfolio(new PortfolioRequest("Split " + suffix, userId)).getId();
+        portfolioService.addAsset(portfolioId, userId, new AssetRequest(symbol, new BigDecimal("10"), new BigDecimal("100")));
+
+        // Ex-date after the buy, so the lot predates the split
+        LocalDate exDate = LocalDate.now().plusDays(1);
+        AlphaVantageService.HistoricalPrice splitDay = new AlphaVantageService.HistoricalPrice(BigDecimal.ONE,
+                BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE, 0L, BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ZERO,
+                new BigDecimal("2"));
+        try {
+            assertEquals(1, corporateActionService.record(symbol, Map.of(exDate, splitDay)));
+            assertEquals(0, corporateActionService.record(symbol, Map.of(exDate, splitDay)));
+            assertEquals(1, corporateActionService.applyPendingSplits());
+            assertEquals(0, corporateActionService.applyPendingSplits());
+
+            // Read-write so the checks see the primary
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Asset asset = assetRepository.findByPortfolioIdAndTickerSymbol(portfolioId, symbol).orElseThrow();
+                assertEquals(0, new BigDecimal("20").compareTo(asset.getQuantity()));
+                assertEquals(0, new BigDecimal("50").compareTo(asset.getAveragePrice()));
+
+                List<TaxLot> lots = taxLotRepository.findOpenLots(portfolioId, symbol);
+                assertEquals(1, lots.size());
+                assertEquals(0, new BigDecimal("20").compareTo(lots.get(0).getRemainingQuantity()));
+                assertEquals(0, new BigDecimal("50").compareTo(lots.get(0).getCostPerShare()));
+
+                // The ledger entry carries the added shares and no price
+                List<Transaction> splits = transactionRepository.findByPortfolioId(portfolioId).stream()
+                        .filter(t -> t.getTransactionType() == TransactionType.SPLIT)
+                        .toList();
+                assertEquals(1, splits.size());
+                assertEquals(0, new BigDecimal("10").compareTo(splits.get(0).getQuantity()));
+                assertNull(splits.get(0).getPricePerShare());
+
+                PositionEngine.Position position = positionEngine.replay(portfolioId, symbol);
+                assertEquals(0, new BigDecimal("20").compareTo(position.quantity()));
+                assertEquals(0, new BigDecimal("50").compareTo(position.averageCost()));
+            });
+
+            // Post-split shares are all sellable, at the post-split basis
+            portfolioService.sellAsset(portfolioId, userId, symbol, new BigDecimal("15"), new BigDecimal("60"), null, null);
+        } finally {
+            corporateActionRepository.findSplitsSince(List.of(symbol), exDate.minusDays(1))
+                    .forEach(corporateActionRepository::delete);
+            portfolioService.deletePortfolio(portfolioId, userId);
+            userRepository.deleteById(userId);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.portfolio.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FxMatrixTest {
+
+    private static final FxMatrix MATRIX = FxMatrix.fromUsdRates(
+            Map.of("USD", 1.0, "EUR", 1.08, "GBP", 1.25, "GBX", 0.0125, "JPY", 0.0067), LocalDateTime.now());
+
+    @Test
+    void crossRatesAreConsistentThroughEveryCurrency() {
+        for (String a : MATRIX.currencies()) {
+            for (String b : MATRIX.currencies()) {
+                assertEquals(1.0, MATRIX.rate(a, b) * MATRIX.rate(b, a), 1e-12);
+                for (String c : MATRIX.currencies()) {
+                    assertEquals(MATRIX.rate(a, c), MATRIX.rate(a, b) * MATRIX.rate(b, c),
+                            1e-12 * MATRIX.rate(a, c));
+                }
+            }
+        }
+        assertEquals(1.25 / 1.08, MATRIX.rate("GBP", "EUR"), 1e-12);
+    }
+
+    @Test
+    void penceConvertAtOneHundredthOfAPound() {
+        assertEquals(100.0, MATRIX.rate("GBP", "GBX"), 1e-9);
+        // 250 pence is 2.50 GBP
+        long units = 250_0000L;
+        assertEquals(2_5000L, MATRIX.convert(units, MATRIX.indexOf("GBX"), MATRIX.indexOf("GBP")));
+        assertEquals(0, new BigDecimal("3.125").compareTo(
+                MATRIX.convert(new BigDecimal("250"), "GBX", "USD")));
+    }
+
+    @Test
+    void unsupportedCurrenciesAreRejected() {
+        assertFalse(MATRIX.supports("XYZ"));
+        assertEquals(-1, MATRIX.indexOf("XYZ"));
+        assertThrows(IllegalArgumentException.class, () -> MATRIX.rate("USD", "XYZ"));
+        assertThrows(IllegalArgumentException.class,
+                () -> FxMatrix.fromUsdRates(Map.of("EUR", 1.08), LocalDateTime.now()));
+    }
+
+    @Test
+    void seriesAreRestatedWithTheLastKnownRate() {
+        DailySeries prices = new DailySeries("VOD", new int[]{10, 11, 12, 13}, new double[]{100, 102, 104, 106});
+        DailySeries rates = new DailySeries("GBX/USD", new int[]{9, 12}, new double[]{0.01, 0.02});
+
+        DailySeries restated = prices.times(rates);
+
+        assertEquals(1.0, restated.closes()[0], 1e-12);
+        assertEquals(1.02, restated.closes()[1], 1e-12);
+        assertEquals(2.08, restated.closes()[2], 1e-12);
+        assertEquals(2.12, restated.closes()[3], 1e-12);
+        assertEquals(0.01, rates.valueOn(11), 1e-12);
+        assertEquals(0.02, rates.valueOn(20), 1e-12);
+    }
+}
@@ -0,0 +1,88 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.entity.LotDisposal;
+import com.portfolio.tracker.entity.LotSelectionMethod;
+import com.portfolio.tracker.entity.Portfolio;
+import com.portfolio.tracker.entity.TaxLot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LotBookTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 10, 12, 0);
+
+    private LotBook book() {
+        Portfolio portfolio = new Portfolio();
+        TaxLot first = lot(1L, "10", "100", START);
+        TaxLot second = lot(2L, "10", "150", START.plusMonths(6));
+        TaxLot third = lot(3L, "10", "120", START.plusMonths(18));
+        return new LotBook(portfolio, "AAPL", List.of(third, first, second));
+    }
+
+    private static TaxLot lot(Long id, String quantity, String cost, LocalDateTime acquiredAt) {
+        TaxLot lot = new TaxLot(null, "AAPL", new BigDecimal(quantity), new BigDecimal(cost), acquiredAt);
+        lot.setId(id);
+        return lot;
+    }
+
+    @Test
+    void fifoConsumesOldestLotsFirst() {
+        LotBook book = book();
+        List<LotDisposal> disposals = book.sell(new BigDecimal("15"), new BigDecimal("200"), null,
+                START.plusMonths(20), LotSelectionMethod.FIFO, null);
+
+        assertEquals(2, disposals.size());
+        assertEquals(1L, disposals.get(0).getLot().getId());
+        assertEquals(new BigDecimal("1000.00"), disposals.get(0).getRealizedGain());
+        assertTrue(disposals.get(0).isLongTerm());
+        assertEquals(2L, disposals.get(1).getLot().getId());
+        assertEquals(new BigDecimal("250.00"), disposals.get(1).getRealizedGain());
+        assertTrue(disposals.get(1).isLongTerm());
+        assertEquals(0, new BigDecimal("15").compareTo(book.quantity()));
+    }
+
+    @Test
+    void lifoConsumesNewestLotsFirst() {
+        List<LotDisposal> disposals = book().sell(new BigDecimal("12"), new BigDecimal("200"), new BigDecimal("12"),
+                START.plusMonths(20), LotSelectionMethod.LIFO, null);
+
+        assertEquals(3L, disposals.get(0).getLot().getId());
+        assertEquals(false, disposals.get(0).isLongTerm());
+        // Fees are split by shares: 10 of 12 shares carry 10.00
+        assertEquals(new BigDecimal("1990.00"), disposals.get(0).getProceeds());
+        assertEquals(2L, disposals.get(1).getLot().getId());
+    }
+
+    @Test
+    void specificIdTakesOnlyTheNamedLots() {
+        LotBook book = book();
+        List<LotDisposal> disposals = book.sell(new BigDecimal("5"), new BigDecimal("90"), null,
+                START.plusMonths(20), null, List.of(2L));
+
+        assertEquals(1, disposals.size());
+        assertEquals(new BigDecimal("-300.00"), disposals.get(0).getRealizedGain());
+        assertThrows(IllegalArgumentException.class, () -> book.sell(new BigDecimal("6"), new BigDecimal("90"), null,
+                START.plusMonths(20), LotSelectionMethod.SPECIFIC_ID, List.of(2L)));
+        assertThrows(IllegalArgumentException.class, () -> book.sell(new BigDecimal("1"), new BigDecimal("90"), null,
+                START.plusMonths(20), LotSelectionMethod.SPECIFIC_ID, List.of(99L)));
+    }
+
+    @Test
+    void reconcileCoversSharesWithoutLots() {
+        LotBook book = book();
+        book.reconcile(new BigDecimal("35"), new BigDecimal("80"), START.minusYears(2));
+
+        List<LotDisposal> disposals = book.sell(new BigDecimal("5"), new BigDecimal("100"), null,
+                START.plusMonths(20), LotSelectionMethod.FIFO, null);
+        assertEquals(new BigDecimal("100.00"), disposals.get(0).getRealizedGain());
+        assertThrows(IllegalArgumentException.class, () -> book.sell(new BigDecimal("31"), new BigDecimal("100"), null,
+                START.plusMonths(20), LotSelectionMethod.FIFO, null));
+    }
+}
@@ -0,0 +1,81 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.event.PriceTickEvent;
+import com.portfolio.tracker.external.AlphaVantageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MarketPriceServiceTest {
+
+    private final AlphaVantageService alphaVantageService = mock(AlphaVantageService.class);
+    private MarketPriceService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentLookupsOfAnUnknownSymbolAgreeOnOneMockPrice() throws Exception {
+        when(alphaVantageService.isApiAvailable()).thenReturn(false);
+        service = new MarketPriceService(alphaVantageService, event -> { });
+
+        List<Future<BigDecimal>> lookups = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 64; i++) {
+                lookups.add(clients.submit(() -> service.getMarketPrice("zzunknown")));
+            }
+        }
+        // One base price was generated; every quote is that price within the ±2% fluctuation
+        double min = Double.MAX_VALUE;
+        double max = 0.0;
+        for (Future<BigDecimal> lookup : lookups) {
+            double price = lookup.get().doubleValue();
+            min = Math.min(min, price);
+            max = Math.max(max, price);
+        }
+        assertTrue(max / min <= 1.02 / 0.98 + 1e-3, "quotes ranged from " + min + " to " + max);
+    }
+
+    @Test
+    void failingListenerDoesNotFailTheQuote() throws Exception {
+        when(alphaVantageService.isApiAvailable()).thenReturn(false);
+        List<PriceTickEvent> published = new CopyOnWriteArrayList<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        service = new MarketPriceService(alphaVantageService, event -> {
+            published.add((PriceTickEvent) event);
+            delivered.countDown();
+            throw new IllegalStateException("listener failed");
+        });
+
+        assertNotNull(service.getMarketPrice("AAA"));
+        assertNotNull(service.getMarketPrice("BBB"));
+
+        // Both ticks reach the listeners off the calling thread, despite the first failing
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        Map<String, BigDecimal> bySymbol = new ConcurrentHashMap<>();
+        published.forEach(tick -> bySymbol.put(tick.getSymbol(), tick.getPrice()));
+        assertEquals(service.getLastKnownPrice("AAA"), bySymbol.get("AAA"));
+        assertEquals(service.getLastKnownPrice("BBB"), bySymbol.get("BBB"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.portfolio.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeanVarianceOptimizerTest {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    @Test
+    void equalReturnsGiveTheMinimumVarianceAllocation() {
+        MeanVarianceOptimizer.Frontier frontier = MeanVarianceOptimizer.optimize(new double[]{0.08, 0.08},
+                new double[][]{{0.04, 0.0}, {0.0, 0.01}}, 0.02, 1.0, 20, NO_DEADLINE);
+
+        // Inverse-variance weights: 0.01 / 0.05 and 0.04 / 0.05
+        assertEquals(1, frontier.points().size());
+        assertEquals(0.2, frontier.maxSharpe().weights()[0], 1e-6);
+        assertEquals(0.8, frontier.maxSharpe().weights()[1], 1e-6);
+    }
+
+    @Test
+    void maxSharpeMatchesTangencyPortfolioWhenUnconstrained() {
+        double[] expectedReturns = {0.08, 0.10, 0.12};
+        double[] variances = {0.04, 0.0625, 0.09};
+        double[][] covariance = new double[3][3];
+        double[] tangency = new double[3];
+        double sum = 0.0;
+        for (int i = 0; i < 3; i++) {
+            covariance[i][i] = variances[i];
+            tangency[i] = (expectedReturns[i] - 0.02) / variances[i];
+            sum += tangency[i];
+        }
+
+        MeanVarianceOptimizer.Frontier frontier = MeanVarianceOptimizer.optimize(expectedReturns, covariance, 0.02,
+                1.0, 20, NO_DEADLINE);
+
+        assertTrue(frontier.complete());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(tangency[i] / sum, frontier.maxSharpe().weights()[i], 1e-3);
+        }
+    }
+
+    @Test
+    void frontierIsFullyInvestedWithinTheCapAndRisesInReturn() {
+        double[] expectedReturns = {0.05, 0.07, 0.09, 0.15, 0.11};
+        double[][] covariance = {
+                {0.020, 0.004, 0.002, 0.001, 0.003},
+                {0.004, 0.030, 0.006, 0.002, 0.004},
+                {0.002, 0.006, 0.050, 0.010, 0.008},
+                {0.001, 0.002, 0.010, 0.120, 0.012},
+                {0.003, 0.004, 0.008, 0.012, 0.070}};
+
+        MeanVarianceOptimizer.Frontier frontier = MeanVarianceOptimizer.optimize(expectedReturns, covariance, 0.03,
+                0.3, 25, NO_DEADLINE);
+
+        double previousReturn = Double.NEGATIVE_INFINITY;
+        for (MeanVarianceOptimizer.Allocation point : frontier.points()) {
+            assertEquals(1.0, Arrays.stream(point.weights()).sum(), 1e-9);
+            assertTrue(Arrays.stream(point.weights()).allMatch(w -> w >= 0.0 && w <= 0.3 + 1e-9));
+            assertTrue(point.expectedReturn() > previousReturn);
+            previousReturn = point.expectedReturn();
+        }
+        // The most return the cap allows: 30% each in the three best assets, the last 10% in the next
+        assertEquals(0.3 * 0.15 + 0.3 * 0.11 + 0.3 * 0.09 + 0.1 * 0.07, previousReturn, 1e-4);
+        for (MeanVarianceOptimizer.Allocation point : frontier.points()) {
+            assertTrue(frontier.maxSharpe().sharpeRatio() >= point.sharpeRatio() - 1e-12);
+        }
+    }
+
+    @Test
+    void passedDeadlineStillReturnsTheMinimumVariancePoint() {
+        MeanVarianceOptimizer.Frontier frontier = MeanVarianceOptimizer.optimize(new double[]{0.05, 0.10},
+                new double[][]{{0.02, 0.0}, {0.0, 0.08}}, 0.0, 1.0, 20, System.nanoTime() - 1);
+
+        assertFalse(frontier.complete());
+        assertEquals(1, frontier.points().size());
+        assertEquals(0.8, frontier.points().get(0).weights()[0], 1e-6);
+    }
+}
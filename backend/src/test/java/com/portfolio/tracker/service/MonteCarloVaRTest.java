@@ -0,0 +1,60 @@
+package com.portfolio.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonteCarloVaRTest {
+
+    private static final int[] HORIZONS = {1, 10};
+    private static final double[] CONFIDENCES = {0.95, 0.99};
+    private static final int PATHS = 200_000;
+
+    @Test
+    void singlePositionMatchesLognormalQuantiles() {
+        double volatility = 0.01;
+        MonteCarloVaR.Result result = MonteCarloVaR.simulate(new double[]{1_000_000}, new double[]{0.0},
+                new double[][]{{volatility * volatility}}, HORIZONS, CONFIDENCES, PATHS, 7L, ForkJoinPool.commonPool());
+
+        // Loss at the 99% quantile of a lognormal: value * (1 - exp(-z * sigma * sqrt(h)))
+        double oneDay = 1_000_000 * -Math.expm1(-2.3263 * volatility);
+        double tenDay = 1_000_000 * -Math.expm1(-2.3263 * volatility * Math.sqrt(10));
+        assertEquals(oneDay, result.valueAtRisk()[0][1], oneDay * 0.02);
+        assertEquals(tenDay, result.valueAtRisk()[1][1], tenDay * 0.02);
+        assertTrue(result.expectedShortfall()[0][1] > result.valueAtRisk()[0][1]);
+        assertTrue(result.valueAtRisk()[0][1] > result.valueAtRisk()[0][0]);
+    }
+
+    @Test
+    void perfectlyHedgedPositionsCarryNoRisk() {
+        double variance = 0.0004;
+        MonteCarloVaR.Result result = MonteCarloVaR.simulate(new double[]{500_000, 500_000}, new double[]{0.0, 0.0},
+                new double[][]{{variance, -variance}, {-variance, variance}}, HORIZONS, CONFIDENCES, PATHS, 7L,
+                ForkJoinPool.commonPool());
+
+        // Returns cancel to first order; only the convexity of exp remains
+        assertTrue(result.valueAtRisk()[0][1] < 1_000_000 * variance);
+    }
+
+    @Test
+    void resultDoesNotDependOnPoolSize() {
+        double[][] covariance = {{0.0004, 0.0001}, {0.0001, 0.0009}};
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool wide = new ForkJoinPool(4);
+        try {
+            MonteCarloVaR.Result first = MonteCarloVaR.simulate(new double[]{1000, 2000}, new double[]{0.0, 0.0},
+                    covariance, HORIZONS, CONFIDENCES, 50_000, 11L, single);
+            MonteCarloVaR.Result second = MonteCarloVaR.simulate(new double[]{1000, 2000}, new double[]{0.0, 0.0},
+                    covariance, HORIZONS, CONFIDENCES, 50_000, 11L, wide);
+            assertArrayEquals(first.valueAtRisk()[1], second.valueAtRisk()[1]);
+            assertArrayEquals(first.expectedShortfall()[1], second.expectedShortfall()[1]);
+        } finally {
+            single.shutdown();
+            wide.shutdown();
+        }
+    }
+}
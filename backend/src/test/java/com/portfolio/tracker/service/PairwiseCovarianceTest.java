@@ -0,0 +1,98 @@
+package com.portfolio.tracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PairwiseCovarianceTest {
+
+    @Test
+    void blockedParallelResultMatchesNaiveComputation() {
+        int symbols = 40;
+        int days = 1200;
+        Random random = new Random(3);
+        double[][] returns = new double[symbols][days];
+        int[] starts = new int[symbols];
+        for (int i = 0; i < symbols; i++) {
+            starts[i] = random.nextInt(days / 2);
+            for (int t = starts[i]; t < days; t++) {
+                returns[i][t] = random.nextGaussian() * 0.01 + (i % 3) * 0.0005;
+            }
+        }
+
+        // Every pair including the diagonal; 820 pairs takes the fork-join path
+        int pairs = symbols * (symbols + 1) / 2;
+        int[] rows = new int[pairs];
+        int[] cols = new int[pairs];
+        int p = 0;
+        for (int i = 0; i < symbols; i++) {
+            for (int j = 0; j <= i; j++) {
+                rows[p] = i;
+                cols[p++] = j;
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PairwiseCovariance.Stats[] stats = PairwiseCovariance.compute(returns, starts, rows, cols, pool);
+            for (int k = 0; k < pairs; k++) {
+                double[] expected = naive(returns[rows[k]], returns[cols[k]], Math.max(starts[rows[k]], starts[cols[k]]));
+                assertEquals(expected[0], stats[k].covariance(), 1e-12);
+                assertEquals(rows[k] == cols[k] ? 1.0 : expected[1], stats[k].correlation(), 1e-9);
+                assertEquals(days - Math.max(starts[rows[k]], starts[cols[k]]), stats[k].observations());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void linearlyRelatedSeriesArePerfectlyCorrelated() {
+        Random random = new Random(5);
+        double[] x = new double[300];
+        double[] y = new double[300];
+        double[] flat = new double[300];
+        for (int t = 0; t < x.length; t++) {
+            x[t] = random.nextGaussian() * 0.02;
+            y[t] = -2 * x[t] + 0.001;
+        }
+        PairwiseCovariance.Stats[] stats = PairwiseCovariance.compute(new double[][]{x, y, flat},
+                new int[]{0, 0, 0}, new int[]{1, 2}, new int[]{0, 0}, ForkJoinPool.commonPool());
+
+        assertEquals(-1.0, stats[0].correlation(), 1e-12);
+        assertEquals(0.0, stats[1].correlation());
+    }
+
+    @Test
+    void pairsWithoutCommonHistoryHaveNoCorrelation() {
+        double[] early = {0.01, -0.02, 0.0, 0.0};
+        double[] late = {0.0, 0.0, 0.0, 0.03};
+        PairwiseCovariance.Stats[] stats = PairwiseCovariance.compute(new double[][]{early, late},
+                new int[]{0, 3}, new int[]{1}, new int[]{0}, ForkJoinPool.commonPool());
+
+        assertEquals(1, stats[0].observations());
+        assertTrue(Double.isNaN(stats[0].correlation()));
+    }
+
+    private static double[] naive(double[] x, double[] y, int start) {
+        int n = x.length - start;
+        double meanX = 0.0;
+        double meanY = 0.0;
+        for (int t = start; t < x.length; t++) {
+            meanX += x[t] / n;
+            meanY += y[t] / n;
+        }
+        double covariance = 0.0;
+        double varianceX = 0.0;
+        double varianceY = 0.0;
+        for (int t = start; t < x.length; t++) {
+            covariance += (x[t] - meanX) * (y[t] - meanY);
+            varianceX += (x[t] - meanX) * (x[t] - meanX);
+            varianceY += (y[t] - meanY) * (y[t] - meanY);
+        }
+        return new double[]{covariance / (n - 1), covariance / Math.sqrt(varianceX * varianceY)};
+    }
+}
@@ -0,0 +1,86 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetRequest;
+import com.portfolio.tracker.dto.ImportResultResponse;
+import com.portfolio.tracker.dto.PortfolioRequest;
+import com.portfolio.tracker.entity.Transaction;
+import com.portfolio.tracker.entity.TransactionType;
+import com.portfolio.tracker.entity.User;
+import com.portfolio.tracker.repository.TransactionRepository;
+import com.portfolio.tracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Imported history cannot land behind trades already in the ledger.
+ * Needs the PostgreSQL database the application is configured for.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "DB_HOST", matches = ".+")
+class PortfolioImportServiceTest {
+
+    @Autowired
+    private PortfolioImportService importService;
+
+    @Autowired
+    private PortfolioManagementService portfolioService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rowsDatedBeforeTheLedgerAreRejected() throws Exception {
+        String suffix = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        String symbol = "IM" + suffix;
+        User user = new User();
+        user.setUsername("import-" + suffix);
+        user.setEmail("import-" + suffix + "@example.com");
+        user.setPassword("not-a-real-password");
+        user = userRepository.save(user);
+        Long userId = user.getId();
+        Long portfolioId = portfolioService.createPortfolio(new PortfolioRequest("Import " + suffix, userId)).getId();
+        try {
+            portfolioService.addAsset(portfolioId, userId, new AssetRequest(symbol, new BigDecimal("10"), new BigDecimal("100")));
+            String csv = "ticker_symbol,transaction_type,quantity,price_per_share,transaction_date\n"
+                    + symbol + ",BUY,5,80,2020-01-02\n"
+                    + symbol + ",SELL,3,120,\n";
+
+            ImportResultResponse result = importService.importTransactions(portfolioId, userId,
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+            assertEquals(1, result.getRowsImported());
+            assertEquals(1, result.getErrors().size());
+            assertEquals(2, result.getErrors().get(0).getLine());
+
+            // Read-write so the check sees the primary
+            List<BigDecimal> realized = new TransactionTemplate(transactionManager).execute(status ->
+                    transactionRepository.findPositionLedgerAfter(portfolioId, symbol, 0L).stream()
+                            .filter(t -> t.getTransactionType() == TransactionType.SELL)
+                            .map(Transaction::getRealizedPnl)
+                            .toList());
+            assertEquals(1, realized.size());
+            assertEquals(0, new BigDecimal("60").compareTo(realized.get(0)));
+        } finally {
+            portfolioService.deletePortfolio(portfolioId, userId);
+            userRepository.deleteById(userId);
+        }
+    }
+}
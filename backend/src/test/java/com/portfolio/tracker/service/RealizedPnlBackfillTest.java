@@ -0,0 +1,84 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetRequest;
+import com.portfolio.tracker.dto.PortfolioRequest;
+import com.portfolio.tracker.entity.Transaction;
+import com.portfolio.tracker.entity.TransactionType;
+import com.portfolio.tracker.entity.User;
+import com.portfolio.tracker.repository.TransactionRepository;
+import com.portfolio.tracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sells recorded without realized P&L get the figure the ledger fold derives.
+ * Needs the PostgreSQL database the application is configured for.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "DB_HOST", matches = ".+")
+class RealizedPnlBackfillTest {
+
+    @Autowired
+    private RealizedPnlBackfill backfill;
+
+    @Autowired
+    private PortfolioManagementService portfolioService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void legacySellsAreBackfilledFromTheLedger() {
+        String suffix = UUID.randomUUID().toString().substring(0, 6).toUpperCase();
+        String symbol = "RP" + suffix;
+        User user = new User();
+        user.setUsername("backfill-" + suffix);
+        user.setEmail("backfill-" + suffix + "@example.com");
+        user.setPassword("not-a-real-password");
+        user = userRepository.save(user);
+        Long userId = user.getId();
+        Long portfolioId = portfolioService.createPortfolio(new PortfolioRequest("Backfill " + suffix, userId)).getId();
+        try {
+            portfolioService.addAsset(portfolioId, userId, new AssetRequest(symbol, new BigDecimal("10"), new BigDecimal("100")));
+            portfolioService.sellAsset(portfolioId, userId, symbol, new BigDecimal("4"), new BigDecimal("150"), null, null);
+            portfolioService.sellAsset(portfolioId, userId, symbol, new BigDecimal("2"), new BigDecimal("90"), null, null);
+
+            // As written before realized P&L was stored
+            jdbcTemplate.update("UPDATE transactions SET realized_pnl = NULL WHERE portfolio_id = ?", portfolioId);
+            backfill.backfill();
+
+            // Read-write so the check sees the primary
+            List<BigDecimal> realized = new TransactionTemplate(transactionManager).execute(status ->
+                    transactionRepository.findPositionLedgerAfter(portfolioId, symbol, 0L).stream()
+                            .filter(t -> t.getTransactionType() == TransactionType.SELL)
+                            .map(Transaction::getRealizedPnl)
+                            .toList());
+            assertEquals(2, realized.size());
+            assertEquals(0, new BigDecimal("200").compareTo(realized.get(0)));
+            assertEquals(0, new BigDecimal("-20").compareTo(realized.get(1)));
+        } finally {
+            portfolioService.deletePortfolio(portfolioId, userId);
+            userRepository.deleteById(userId);
+        }
+    }
+}
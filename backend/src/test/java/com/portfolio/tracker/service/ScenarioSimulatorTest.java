@@ -0,0 +1,72 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.util.FixedPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScenarioSimulatorTest {
+
+    // AAPL and MSFT held in Technology, JNJ not held
+    private static ScenarioSimulator.Book book() {
+        return new ScenarioSimulator.Book(
+                new String[]{"AAPL", "MSFT", "JNJ"},
+                new int[]{0, 0, 1},
+                new String[]{"Technology", "Healthcare"},
+                new long[]{FixedPoint.units(100), FixedPoint.units(200), FixedPoint.units(50)},
+                new long[]{FixedPoint.units(10), FixedPoint.units(5), FixedPoint.ZERO});
+    }
+
+    private static ScenarioSimulator.Trade trade(int holding, long quantity) {
+        return new ScenarioSimulator.Trade(holding, FixedPoint.units(quantity), FixedPoint.ZERO);
+    }
+
+    @Test
+    void sellAndBuyRevaluesAtBookPrices() {
+        ScenarioSimulator.Outcome outcome = ScenarioSimulator.evaluate(book(), new ScenarioSimulator.Scenario(
+                "rotate", new ScenarioSimulator.Trade[]{trade(0, -10), trade(2, 20)}, null));
+
+        assertNull(outcome.error());
+        assertEquals(FixedPoint.units(2000), outcome.marketValue());
+        assertEquals(FixedPoint.ZERO, outcome.cash());
+        assertEquals(2, outcome.positions());
+        assertEquals(FixedPoint.units(50), outcome.sectorAllocation().get("Technology"));
+        assertEquals(FixedPoint.units(50), outcome.sectorAllocation().get("Healthcare"));
+    }
+
+    @Test
+    void overSellingFailsOnlyThatScenario() {
+        List<ScenarioSimulator.Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new ScenarioSimulator.Scenario("too many", new ScenarioSimulator.Trade[]{trade(1, -6)}, null));
+        scenarios.add(new ScenarioSimulator.Scenario("fine", new ScenarioSimulator.Trade[]{trade(1, -5)}, null));
+
+        List<ScenarioSimulator.Outcome> outcomes = ScenarioSimulator.evaluateAll(book(), scenarios, ForkJoinPool.commonPool());
+
+        assertNotNull(outcomes.get(0).error());
+        assertNull(outcomes.get(1).error());
+        assertEquals(FixedPoint.units(1000), outcomes.get(1).cash());
+        assertEquals(1, outcomes.get(1).positions());
+    }
+
+    @Test
+    void rebalanceScalesSectorsToTargets() {
+        long[] targets = {FixedPoint.units(60), FixedPoint.units(40)};
+        ScenarioSimulator.Outcome outcome = ScenarioSimulator.evaluate(book(), new ScenarioSimulator.Scenario(
+                "60/40", new ScenarioSimulator.Trade[]{trade(2, 10)}, targets));
+
+        assertNull(outcome.error());
+        assertEquals(FixedPoint.units(60), outcome.sectorAllocation().get("Technology"));
+        assertEquals(FixedPoint.units(40), outcome.sectorAllocation().get("Healthcare"));
+        // Value is conserved; only the 500 spent on the buy is missing from cash
+        assertEquals(FixedPoint.units(2500), outcome.marketValue());
+        assertEquals(FixedPoint.units(-500), outcome.cash());
+        assertTrue(outcome.diversificationScore() > FixedPoint.ZERO);
+    }
+}
@@ -0,0 +1,79 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.StockSectorRow;
+import com.portfolio.tracker.event.StocksChangedEvent;
+import com.portfolio.tracker.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cold lookups, merges and reloads of the sector snapshot, counting the
+ * queries each one sends to a mocked stock repository
+ */
+class SectorIndexTest {
+
+    private final StockRepository stockRepository = mock(StockRepository.class);
+    private final SectorIndex sectorIndex = new SectorIndex(stockRepository);
+
+    @Test
+    void coldSymbolsCostOneQueryAndUnknownSymbolsStayOutOfTheSnapshot() {
+        when(stockRepository.findSectorRowsBySymbolIn(any())).thenReturn(List.of(
+                new StockSectorRow("TECH", "Technology", "Software"),
+                new StockSectorRow("BANK", "Financials", null)));
+
+        Map<String, SectorIndex.Classification> cold = sectorIndex.lookup(List.of("TECH", "BANK", "NONE"));
+        verify(stockRepository, times(1)).findSectorRowsBySymbolIn(any());
+        assertEquals("Technology", cold.get("TECH").sector());
+        assertEquals("Financials", cold.get("BANK").sector());
+        assertNull(cold.get("NONE").sector());
+
+        clearInvocations(stockRepository);
+        Map<String, SectorIndex.Classification> warm = sectorIndex.lookup(List.of("TECH", "BANK", "NONE"));
+        verify(stockRepository, never()).findSectorRowsBySymbolIn(any());
+        assertEquals(cold, warm);
+        assertEquals(Map.of("TECH", "Technology", "BANK", "Financials"),
+                sectorIndex.sectorsOf(List.of("TECH", "BANK", "NONE")));
+
+        // A reload rebuilds the snapshot from the table, which still has no row for the unknown symbol
+        when(stockRepository.findAllSectorRows()).thenReturn(List.of(new StockSectorRow("TECH", "Technology", "Software")));
+        when(stockRepository.findSectorRowsBySymbolIn(any())).thenReturn(List.of());
+        sectorIndex.reload();
+        clearInvocations(stockRepository);
+        assertEquals("Technology", sectorIndex.lookup(List.of("TECH")).get("TECH").sector());
+        verify(stockRepository, never()).findSectorRowsBySymbolIn(any());
+        assertNull(sectorIndex.lookup(List.of("NONE")).get("NONE").sector());
+        verify(stockRepository, times(1)).findSectorRowsBySymbolIn(any());
+    }
+
+    @Test
+    void changedStocksAreMergedWithoutAQuery() {
+        when(stockRepository.findSectorRowsBySymbolIn(any())).thenReturn(List.of());
+
+        // Unknown at first, then created and reclassified through events
+        assertNull(sectorIndex.lookup(List.of("NEW")).get("NEW").sector());
+        sectorIndex.onStocksChanged(new StocksChangedEvent(List.of(new StockSectorRow("NEW", "Energy", "Oil"))));
+
+        clearInvocations(stockRepository);
+        SectorIndex.Classification created = sectorIndex.lookup(List.of("NEW")).get("NEW");
+        assertEquals("Energy", created.sector());
+        assertEquals("Oil", created.industry());
+
+        sectorIndex.onStocksChanged(new StocksChangedEvent(List.of(new StockSectorRow("NEW", "Utilities", " "))));
+        SectorIndex.Classification reclassified = sectorIndex.lookup(List.of("NEW")).get("NEW");
+        assertEquals("Utilities", reclassified.sector());
+        assertNull(reclassified.industry());
+        verify(stockRepository, never()).findSectorRowsBySymbolIn(any());
+    }
+}
@@ -0,0 +1,67 @@
+package com.portfolio.tracker.service;
+
+import com.portfolio.tracker.dto.AssetRow;
+import com.portfolio.tracker.dto.PortfolioRow;
+import com.portfolio.tracker.dto.SimulationRequest;
+import com.portfolio.tracker.dto.SimulationResponse;
+import com.portfolio.tracker.repository.AssetRepository;
+import com.portfolio.tracker.repository.PortfolioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SimulationServiceTest {
+
+    private final PortfolioRepository portfolioRepository = mock(PortfolioRepository.class);
+    private final AssetRepository assetRepository = mock(AssetRepository.class);
+    private final SectorIndex sectorIndex = mock(SectorIndex.class);
+    private final MarketPriceService marketPriceService = mock(MarketPriceService.class);
+    private final FxRateService fxRateService = mock(FxRateService.class);
+    private final SimulationService service = new SimulationService(portfolioRepository, assetRepository,
+            sectorIndex, marketPriceService, fxRateService, mock(PlatformTransactionManager.class), 1, 10);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void holdingsInOtherCurrenciesAreValuedInTheBaseCurrency() {
+        LocalDateTime now = LocalDateTime.now();
+        when(portfolioRepository.findRowByIdAndUserId(1L, 2L))
+                .thenReturn(Optional.of(new PortfolioRow(1L, "Main", 2L, "USD", now)));
+        when(assetRepository.findRowsByPortfolioId(1L)).thenReturn(List.of(
+                new AssetRow(1L, 1L, "AAPL", new BigDecimal("10"), new BigDecimal("100"), "USD", now, now),
+                new AssetRow(2L, 1L, "VOD.L", new BigDecimal("1000"), new BigDecimal("90"), "GBX", now, now)));
+        when(sectorIndex.sectorsOf(any())).thenReturn(Map.of("AAPL", "Technology", "VOD.L", "Communication"));
+        when(marketPriceService.getLastKnownPrice("AAPL")).thenReturn(new BigDecimal("100"));
+        when(marketPriceService.getLastKnownPrice("VOD.L")).thenReturn(new BigDecimal("100"));
+        when(fxRateService.getMatrix()).thenReturn(FxMatrix.fromUsdRates(
+                Map.of("USD", 1.0, "GBP", 1.25, "GBX", 0.0125), now));
+
+        // Buying 100 more at 200p costs 200 GBP, 250 USD
+        SimulationRequest.Trade buy = new SimulationRequest.Trade(SimulationRequest.Side.BUY, "VOD.L",
+                new BigDecimal("100"), new BigDecimal("200"));
+        SimulationResponse response = service.simulate(1L, 2L, new SimulationRequest(List.of(
+                new SimulationRequest.Scenario("Add VOD", List.of(buy), null))));
+
+        assertEquals("USD", response.getCurrency());
+        // 10 x 100 USD plus 1000 x 100p at 1.25 USD per pound
+        assertEquals(0, new BigDecimal("2250").compareTo(response.getCurrent().getMarketValue()));
+        assertEquals(0, new BigDecimal("44.44").compareTo(response.getCurrent().getSectorAllocation().get("Technology")));
+        SimulationResponse.ScenarioResult scenario = response.getScenarios().get(0);
+        assertEquals(0, new BigDecimal("-250").compareTo(scenario.getCashBalance()));
+        assertEquals(0, new BigDecimal("2375").compareTo(scenario.getMarketValue()));
+    }
+}
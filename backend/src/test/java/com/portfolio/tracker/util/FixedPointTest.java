@@ -0,0 +1,69 @@
+package com.portfolio.tracker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FixedPointTest {
+
+    @Test
+    void multiplyMatchesBigDecimalAcrossTheRange() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 100_000; i++) {
+            // Up to 10^7 shares times prices up to 10^6, both signs, forcing the 128-bit path
+            long a = random.nextLong(-1_000_000_000_000_000L, 1_000_000_000_000_000L);
+            long b = random.nextLong(-100_000_000_000_000L, 100_000_000_000_000L);
+            BigDecimal expected = FixedPoint.toBigDecimal(a).multiply(FixedPoint.toBigDecimal(b))
+                    .setScale(FixedPoint.SCALE, RoundingMode.HALF_UP);
+            if (expected.unscaledValue().bitLength() >= 64) {
+                assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(a, b));
+            } else {
+                assertEquals(expected, FixedPoint.toBigDecimal(FixedPoint.multiply(a, b)), a + " * " + b);
+            }
+        }
+    }
+
+    @Test
+    void divideMatchesBigDecimalAcrossTheRange() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < 100_000; i++) {
+            long a = random.nextLong(-Long.MAX_VALUE, Long.MAX_VALUE) >> random.nextInt(60);
+            long b = Math.max(1, random.nextLong(1, Long.MAX_VALUE) >> random.nextInt(62));
+            long divisor = random.nextBoolean() ? b : -b;
+            BigDecimal expected = FixedPoint.toBigDecimal(a)
+                    .divide(FixedPoint.toBigDecimal(divisor), FixedPoint.SCALE, RoundingMode.HALF_UP);
+            if (expected.unscaledValue().bitLength() >= 64) {
+                assertThrows(ArithmeticException.class, () -> FixedPoint.divide(a, divisor));
+            } else {
+                assertEquals(expected, FixedPoint.toBigDecimal(FixedPoint.divide(a, divisor)), a + " / " + divisor);
+            }
+        }
+    }
+
+    @Test
+    void roundsHalfUpAwayFromZero() {
+        assertEquals(1, FixedPoint.multiply(5, 10_000_000));
+        assertEquals(-1, FixedPoint.multiply(-5, 10_000_000));
+        assertEquals(0, FixedPoint.multiply(4, 10_000_000));
+        assertEquals(FixedPoint.of(new BigDecimal("0.6667")), FixedPoint.round(FixedPoint.divide(2 * FixedPoint.ONE, 3 * FixedPoint.ONE), 4));
+    }
+
+    @Test
+    void percentageMatchesResponseRounding() {
+        long gainLoss = FixedPoint.of(new BigDecimal("123.45"));
+        long cost = FixedPoint.of(new BigDecimal("1000.00"));
+        assertEquals(new BigDecimal("12.3500"), FixedPoint.toBigDecimal(FixedPoint.percentage(gainLoss, cost), 4));
+    }
+
+    @Test
+    void overflowIsReportedInsteadOfWrapping() {
+        assertThrows(ArithmeticException.class, () -> FixedPoint.add(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.multiply(Long.MAX_VALUE, 2 * FixedPoint.ONE));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.of(new BigDecimal("1e12")));
+    }
+}
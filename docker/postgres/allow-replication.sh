@@ -0,0 +1,4 @@
+#!/bin/bash
+# Let the local read replica stream WAL from this instance (runs once, on a fresh data volume)
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -1,11 +1,13 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '../contexts/AuthContext';
-import { Portfolio, Transaction } from '../types';
+import { Portfolio, RealizedPnLSummary, Transaction } from '../types';
 import apiService from '../services/apiService';
 import PortfolioDetailView from './portfolio/PortfolioDetailView';
 import AIInsightsCard from './ai/AIInsightsCard';
 import Loader, { ButtonLoader } from './Loader';
 
+const SALES_PAGE_SIZE = 10;
+
 const MenuIcon = () => (
   <svg className="w-6 h-6" fill="none" stroke="currentColor" viewBox="0 0 24 24">
     <path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M4 6h16M4 12h16M4 18h16" />
@@ -183,6 +185,10 @@ const Dashboard: React.FC = () => {
     quantity: string;
   }>({ show: false, portfolioId: 0, portfolioName: '', asset: null, quantity: '' });
   const [sellTransactions, setSellTransactions] = useState<Transaction[]>([]);
+  // Sales are fetched a page at a time, newest first; the totals come from the server
+  const [sellCursor, setSellCursor] = useState<string | null>(null);
+  const [loadingMoreSales, setLoadingMoreSales] = useState(false);
+  const [realizedSummary, setRealizedSummary] = useState<RealizedPnLSummary[]>([]);
   const [selectedPortfolio, setSelectedPortfolio] = useState<Portfolio | null>(null);
   const [deleteConfirmModal, setDeleteConfirmModal] = useState<{
     show: boolean;
@@ -201,14 +207,13 @@ const Dashboard: React.FC = () => {
   const [selectedAIPortfolioId, setSelectedAIPortfolioId] = useState<number | null>(null);
 
   const calculateRealizedPnL = React.useMemo(() => {
-    const realizedByPortfolio: { [portfolioId: number]: { totalRealized: number; transactions: Transaction[] } } = {};
+    const realizedByPortfolio: { [portfolioId: number]: { totalRealized: number; sales: number; transactions: Transaction[] } } = {};
     
+    realizedSummary.forEach(summary => {
+      realizedByPortfolio[summary.portfolioId] = { totalRealized: summary.realizedPnL, sales: summary.sales, transactions: [] };
+    });
     sellTransactions.forEach(transaction => {
-      if (!realizedByPortfolio[transaction.portfolioId]) {
-        realizedByPortfolio[transaction.portfolioId] = { totalRealized: 0, transactions: [] };
-      }
-      realizedByPortfolio[transaction.portfolioId].totalRealized += transaction.realizedPnL || 0;
-      realizedByPortfolio[transaction.portfolioId].transactions.push(transaction);
+      realizedByPortfolio[transaction.portfolioId]?.transactions.push(transaction);
     });
     
     Object.keys(realizedByPortfolio).forEach(portfolioId => {
@@ -218,7 +223,7 @@ const Dashboard: React.FC = () => {
     });
     
     return realizedByPortfolio;
-  }, [sellTransactions]);
+  }, [sellTransactions, realizedSummary]);
 
   const summaryData = React.useMemo(() => {
     if (!portfolios.length) {
@@ -285,8 +290,13 @@ const Dashboard: React.FC = () => {
       if (!user?.id) return;
       
       try {
-        const transactions = await apiService.getUserSellTransactions(user.id);
-        setSellTransactions(transactions);
+        const [page, summary] = await Promise.all([
+          apiService.getUserSellTransactionsPage(user.id, undefined, SALES_PAGE_SIZE),
+          apiService.getRealizedPnLSummary(user.id)
+        ]);
+        setSellTransactions(page.items);
+        setSellCursor(page.nextCursor);
+        setRealizedSummary(summary);
       } catch (error) {
         // Silently fail - transactions are supplementary data
       }
@@ -306,6 +316,21 @@ const Dashboard: React.FC = () => {
     }
   }, [portfolios, selectedAIPortfolioId]);
 
+  const loadMoreSales = async () => {
+    if (!user?.id || !sellCursor || loadingMoreSales) return;
+
+    setLoadingMoreSales(true);
+    try {
+      const page = await apiService.getUserSellTransactionsPage(user.id, sellCursor, SALES_PAGE_SIZE);
+      setSellTransactions(previous => [...previous, ...page.items]);
+      setSellCursor(page.nextCursor);
+    } catch (error) {
+      showErrorModal('Error', 'Failed to load more sales. Please try again.');
+    } finally {
+      setLoadingMoreSales(false);
+    }
+  };
+
   const handleLogout = async () => {
     await logout();
   };
@@ -567,13 +592,15 @@ const Dashboard: React.FC = () => {
         );
       }
 
-      const [updatedPortfolios, updatedTransactions] = await Promise.all([
+      // The new sale is the newest row, so the pages already loaded stay valid behind it
+      const [updatedPortfolios, updatedSummary] = await Promise.all([
         apiService.getUserPortfolios(user.id),
-        apiService.getUserSellTransactions(user.id)
+        apiService.getRealizedPnLSummary(user.id)
       ]);
       
       setPortfolios(updatedPortfolios);
-      setSellTransactions(updatedTransactions);
+      setSellTransactions(previous => [transaction, ...previous]);
+      setRealizedSummary(updatedSummary);
       setSellAssetModal({ show: false, portfolioId: 0, portfolioName: '', asset: null, quantity: '' });
     } catch (error) {
       showErrorModal('Sale Failed', 'Failed to sell asset. Please check your connection and try again.');
@@ -1111,17 +1138,17 @@ const Dashboard: React.FC = () => {
                                   </button>
                                 </div>
                               )}
-                              {calculateRealizedPnL[portfolio.id] && calculateRealizedPnL[portfolio.id].transactions.length > 0 && (
+                              {calculateRealizedPnL[portfolio.id] && calculateRealizedPnL[portfolio.id].sales > 0 && (
                                 <div className="border-t pt-3">
                                   <div className="flex items-center justify-between mb-2">
                                     <h5 className="text-xs font-medium text-gray-500 uppercase tracking-wider">Recent Sales</h5>
                                     <span className="text-xs text-gray-400">
-                                      {calculateRealizedPnL[portfolio.id].transactions.length} transaction{calculateRealizedPnL[portfolio.id].transactions.length !== 1 ? 's' : ''}
+                                      {calculateRealizedPnL[portfolio.id].sales} transaction{calculateRealizedPnL[portfolio.id].sales !== 1 ? 's' : ''}
                                     </span>
                                   </div>
                                   <div className="space-y-2">
-                                    {calculateRealizedPnL[portfolio.id].transactions.slice(0, 3).map((transaction: Transaction, index: number) => (
-                                      <div key={index} className="flex items-center justify-between py-1 px-2 bg-gray-50 rounded text-xs">
+                                    {calculateRealizedPnL[portfolio.id].transactions.map((transaction: Transaction) => (
+                                      <div key={transaction.id} className="flex items-center justify-between py-1 px-2 bg-gray-50 rounded text-xs">
                                         <div className="flex-1">
                                           <span className="text-gray-900 font-medium">{transaction.tickerSymbol}</span>
                                           <span className="text-gray-500 ml-2">{transaction.quantity} shares</span>
@@ -1134,10 +1161,14 @@ const Dashboard: React.FC = () => {
                                         </div>
                                       </div>
                                     ))}
-                                    {calculateRealizedPnL[portfolio.id].transactions.length > 3 && (
-                                      <div className="text-center text-xs text-gray-400 italic py-1">
-                                        + {calculateRealizedPnL[portfolio.id].transactions.length - 3} more
-                                      </div>
+                                    {calculateRealizedPnL[portfolio.id].transactions.length < calculateRealizedPnL[portfolio.id].sales && sellCursor && (
+                                      <button
+                                        onClick={loadMoreSales}
+                                        disabled={loadingMoreSales}
+                                        className="w-full text-center text-xs text-blue-600 hover:text-blue-800 py-1 disabled:text-gray-400"
+                                      >
+                                        {loadingMoreSales ? 'Loading...' : `Load more (${calculateRealizedPnL[portfolio.id].sales - calculateRealizedPnL[portfolio.id].transactions.length} older)`}
+                                      </button>
                                     )}
                                   </div>
                                 </div>
@@ -11,7 +11,14 @@ import {
     DiversificationInsight,
     MarketStatus,
     Transaction,
+    TransactionPage,
+    ImportResult,
+    AssetBatchOperation,
+    AssetBatchResult,
     SellAssetRequest,
+    TaxLot,
+    RealizedGains,
+    RealizedPnLSummary,
     StockHistoricalData,
 } from '../types';
 
@@ -177,12 +184,14 @@ class ApiService {
     async addAssetToPortfolio(
         portfolioId: number,
         userId: number,
-        assetData: AssetRequest
+        assetData: AssetRequest,
+        idempotencyKey?: string
     ): Promise<Asset> {
         try {
             const response: AxiosResponse<Asset> = await this.api.post(
                 `/portfolios/${portfolioId}/user/${userId}/assets`,
-                assetData
+                assetData,
+                this.idempotencyConfig(idempotencyKey)
             );
             return response.data;
         } catch (error) {
@@ -285,10 +294,26 @@ class ApiService {
         }
     }
 
-    async getUserTransactions(userId: number): Promise<Transaction[]> {
+    async importTransactions(portfolioId: number, userId: number, file: File): Promise<ImportResult> {
+        try {
+            const form = new FormData();
+            form.append('file', file);
+            const response: AxiosResponse<ImportResult> = await this.api.post(
+                `/portfolios/${portfolioId}/user/${userId}/import`,
+                form,
+                { headers: { 'Content-Type': 'multipart/form-data' }, timeout: 120000 }
+            );
+            return response.data;
+        } catch (error) {
+            throw this.handleError(error);
+        }
+    }
+
+    async getUserTransactionsPage(userId: number, cursor?: string, limit?: number): Promise<TransactionPage> {
         try {
-            const response: AxiosResponse<Transaction[]> = await this.api.get(
-                `/portfolios/user/${userId}/transactions`
+            const response: AxiosResponse<TransactionPage> = await this.api.get(
+                `/portfolios/user/${userId}/transactions`,
+                { params: { cursor, limit } }
             );
             return response.data;
         } catch (error) {
@@ -296,10 +321,11 @@ class ApiService {
         }
     }
 
-    async getUserSellTransactions(userId: number): Promise<Transaction[]> {
+    async getUserSellTransactionsPage(userId: number, cursor?: string, limit?: number): Promise<TransactionPage> {
         try {
-            const response: AxiosResponse<Transaction[]> = await this.api.get(
-                `/portfolios/user/${userId}/transactions/sells`
+            const response: AxiosResponse<TransactionPage> = await this.api.get(
+                `/portfolios/user/${userId}/transactions/sells`,
+                { params: { cursor, limit } }
             );
             return response.data;
         } catch (error) {
@@ -307,10 +333,22 @@ class ApiService {
         }
     }
 
-    async getPortfolioTransactions(portfolioId: number): Promise<Transaction[]> {
+    async getPortfolioTransactionsPage(portfolioId: number, cursor?: string, limit?: number): Promise<TransactionPage> {
         try {
-            const response: AxiosResponse<Transaction[]> = await this.api.get(
-                `/portfolios/${portfolioId}/transactions`
+            const response: AxiosResponse<TransactionPage> = await this.api.get(
+                `/portfolios/${portfolioId}/transactions`,
+                { params: { cursor, limit } }
+            );
+            return response.data;
+        } catch (error) {
+            throw this.handleError(error);
+        }
+    }
+
+    async getRealizedPnLSummary(userId: number): Promise<RealizedPnLSummary[]> {
+        try {
+            const response: AxiosResponse<RealizedPnLSummary[]> = await this.api.get(
+                `/portfolios/user/${userId}/transactions/sells/summary`
             );
             return response.data;
         } catch (error) {
@@ -322,12 +360,57 @@ class ApiService {
         portfolioId: number,
         userId: number,
         tickerSymbol: string,
-        sellRequest: SellAssetRequest
+        sellRequest: SellAssetRequest,
+        idempotencyKey?: string
     ): Promise<Transaction> {
         try {
             const response: AxiosResponse<Transaction> = await this.api.post(
                 `/portfolios/${portfolioId}/user/${userId}/assets/${tickerSymbol}/sell`,
-                sellRequest
+                sellRequest,
+                this.idempotencyConfig(idempotencyKey)
+            );
+            return response.data;
+        } catch (error) {
+            throw this.handleError(error);
+        }
+    }
+
+    async applyAssetBatch(
+        portfolioId: number,
+        userId: number,
+        operations: AssetBatchOperation[],
+        idempotencyKey?: string
+    ): Promise<AssetBatchResult> {
+        try {
+            const response: AxiosResponse<AssetBatchResult> = await this.api.post(
+                `/portfolios/${portfolioId}/user/${userId}/assets:batch`,
+                { operations },
+                this.idempotencyConfig(idempotencyKey)
+            );
+            return response.data;
+        } catch (error) {
+            throw this.handleError(error);
+        }
+    }
+
+    // Retries that reuse the same key replay the first response instead of repeating the trade
+    private idempotencyConfig(idempotencyKey?: string) {
+        return idempotencyKey ? { headers: { 'Idempotency-Key': idempotencyKey } } : undefined;
+    }
+
+    async getOpenLots(portfolioId: number): Promise<TaxLot[]> {
+        try {
+            const response: AxiosResponse<TaxLot[]> = await this.api.get(`/portfolios/${portfolioId}/lots`);
+            return response.data;
+        } catch (error) {
+            throw this.handleError(error);
+        }
+    }
+
+    async getRealizedGains(userId: number): Promise<RealizedGains[]> {
+        try {
+            const response: AxiosResponse<RealizedGains[]> = await this.api.get(
+                `/portfolios/user/${userId}/realized-gains`
             );
             return response.data;
         } catch (error) {
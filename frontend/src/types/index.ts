@@ -116,9 +116,67 @@ export interface Transaction {
     realizedPnL?: number;
 }
 
+export interface TransactionPage {
+    items: Transaction[];
+    nextCursor: string | null;
+}
+
+export interface ImportResult {
+    rowsRead: number;
+    rowsImported: number;
+    errors: { line: number; message: string }[];
+    errorsTruncated: boolean;
+}
+
+export interface AssetBatchOperation {
+    type: 'ADD' | 'UPDATE' | 'SELL' | 'REMOVE';
+    tickerSymbol: string;
+    quantity?: number;
+    averagePrice?: number;
+    price?: number;
+    lotMethod?: LotSelectionMethod;
+    lotIds?: number[];
+}
+
+export interface AssetBatchResult {
+    assets: Asset[];
+    transactions: Transaction[];
+    removedSymbols: string[];
+}
+
+export type LotSelectionMethod = 'FIFO' | 'LIFO' | 'SPECIFIC_ID';
+
 export interface SellAssetRequest {
     quantity: number;
     currentMarketPrice: number;
+    lotMethod?: LotSelectionMethod;
+    lotIds?: number[];
+}
+
+export interface TaxLot {
+    id: number;
+    tickerSymbol: string;
+    originalQuantity: number;
+    remainingQuantity: number;
+    costPerShare: number;
+    acquiredAt: string;
+}
+
+export interface RealizedGains {
+    year: number;
+    proceeds: number;
+    costBasis: number;
+    shortTermGain: number;
+    longTermGain: number;
+    totalGain: number;
+    disposals: number;
+}
+
+// Realized P&L over every sale in a portfolio; the sales themselves are paged
+export interface RealizedPnLSummary {
+    portfolioId: number;
+    realizedPnL: number;
+    sales: number;
 }
 
 // Historical Data Types